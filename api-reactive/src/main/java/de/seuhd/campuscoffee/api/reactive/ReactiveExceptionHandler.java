@@ -0,0 +1,81 @@
+package de.seuhd.campuscoffee.api.reactive;
+
+import de.seuhd.campuscoffee.api.exceptions.ErrorResponse;
+import de.seuhd.campuscoffee.domain.exceptions.DuplicatePosNameException;
+import de.seuhd.campuscoffee.domain.exceptions.PosNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.time.LocalDateTime;
+
+/**
+ * Exception handler for the reactive controllers, with the same status codes and {@link ErrorResponse}s as the
+ * {@code GlobalExceptionHandler} of the servlet API.
+ */
+@Slf4j
+@ControllerAdvice
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(PosNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleNotFoundException(
+            RuntimeException exception,
+            ServerWebExchange exchange
+    ) {
+        log.warn("Resource not found: {}", exception.getMessage());
+        return buildErrorResponse(exception, HttpStatus.NOT_FOUND, exchange, exception.getMessage());
+    }
+
+    @ExceptionHandler(DuplicatePosNameException.class)
+    public ResponseEntity<ErrorResponse> handleDuplicateException(
+            RuntimeException exception,
+            ServerWebExchange exchange
+    ) {
+        log.warn("Duplicate resource: {}", exception.getMessage());
+        return buildErrorResponse(exception, HttpStatus.CONFLICT, exchange, exception.getMessage());
+    }
+
+    @ExceptionHandler({
+            IllegalArgumentException.class,
+            ServerWebInputException.class
+    })
+    public ResponseEntity<ErrorResponse> handleBadRequestException(
+            Exception exception,
+            ServerWebExchange exchange
+    ) {
+        log.warn("Bad request: {}", exception.getMessage());
+        return buildErrorResponse(exception, HttpStatus.BAD_REQUEST, exchange, exception.getMessage());
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGenericException(
+            Exception exception,
+            ServerWebExchange exchange
+    ) {
+        log.error("Unexpected error occurred", exception);
+        return buildErrorResponse(exception, HttpStatus.INTERNAL_SERVER_ERROR, exchange,
+                "An unexpected error occurred.");
+    }
+
+    private ResponseEntity<ErrorResponse> buildErrorResponse(
+            Exception exception,
+            HttpStatus status,
+            ServerWebExchange exchange,
+            String message
+    ) {
+        ErrorResponse error = ErrorResponse.builder()
+                .errorCode(exception.getClass().getSimpleName())
+                .message(message)
+                .statusCode(status.value())
+                .statusMessage(status.getReasonPhrase())
+                .timestamp(LocalDateTime.now())
+                .path(exchange.getRequest().getPath().value())
+                .build();
+
+        return ResponseEntity.status(status).body(error);
+    }
+}
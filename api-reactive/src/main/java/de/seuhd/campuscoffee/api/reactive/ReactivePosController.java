@@ -0,0 +1,71 @@
+package de.seuhd.campuscoffee.api.reactive;
+
+import de.seuhd.campuscoffee.api.dtos.PosDto;
+import de.seuhd.campuscoffee.api.mapper.PosDtoMapper;
+import de.seuhd.campuscoffee.domain.ports.ReactivePosDataService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of the {@code PosController} of the servlet API for the POS endpoints that only access the
+ * data store; the OSM imports are not offered, since the OSM client blocks.
+ * <p>
+ * {@code GET /api/pos} streams the POS while they are read from the database: as a JSON array by default, or as
+ * newline-delimited JSON with {@code Accept: application/x-ndjson}, so that clients can process each POS on arrival.
+ * For these operations, the domain service of the servlet API only delegates to the data port, so that this
+ * controller uses the port directly.
+ */
+@Controller
+@RequestMapping("/api/pos")
+@RequiredArgsConstructor
+public class ReactivePosController {
+    private final ReactivePosDataService posDataService;
+    private final PosDtoMapper posDtoMapper;
+
+    @GetMapping(value = "", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @ResponseBody
+    public Flux<PosDto> getAll() {
+        return posDataService.getAll()
+                .map(posDtoMapper::fromDomain);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<PosDto>> getById(
+            @PathVariable Long id) {
+        return posDataService.getById(id)
+                .map(pos -> ResponseEntity.ok(posDtoMapper.fromDomain(pos)));
+    }
+
+    @PostMapping("")
+    public Mono<ResponseEntity<PosDto>> create(
+            @RequestBody PosDto posDto,
+            UriComponentsBuilder uriComponentsBuilder) {
+        return upsert(posDto)
+                .map(created -> ResponseEntity
+                        .created(uriComponentsBuilder.path("/api/pos/{id}").buildAndExpand(created.id()).toUri())
+                        .body(created));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<PosDto>> update(
+            @PathVariable Long id,
+            @RequestBody PosDto posDto) {
+        if (!id.equals(posDto.id())) {
+            return Mono.error(new IllegalArgumentException("POS ID in path and body do not match."));
+        }
+        return upsert(posDto)
+                .map(ResponseEntity::ok);
+    }
+
+    private Mono<PosDto> upsert(PosDto posDto) {
+        return Mono.fromCallable(() -> posDtoMapper.toDomain(posDto))
+                .flatMap(posDataService::upsert)
+                .map(posDtoMapper::fromDomain);
+    }
+}
@@ -1,8 +1,15 @@
 package de.seuhd.campuscoffee.api.controller;
 
 import de.seuhd.campuscoffee.api.dtos.PosDto;
+import de.seuhd.campuscoffee.api.dtos.PosMarkerDto;
 import de.seuhd.campuscoffee.api.mapper.PosDtoMapper;
+import de.seuhd.campuscoffee.api.tracing.PosDtoMappingEvent;
+import de.seuhd.campuscoffee.domain.model.BoundingBox;
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.MapTile;
+import de.seuhd.campuscoffee.domain.model.Pos;
 import de.seuhd.campuscoffee.domain.ports.PosService;
+import de.seuhd.campuscoffee.domain.services.OsmImportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -14,20 +21,20 @@ import java.util.List;
 
 /**
  * Controller for handling POS-related API requests.
+ * Mapping between domain objects and DTOs is recorded as {@link PosDtoMappingEvent}s.
  */
 @Controller
 @RequestMapping("/api/pos")
 @RequiredArgsConstructor
 public class PosController {
     private final PosService posService;
+    private final OsmImportService osmImportService;
     private final PosDtoMapper posDtoMapper;
 
     @GetMapping("")
     public ResponseEntity<List<PosDto>> getAll() {
         return ResponseEntity.ok(
-                posService.getAll().stream()
-                        .map(posDtoMapper::fromDomain)
-                        .toList()
+                fromDomain(posService.getAll())
         );
     }
 
@@ -35,7 +42,19 @@ public class PosController {
     public ResponseEntity<PosDto> getById(
             @PathVariable Long id) {
         return ResponseEntity.ok(
-                posDtoMapper.fromDomain(posService.getById(id))
+                fromDomain(posService.getById(id))
+        );
+    }
+
+    @GetMapping("/tiles/{z}/{x}/{y}")
+    public ResponseEntity<List<PosMarkerDto>> getTile(
+            @PathVariable int z,
+            @PathVariable int x,
+            @PathVariable int y) {
+        return ResponseEntity.ok(
+                posService.getMarkers(new MapTile(z, x, y)).stream()
+                        .map(posDtoMapper::fromDomain)
+                        .toList()
         );
     }
 
@@ -51,7 +70,7 @@ public class PosController {
     @PostMapping("/import/osm/{nodeId}")
     public ResponseEntity<PosDto> create(
             @PathVariable Long nodeId) {
-        PosDto created = posDtoMapper.fromDomain(
+        PosDto created = fromDomain(
                 posService.importFromOsmNode(nodeId)
         );
         return ResponseEntity
@@ -59,6 +78,25 @@ public class PosController {
                 .body(created);
     }
 
+    @PostMapping("/import/osm/bbox")
+    public ResponseEntity<List<PosDto>> importFromBoundingBox(
+            @RequestParam double minLat,
+            @RequestParam double minLon,
+            @RequestParam double maxLat,
+            @RequestParam double maxLon) {
+        return ResponseEntity.ok(
+                fromDomain(osmImportService.importFromBoundingBox(new BoundingBox(minLat, minLon, maxLat, maxLon)))
+        );
+    }
+
+    @PostMapping("/import/osm/campus/{campus}")
+    public ResponseEntity<List<PosDto>> importFromCampus(
+            @PathVariable CampusType campus) {
+        return ResponseEntity.ok(
+                fromDomain(osmImportService.importFromCampus(campus))
+        );
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<PosDto> update(
             @PathVariable Long id,
@@ -76,13 +114,36 @@ public class PosController {
      * @return the upserted POS mapped back to the DTO format.
      */
     private PosDto upsert(PosDto posDto) {
-        return posDtoMapper.fromDomain(
+        return fromDomain(
                 posService.upsert(
-                        posDtoMapper.toDomain(posDto)
+                        toDomain(posDto)
                 )
         );
     }
 
+    private PosDto fromDomain(Pos pos) {
+        PosDtoMappingEvent event = PosDtoMappingEvent.start("fromDomain");
+        PosDto posDto = posDtoMapper.fromDomain(pos);
+        event.complete(1);
+        return posDto;
+    }
+
+    private List<PosDto> fromDomain(List<Pos> posList) {
+        PosDtoMappingEvent event = PosDtoMappingEvent.start("fromDomain");
+        List<PosDto> posDtos = posList.stream()
+                .map(posDtoMapper::fromDomain)
+                .toList();
+        event.complete(posDtos.size());
+        return posDtos;
+    }
+
+    private Pos toDomain(PosDto posDto) {
+        PosDtoMappingEvent event = PosDtoMappingEvent.start("toDomain");
+        Pos pos = posDtoMapper.toDomain(posDto);
+        event.complete(1);
+        return pos;
+    }
+
     /**
      * Builds the location URI for a newly created resource.
      * @param resourceId the ID of the created resource
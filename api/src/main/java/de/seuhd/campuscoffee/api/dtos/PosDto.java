@@ -23,5 +23,7 @@ public record PosDto(
         @NonNull String street,
         @NonNull String houseNumber,
         @NonNull Integer postalCode,
-        @NonNull String city
+        @NonNull String city,
+        @Nullable Double latitude, // is null if the location of the POS is unknown
+        @Nullable Double longitude
 ) {}
@@ -0,0 +1,16 @@
+package de.seuhd.campuscoffee.api.dtos;
+
+import lombok.Builder;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * DTO record for a marker on a map tile, either a single POS or a cluster of nearby POS.
+ */
+@Builder(toBuilder = true)
+public record PosMarkerDto(
+        double latitude,
+        double longitude,
+        int count, // 1 for a single POS
+        @Nullable Long posId, // is null for a cluster
+        @Nullable String name // is null for a cluster
+) {}
@@ -5,10 +5,12 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 
@@ -69,16 +71,37 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler({
             IllegalArgumentException.class,
-            OsmNodeMissingFieldsException.class
+            OsmNodeMissingFieldsException.class,
+            MissingServletRequestParameterException.class,
+            MethodArgumentTypeMismatchException.class
     })
     public ResponseEntity<ErrorResponse> handleBadRequestException(
-            RuntimeException exception,
+            Exception exception,
             WebRequest request
     ) {
         log.warn("Bad request: {}", exception.getMessage());
         return buildErrorResponse(exception, HttpStatus.BAD_REQUEST, request);
     }
 
+    /**
+     * Handles requests that depend on an external service that is currently failing.
+     * Returns HTTP 503 (Service Unavailable).
+     *
+     * @param exception the exception that was thrown
+     * @param request the web request
+     * @return ResponseEntity with ErrorResponse and HTTP 503
+     */
+    @ExceptionHandler({
+            OsmApiUnavailableException.class
+    })
+    public ResponseEntity<ErrorResponse> handleUnavailableException(
+            RuntimeException exception,
+            WebRequest request
+    ) {
+        log.warn("Service unavailable: {}", exception.getMessage());
+        return buildErrorResponse(exception, HttpStatus.SERVICE_UNAVAILABLE, request);
+    }
+
     /**
      * Fallback handler for unexpected exceptions.
      * Returns HTTP 500 (Internal Server Error).
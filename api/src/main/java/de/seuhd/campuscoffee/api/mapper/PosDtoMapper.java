@@ -1,7 +1,9 @@
 package de.seuhd.campuscoffee.api.mapper;
 
 import de.seuhd.campuscoffee.api.dtos.PosDto;
+import de.seuhd.campuscoffee.api.dtos.PosMarkerDto;
 import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosMarker;
 import org.mapstruct.Mapper;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 
@@ -17,4 +19,5 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 public interface PosDtoMapper {
     PosDto fromDomain(Pos source);
     Pos toDomain(PosDto source);
+    PosMarkerDto fromDomain(PosMarker source);
 }
@@ -0,0 +1,48 @@
+package de.seuhd.campuscoffee.api.tracing;
+
+import de.seuhd.campuscoffee.domain.events.PhaseEvent;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Assigns each request a correlation ID and puts it into the {@link MDC} for the duration of the request, so that
+ * the JFR {@link PhaseEvent}s (and log entries) of a request can be attributed to it.
+ * <p>
+ * A well-formed ID in the {@value #HEADER} request header is used as it is, e.g., when set by a load balancer;
+ * otherwise, a random ID is generated. The ID is returned in the {@value #HEADER} response header.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Request-Id";
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String correlationId = request.getHeader(HEADER);
+        if (correlationId == null || !VALID_ID.matcher(correlationId).matches()) {
+            // not a UUID, which would draw from the shared SecureRandom on every request
+            correlationId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        response.setHeader(HEADER, correlationId);
+        MDC.put(PhaseEvent.CORRELATION_ID, correlationId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(PhaseEvent.CORRELATION_ID);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package de.seuhd.campuscoffee.api.tracing;
+
+import de.seuhd.campuscoffee.domain.events.PhaseEvent;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for writing a response body as JSON, see {@link RecordingJsonHttpMessageConverter}.
+ */
+@Name("de.seuhd.campuscoffee.JsonSerialization")
+@Label("JSON Serialization")
+class JsonSerializationEvent extends PhaseEvent {
+    @Label("Body Type")
+    Class<?> type;
+}
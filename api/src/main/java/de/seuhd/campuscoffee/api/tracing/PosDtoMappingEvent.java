@@ -0,0 +1,44 @@
+package de.seuhd.campuscoffee.api.tracing;
+
+import de.seuhd.campuscoffee.domain.events.PhaseEvent;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for mapping POS between domain objects and DTOs with
+ * {@link de.seuhd.campuscoffee.api.mapper.PosDtoMapper}. Lists are mapped in one event.
+ */
+@Name("de.seuhd.campuscoffee.PosDtoMapping")
+@Label("POS DTO Mapping")
+public class PosDtoMappingEvent extends PhaseEvent {
+    @Label("Direction")
+    private String direction;
+
+    @Label("POS Count")
+    private int count;
+
+    /**
+     * Creates and begins an event.
+     *
+     * @param direction {@code fromDomain} or {@code toDomain}
+     * @return the started event
+     */
+    public static PosDtoMappingEvent start(String direction) {
+        PosDtoMappingEvent event = new PosDtoMappingEvent();
+        event.direction = direction;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event and commits it if it is enabled and exceeds its threshold.
+     *
+     * @param count the number of mapped POS
+     */
+    public void complete(int count) {
+        if (shouldCommit()) {
+            this.count = count;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package de.seuhd.campuscoffee.api.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * JSON message converter that records writing each response body as {@link JsonSerializationEvent}.
+ * It replaces the converter that Spring Boot configures otherwise and uses the same object mapper.
+ * The event covers serialization and writing to the response buffer.
+ */
+@Component
+class RecordingJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    RecordingJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(@NonNull Object object, @Nullable Type type, @NonNull HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        JsonSerializationEvent event = new JsonSerializationEvent();
+        event.begin();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            if (event.shouldCommit()) {
+                event.type = object.getClass();
+                event.commit();
+            }
+        }
+    }
+}
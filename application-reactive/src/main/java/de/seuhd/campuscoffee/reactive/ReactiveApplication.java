@@ -0,0 +1,22 @@
+package de.seuhd.campuscoffee.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+/**
+ * Main class to start the reactive variant of the application (WebFlux on Netty, R2DBC).
+ * Only the reactive adapters and the DTO mapper are scanned; the servlet adapters are not on the classpath.
+ */
+@SpringBootApplication(scanBasePackages = {
+        "de.seuhd.campuscoffee.reactive",
+        "de.seuhd.campuscoffee.api.reactive",
+        "de.seuhd.campuscoffee.api.mapper",
+        "de.seuhd.campuscoffee.data.reactive"
+})
+@ConfigurationPropertiesScan("de.seuhd.campuscoffee.data.reactive")
+public class ReactiveApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveApplication.class, args);
+    }
+}
@@ -0,0 +1,171 @@
+package de.seuhd.campuscoffee.reactive;
+
+import de.seuhd.campuscoffee.api.dtos.PosDto;
+import de.seuhd.campuscoffee.api.exceptions.ErrorResponse;
+import de.seuhd.campuscoffee.api.mapper.PosDtoMapper;
+import de.seuhd.campuscoffee.domain.ports.ReactivePosDataService;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * System tests for the reactive POS endpoints, against the same Postgres testcontainer as the system tests of the
+ * servlet application.
+ * <p>
+ * The server shuts down immediately: the graceful shutdown of Netty waits for the keep-alive connections of the
+ * streaming requests of the test client, which delays the exit of the test JVM by the shutdown timeout.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"server.shutdown=immediate", "logging.file.name=target/campus-coffee-reactive.log"})
+public class ReactivePosSystemTests {
+    @SuppressWarnings("resource")
+    private static final PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>(
+            DockerImageName.parse("postgres:17-alpine"))
+            .withUsername("postgres")
+            .withPassword("postgres")
+            .withReuse(true);
+
+    static {
+        postgresContainer.start();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.url", () -> "r2dbc:" + postgresContainer.getJdbcUrl().substring("jdbc:".length()));
+        registry.add("spring.flyway.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.flyway.user", postgresContainer::getUsername);
+        registry.add("spring.flyway.password", postgresContainer::getPassword);
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactivePosDataService posDataService;
+
+    @Autowired
+    private PosDtoMapper posDtoMapper;
+
+    @BeforeEach
+    @AfterEach
+    void clear() {
+        posDataService.clear().block();
+    }
+
+    @Test
+    void createPos() {
+        PosDto posToCreate = posDtoMapper.fromDomain(TestFixtures.getPosFixturesForInsertion().getLast());
+
+        PosDto createdPos = webTestClient.post().uri("/api/pos")
+                .bodyValue(posToCreate)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().value("Location", location -> assertThat(location).matches(".*/api/pos/\\d+"))
+                .expectBody(PosDto.class)
+                .returnResult().getResponseBody();
+
+        assertThat(createdPos)
+                .usingRecursiveComparison()
+                .ignoringFields("id", "createdAt", "updatedAt")
+                .isEqualTo(posToCreate);
+        // the house number is split and merged as by the JPA adapter
+        assertThat(Objects.requireNonNull(createdPos).houseNumber()).isEqualTo("99a");
+        assertThat(createdPos.createdAt()).isEqualTo(createdPos.updatedAt());
+    }
+
+    @Test
+    void getAllStreamsPos() {
+        List<PosDto> createdPosList = createFixtures();
+
+        List<PosDto> retrievedPosList = webTestClient.get().uri("/api/pos")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(PosDto.class)
+                .returnResult().getResponseBody();
+        assertThat(retrievedPosList).containsExactlyInAnyOrderElementsOf(createdPosList);
+
+        StepVerifier.create(webTestClient.get().uri("/api/pos")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .exchange()
+                        .expectStatus().isOk()
+                        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                        .returnResult(PosDto.class)
+                        .getResponseBody())
+                .expectNextCount(createdPosList.size())
+                .verifyComplete();
+    }
+
+    @Test
+    void updatePos() {
+        PosDto posToUpdate = createFixtures().getFirst().toBuilder()
+                .name("Schmelzpunkt (Updated)")
+                .description("Updated description")
+                .build();
+
+        PosDto updatedPos = webTestClient.put().uri("/api/pos/{id}", posToUpdate.id())
+                .bodyValue(posToUpdate)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PosDto.class)
+                .returnResult().getResponseBody();
+
+        assertThat(updatedPos)
+                .usingRecursiveComparison()
+                .ignoringFields("updatedAt")
+                .isEqualTo(posToUpdate);
+        assertThat(Objects.requireNonNull(updatedPos).updatedAt()).isAfter(posToUpdate.updatedAt());
+        webTestClient.get().uri("/api/pos/{id}", posToUpdate.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PosDto.class).isEqualTo(updatedPos);
+    }
+
+    @Test
+    void errorsMatchServletApi() {
+        List<PosDto> createdPosList = createFixtures();
+
+        webTestClient.get().uri("/api/pos/{id}", 999L)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(ErrorResponse.class)
+                .value(error -> assertThat(error.getErrorCode()).isEqualTo("PosNotFoundException"));
+        PosDto duplicate = createdPosList.get(1).toBuilder().name(createdPosList.getFirst().name()).build();
+        webTestClient.put().uri("/api/pos/{id}", duplicate.id())
+                .bodyValue(duplicate)
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody(ErrorResponse.class)
+                .value(error -> assertThat(error.getErrorCode()).isEqualTo("DuplicatePosNameException"));
+        webTestClient.put().uri("/api/pos/{id}", 999L)
+                .bodyValue(createdPosList.getFirst())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private List<PosDto> createFixtures() {
+        return TestFixtures.getPosFixturesForInsertion().stream()
+                .map(pos -> webTestClient.post().uri("/api/pos")
+                        .bodyValue(posDtoMapper.fromDomain(pos))
+                        .exchange()
+                        .expectStatus().isCreated()
+                        .expectBody(PosDto.class)
+                        .returnResult().getResponseBody())
+                .toList();
+    }
+}
@@ -0,0 +1,34 @@
+package de.seuhd.campuscoffee;
+
+import de.seuhd.campuscoffee.domain.services.OsmImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Component that imports POS from an OpenStreetMap extract file on startup,
+ * if {@code campus-coffee.osm.extract.import-file} is set.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "campus-coffee.osm.extract", name = "import-file")
+class ImportOsmExtract implements ApplicationRunner {
+    private final OsmImportService osmImportService;
+
+    @Value("${campus-coffee.osm.extract.import-file}")
+    private Path importFile;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Importing OSM extract {}...", importFile);
+        int imported = osmImportService.importFromOsmExtract(importFile).size();
+        log.info("Imported {} POS from OSM extract {}.", imported, importFile);
+    }
+}
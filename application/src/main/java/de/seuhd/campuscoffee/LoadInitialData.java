@@ -1,18 +1,27 @@
 package de.seuhd.campuscoffee;
 
+import de.seuhd.campuscoffee.domain.exceptions.PosSnapshotException;
 import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.ports.PosSnapshotDataService;
 import de.seuhd.campuscoffee.domain.tests.TestFixtures;
 import de.seuhd.campuscoffee.domain.ports.PosService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
  * Component that loads initial data into the application when running in the "dev" profile.
+ * <p>
+ * If the snapshot file {@code campus-coffee.seed.snapshot} exists, all POS are restored from it in one bulk operation.
+ * Otherwise, the test fixtures are created one by one and then written to the snapshot file for the next start.
  */
 @Component
 @RequiredArgsConstructor
@@ -20,14 +29,33 @@ import java.util.List;
 @Profile("dev")
 class LoadInitialData implements InitializingBean {
     private final PosService posService;
+    private final PosSnapshotDataService posSnapshotDataService;
+
+    @Value("${campus-coffee.seed.snapshot:#{null}}")
+    private @Nullable Path snapshot;
 
     @Override
     public void afterPropertiesSet() {
+        if (snapshot != null && Files.isRegularFile(snapshot)) {
+            log.info("Restoring initial data from snapshot {}...", snapshot);
+            try {
+                long count = posSnapshotDataService.restoreSnapshot(snapshot);
+                log.info("Restored {} POS.", count);
+                log.info("Initial data loaded successfully.");
+                return;
+            } catch (PosSnapshotException e) {
+                // e.g., written before a schema change; it is replaced below
+                log.warn("Failed to restore snapshot, loading the fixtures instead: {}", e.getMessage());
+            }
+        }
         log.info("Deleting existing data...");
         posService.clear();
         log.info("Loading initial data...");
         List<Pos> posList = TestFixtures.createPosFixtures(posService);
         log.info("Created {} POS.", posList.size());
+        if (snapshot != null) {
+            posSnapshotDataService.writeSnapshot(snapshot);
+        }
         log.info("Initial data loaded successfully.");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,32 @@
+package de.seuhd.campuscoffee;
+
+import de.seuhd.campuscoffee.domain.services.OsmSyncService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Component that periodically applies OpenStreetMap replication diffs to the imported POS,
+ * if {@code campus-coffee.osm.sync.enabled} is true.
+ */
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "campus-coffee.osm.sync", name = "enabled", havingValue = "true")
+class SyncOsmReplication {
+    private final OsmSyncService osmSyncService;
+
+    @Scheduled(fixedDelayString = "${campus-coffee.osm.sync.interval:1m}")
+    void sync() {
+        try {
+            osmSyncService.sync();
+        } catch (RuntimeException e) {
+            // the diffs are applied again in the next run
+            log.warn("OSM sync failed: {}", e.getMessage());
+        }
+    }
+}
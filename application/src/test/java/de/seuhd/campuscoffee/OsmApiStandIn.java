@@ -0,0 +1,201 @@
+package de.seuhd.campuscoffee;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Local stand-in for the OpenStreetMap API, so that system tests neither depend on nor put load on the real API.
+ * Serves the single-node ({@code /node/{id}.json}) and multi-node ({@code /nodes.json?nodes=...}) endpoints
+ * for the nodes added with {@link #addNode(OsmNode)}, answering with 404 if a requested node is unknown, and the
+ * {@code /map.json?bbox=...} endpoint, which returns the nodes in the box and a way that uses them.
+ * Failures and slow responses can be simulated with {@link #failWith(int)} and {@link #delayNextRequests(int, Duration)}.
+ */
+public class OsmApiStandIn implements AutoCloseable {
+    private static final String API_PATH = "/api/0.6";
+    private final HttpServer server;
+    private final Map<Long, OsmNode> nodes = new ConcurrentHashMap<>();
+    private final List<URI> requests = new CopyOnWriteArrayList<>();
+    private volatile int maxMapNodes = Integer.MAX_VALUE;
+    private volatile int failureStatus;
+    private final AtomicInteger delayedRequests = new AtomicInteger();
+    private volatile Duration delay = Duration.ZERO;
+
+    public OsmApiStandIn() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.createContext(API_PATH + "/node/", exchange -> handle(exchange, this::handleNode));
+        server.createContext(API_PATH + "/nodes.json", exchange -> handle(exchange, this::handleNodes));
+        server.createContext(API_PATH + "/map.json", exchange -> handle(exchange, this::handleMap));
+        // requests are handled concurrently, so that a slow response does not hold up the others
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    /**
+     * @return the base URL to configure as {@code campus-coffee.osm.api.base-url}
+     */
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + API_PATH;
+    }
+
+    public void addNode(OsmNode osmNode) {
+        nodes.put(osmNode.nodeId(), osmNode);
+    }
+
+    /**
+     * @return the URIs of all requests received since the last {@link #reset()}
+     */
+    public List<URI> requests() {
+        return List.copyOf(requests);
+    }
+
+    /**
+     * Like the real API, map requests for areas with more nodes are answered with 400.
+     */
+    public void setMaxMapNodes(int maxMapNodes) {
+        this.maxMapNodes = maxMapNodes;
+    }
+
+    /**
+     * @param status the status to answer all requests with, e.g., 503; 0 to answer normally again
+     */
+    public void failWith(int status) {
+        this.failureStatus = status;
+    }
+
+    /**
+     * Delays the responses to the next requests.
+     *
+     * @param count the number of requests to delay
+     * @param delay the delay before the response is sent
+     */
+    public void delayNextRequests(int count, Duration delay) {
+        this.delay = delay;
+        this.delayedRequests.set(count);
+    }
+
+    public void reset() {
+        nodes.clear();
+        requests.clear();
+        maxMapNodes = Integer.MAX_VALUE;
+        failureStatus = 0;
+        delayedRequests.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange, HttpHandler handler) throws IOException {
+        requests.add(exchange.getRequestURI());
+        if (delayedRequests.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failureStatus != 0) {
+            exchange.sendResponseHeaders(failureStatus, -1);
+            exchange.close();
+            return;
+        }
+        handler.handle(exchange);
+    }
+
+    private void handleNode(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        long nodeId = Long.parseLong(path.substring(path.lastIndexOf('/') + 1).replace(".json", ""));
+        respond(exchange, List.of(nodeId));
+    }
+
+    private void handleNodes(HttpExchange exchange) throws IOException {
+        String ids = exchange.getRequestURI().getQuery().replace("nodes=", "");
+        respond(exchange, Arrays.stream(ids.split(",")).map(Long::parseLong).toList());
+    }
+
+    private void handleMap(HttpExchange exchange) throws IOException {
+        // bbox=left,bottom,right,top
+        double[] bbox = Arrays.stream(exchange.getRequestURI().getQuery().replace("bbox=", "").split(","))
+                .mapToDouble(Double::parseDouble)
+                .toArray();
+        List<OsmNode> nodesInBox = nodes.values().stream()
+                .filter(osmNode -> osmNode.longitude() >= bbox[0] && osmNode.latitude() >= bbox[1]
+                        && osmNode.longitude() <= bbox[2] && osmNode.latitude() <= bbox[3])
+                .sorted(Comparator.comparing(OsmNode::nodeId))
+                .toList();
+        if (nodesInBox.size() > maxMapNodes) {
+            exchange.sendResponseHeaders(400, -1);
+            exchange.close();
+            return;
+        }
+        List<String> elements = new ArrayList<>(nodesInBox.stream().map(OsmApiStandIn::toJson).toList());
+        if (!nodesInBox.isEmpty()) {
+            // the map call also returns ways, which must not be taken for nodes
+            String refs = nodesInBox.stream().map(osmNode -> osmNode.nodeId().toString()).collect(Collectors.joining(","));
+            elements.add("{\"type\":\"way\",\"id\":1,\"nodes\":[" + refs + "],\"tags\":{\"amenity\":\"cafe\"}}");
+        }
+        respondWithElements(exchange, elements);
+    }
+
+    private void respond(HttpExchange exchange, List<Long> nodeIds) throws IOException {
+        List<String> elements = new ArrayList<>();
+        for (Long nodeId : nodeIds) {
+            OsmNode osmNode = nodes.get(nodeId);
+            if (osmNode == null) {
+                // like the real API, a multi-node request fails as a whole if any node is missing
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+            elements.add(toJson(osmNode));
+        }
+        respondWithElements(exchange, elements);
+    }
+
+    private static void respondWithElements(HttpExchange exchange, Collection<String> elements) throws IOException {
+        byte[] body = ("{\"version\":\"0.6\",\"elements\":[" + String.join(",", elements) + "]}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private static String toJson(OsmNode osmNode) {
+        String tags = osmNode.tags().entrySet().stream()
+                .map(tag -> quote(tag.getKey()) + ":" + quote(tag.getValue()))
+                .collect(Collectors.joining(","));
+        return "{\"type\":\"node\",\"id\":" + osmNode.nodeId()
+                + ",\"lat\":" + osmNode.latitude() + ",\"lon\":" + osmNode.longitude()
+                + ",\"tags\":{" + tags + "}}";
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
@@ -0,0 +1,168 @@
+package de.seuhd.campuscoffee;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local stand-in for an OpenStreetMap replication source such as {@code https://planet.openstreetmap.org/replication/minute}.
+ * Diffs published with {@link #publishDiff(String...)} are written to a temporary directory as
+ * {@code AAA/BBB/CCC.osc.gz}, and {@code state.txt} is updated; the directory is also served over HTTP.
+ * The changes of a diff are built with {@link #create(OsmNode, long)}, {@link #modify(OsmNode, long)}, and
+ * {@link #delete(long, long)}; each diff also contains a way, like real diffs do.
+ */
+public class OsmReplicationStandIn implements AutoCloseable {
+    private static final String REPLICATION_PATH = "/replication/minute";
+    private final Path directory;
+    private final HttpServer server;
+    private final List<URI> requests = new CopyOnWriteArrayList<>();
+    private long sequenceNumber = 6_312_345L;
+
+    public OsmReplicationStandIn() {
+        try {
+            directory = Files.createTempDirectory("osm-replication");
+            writeState();
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.createContext(REPLICATION_PATH + "/", this::handle);
+        server.start();
+    }
+
+    /**
+     * @return the base URL to configure as {@code campus-coffee.osm.replication.source}
+     */
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + REPLICATION_PATH;
+    }
+
+    /**
+     * @return the directory to configure as {@code campus-coffee.osm.replication.source} to read the files directly
+     */
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * @return the sequence number of the latest published diff
+     */
+    public synchronized long sequenceNumber() {
+        return sequenceNumber;
+    }
+
+    /**
+     * Publishes a diff with the given changes under the next sequence number.
+     *
+     * @param changes the changes, created with {@link #create(OsmNode, long)}, {@link #modify(OsmNode, long)},
+     *                and {@link #delete(long, long)}
+     * @return the sequence number of the diff
+     */
+    public synchronized long publishDiff(String... changes) {
+        sequenceNumber++;
+        String osmChange = "<?xml version='1.0' encoding='UTF-8'?>\n"
+                + "<osmChange version=\"0.6\" generator=\"osmdbt-create-diff\">\n"
+                + String.join("\n", changes) + "\n"
+                + "<modify><way id=\"" + sequenceNumber + "\" version=\"2\"><nd ref=\"1\"/><nd ref=\"2\"/>"
+                + "<tag k=\"highway\" v=\"footway\"/></way></modify>\n"
+                + "</osmChange>\n";
+        Path file = directory.resolve(String.format("%03d/%03d/%03d.osc.gz",
+                sequenceNumber / 1_000_000, sequenceNumber / 1_000 % 1_000, sequenceNumber % 1_000));
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(file))) {
+                outputStream.write(osmChange.getBytes(StandardCharsets.UTF_8));
+            }
+            writeState();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sequenceNumber;
+    }
+
+    public static String create(OsmNode osmNode, long version) {
+        return "<create>" + toXml(osmNode, version) + "</create>";
+    }
+
+    public static String modify(OsmNode osmNode, long version) {
+        return "<modify>" + toXml(osmNode, version) + "</modify>";
+    }
+
+    public static String delete(long nodeId, long version) {
+        return "<delete><node id=\"" + nodeId + "\" version=\"" + version + "\" changeset=\"1\"/></delete>";
+    }
+
+    /**
+     * @return the URIs of all requests received since the last {@link #reset()}
+     */
+    public List<URI> requests() {
+        return List.copyOf(requests);
+    }
+
+    public void reset() {
+        requests.clear();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.add(exchange.getRequestURI());
+        Path file = directory.resolve(exchange.getRequestURI().getPath().substring(REPLICATION_PATH.length() + 1));
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = Files.readAllBytes(file);
+        exchange.getResponseHeaders().add("Content-Type",
+                file.toString().endsWith(".gz") ? "application/gzip" : "text/plain");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private void writeState() throws IOException {
+        // like the real state.txt, a Java properties file with an escaped timestamp
+        String timestamp = Instant.now().truncatedTo(ChronoUnit.SECONDS).toString().replace(":", "\\:");
+        Files.writeString(directory.resolve("state.txt"),
+                "#" + Instant.now() + "\nsequenceNumber=" + sequenceNumber + "\ntimestamp=" + timestamp + "\n");
+    }
+
+    private static String toXml(OsmNode osmNode, long version) {
+        String tags = osmNode.tags().entrySet().stream()
+                .map(tag -> "<tag k=\"" + escape(tag.getKey()) + "\" v=\"" + escape(tag.getValue()) + "\"/>")
+                .collect(Collectors.joining());
+        return String.format(Locale.ROOT, "<node id=\"%d\" version=\"%d\" changeset=\"1\" lat=\"%.7f\" lon=\"%.7f\">%s</node>",
+                osmNode.nodeId(), version, osmNode.latitude(), osmNode.longitude(), tags);
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("\"", "&quot;").replace("<", "&lt;");
+    }
+}
@@ -16,13 +16,20 @@ import static io.restassured.RestAssured.given;
  * Provides methods to manage PostgreSQL testcontainers and perform common API operations.
  */
 public class TestUtils {
-    @SuppressWarnings("resource")
     public static PostgreSQLContainer<?> getPostgresContainer() {
+        return getPostgresContainer("postgres");
+    }
+
+    /**
+     * Creates a PostgreSQL testcontainer; containers with different database names are not shared when reused.
+     */
+    @SuppressWarnings("resource")
+    public static PostgreSQLContainer<?> getPostgresContainer(String databaseName) {
         return new PostgreSQLContainer<>(
                 DockerImageName.parse("postgres:17-alpine"))
                 .withUsername("postgres")
                 .withPassword("postgres")
-                .withDatabaseName("postgres")
+                .withDatabaseName(databaseName)
                 .withReuse(true);
     }
 
@@ -30,6 +37,9 @@ public class TestUtils {
         registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
         registry.add("spring.datasource.username", postgresContainer::getUsername);
         registry.add("spring.datasource.password", postgresContainer::getPassword);
+        // the cached contexts of all system tests keep their pools open on the same database (100 connections)
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> 5);
+        registry.add("spring.datasource.hikari.minimum-idle", () -> 1);
     }
 
     public static List<PosDto> retrievePos() {
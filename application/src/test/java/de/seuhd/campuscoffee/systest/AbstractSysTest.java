@@ -19,7 +19,9 @@ import static de.seuhd.campuscoffee.TestUtils.getPostgresContainer;
  * Abstract base class for system tests.
  * Sets up the Spring Boot test context, manages the PostgreSQL testcontainer, and configures REST Assured.
  */
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+// the log file goes to the build directory instead of the module directory
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "logging.file.name=target/campus-coffee.log")
 public abstract class AbstractSysTest {
     protected static final PostgreSQLContainer<?> postgresContainer;
 
@@ -0,0 +1,126 @@
+package de.seuhd.campuscoffee.systest;
+
+import de.seuhd.campuscoffee.OsmApiStandIn;
+import de.seuhd.campuscoffee.api.tracing.CorrelationIdFilter;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import io.restassured.RestAssured;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * System tests for the JFR events that break a request down into phases, recorded in the JVM of the test.
+ */
+public class JfrPhaseEventSystemTests extends AbstractSysTest {
+    private static final OsmApiStandIn osmApi = new OsmApiStandIn();
+    private static final String PREFIX = "de.seuhd.campuscoffee.";
+
+    @DynamicPropertySource
+    static void configureOsmApi(DynamicPropertyRegistry registry) {
+        registry.add("campus-coffee.osm.api.base-url", osmApi::baseUrl);
+        registry.add("campus-coffee.osm.cache.enabled", () -> false);
+    }
+
+    @AfterAll
+    static void stopOsmApi() {
+        osmApi.close();
+    }
+
+    @Test
+    void phasesOfRequestsAreRecordedWithCorrelationId() throws IOException {
+        osmApi.addNode(osmNode(7000L));
+
+        List<RecordedEvent> events = record(() -> {
+            RestAssured.given()
+                    .header(CorrelationIdFilter.HEADER, "import-1")
+                    .post("/api/pos/import/osm/{nodeId}", 7000L)
+                    .then()
+                    .statusCode(201)
+                    .header(CorrelationIdFilter.HEADER, "import-1");
+            RestAssured.given()
+                    .header(CorrelationIdFilter.HEADER, "get-all-1")
+                    .get("/api/pos")
+                    .then()
+                    .statusCode(200);
+        });
+
+        assertThat(phases(events, "import-1")).contains(
+                "OsmFetch", "PosQuery", "PosEntityMapping", "PosDtoMapping", "JsonSerialization");
+        assertThat(phases(events, "get-all-1")).containsExactlyInAnyOrder(
+                "PosQuery", "PosEntityMapping", "PosDtoMapping", "JsonSerialization");
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().equals(PREFIX + "OsmFetch"))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.getString("operation")).isEqualTo("node");
+                    assertThat(event.getString("outcome")).isEqualTo("SUCCESS");
+                });
+        assertThat(events)
+                .filteredOn(event -> "get-all-1".equals(event.getString("correlationId"))
+                        && event.getEventType().getName().equals(PREFIX + "PosQuery"))
+                .singleElement()
+                .satisfies(event -> assertThat(event.getString("method")).isEqualTo("getAll"));
+    }
+
+    @Test
+    void correlationIdIsGeneratedIfMissing() {
+        String correlationId = RestAssured.get("/api/pos")
+                .then()
+                .statusCode(200)
+                .extract().header(CorrelationIdFilter.HEADER);
+
+        assertThat(correlationId).isNotBlank();
+    }
+
+    private static List<RecordedEvent> record(Runnable requests) throws IOException {
+        Path file = Files.createTempFile("campus-coffee", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("OsmFetch", "PosQuery", "PosEntityMapping", "PosDtoMapping", "JsonSerialization")) {
+                recording.enable(PREFIX + name).withoutThreshold();
+            }
+            recording.start();
+            requests.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<String> phases(List<RecordedEvent> events, String correlationId) {
+        return events.stream()
+                .filter(event -> correlationId.equals(event.getString("correlationId")))
+                .map(event -> event.getEventType().getName().substring(PREFIX.length()))
+                .distinct()
+                .toList();
+    }
+
+    private static OsmNode osmNode(long nodeId) {
+        return OsmNode.builder()
+                .nodeId(nodeId)
+                .latitude(49.41)
+                .longitude(8.69)
+                .tags(Map.of(
+                        "name", "Café " + nodeId,
+                        "amenity", "cafe",
+                        "addr:street", "Hauptstraße",
+                        "addr:housenumber", "1",
+                        "addr:postcode", "69117",
+                        "addr:city", "Heidelberg"))
+                .build();
+    }
+}
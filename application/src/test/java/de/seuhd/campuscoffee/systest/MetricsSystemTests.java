@@ -0,0 +1,90 @@
+package de.seuhd.campuscoffee.systest;
+
+import de.seuhd.campuscoffee.OsmApiStandIn;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.services.OsmImportService;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * System tests for the metrics of the request, port, and import layers, as scraped from the Prometheus endpoint.
+ * Metrics export is disabled in tests by default, so it is enabled with {@link AutoConfigureObservability}.
+ */
+@AutoConfigureObservability(tracing = false)
+public class MetricsSystemTests extends AbstractSysTest {
+    private static final OsmApiStandIn osmApi = new OsmApiStandIn();
+
+    @Autowired
+    private OsmImportService osmImportService;
+
+    @DynamicPropertySource
+    static void configureOsmApi(DynamicPropertyRegistry registry) {
+        registry.add("campus-coffee.osm.api.base-url", osmApi::baseUrl);
+        registry.add("campus-coffee.osm.cache.enabled", () -> false);
+    }
+
+    @AfterAll
+    static void stopOsmApi() {
+        osmApi.close();
+    }
+
+    @Test
+    void prometheusEndpointExposesHotPathMetrics() {
+        osmApi.addNode(osmNode(3000L, "Café Metrik", "Hauptstraße"));
+        osmApi.addNode(osmNode(3001L, "Café ohne Adresse", null));
+        List<Long> importedIds = osmImportService.importFromOsmNodes(List.of(3000L, 3001L, 3002L));
+        assertThat(importedIds).containsExactly(3000L);
+        Pos pos = posService.getAll().getFirst();
+
+        RestAssured.get("/api/pos/{id}", pos.id()).then().statusCode(200);
+        RestAssured.get("/api/pos/{id}", 4711L).then().statusCode(404);
+
+        String metrics = RestAssured.get("/actuator/prometheus")
+                .then()
+                .statusCode(200)
+                .extract().asString();
+
+        // per-endpoint latency with percentile histogram buckets
+        assertThat(metrics).containsPattern(
+                "http_server_requests_seconds_bucket\\{[^}]*method=\"GET\"[^}]*status=\"200\"[^}]*uri=\"/api/pos/\\{id}\"");
+        // port timings by method and outcome
+        assertThat(metrics)
+                .containsPattern("pos_data_requests_seconds_count\\{[^}]*method=\"getById\",outcome=\"SUCCESS\",store=\"database\"} 1")
+                .containsPattern("pos_data_requests_seconds_count\\{[^}]*method=\"getById\",outcome=\"NOT_FOUND\",store=\"database\"} 1")
+                .containsPattern("pos_data_requests_seconds_bucket\\{[^}]*method=\"upsert\"");
+        // OSM fetch latency and errors
+        assertThat(metrics)
+                .containsPattern("osm_fetch_seconds_count\\{[^}]*operation=\"nodes\",outcome=\"PARTIAL\"} 1")
+                .containsPattern("osm_fetch_errors_total\\{[^}]*operation=\"nodes\",reason=\"NOT_FOUND\"} 1");
+        // imports by outcome
+        assertThat(metrics)
+                .containsPattern("pos_imports_total\\{[^}]*outcome=\"IMPORTED\",source=\"nodes\"} 1")
+                .containsPattern("pos_imports_total\\{[^}]*outcome=\"MISSING_FIELDS\",source=\"nodes\"} 1")
+                .containsPattern("pos_imports_total\\{[^}]*outcome=\"NOT_FOUND\",source=\"nodes\"} 1")
+                .containsPattern("pos_import_duration_seconds_bucket\\{[^}]*source=\"nodes\"");
+    }
+
+    private static OsmNode osmNode(long nodeId, String name, String street) {
+        Map<String, String> tags = street == null
+                ? Map.of("name", name, "amenity", "cafe")
+                : Map.of("name", name, "amenity", "cafe", "addr:street", street, "addr:housenumber", "1",
+                        "addr:postcode", "69117", "addr:city", "Heidelberg");
+        return OsmNode.builder()
+                .nodeId(nodeId)
+                .latitude(49.41)
+                .longitude(8.69)
+                .tags(tags)
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package de.seuhd.campuscoffee.systest;
+
+import de.seuhd.campuscoffee.domain.exceptions.OsmExtractException;
+import de.seuhd.campuscoffee.domain.model.OsmExtractStats;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosType;
+import de.seuhd.campuscoffee.domain.ports.OsmExtractDataService;
+import de.seuhd.campuscoffee.domain.services.OsmImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * System tests for the offline import from OpenStreetMap extract files.
+ */
+public class OsmExtractImportSystemTests extends AbstractSysTest {
+
+    @Autowired
+    private OsmImportService osmImportService;
+
+    @Autowired
+    private OsmExtractDataService osmExtractDataService;
+
+    @Test
+    void importFromCompressedExtract() {
+        List<Long> importedIds = osmImportService.importFromOsmExtract(extract("heidelberg-sample.osm.bz2"));
+
+        // the restaurant does not match the tag filters, the café without address is not a valid POS
+        assertThat(importedIds).containsExactly(5589879349L, 100004L, 100005L, 100007L);
+        assertThat(posService.getAll())
+                .extracting(Pos::osmNodeId, Pos::type)
+                .containsExactlyInAnyOrder(
+                        tuple(5589879349L, PosType.CAFE),
+                        tuple(100004L, PosType.BAKERY),
+                        tuple(100005L, PosType.VENDING_MACHINE),
+                        tuple(100007L, PosType.CAFETERIA));
+    }
+
+    @Test
+    void plainAndCompressedExtractsYieldSameNodes() {
+        List<OsmNode> plainNodes = new ArrayList<>();
+        OsmExtractStats plainStats = osmExtractDataService.readNodes(extract("heidelberg-sample.osm"), plainNodes::add);
+        List<OsmNode> compressedNodes = new ArrayList<>();
+        OsmExtractStats compressedStats = osmExtractDataService.readNodes(extract("heidelberg-sample.osm.bz2"), compressedNodes::add);
+
+        assertThat(plainStats.nodesRead()).isEqualTo(8);
+        assertThat(plainStats.nodesMatched()).isEqualTo(5);
+        assertThat(plainStats.nodesPerSecond()).isPositive();
+        assertThat(compressedStats.nodesRead()).isEqualTo(plainStats.nodesRead());
+        assertThat(compressedNodes).hasSize(5).isEqualTo(plainNodes);
+    }
+
+    @Test
+    void pbfAndXmlExtractsYieldSameNodes() {
+        List<OsmNode> xmlNodes = new ArrayList<>();
+        osmExtractDataService.readNodes(extract("heidelberg-sample.osm"), xmlNodes::add);
+        List<OsmNode> pbfNodes = new ArrayList<>();
+        OsmExtractStats pbfStats = osmExtractDataService.readNodes(extract("heidelberg-sample.osm.pbf"), pbfNodes::add);
+
+        assertThat(pbfStats.nodesRead()).isEqualTo(8);
+        assertThat(pbfStats.nodesMatched()).isEqualTo(5);
+        // PBF stores coordinates with a precision of 100 nanodegrees
+        assertThat(pbfNodes)
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("latitude", "longitude")
+                .isEqualTo(xmlNodes);
+        assertThat(pbfNodes).zipSatisfy(xmlNodes, (pbfNode, xmlNode) -> {
+            assertThat(pbfNode.latitude()).isCloseTo(xmlNode.latitude(), within(1e-7));
+            assertThat(pbfNode.longitude()).isCloseTo(xmlNode.longitude(), within(1e-7));
+        });
+    }
+
+    @Test
+    void importFromPbfExtract() {
+        List<Long> importedIds = osmImportService.importFromOsmExtract(extract("heidelberg-sample.osm.pbf"));
+
+        assertThat(importedIds).containsExactly(5589879349L, 100004L, 100005L, 100007L);
+    }
+
+    @Test
+    void unsupportedFormatIsRejected() {
+        assertThatThrownBy(() -> osmImportService.importFromOsmExtract(Path.of("pom.xml")))
+                .isInstanceOf(OsmExtractException.class);
+    }
+
+    private static Path extract(String fileName) {
+        try {
+            return Path.of(Objects.requireNonNull(OsmExtractImportSystemTests.class.getResource("/osm/" + fileName)).toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package de.seuhd.campuscoffee.systest;
+
+import de.seuhd.campuscoffee.OsmApiStandIn;
+import de.seuhd.campuscoffee.domain.model.BoundingBox;
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.services.OsmImportService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+/**
+ * System tests for importing POS from OpenStreetMap nodes, served by a local {@link OsmApiStandIn}.
+ */
+public class OsmImportSystemTests extends AbstractSysTest {
+    private static final OsmApiStandIn osmApi = new OsmApiStandIn();
+
+    @Autowired
+    private OsmImportService osmImportService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void configureOsmApi(DynamicPropertyRegistry registry) {
+        registry.add("campus-coffee.osm.api.base-url", osmApi::baseUrl);
+        // forces multi-node requests of about ten IDs each
+        registry.add("campus-coffee.osm.api.max-url-length", () -> osmApi.baseUrl().length() + 120);
+        // the assertions count the requests that reach the OSM API
+        registry.add("campus-coffee.osm.cache.enabled", () -> false);
+    }
+
+    @AfterAll
+    static void stopOsmApi() {
+        osmApi.close();
+    }
+
+    @BeforeEach
+    void resetOsmApi() {
+        osmApi.reset();
+    }
+
+    @Test
+    void importSingleNode() {
+        osmApi.addNode(osmNode(1000L));
+
+        RestAssured.given()
+                .post("/api/pos/import/osm/{nodeId}", 1000L)
+                .then()
+                .statusCode(201);
+
+        assertThat(posService.getAll()).extracting(Pos::osmNodeId).containsExactly(1000L);
+        assertThat(osmApi.requests()).hasSize(1);
+    }
+
+    @Test
+    void importNodesInChunks() {
+        List<Long> nodeIds = LongStream.range(1_000_000_000L, 1_000_000_030L).boxed().toList();
+        nodeIds.forEach(nodeId -> osmApi.addNode(osmNode(nodeId)));
+
+        List<Long> importedIds = osmImportService.importFromOsmNodes(nodeIds);
+
+        assertThat(importedIds).containsExactlyElementsOf(nodeIds);
+        assertThat(posService.getAll()).extracting(Pos::osmNodeId).containsExactlyInAnyOrderElementsOf(nodeIds);
+        assertThat(osmApi.requests())
+                .hasSizeBetween(2, 5)
+                .allSatisfy(uri -> assertThat(uri.getPath()).endsWith("/nodes.json"));
+    }
+
+    @Test
+    void importNodesSkipsMissingNodes() {
+        List<Long> nodeIds = LongStream.range(2000L, 2020L).boxed().toList();
+        List<Long> missingIds = List.of(2003L, 2017L);
+        nodeIds.stream()
+                .filter(nodeId -> !missingIds.contains(nodeId))
+                .forEach(nodeId -> osmApi.addNode(osmNode(nodeId)));
+
+        List<Long> importedIds = osmImportService.importFromOsmNodes(nodeIds);
+
+        List<Long> expectedIds = new ArrayList<>(nodeIds);
+        expectedIds.removeAll(missingIds);
+        assertThat(importedIds).containsExactlyElementsOf(expectedIds);
+        // chunks with a missing node are bisected instead of falling back to one request per node
+        assertThat(osmApi.requests()).extracting(URI::getPath).allMatch(path -> path.endsWith("/nodes.json"));
+        assertThat(osmApi.requests()).hasSizeLessThan(nodeIds.size());
+    }
+
+    @Test
+    void failedNodeRequestsAreNotCountedAsMissing() {
+        osmApi.addNode(osmNode(2100L));
+        osmApi.failWith(503);
+        double unavailable = importCount("UNAVAILABLE");
+        double notFound = importCount("NOT_FOUND");
+
+        assertThat(osmImportService.importFromOsmNodes(List.of(2100L, 2101L))).isEmpty();
+
+        assertThat(importCount("UNAVAILABLE")).isEqualTo(unavailable + 2);
+        assertThat(importCount("NOT_FOUND")).isEqualTo(notFound);
+    }
+
+    @Test
+    void importCampusWithSingleRequest() {
+        // Neuenheimer Feld
+        osmApi.addNode(osmNode(3001L, 49.4170, 8.6700));
+        osmApi.addNode(osmNode(3002L, 49.4180, 8.6650, Map.of("amenity", "cafeteria")));
+        // not a POS candidate
+        osmApi.addNode(osmNode(3003L, 49.4175, 8.6710, Map.of("amenity", "restaurant")));
+        // candidate without address
+        osmApi.addNode(OsmNode.builder().nodeId(3004L).latitude(49.4160).longitude(8.6720)
+                .tags(Map.of("name", "Kiosk", "amenity", "cafe")).build());
+        // Altstadt
+        osmApi.addNode(osmNode(3005L, 49.4110, 8.7060));
+
+        RestAssured.given()
+                .post("/api/pos/import/osm/campus/{campus}", CampusType.INF)
+                .then()
+                .statusCode(200)
+                .body("name", contains("Café 3001", "Café 3002"));
+
+        assertThat(posService.getAll()).extracting(Pos::osmNodeId).containsExactlyInAnyOrder(3001L, 3002L);
+        // the campus is derived from the location, not from the imported area
+        assertThat(posService.getAll()).extracting(Pos::campus).containsOnly(CampusType.INF);
+        assertThat(osmImportService.importFromBoundingBox(CampusType.ALTSTADT.boundingBox()))
+                .extracting(Pos::campus).containsExactly(CampusType.ALTSTADT);
+        assertThat(osmApi.requests()).hasSize(2)
+                .allSatisfy(uri -> assertThat(uri.getPath()).endsWith("/map.json"));
+    }
+
+    @Test
+    void areaImportSkipsExistingNames() {
+        osmApi.addNode(osmNode(3101L, 49.4170, 8.6700));
+        osmApi.addNode(osmNode(3102L, 49.4180, 8.6650));
+        osmApi.addNode(osmNode(3103L, 49.4160, 8.6720));
+        posService.importFromOsmNode(osmNode(3102L, 49.4180, 8.6650));
+        double duplicates = meterRegistry.counter("pos.imports", "source", "area", "outcome", "DUPLICATE_NAME").count();
+
+        // the batch fails on the existing name, the other nodes are then imported one by one
+        assertThat(osmImportService.importFromCampus(CampusType.INF))
+                .extracting(Pos::osmNodeId).containsExactly(3101L, 3103L);
+        assertThat(posService.getAll()).extracting(Pos::osmNodeId).containsExactlyInAnyOrder(3101L, 3102L, 3103L);
+        assertThat(meterRegistry.counter("pos.imports", "source", "area", "outcome", "DUPLICATE_NAME").count())
+                .isEqualTo(duplicates + 1);
+    }
+
+    @Test
+    void importLargeBoundingBoxInTiles() {
+        // spread over a box of 0.5 x 1.0 degrees, i.e., more than the maximum area of a single request
+        List<Long> nodeIds = LongStream.range(4000L, 4020L).boxed().toList();
+        nodeIds.forEach(nodeId -> osmApi.addNode(osmNode(nodeId, 49.0 + (nodeId - 4000) * 0.025, 8.0 + (nodeId - 4000) * 0.05)));
+        osmApi.setMaxMapNodes(4);
+
+        List<Pos> imported = osmImportService.importFromBoundingBox(new BoundingBox(49.0, 8.0, 49.5, 9.0));
+
+        assertThat(imported).extracting(Pos::osmNodeId).containsExactlyElementsOf(nodeIds);
+        // 2 tiles, which are bisected until they contain at most 4 nodes
+        assertThat(osmApi.requests()).hasSizeGreaterThan(2)
+                .allSatisfy(uri -> assertThat(uri.getPath()).endsWith("/map.json"));
+    }
+
+    @Test
+    void invalidBoundingBoxIsRejected() {
+        RestAssured.given()
+                .queryParam("minLat", 49.42)
+                .queryParam("minLon", 8.65)
+                .queryParam("maxLat", 49.41)
+                .queryParam("maxLon", 8.68)
+                .post("/api/pos/import/osm/bbox")
+                .then()
+                .statusCode(400);
+        RestAssured.given()
+                .post("/api/pos/import/osm/campus/{campus}", "MANNHEIM")
+                .then()
+                .statusCode(400);
+
+        RestAssured.given()
+                .queryParam("minLat", -90)
+                .queryParam("minLon", -180)
+                .queryParam("maxLat", 90)
+                .queryParam("maxLon", 180)
+                .post("/api/pos/import/osm/bbox")
+                .then()
+                .statusCode(400);
+
+        assertThat(osmApi.requests()).isEmpty();
+    }
+
+    @Test
+    void failedDiscoveryIsNotAnEmptyArea() {
+        osmApi.addNode(osmNode(5001L, 49.4170, 8.6700));
+        osmApi.failWith(503);
+
+        RestAssured.given()
+                .post("/api/pos/import/osm/campus/{campus}", CampusType.INF)
+                .then()
+                .statusCode(503);
+
+        assertThat(posService.getAll()).isEmpty();
+        assertThat(meterRegistry.get("pos.import.duration").tags("source", "area", "outcome", "UNAVAILABLE")
+                .timer().count()).isEqualTo(1);
+    }
+
+    private double importCount(String outcome) {
+        return meterRegistry.counter("pos.imports", "source", "nodes", "outcome", outcome).count();
+    }
+
+    private static OsmNode osmNode(long nodeId) {
+        return osmNode(nodeId, 49.41, 8.69);
+    }
+
+    private static OsmNode osmNode(long nodeId, double latitude, double longitude) {
+        return osmNode(nodeId, latitude, longitude, Map.of("amenity", "cafe"));
+    }
+
+    private static OsmNode osmNode(long nodeId, double latitude, double longitude, Map<String, String> poiTags) {
+        Map<String, String> tags = new HashMap<>(Map.of(
+                "name", "Café " + nodeId,
+                "addr:street", "Hauptstraße",
+                "addr:housenumber", "1",
+                "addr:postcode", "69117",
+                "addr:city", "Heidelberg"));
+        tags.putAll(poiTags);
+        return OsmNode.builder()
+                .nodeId(nodeId)
+                .latitude(latitude)
+                .longitude(longitude)
+                .tags(tags)
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package de.seuhd.campuscoffee.systest;
+
+import de.seuhd.campuscoffee.OsmApiStandIn;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.services.OsmImportService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * System tests for the persistent OSM node cache in front of a local {@link OsmApiStandIn}.
+ */
+public class OsmNodeCacheSystemTests extends AbstractSysTest {
+    private static final OsmApiStandIn osmApi = new OsmApiStandIn();
+    private static final Path cacheDirectory;
+
+    static {
+        try {
+            cacheDirectory = Files.createTempDirectory("osm-cache");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Autowired
+    private OsmImportService osmImportService;
+
+    @DynamicPropertySource
+    static void configureOsmCache(DynamicPropertyRegistry registry) {
+        registry.add("campus-coffee.osm.api.base-url", osmApi::baseUrl);
+        registry.add("campus-coffee.osm.cache.enabled", () -> true);
+        registry.add("campus-coffee.osm.cache.directory", cacheDirectory::toString);
+    }
+
+    @AfterAll
+    static void stopOsmApi() {
+        osmApi.close();
+    }
+
+    @BeforeEach
+    void resetOsmApi() {
+        osmApi.reset();
+    }
+
+    @Test
+    void warmReimportDoesNotCallOsmApi() {
+        List<Long> nodeIds = LongStream.range(3000L, 3010L).boxed().toList();
+        nodeIds.forEach(nodeId -> osmApi.addNode(osmNode(nodeId)));
+
+        assertThat(osmImportService.importFromOsmNodes(nodeIds)).containsExactlyElementsOf(nodeIds);
+        assertThat(osmApi.requests()).isNotEmpty();
+
+        posService.clear();
+        osmApi.reset(); // the OSM API no longer knows the nodes
+
+        assertThat(osmImportService.importFromOsmNodes(nodeIds)).containsExactlyElementsOf(nodeIds);
+        assertThat(osmApi.requests()).isEmpty();
+        assertThat(cacheDirectory.resolve("osm-nodes.dat")).isNotEmptyFile();
+    }
+
+    @Test
+    void cacheFileIsLockedWhileOpen() throws IOException {
+        try (FileChannel lockFile = FileChannel.open(cacheDirectory.resolve("osm-nodes.lock"), StandardOpenOption.WRITE)) {
+            // held by the cache of this JVM; another process would not get the lock either
+            assertThatThrownBy(lockFile::tryLock).isInstanceOf(OverlappingFileLockException.class);
+        }
+    }
+
+    @Test
+    void onlyUncachedNodesAreFetched() {
+        List<Long> cachedIds = LongStream.range(4000L, 4005L).boxed().toList();
+        List<Long> uncachedIds = LongStream.range(4005L, 4010L).boxed().toList();
+        cachedIds.forEach(nodeId -> osmApi.addNode(osmNode(nodeId)));
+        uncachedIds.forEach(nodeId -> osmApi.addNode(osmNode(nodeId)));
+        osmImportService.importFromOsmNodes(cachedIds);
+        posService.clear();
+        osmApi.reset();
+        uncachedIds.forEach(nodeId -> osmApi.addNode(osmNode(nodeId)));
+
+        List<Long> nodeIds = LongStream.range(4000L, 4010L).boxed().toList();
+        assertThat(osmImportService.importFromOsmNodes(nodeIds)).containsExactlyElementsOf(nodeIds);
+        assertThat(osmApi.requests())
+                .singleElement()
+                .satisfies(uri -> assertThat(uri.getQuery()).isEqualTo("nodes=4005,4006,4007,4008,4009"));
+    }
+
+    private static OsmNode osmNode(long nodeId) {
+        return OsmNode.builder()
+                .nodeId(nodeId)
+                .latitude(49.41)
+                .longitude(8.69)
+                .tags(Map.of(
+                        "name", "Café " + nodeId,
+                        "amenity", "cafe",
+                        "addr:street", "Hauptstraße",
+                        "addr:housenumber", "1",
+                        "addr:postcode", "69117",
+                        "addr:city", "Heidelberg"))
+                .build();
+    }
+}
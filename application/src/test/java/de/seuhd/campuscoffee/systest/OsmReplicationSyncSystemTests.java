@@ -0,0 +1,142 @@
+package de.seuhd.campuscoffee.systest;
+
+import de.seuhd.campuscoffee.OsmReplicationStandIn;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.model.OsmSyncStats;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.services.OsmSyncService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+import static de.seuhd.campuscoffee.OsmReplicationStandIn.delete;
+import static de.seuhd.campuscoffee.OsmReplicationStandIn.modify;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * System tests for the synchronization of imported POS with OpenStreetMap replication diffs, against a local
+ * {@link OsmReplicationStandIn}.
+ */
+public class OsmReplicationSyncSystemTests extends AbstractSysTest {
+    private static final OsmReplicationStandIn replication = new OsmReplicationStandIn();
+
+    @Autowired
+    private OsmSyncService osmSyncService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void configureReplication(DynamicPropertyRegistry registry) {
+        registry.add("campus-coffee.osm.replication.source", replication::baseUrl);
+        registry.add("campus-coffee.osm.sync.max-diffs-per-run", () -> 3);
+        registry.add("campus-coffee.osm.sync.batch-size", () -> 2);
+    }
+
+    @AfterAll
+    static void stopReplication() {
+        replication.close();
+    }
+
+    @BeforeEach
+    void resetReplication() {
+        jdbcTemplate.update("DELETE FROM osm_replication_state");
+        replication.reset();
+    }
+
+    @Test
+    void changesOfImportedNodesAreApplied() {
+        Pos renamed = importPos(osmNode(7001L, "Café Alt", Map.of()));
+        Pos unchanged = importPos(osmNode(7002L, "Bäckerei Eck", Map.of()));
+        Pos deleted = importPos(osmNode(7003L, "Kaffeeautomat", Map.of()));
+
+        // the first run starts at the current diff, since the imported POS are up to date
+        OsmSyncStats initial = osmSyncService.sync();
+        assertThat(initial.sequenceNumber()).isEqualTo(replication.sequenceNumber());
+        assertThat(initial.diffsApplied()).isZero();
+
+        replication.publishDiff(
+                modify(osmNode(7001L, "Café Neu", Map.of()), 2),
+                modify(osmNode(9999L, "Unrelated Café", Map.of()), 5));
+        replication.publishDiff(
+                modify(osmNode(7001L, "Café Neuer", Map.of("opening_hours", "Mo-Fr 08:00-18:00")), 3),
+                // a tag that is not mapped to the POS
+                modify(osmNode(7002L, "Bäckerei Eck", Map.of("wheelchair", "yes")), 4),
+                delete(7003L, 2));
+
+        OsmSyncStats stats = osmSyncService.sync();
+
+        assertThat(stats.sequenceNumber()).isEqualTo(replication.sequenceNumber());
+        assertThat(stats.diffsApplied()).isEqualTo(2);
+        assertThat(stats.nodesChanged()).isEqualTo(3);
+        assertThat(stats.posUpdated()).isEqualTo(1);
+        Pos updated = posService.getById(renamed.id());
+        assertThat(updated.name()).isEqualTo("Café Neuer");
+        assertThat(updated.description()).contains("Mo-Fr 08:00-18:00");
+        assertThat(updated.createdAt()).isEqualTo(renamed.createdAt());
+        assertThat(posService.getById(unchanged.id())).isEqualTo(unchanged);
+        // POS of deleted nodes are kept
+        assertThat(posService.getById(deleted.id())).isEqualTo(deleted);
+
+        // nothing new: only the state is read
+        replication.reset();
+        OsmSyncStats noop = osmSyncService.sync();
+        assertThat(noop.diffsApplied()).isZero();
+        assertThat(noop.sequenceNumber()).isEqualTo(stats.sequenceNumber());
+        assertThat(replication.requests()).extracting(URI::getPath).allMatch(path -> path.endsWith("/state.txt"));
+    }
+
+    @Test
+    void diffsAreAppliedInStepsAndOnlyDownloadedForImportedPos() {
+        osmSyncService.sync();
+        long start = replication.sequenceNumber();
+        for (int i = 0; i < 4; i++) {
+            replication.publishDiff(modify(osmNode(8000L + i, "Café " + i, Map.of()), 2));
+        }
+
+        // without imported POS, the diffs are skipped without downloading them
+        OsmSyncStats first = osmSyncService.sync();
+        assertThat(first.sequenceNumber()).isEqualTo(start + 3);
+        assertThat(first.diffsApplied()).isEqualTo(3);
+        assertThat(replication.requests()).extracting(URI::getPath).noneMatch(path -> path.endsWith(".osc.gz"));
+
+        posService.importFromOsmNode(osmNode(8003L, "Café", Map.of()));
+        OsmSyncStats second = osmSyncService.sync();
+        assertThat(second.sequenceNumber()).isEqualTo(start + 4);
+        assertThat(second.diffsApplied()).isEqualTo(1);
+        assertThat(second.posUpdated()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT sequence_number FROM osm_replication_state", Long.class))
+                .isEqualTo(start + 4);
+        assertThat(posService.getAll()).extracting(Pos::name).containsExactly("Café 3");
+    }
+
+    private Pos importPos(OsmNode osmNode) {
+        // read back, since the database truncates the timestamps to microseconds
+        return posService.getById(posService.importFromOsmNode(osmNode).id());
+    }
+
+    private static OsmNode osmNode(long nodeId, String name, Map<String, String> extraTags) {
+        Map<String, String> tags = new HashMap<>(Map.of(
+                "name", name,
+                "amenity", "cafe",
+                "addr:street", "Hauptstraße",
+                "addr:housenumber", "1",
+                "addr:postcode", "69117",
+                "addr:city", "Heidelberg"));
+        tags.putAll(extraTags);
+        return OsmNode.builder()
+                .nodeId(nodeId)
+                .latitude(49.41)
+                .longitude(8.69)
+                .tags(tags)
+                .build();
+    }
+}
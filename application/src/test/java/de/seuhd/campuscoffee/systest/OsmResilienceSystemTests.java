@@ -0,0 +1,144 @@
+package de.seuhd.campuscoffee.systest;
+
+import de.seuhd.campuscoffee.OsmApiStandIn;
+import de.seuhd.campuscoffee.domain.events.OsmCircuitBreakerEvent;
+import de.seuhd.campuscoffee.domain.events.OsmCircuitBreakerEvent.State;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.services.OsmImportService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * System tests for the circuit breaker and hedged requests of the OSM API client, against a local
+ * {@link OsmApiStandIn} that simulates failures and slow responses.
+ */
+public class OsmResilienceSystemTests extends AbstractSysTest {
+    private static final OsmApiStandIn osmApi = new OsmApiStandIn();
+    private static final Duration OPEN_DURATION = Duration.ofMillis(500);
+
+    @Autowired
+    private OsmImportService osmImportService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CircuitBreakerEvents circuitBreakerEvents;
+
+    @DynamicPropertySource
+    static void configureOsmApi(DynamicPropertyRegistry registry) {
+        registry.add("campus-coffee.osm.api.base-url", osmApi::baseUrl);
+        registry.add("campus-coffee.osm.cache.enabled", () -> false);
+        registry.add("campus-coffee.osm.api.circuit-breaker.sliding-window-size", () -> 4);
+        registry.add("campus-coffee.osm.api.circuit-breaker.minimum-calls", () -> 4);
+        registry.add("campus-coffee.osm.api.circuit-breaker.open-duration", OPEN_DURATION::toString);
+        registry.add("campus-coffee.osm.api.circuit-breaker.half-open-calls", () -> 1);
+        registry.add("campus-coffee.osm.api.hedging.enabled", () -> true);
+        registry.add("campus-coffee.osm.api.hedging.min-samples", () -> 5);
+    }
+
+    @AfterAll
+    static void stopOsmApi() {
+        osmApi.close();
+    }
+
+    @BeforeEach
+    void resetOsmApi() {
+        osmApi.reset();
+        circuitBreakerEvents.events.clear();
+    }
+
+    @Test
+    void circuitOpensOnFailuresAndClosesAfterRecovery() throws InterruptedException {
+        osmApi.failWith(503);
+
+        for (long nodeId = 5000L; nodeId < 5010L; nodeId++) {
+            assertThat(osmImportService.importFromOsmNode(nodeId)).isFalse();
+        }
+        RestAssured.given()
+                .post("/api/pos/import/osm/{nodeId}", 5010L)
+                .then()
+                .statusCode(503);
+
+        // after four failures, the remaining requests are rejected without calling the API
+        assertThat(osmApi.requests()).hasSize(4);
+        assertThat(meterRegistry.get("osm.api.circuit.state").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("osm.api.circuit.rejected").counter().count()).isGreaterThanOrEqualTo(7);
+
+        osmApi.failWith(0);
+        osmApi.addNode(osmNode(5020L));
+        Thread.sleep(OPEN_DURATION.toMillis() + 100);
+
+        assertThat(osmImportService.importFromOsmNode(5020L)).isTrue();
+        assertThat(meterRegistry.get("osm.api.circuit.state").gauge().value()).isEqualTo(0);
+        assertThat(circuitBreakerEvents.events)
+                .extracting(OsmCircuitBreakerEvent::previousState, OsmCircuitBreakerEvent::state)
+                .containsExactly(
+                        tuple(State.CLOSED, State.OPEN),
+                        tuple(State.OPEN, State.HALF_OPEN),
+                        tuple(State.HALF_OPEN, State.CLOSED));
+    }
+
+    @Test
+    void slowRequestIsHedged() {
+        List<Long> nodeIds = LongStream.range(6000L, 6010L).boxed().toList();
+        nodeIds.forEach(nodeId -> osmApi.addNode(osmNode(nodeId)));
+        // collect latency samples for the hedging delay
+        nodeIds.subList(0, 9).forEach(nodeId -> assertThat(osmImportService.importFromOsmNode(nodeId)).isTrue());
+        double hedgesWon = meterRegistry.counter("osm.api.hedges.won", "host", "localhost").count();
+        osmApi.delayNextRequests(1, Duration.ofSeconds(5));
+
+        long start = System.nanoTime();
+        assertThat(osmImportService.importFromOsmNode(6009L)).isTrue();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(2));
+        assertThat(osmApi.requests()).hasSize(nodeIds.size() + 1);
+        assertThat(meterRegistry.counter("osm.api.hedges.won", "host", "localhost").count()).isEqualTo(hedgesWon + 1);
+    }
+
+    private static OsmNode osmNode(long nodeId) {
+        return OsmNode.builder()
+                .nodeId(nodeId)
+                .latitude(49.41)
+                .longitude(8.69)
+                .tags(Map.of(
+                        "name", "Café " + nodeId,
+                        "amenity", "cafe",
+                        "addr:street", "Hauptstraße",
+                        "addr:housenumber", "1",
+                        "addr:postcode", "69117",
+                        "addr:city", "Heidelberg"))
+                .build();
+    }
+
+    /**
+     * Collects the circuit breaker events, which are published on the threads that complete the requests.
+     */
+    @TestConfiguration
+    static class CircuitBreakerEvents {
+        private final List<OsmCircuitBreakerEvent> events = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        void onCircuitBreakerEvent(OsmCircuitBreakerEvent event) {
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package de.seuhd.campuscoffee.systest;
+
+import de.seuhd.campuscoffee.TestUtils;
+import de.seuhd.campuscoffee.api.dtos.PosDto;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * System tests for the propagation of POS changes to other application instances via Postgres LISTEN/NOTIFY.
+ */
+public class PosChangeNotificationSystemTests extends AbstractSysTest {
+
+    @Test
+    void upsertNotifiesOtherInstances() throws Exception {
+        try (Connection connection = DriverManager.getConnection(
+                postgresContainer.getJdbcUrl(), postgresContainer.getUsername(), postgresContainer.getPassword())) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN pos_changed");
+            }
+
+            PosDto createdPos = TestUtils.createPos(List.of(
+                    posDtoMapper.fromDomain(TestFixtures.getPosFixturesForInsertion().getFirst())
+            )).getFirst();
+
+            assertThat(receivePayloads(connection))
+                    .anyMatch(payload -> payload.endsWith(":" + createdPos.id()));
+        }
+    }
+
+    @Test
+    void clearNotifiesOtherInstances() throws Exception {
+        try (Connection connection = DriverManager.getConnection(
+                postgresContainer.getJdbcUrl(), postgresContainer.getUsername(), postgresContainer.getPassword())) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN pos_changed");
+            }
+
+            posService.clear();
+
+            assertThat(receivePayloads(connection))
+                    .anyMatch(payload -> payload.endsWith(":*"));
+        }
+    }
+
+    private static List<String> receivePayloads(Connection connection) throws Exception {
+        List<String> payloads = new ArrayList<>();
+        PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications(5000);
+        if (notifications != null) {
+            for (PGNotification notification : notifications) {
+                payloads.add(notification.getParameter());
+            }
+        }
+        return payloads;
+    }
+}
@@ -0,0 +1,90 @@
+package de.seuhd.campuscoffee.systest;
+
+import de.seuhd.campuscoffee.data.testing.SqlStatement;
+import de.seuhd.campuscoffee.data.testing.SqlStatementCapture;
+import de.seuhd.campuscoffee.domain.exceptions.DuplicatePosNameException;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+
+import static de.seuhd.campuscoffee.data.testing.SqlStatement.Kind.SELECT;
+import static de.seuhd.campuscoffee.data.testing.SqlStatementCapture.capture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * System tests for the in-memory index of POS names.
+ * Changes made directly in the database simulate writes of other application instances.
+ */
+@Import(SqlStatementCapture.Configuration.class)
+public class PosNameIndexSystemTests extends AbstractSysTest {
+
+    @DynamicPropertySource
+    static void enableNameIndex(DynamicPropertyRegistry registry) {
+        registry.add("campus-coffee.name-index.enabled", () -> "true");
+    }
+
+    @Test
+    void knownDuplicatesAreRejectedBeforeWriting() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+        Pos first = createdPosList.getFirst();
+        Pos second = createdPosList.get(1);
+
+        // no statement for a new POS, only the lookup of the POS to update
+        assertThat(capture(() -> assertThatThrownBy(() -> posService.upsert(
+                TestFixtures.getPosFixturesForInsertion().getLast().toBuilder().name(first.name()).build()))
+                .isInstanceOf(DuplicatePosNameException.class)))
+                .isEmpty();
+        assertThat(capture(() -> assertThatThrownBy(() -> posService.upsert(
+                second.toBuilder().name(first.name()).build()))
+                .isInstanceOf(DuplicatePosNameException.class)))
+                .extracting(SqlStatement::kind, SqlStatement::table)
+                .containsExactly(tuple(SELECT, "pos"));
+
+        // keeping the name is not a duplicate, and a renamed POS releases its old name
+        posService.upsert(first.toBuilder().description("Updated description").build());
+        posService.upsert(first.toBuilder().name("Renamed Café").build());
+        Pos created = posService.upsert(second.toBuilder().id(null).name(first.name()).build());
+        assertThat(created.name()).isEqualTo(first.name());
+        assertThatThrownBy(() -> posService.upsert(second.toBuilder().name("Renamed Café").build()))
+                .isInstanceOf(DuplicatePosNameException.class);
+    }
+
+    @Test
+    void databaseRemainsFinalArbiterAndNotificationsRefreshTheIndex() throws InterruptedException {
+        Pos pos = TestFixtures.createPosFixtures(posService).getFirst();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                postgresContainer.getJdbcUrl(), postgresContainer.getUsername(), postgresContainer.getPassword()));
+        jdbcTemplate.update("UPDATE pos SET name = 'Renamed by another instance' WHERE id = ?", pos.id());
+
+        // the index does not know the new name yet, but the unique constraint does
+        Pos newPos = TestFixtures.getPosFixturesForInsertion().getLast();
+        assertThatThrownBy(() -> posService.upsert(newPos.toBuilder().name("Renamed by another instance").build()))
+                .isInstanceOf(DuplicatePosNameException.class);
+
+        jdbcTemplate.execute("NOTIFY pos_changed, 'other-instance:" + pos.id() + "'");
+
+        // the old name is released once the notification has arrived
+        Pos created = null;
+        for (int attempt = 0; attempt < 50 && created == null; attempt++) {
+            try {
+                created = posService.upsert(newPos.toBuilder().name(pos.name()).build());
+            } catch (DuplicatePosNameException e) {
+                Thread.sleep(100);
+            }
+        }
+        assertThat(created).isNotNull();
+        assertThat(capture(() -> assertThatThrownBy(() -> posService.upsert(
+                newPos.toBuilder().name("Renamed by another instance").build()))
+                .isInstanceOf(DuplicatePosNameException.class)))
+                .isEmpty();
+    }
+}
@@ -0,0 +1,101 @@
+package de.seuhd.campuscoffee.systest;
+
+import de.seuhd.campuscoffee.TestUtils;
+import de.seuhd.campuscoffee.api.dtos.PosDto;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.ports.PosDataService;
+import de.seuhd.campuscoffee.domain.ports.PosSnapshotDataService;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * System tests for the in-memory read model of the POS catalogue.
+ * Changes made directly in the database simulate writes of other application instances.
+ */
+public class PosReadModelSystemTests extends AbstractSysTest {
+
+    @Autowired
+    private PosDataService posDataService;
+
+    @Autowired
+    private PosSnapshotDataService posSnapshotDataService;
+
+    @TempDir
+    private Path directory;
+
+    @DynamicPropertySource
+    static void enableReadModel(DynamicPropertyRegistry registry) {
+        registry.add("campus-coffee.read-model.enabled", () -> "true");
+    }
+
+    @Test
+    void readsAreServedFromMemoryAndRefreshedOnNotification() throws InterruptedException {
+        PosDto createdPos = TestUtils.createPos(List.of(
+                posDtoMapper.fromDomain(TestFixtures.getPosFixturesForInsertion().getFirst())
+        )).getFirst();
+        assertThat(TestUtils.retrievePos())
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("createdAt", "updatedAt")
+                .containsExactly(createdPos);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                postgresContainer.getJdbcUrl(), postgresContainer.getUsername(), postgresContainer.getPassword()));
+        jdbcTemplate.update("UPDATE pos SET description = 'Changed by another instance' WHERE id = ?", createdPos.id());
+
+        // the read model does not see the change until it is notified
+        assertThat(TestUtils.retrievePosById(createdPos.id()).description()).isEqualTo(createdPos.description());
+
+        jdbcTemplate.execute("NOTIFY pos_changed, 'other-instance:" + createdPos.id() + "'");
+
+        String description = createdPos.description();
+        for (int attempt = 0; attempt < 50 && description.equals(createdPos.description()); attempt++) {
+            Thread.sleep(100);
+            description = TestUtils.retrievePosById(createdPos.id()).description();
+        }
+        assertThat(description).isEqualTo("Changed by another instance");
+    }
+
+    @Test
+    void restoredSnapshotIsReloaded() {
+        TestFixtures.createPosFixtures(posService);
+        List<Pos> createdPosList = posService.getAll();
+        Path snapshot = directory.resolve("pos.pgcopy");
+        posSnapshotDataService.writeSnapshot(snapshot);
+        posService.clear();
+        assertThat(posService.getAll()).isEmpty();
+
+        posSnapshotDataService.restoreSnapshot(snapshot);
+
+        assertThat(posService.getAll())
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("createdAt", "updatedAt")
+                .containsExactlyInAnyOrderElementsOf(createdPosList);
+    }
+
+    @Test
+    void batchWritesAreMergedIntoTheReadModel() {
+        List<Pos> fixtures = TestFixtures.getPosFixturesForInsertion();
+        Pos firstPos = posService.upsert(fixtures.getFirst());
+        assertThat(posService.getAll()).hasSize(1);
+
+        // updates and inserts, with a POS written twice
+        List<Pos> upsertedPosList = posDataService.upsertAll(List.of(
+                fixtures.getLast(),
+                firstPos.toBuilder().description("First update").build(),
+                fixtures.get(1),
+                firstPos.toBuilder().description("Second update").build()));
+
+        assertThat(posService.getAll()).extracting(Pos::id)
+                .containsExactlyInAnyOrderElementsOf(upsertedPosList.stream().map(Pos::id).distinct().toList());
+        assertThat(posService.getById(firstPos.id()).description()).isEqualTo("Second update");
+    }
+}
@@ -0,0 +1,71 @@
+package de.seuhd.campuscoffee.systest;
+
+import de.seuhd.campuscoffee.domain.exceptions.PosSnapshotException;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.ports.PosSnapshotDataService;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * System tests for writing all POS to a snapshot and restoring them from it.
+ */
+public class PosSnapshotSystemTests extends AbstractSysTest {
+
+    @Autowired
+    private PosSnapshotDataService posSnapshotDataService;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void restoreWrittenSnapshot() {
+        TestFixtures.createPosFixtures(posService);
+        // as stored, i.e., with timestamps in microseconds
+        List<Pos> createdPosList = posService.getAll();
+        Path snapshot = directory.resolve("seed/pos.pgcopy");
+        assertThat(posSnapshotDataService.writeSnapshot(snapshot)).isEqualTo(createdPosList.size());
+
+        // the restored POS replace the existing ones
+        posService.clear();
+        posService.upsert(TestFixtures.getPosFixturesForInsertion().getLast().toBuilder()
+                .name("Replaced Café")
+                .build());
+        assertThat(posSnapshotDataService.restoreSnapshot(snapshot)).isEqualTo(createdPosList.size());
+
+        assertThat(posService.getAll())
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyInAnyOrderElementsOf(createdPosList);
+        // new POS get IDs after the restored ones
+        Pos newPos = posService.upsert(TestFixtures.getPosFixturesForInsertion().getFirst().toBuilder()
+                .name("New Café")
+                .build());
+        assertThat(newPos.id()).isGreaterThan(createdPosList.stream().mapToLong(Pos::id).max().orElseThrow());
+    }
+
+    @Test
+    void invalidSnapshotLeavesPosUnchanged() throws IOException {
+        TestFixtures.createPosFixtures(posService);
+        List<Pos> createdPosList = posService.getAll();
+        Path snapshot = Files.writeString(directory.resolve("pos.pgcopy"), "not a snapshot");
+
+        assertThatThrownBy(() -> posSnapshotDataService.restoreSnapshot(snapshot))
+                .isInstanceOf(PosSnapshotException.class);
+        assertThatThrownBy(() -> posSnapshotDataService.restoreSnapshot(directory.resolve("missing.pgcopy")))
+                .isInstanceOf(PosSnapshotException.class)
+                .hasMessageContaining("does not exist");
+
+        assertThat(posService.getAll())
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyInAnyOrderElementsOf(createdPosList);
+    }
+}
@@ -0,0 +1,107 @@
+package de.seuhd.campuscoffee.systest;
+
+import de.seuhd.campuscoffee.api.dtos.PosMarkerDto;
+import de.seuhd.campuscoffee.domain.model.MapTile;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosMarker;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * System tests for the clustered POS markers on map tiles.
+ * Changes made directly in the database simulate writes of other application instances.
+ */
+public class PosTileSystemTests extends AbstractSysTest {
+
+    @Test
+    void nearbyPosAreClusteredAtLowZoomLevels() {
+        List<Pos> createdPosList = createLocatedPos();
+
+        List<PosMarkerDto> world = given()
+                .contentType(ContentType.JSON)
+                .when()
+                .get("/api/pos/tiles/0/0/0")
+                .then()
+                .statusCode(200)
+                .extract().jsonPath().getList("$", PosMarkerDto.class);
+        // the POS without coordinates is not on the map
+        assertThat(world).singleElement().satisfies(cluster -> {
+            assertThat(cluster.count()).isEqualTo(3);
+            assertThat(cluster.posId()).isNull();
+            assertThat(cluster.latitude()).isCloseTo(
+                    createdPosList.stream().limit(3).mapToDouble(Pos::latitude).average().orElseThrow(), within(1e-9));
+        });
+
+        // above the maximum cluster zoom level, each POS is a marker of its own
+        Pos pos = createdPosList.getFirst();
+        assertThat(posService.getMarkers(tileOf(pos, 18)))
+                .containsExactly(new PosMarker(pos.latitude(), pos.longitude(), 1, pos.id(), pos.name()));
+
+        given().when().get("/api/pos/tiles/1/2/0").then().statusCode(400);
+        given().when().get("/api/pos/tiles/23/0/0").then().statusCode(400);
+    }
+
+    @Test
+    void writesUpdateTheMarkers() throws InterruptedException {
+        List<Pos> createdPosList = createLocatedPos();
+        Pos pos = createdPosList.getFirst();
+        MapTile oldTile = tileOf(pos, 18);
+
+        Pos moved = posService.upsert(pos.toBuilder().latitude(49.4180).longitude(8.6785).build());
+        assertThat(posService.getMarkers(oldTile)).isEmpty();
+        assertThat(posService.getMarkers(tileOf(moved, 18))).extracting(PosMarker::posId).contains(pos.id());
+
+        posService.upsert(moved.toBuilder().latitude(null).longitude(null).build());
+        assertThat(posService.getMarkers(tileOf(moved, 18))).extracting(PosMarker::posId).doesNotContain(pos.id());
+        assertThat(posService.getMarkers(new MapTile(0, 0, 0))).singleElement()
+                .extracting(PosMarker::count).isEqualTo(2);
+
+        // a change of another instance is applied once its notification has arrived
+        Pos other = createdPosList.get(1);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                postgresContainer.getJdbcUrl(), postgresContainer.getUsername(), postgresContainer.getPassword()));
+        jdbcTemplate.update("UPDATE pos SET latitude = ?, longitude = ? WHERE id = ?", 49.4000, 8.6900, other.id());
+        jdbcTemplate.execute("NOTIFY pos_changed, 'other-instance:" + other.id() + "'");
+        MapTile newTile = tileOf(other.toBuilder().latitude(49.4000).longitude(8.6900).build(), 18);
+        for (int attempt = 0; attempt < 50 && posService.getMarkers(newTile).isEmpty(); attempt++) {
+            Thread.sleep(100);
+        }
+        assertThat(posService.getMarkers(newTile)).extracting(PosMarker::posId).containsExactly(other.id());
+        assertThat(posService.getMarkers(tileOf(other, 18))).isEmpty();
+    }
+
+    /**
+     * Creates the fixtures, all but the last one with coordinates near their address.
+     */
+    private List<Pos> createLocatedPos() {
+        double[][] coordinates = {{49.4108, 8.7003}, {49.4185, 8.6780}, {49.4175, 8.6700}};
+        List<Pos> posList = new ArrayList<>(TestFixtures.getPosFixturesForInsertion());
+        for (int i = 0; i < coordinates.length; i++) {
+            posList.set(i, posList.get(i).toBuilder()
+                    .latitude(coordinates[i][0])
+                    .longitude(coordinates[i][1])
+                    .build());
+        }
+        return posList.stream().map(posService::upsert).toList();
+    }
+
+    /**
+     * @return the tile that contains the POS at the given zoom level
+     */
+    private static MapTile tileOf(Pos pos, int zoom) {
+        double latitude = Math.toRadians(pos.latitude());
+        double x = (pos.longitude() + 180) / 360;
+        double y = (1 - Math.log(Math.tan(latitude) + 1 / Math.cos(latitude)) / Math.PI) / 2;
+        return new MapTile(zoom, (int) Math.floor(x * (1 << zoom)), (int) Math.floor(y * (1 << zoom)));
+    }
+}
@@ -0,0 +1,74 @@
+package de.seuhd.campuscoffee.systest;
+
+import de.seuhd.campuscoffee.TestUtils;
+import de.seuhd.campuscoffee.api.dtos.PosDto;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * System tests for routing read-only data access to a replica.
+ * The "replica" is a second, independent Postgres container with the same schema, which makes it observable
+ * which database served a request.
+ */
+public class ReadReplicaSystemTests extends AbstractSysTest {
+    private static final PostgreSQLContainer<?> replicaContainer;
+    private static final JdbcTemplate replicaJdbcTemplate;
+
+    static {
+        replicaContainer = TestUtils.getPostgresContainer("replica");
+        replicaContainer.start();
+        Flyway.configure()
+                .dataSource(replicaContainer.getJdbcUrl(), replicaContainer.getUsername(), replicaContainer.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        replicaJdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                replicaContainer.getJdbcUrl(), replicaContainer.getUsername(), replicaContainer.getPassword()));
+    }
+
+    @DynamicPropertySource
+    static void configureReplica(DynamicPropertyRegistry registry) {
+        registry.add("campus-coffee.datasource.replica.url", replicaContainer::getJdbcUrl);
+        registry.add("campus-coffee.read-model.enabled", () -> "false"); // reads must hit the database
+    }
+
+    @AfterEach
+    void clearReplica() {
+        replicaJdbcTemplate.update("DELETE FROM pos");
+    }
+
+    @Test
+    void writesGoToPrimaryAndReadsGoToReplica() {
+        PosDto createdPos = TestUtils.createPos(List.of(
+                posDtoMapper.fromDomain(TestFixtures.getPosFixturesForInsertion().getFirst())
+        )).getFirst();
+
+        assertThat(createdPos.id()).isNotNull();
+        // the write was committed on the primary, which does not replicate to the test replica
+        assertThat(TestUtils.retrievePos()).isEmpty();
+    }
+
+    @Test
+    void readsAreServedByReplica() {
+        replicaJdbcTemplate.update("""
+                INSERT INTO pos (id, created_at, updated_at, name, description, type, campus, street, house_number, postal_code, city)
+                VALUES (42, now(), now(), 'Replica Café', 'Only on the replica', 'CAFE', 'ALTSTADT', 'Hauptstraße', 1, 69117, 'Heidelberg')
+                """);
+
+        assertThat(TestUtils.retrievePos())
+                .extracting(PosDto::name)
+                .containsExactly("Replica Café");
+        assertThat(TestUtils.retrievePosById(42L).name()).isEqualTo("Replica Café");
+    }
+}
@@ -0,0 +1,141 @@
+package de.seuhd.campuscoffee.systest;
+
+import de.seuhd.campuscoffee.OsmApiStandIn;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.ports.OsmDataService;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * System tests for the coalescing of concurrent identical lookups: the POS lookup is held up by a table lock, the OSM
+ * node fetch by a slow response of the {@link OsmApiStandIn}.
+ */
+public class RequestCoalescingSystemTests extends AbstractSysTest {
+    private static final OsmApiStandIn osmApi = new OsmApiStandIn();
+    private static final int CALLERS = 8;
+
+    @Autowired
+    private OsmDataService osmDataService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void configureOsmApi(DynamicPropertyRegistry registry) {
+        registry.add("campus-coffee.osm.api.base-url", osmApi::baseUrl);
+        registry.add("campus-coffee.osm.cache.enabled", () -> false);
+    }
+
+    @AfterAll
+    static void stopOsmApi() {
+        osmApi.close();
+    }
+
+    @Test
+    void concurrentPosLookupsShareOneQuery() throws Exception {
+        // as stored, i.e., with timestamps in microseconds
+        Pos pos = posService.getById(TestFixtures.createPosFixtures(posService).getFirst().id());
+        double executed = calls("pos.getById", "executed");
+        double collapsed = calls("pos.getById", "collapsed");
+
+        List<Pos> results;
+        try (Connection connection = DriverManager.getConnection(postgresContainer.getJdbcUrl(),
+                postgresContainer.getUsername(), postgresContainer.getPassword());
+             Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            statement.execute("LOCK TABLE pos IN ACCESS EXCLUSIVE MODE");
+            try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<Pos>> futures = submit(callers, () -> posService.getById(pos.id()));
+                awaitCollapsed("pos.getById", collapsed + CALLERS - 1);
+                connection.rollback();
+                results = join(futures);
+            }
+        }
+
+        assertThat(results).hasSize(CALLERS).allSatisfy(result -> assertThat(result).isEqualTo(pos));
+        assertThat(calls("pos.getById", "executed")).isEqualTo(executed + 1);
+        // later lookups query again
+        assertThat(posService.getById(pos.id())).isEqualTo(pos);
+        assertThat(calls("pos.getById", "executed")).isEqualTo(executed + 2);
+    }
+
+    @Test
+    void concurrentOsmNodeFetchesShareOneRequest() throws Exception {
+        osmApi.reset();
+        osmApi.addNode(osmNode(7000L));
+        osmApi.delayNextRequests(1, Duration.ofMillis(500));
+        double collapsed = calls("osm.fetchNode", "collapsed");
+
+        List<OsmNode> results;
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            results = join(submit(callers, () -> osmDataService.fetchNode(7000L)));
+        }
+
+        assertThat(results).hasSize(CALLERS).allSatisfy(result -> assertThat(result.nodeId()).isEqualTo(7000L));
+        assertThat(osmApi.requests()).hasSize(1);
+        assertThat(calls("osm.fetchNode", "collapsed")).isEqualTo(collapsed + CALLERS - 1);
+    }
+
+    private static <T> List<Future<T>> submit(ExecutorService executor, Callable<T> call) {
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(executor.submit(call));
+        }
+        return futures;
+    }
+
+    private static <T> List<T> join(List<Future<T>> futures) throws InterruptedException, ExecutionException {
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private void awaitCollapsed(String operation, double expected) throws InterruptedException {
+        for (int attempt = 0; attempt < 100 && calls(operation, "collapsed") < expected; attempt++) {
+            Thread.sleep(50);
+        }
+        assertThat(calls(operation, "collapsed")).isEqualTo(expected);
+    }
+
+    private double calls(String operation, String result) {
+        return meterRegistry.counter("single.flight.calls", "operation", operation, "result", result).count();
+    }
+
+    private static OsmNode osmNode(long nodeId) {
+        return OsmNode.builder()
+                .nodeId(nodeId)
+                .latitude(49.41)
+                .longitude(8.69)
+                .tags(Map.of(
+                        "name", "Café " + nodeId,
+                        "amenity", "cafe",
+                        "addr:street", "Hauptstraße",
+                        "addr:housenumber", "1",
+                        "addr:postcode", "69117",
+                        "addr:city", "Heidelberg"))
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package de.seuhd.campuscoffee.systest;
+
+import de.seuhd.campuscoffee.TestUtils;
+import de.seuhd.campuscoffee.api.dtos.PosDto;
+import de.seuhd.campuscoffee.domain.exceptions.DuplicatePosNameException;
+import de.seuhd.campuscoffee.domain.exceptions.PosNotFoundException;
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.ports.PosDataService;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * System tests for the sharding of POS data. The POS of the INF campus are stored on a second Postgres container,
+ * all others on the home shard.
+ */
+public class ShardingSystemTests extends AbstractSysTest {
+    private static final long FIRST_ID_OF_SHARD_1 = (1L << 48) + 1;
+    private static final PostgreSQLContainer<?> shardContainer;
+    private static final JdbcTemplate shardJdbcTemplate;
+
+    static {
+        shardContainer = TestUtils.getPostgresContainer("shard");
+        shardContainer.start();
+        shardJdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                shardContainer.getJdbcUrl(), shardContainer.getUsername(), shardContainer.getPassword()));
+    }
+
+    @Autowired
+    private PosDataService posDataService;
+
+    @DynamicPropertySource
+    static void configureShards(DynamicPropertyRegistry registry) {
+        registry.add("campus-coffee.sharding.enabled", () -> "true");
+        registry.add("campus-coffee.sharding.shards[0].url", shardContainer::getJdbcUrl);
+        registry.add("campus-coffee.sharding.shards[0].campuses", () -> "INF");
+        registry.add("campus-coffee.sharding.maximum-pool-size", () -> 2);
+    }
+
+    @Test
+    void posAreStoredOnTheShardOfTheirCampus() {
+        List<PosDto> createdPosList = TestUtils.createPos(TestFixtures.getPosFixturesForInsertion().stream()
+                .map(posDtoMapper::fromDomain)
+                .toList());
+        List<PosDto> infPosList = createdPosList.stream()
+                .filter(pos -> pos.campus() == CampusType.INF)
+                .toList();
+
+        // the shard assigns IDs from its own range, starting again after the data store was cleared
+        assertThat(infPosList).extracting(PosDto::id).contains(FIRST_ID_OF_SHARD_1)
+                .allMatch(id -> id >= FIRST_ID_OF_SHARD_1);
+        assertThat(shardJdbcTemplate.queryForList("SELECT name FROM pos", String.class))
+                .containsExactlyInAnyOrderElementsOf(infPosList.stream().map(PosDto::name).toList());
+
+        // reads are served by the shard of the POS, or by all shards
+        assertThat(TestUtils.retrievePos()).extracting(PosDto::id)
+                .containsExactlyInAnyOrderElementsOf(createdPosList.stream().map(PosDto::id).toList());
+        PosDto infPos = infPosList.getFirst();
+        assertThat(TestUtils.retrievePosById(infPos.id()).name()).isEqualTo(infPos.name());
+        given().when().get("/api/pos/{id}", FIRST_ID_OF_SHARD_1 - 2).then().statusCode(404);
+
+        // a POS stays on its shard when its campus changes
+        TestUtils.updatePos(List.of(infPos.toBuilder().campus(CampusType.ALTSTADT).build()));
+        assertThat(shardJdbcTemplate.queryForObject("SELECT campus FROM pos WHERE id = ?", String.class, infPos.id()))
+                .isEqualTo(CampusType.ALTSTADT.name());
+    }
+
+    @Test
+    void namesAreUniqueAcrossShards() {
+        List<Pos> fixtures = TestFixtures.getPosFixturesForInsertion();
+        Pos homePos = posService.upsert(fixtures.stream()
+                .filter(pos -> pos.campus() != CampusType.INF)
+                .findFirst().orElseThrow());
+        Pos infPos = posService.upsert(fixtures.stream()
+                .filter(pos -> pos.campus() == CampusType.INF)
+                .findFirst().orElseThrow());
+
+        PosDto duplicate = posDtoMapper.fromDomain(infPos.toBuilder().id(null).name(homePos.name()).build());
+        given()
+                .contentType(ContentType.JSON)
+                .body(duplicate)
+                .when()
+                .post("/api/pos")
+                .then()
+                .statusCode(409);
+        assertThatThrownBy(() -> posService.upsert(infPos.toBuilder().name(homePos.name()).build()))
+                .isInstanceOf(DuplicatePosNameException.class);
+        assertThatThrownBy(() -> posService.upsert(homePos.toBuilder().name(infPos.name()).build()))
+                .isInstanceOf(DuplicatePosNameException.class);
+
+        // a name is free again once its POS was renamed
+        posService.upsert(homePos.toBuilder().name(homePos.name() + " (closed)").build());
+        assertThat(posService.upsert(infPos.toBuilder().name(homePos.name()).build()).name())
+                .isEqualTo(homePos.name());
+    }
+
+    @Test
+    void upsertAllIsAtomicAcrossShards() {
+        List<Pos> fixtures = TestFixtures.getPosFixturesForInsertion();
+        Pos homePos = fixtures.stream()
+                .filter(pos -> pos.campus() != CampusType.INF)
+                .findFirst().orElseThrow();
+        Pos infPos = fixtures.stream()
+                .filter(pos -> pos.campus() == CampusType.INF)
+                .findFirst().orElseThrow();
+
+        // the home shard is written first, the update of a missing POS on the other shard then fails
+        assertThatThrownBy(() -> posDataService.upsertAll(List.of(homePos, infPos.toBuilder().id(FIRST_ID_OF_SHARD_1).build())))
+                .isInstanceOf(PosNotFoundException.class);
+        assertThat(posService.getAll()).isEmpty();
+
+        // new POS of different shards with the same name
+        assertThatThrownBy(() -> posDataService.upsertAll(List.of(homePos, infPos.toBuilder().name(homePos.name()).build())))
+                .isInstanceOf(DuplicatePosNameException.class);
+        assertThat(posService.getAll()).isEmpty();
+
+        assertThat(posDataService.upsertAll(List.of(infPos, homePos))).extracting(Pos::name)
+                .containsExactly(infPos.name(), homePos.name());
+        assertThat(shardJdbcTemplate.queryForList("SELECT name FROM pos", String.class)).containsExactly(infPos.name());
+    }
+
+    @Test
+    void osmNodeIdsMayBeDuplicatedAcrossShards() {
+        List<Pos> fixtures = TestFixtures.getPosFixturesForInsertion();
+        Pos homePos = posDataService.upsert(fixtures.stream()
+                .filter(pos -> pos.campus() != CampusType.INF)
+                .findFirst().orElseThrow().toBuilder().osmNodeId(42L).build());
+        // each shard only enforces the uniqueness of the node IDs among its own POS
+        posDataService.upsert(fixtures.stream()
+                .filter(pos -> pos.campus() == CampusType.INF)
+                .findFirst().orElseThrow().toBuilder().osmNodeId(42L).build());
+
+        assertThat(posDataService.getByOsmNodeIds(List.of(42L))).containsOnlyKeys(42L)
+                .extractingByKey(42L).extracting(Pos::id).isEqualTo(homePos.id());
+    }
+}
@@ -0,0 +1,148 @@
+package de.seuhd.campuscoffee.systest;
+
+import de.seuhd.campuscoffee.data.testing.SqlStatement;
+import de.seuhd.campuscoffee.data.testing.SqlStatementCapture;
+import de.seuhd.campuscoffee.domain.exceptions.PosNotFoundException;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static de.seuhd.campuscoffee.data.testing.SqlStatement.Kind.DELETE;
+import static de.seuhd.campuscoffee.data.testing.SqlStatement.Kind.INSERT;
+import static de.seuhd.campuscoffee.data.testing.SqlStatement.Kind.OTHER;
+import static de.seuhd.campuscoffee.data.testing.SqlStatement.Kind.SELECT;
+import static de.seuhd.campuscoffee.data.testing.SqlStatement.Kind.UPDATE;
+import static de.seuhd.campuscoffee.data.testing.SqlStatementCapture.capture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Guards the number, kinds, and tables of the SQL statements of each {@link de.seuhd.campuscoffee.domain.ports.PosService}
+ * operation, so that additional round trips (e.g., repeated lookups or N+1 queries) fail the build.
+ * Writes end with {@code SELECT pg_notify(...)} (see {@code PosChangeChannel}); new POS draw their ID from
+ * {@code pos_seq} first.
+ */
+@Import(SqlStatementCapture.Configuration.class)
+public class SqlStatementSystemTests extends AbstractSysTest {
+
+    @Test
+    void getAllIsOneQuery() {
+        TestFixtures.createPosFixtures(posService);
+
+        List<SqlStatement> statements = capture(() -> posService.getAll());
+
+        assertThat(statements).extracting(SqlStatement::kind, SqlStatement::table)
+                .containsExactly(tuple(SELECT, "pos"));
+    }
+
+    @Test
+    void getByIdIsOneQuery() {
+        Pos pos = TestFixtures.createPosFixtures(posService).getFirst();
+
+        assertThat(capture(() -> posService.getById(pos.id())))
+                .extracting(SqlStatement::kind, SqlStatement::table)
+                .containsExactly(tuple(SELECT, "pos"));
+        assertThat(capture(() -> assertThatThrownBy(() -> posService.getById(4711L))
+                .isInstanceOf(PosNotFoundException.class)))
+                .extracting(SqlStatement::kind, SqlStatement::table)
+                .containsExactly(tuple(SELECT, "pos"));
+    }
+
+    @Test
+    void createIsOneInsert() {
+        Pos pos = TestFixtures.getPosFixturesForInsertion().getFirst();
+
+        List<SqlStatement> statements = capture(() -> posService.upsert(pos));
+
+        assertThat(statements).extracting(SqlStatement::kind, SqlStatement::table)
+                .containsExactly(tuple(SELECT, null), tuple(INSERT, "pos"), tuple(SELECT, null));
+        assertThat(statements.getFirst().sql()).contains("pos_seq");
+        assertThat(statements.getLast().sql()).contains("pg_notify");
+    }
+
+    @Test
+    void updateLooksUpThePosOnce() {
+        Pos pos = TestFixtures.createPosFixtures(posService).getFirst();
+        Pos updated = pos.toBuilder().description("Updated description").build();
+
+        assertThat(capture(() -> posService.upsert(updated)))
+                .extracting(SqlStatement::kind, SqlStatement::table)
+                .containsExactly(tuple(SELECT, "pos"), tuple(UPDATE, "pos"), tuple(SELECT, null));
+        assertThat(capture(() -> assertThatThrownBy(() -> posService.upsert(updated.toBuilder().id(4711L).build()))
+                .isInstanceOf(PosNotFoundException.class)))
+                .extracting(SqlStatement::kind, SqlStatement::table)
+                .containsExactly(tuple(SELECT, "pos"));
+    }
+
+    @Test
+    void importFromOsmNodeIsOneInsert() {
+        List<SqlStatement> statements = capture(() -> posService.importFromOsmNode(osmNode(8000L, "Café Import")));
+
+        assertThat(statements).extracting(SqlStatement::kind, SqlStatement::table)
+                .containsExactly(tuple(SELECT, null), tuple(INSERT, "pos"), tuple(SELECT, null));
+    }
+
+    @Test
+    void importFromOsmNodesIsOneTransaction() {
+        List<OsmNode> osmNodes = LongStream.range(8200L, 8205L)
+                .mapToObj(nodeId -> osmNode(nodeId, "Café " + nodeId))
+                .toList();
+
+        List<SqlStatement> statements = capture(() -> posService.importFromOsmNodes(osmNodes, (osmNode, e) -> {}));
+
+        // one write transaction with an ID and an insert per POS, and one notification at the end
+        assertThat(statements).extracting(SqlStatement::kind, SqlStatement::table)
+                .containsExactly(tuple(SELECT, null), tuple(INSERT, "pos"), tuple(SELECT, null), tuple(INSERT, "pos"),
+                        tuple(SELECT, null), tuple(INSERT, "pos"), tuple(SELECT, null), tuple(INSERT, "pos"),
+                        tuple(SELECT, null), tuple(INSERT, "pos"), tuple(SELECT, null));
+        assertThat(statements.getLast().sql()).contains("pg_notify");
+    }
+
+    @Test
+    void updateFromOsmNodesLoadsAllPosAtOnce() {
+        List<Long> nodeIds = LongStream.range(8100L, 8105L).boxed().toList();
+        nodeIds.forEach(nodeId -> posService.importFromOsmNode(osmNode(nodeId, "Café " + nodeId)));
+        List<OsmNode> renamedNodes = nodeIds.stream()
+                .map(nodeId -> osmNode(nodeId, "Café " + nodeId + " (renamed)"))
+                .toList();
+
+        List<SqlStatement> statements = capture(() -> posService.updateFromOsmNodes(renamedNodes));
+
+        // one query for the changed nodes, one to load the POS in the write transaction, one update per POS
+        assertThat(statements).extracting(SqlStatement::kind)
+                .containsExactly(SELECT, SELECT, UPDATE, UPDATE, UPDATE, UPDATE, UPDATE, SELECT);
+        assertThat(statements.getFirst().sql()).contains("osm_node_id");
+    }
+
+    @Test
+    void clearIsOneDelete() {
+        TestFixtures.createPosFixtures(posService);
+
+        List<SqlStatement> statements = capture(() -> posService.clear());
+
+        assertThat(statements).extracting(SqlStatement::kind, SqlStatement::table)
+                .containsExactly(tuple(DELETE, "pos"), tuple(OTHER, null), tuple(SELECT, null));
+    }
+
+    private static OsmNode osmNode(long nodeId, String name) {
+        return OsmNode.builder()
+                .nodeId(nodeId)
+                .latitude(49.41)
+                .longitude(8.69)
+                .tags(Map.of(
+                        "name", name,
+                        "amenity", "cafe",
+                        "addr:street", "Hauptstraße",
+                        "addr:housenumber", "1",
+                        "addr:postcode", "69117",
+                        "addr:city", "Heidelberg"))
+                .build();
+    }
+}
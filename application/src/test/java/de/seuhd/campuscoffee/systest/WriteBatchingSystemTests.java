@@ -0,0 +1,116 @@
+package de.seuhd.campuscoffee.systest;
+
+import de.seuhd.campuscoffee.domain.exceptions.DuplicatePosNameException;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * System tests for the batching of concurrent POS writes. The window is long enough for all writes of a test to join
+ * one batch, which is written as soon as it is full; the fixtures, written one by one, each wait for the whole window.
+ */
+public class WriteBatchingSystemTests extends AbstractSysTest {
+    private static final int BATCH_SIZE = 6;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void enableWriteBatching(DynamicPropertyRegistry registry) {
+        registry.add("campus-coffee.write-batching.enabled", () -> "true");
+        registry.add("campus-coffee.write-batching.window", () -> "1s");
+        registry.add("campus-coffee.write-batching.max-batch-size", () -> BATCH_SIZE);
+    }
+
+    @Test
+    void concurrentWritesShareOneTransaction() throws Exception {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+        Pos updated = createdPosList.getFirst();
+        double batches = batches();
+        double fallbacks = fallbacks();
+
+        List<Pos> posList = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE - 2; i++) {
+            posList.add(TestFixtures.getPosFixturesForInsertion().getLast().toBuilder().name("Café " + i).build());
+        }
+        // the same POS twice: each caller gets the result of its own update
+        posList.add(updated.toBuilder().description("First update").build());
+        posList.add(updated.toBuilder().description("Second update").build());
+        List<Future<Pos>> futures = writeConcurrently(posList);
+
+        List<Pos> created = new ArrayList<>();
+        for (Future<Pos> future : futures.subList(0, BATCH_SIZE - 2)) {
+            created.add(future.get());
+        }
+        assertThat(created).extracting(Pos::name)
+                .containsExactly(posList.subList(0, BATCH_SIZE - 2).stream().map(Pos::name).toArray(String[]::new));
+        assertThat(created).extracting(Pos::id).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(futures.get(BATCH_SIZE - 2).get().description()).isEqualTo("First update");
+        assertThat(futures.get(BATCH_SIZE - 1).get().description()).isEqualTo("Second update");
+        assertThat(posService.getById(updated.id()).description()).isEqualTo("Second update");
+        assertThat(posService.getAll()).hasSize(createdPosList.size() + BATCH_SIZE - 2);
+        assertThat(batches()).isEqualTo(batches + 1);
+        assertThat(fallbacks()).isEqualTo(fallbacks);
+    }
+
+    @Test
+    void failingWritesOnlyFailTheirCallers() throws Exception {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+        double fallbacks = fallbacks();
+
+        Pos template = TestFixtures.getPosFixturesForInsertion().getLast();
+        List<Pos> posList = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE - 1; i++) {
+            posList.add(template.toBuilder().name("Café " + i).build());
+        }
+        // the name of an existing POS, which the disabled name index does not know
+        posList.add(template.toBuilder().name(createdPosList.getFirst().name()).build());
+        List<Future<Pos>> futures = writeConcurrently(posList);
+
+        for (Future<Pos> future : futures.subList(0, BATCH_SIZE - 1)) {
+            assertThat(future.get().id()).isNotNull();
+        }
+        assertThatThrownBy(() -> futures.getLast().get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(DuplicatePosNameException.class);
+        assertThat(posService.getAll()).hasSize(createdPosList.size() + BATCH_SIZE - 1);
+        assertThat(fallbacks()).isEqualTo(fallbacks + 1);
+    }
+
+    /**
+     * Starts the writes in the given order, each once the previous one has been queued, so that all join the batch.
+     */
+    private List<Future<Pos>> writeConcurrently(List<Pos> posList) throws InterruptedException {
+        List<Future<Pos>> futures = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Pos pos : posList) {
+                futures.add(callers.submit(() -> posService.upsert(pos)));
+                // the queue is ordered by arrival
+                Thread.sleep(50);
+            }
+        }
+        return futures;
+    }
+
+    private double batches() {
+        return meterRegistry.summary("group.commit.batch.size", "operation", "pos.upsert").count();
+    }
+
+    private double fallbacks() {
+        return meterRegistry.counter("group.commit.fallbacks", "operation", "pos.upsert").count();
+    }
+}
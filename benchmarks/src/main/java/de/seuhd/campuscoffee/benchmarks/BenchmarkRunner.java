@@ -0,0 +1,117 @@
+package de.seuhd.campuscoffee.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs the benchmarks with the GC profiler, writes the results as JSON, and compares them with the stored baseline.
+ * <p>
+ * Arguments are passed to JMH (e.g., a benchmark regex or {@code -f 3}). The result and baseline files default to
+ * {@code benchmarks/target/results.json} and {@code benchmarks/baseline/results.json} and can be set with the system
+ * properties {@code benchmark.results} and {@code benchmark.baseline}. To update the baseline, copy the results over
+ * the baseline file.
+ */
+public final class BenchmarkRunner {
+    // benchmarks of package-private adapters are in the packages of the adapters
+    private static final String BENCHMARK_PACKAGES = "de.seuhd.campuscoffee";
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    private static final double REGRESSION_THRESHOLD = 0.10;
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        Path results = Path.of(System.getProperty("benchmark.results", "benchmarks/target/results.json"));
+        Path baseline = Path.of(System.getProperty("benchmark.baseline", "benchmarks/baseline/results.json"));
+        Files.createDirectories(results.toAbsolutePath().getParent());
+
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        if (commandLineOptions.getIncludes().isEmpty()) {
+            builder.include(BENCHMARK_PACKAGES + ".*");
+        }
+        Options options = builder
+                .parent(commandLineOptions)
+                // allocation per operation (gc.alloc.rate.norm) is less noisy than time and catches most regressions
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(results.toString())
+                .build();
+        Collection<RunResult> runResults = new Runner(options).run();
+
+        if (Files.exists(baseline)) {
+            compare(runResults, baseline);
+        } else {
+            System.out.printf("%nNo baseline at %s%n", baseline);
+        }
+    }
+
+    private static void compare(Collection<RunResult> runResults, Path baseline) throws IOException {
+        Map<String, JsonNode> baselineResults = new HashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(baseline.toFile())) {
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").properties().forEach(param -> params.put(param.getKey(), param.getValue().asText()));
+            baselineResults.put(name(result.get("benchmark").asText(), params), result);
+        }
+
+        System.out.printf("%nComparison with %s (changes above %.0f%% are marked)%n", baseline,
+                REGRESSION_THRESHOLD * 100);
+        System.out.printf("%-45s %12s %12s %8s %12s %12s %8s%n", "Benchmark", "base", "now", "change",
+                "base B/op", "now B/op", "change");
+        for (RunResult runResult : runResults) {
+            BenchmarkParams benchmarkParams = runResult.getParams();
+            Map<String, String> params = new TreeMap<>();
+            benchmarkParams.getParamsKeys().forEach(key -> params.put(key, benchmarkParams.getParam(key)));
+            String name = name(benchmarkParams.getBenchmark(), params);
+            JsonNode base = baselineResults.get(name);
+            Result<?> score = runResult.getPrimaryResult();
+            Result<?> allocation = runResult.getSecondaryResults().get(ALLOCATION);
+            if (base == null) {
+                System.out.printf("%-45s %12s %12.2f%n", name, "-", score.getScore());
+                continue;
+            }
+            double baseScore = base.path("primaryMetric").path("score").asDouble();
+            double baseAllocation = base.path("secondaryMetrics").path(ALLOCATION).path("score").asDouble(Double.NaN);
+            double nowAllocation = allocation != null ? allocation.getScore() : Double.NaN;
+            System.out.printf("%-45s %12.2f %12.2f %8s %12.0f %12.0f %8s%n", name,
+                    baseScore, score.getScore(), change(baseScore, score.getScore()),
+                    baseAllocation, nowAllocation, change(baseAllocation, nowAllocation));
+        }
+    }
+
+    /**
+     * @return the class and method of the benchmark, followed by its parameters, e.g., {@code Benchmark.method:a=1}
+     */
+    private static String name(String benchmark, Map<String, String> params) {
+        StringBuilder name = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1));
+        params.forEach((key, value) -> name.append(':').append(key).append('=').append(value));
+        return name.toString();
+    }
+
+    private static String change(double base, double now) {
+        if (Double.isNaN(base) || Double.isNaN(now) || base == 0) {
+            return now == base ? "0%" : "-";
+        }
+        double change = now / base - 1;
+        return String.format("%+.0f%%%s", change * 100, Math.abs(change) > REGRESSION_THRESHOLD ? " *" : "");
+    }
+}
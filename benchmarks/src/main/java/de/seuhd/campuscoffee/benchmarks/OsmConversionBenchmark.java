@@ -0,0 +1,110 @@
+package de.seuhd.campuscoffee.benchmarks;
+
+import de.seuhd.campuscoffee.domain.impl.PosServiceImpl;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.ports.PosDataService;
+import org.jspecify.annotations.NonNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building {@link OsmNode}s (as the OSM adapters do for every parsed node) and converting them to POS in
+ * {@link PosServiceImpl}, as the OSM import does. The data port only echoes the POS, so that the conversion
+ * is measured without the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OsmConversionBenchmark {
+    private final Map<String, String> tags = Map.of(
+            "name", "Café Botanik",
+            "amenity", "cafe",
+            "addr:street", "Im Neuenheimer Feld",
+            "addr:housenumber", "304",
+            "addr:postcode", "69120",
+            "addr:city", "Heidelberg",
+            "operator", "Studierendenwerk Heidelberg",
+            "opening_hours", "Mo-Fr 08:00-16:00",
+            "cuisine", "coffee_shop");
+    private PosServiceImpl posService;
+    private OsmNode osmNode;
+
+    @Setup
+    public void setUp() {
+        // the OSM data and tile ports are not used when converting a node that was already fetched
+        posService = new PosServiceImpl(new EchoPosDataService(), null, null);
+        osmNode = buildOsmNode();
+    }
+
+    @Benchmark
+    public OsmNode buildOsmNode() {
+        return OsmNode.builder()
+                .nodeId(5589879349L)
+                .latitude(49.4167)
+                .longitude(8.6705)
+                .tags(tags)
+                .build();
+    }
+
+    @Benchmark
+    public Pos convertOsmNodeToPos() {
+        return posService.importFromOsmNode(osmNode);
+    }
+
+    /**
+     * Data port that returns the upserted POS as it is.
+     */
+    private static final class EchoPosDataService implements PosDataService {
+        @Override
+        public void clear() {
+        }
+
+        @Override
+        public @NonNull List<Pos> getAll() {
+            return List.of();
+        }
+
+        @Override
+        public @NonNull Pos getById(@NonNull Long id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public @NonNull Pos upsert(@NonNull Pos pos) {
+            return pos;
+        }
+
+        @Override
+        public @NonNull List<Pos> upsertAll(@NonNull List<Pos> posList) {
+            return posList;
+        }
+
+        @Override
+        public @NonNull Set<Long> getAllOsmNodeIds() {
+            return Set.of();
+        }
+
+        @Override
+        public @NonNull Map<Long, Pos> getByOsmNodeIds(@NonNull Collection<Long> osmNodeIds) {
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package de.seuhd.campuscoffee.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import de.seuhd.campuscoffee.api.dtos.PosDto;
+import de.seuhd.campuscoffee.api.mapper.PosDtoMapper;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of {@link PosDto}, with an object mapper configured like Spring Boot's
+ * (ISO dates via the Java time module). Covers a single POS and the list returned by {@code GET /api/pos}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PosDtoJsonBenchmark {
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private PosDto dto;
+    private List<PosDto> dtoList;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        PosDtoMapper mapper = Mappers.getMapper(PosDtoMapper.class);
+        dtoList = TestFixtures.getPosList().stream().map(mapper::fromDomain).toList();
+        dto = dtoList.getFirst();
+        writer = objectMapper.writerFor(PosDto.class);
+        reader = objectMapper.readerFor(PosDto.class);
+        json = writer.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public PosDto deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dtoList);
+    }
+}
@@ -0,0 +1,50 @@
+package de.seuhd.campuscoffee.benchmarks;
+
+import de.seuhd.campuscoffee.api.dtos.PosDto;
+import de.seuhd.campuscoffee.api.mapper.PosDtoMapper;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping between {@link Pos} and {@link PosDto}, which runs for every POS in a request or response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PosDtoMapperBenchmark {
+    private final PosDtoMapper mapper = Mappers.getMapper(PosDtoMapper.class);
+    private Pos pos;
+    private PosDto dto;
+
+    @Setup
+    public void setUp() {
+        pos = TestFixtures.getPosList().getFirst();
+        dto = mapper.fromDomain(pos);
+    }
+
+    @Benchmark
+    public PosDto fromDomain() {
+        return mapper.fromDomain(pos);
+    }
+
+    @Benchmark
+    public Pos toDomain() {
+        return mapper.toDomain(dto);
+    }
+}
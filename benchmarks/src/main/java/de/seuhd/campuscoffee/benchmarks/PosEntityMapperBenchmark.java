@@ -0,0 +1,70 @@
+package de.seuhd.campuscoffee.benchmarks;
+
+import de.seuhd.campuscoffee.data.mapper.PosEntityMapper;
+import de.seuhd.campuscoffee.data.persistence.AddressEntity;
+import de.seuhd.campuscoffee.data.persistence.PosEntity;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping between {@link Pos} and {@link PosEntity}, which runs for every POS read from or written to the database.
+ * The POS has a house number with suffix ({@code 99a}), so that splitting and merging take their longest path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PosEntityMapperBenchmark {
+    private final PosEntityMapper mapper = Mappers.getMapper(PosEntityMapper.class);
+    private Pos pos;
+    private PosEntity entity;
+    private PosEntity target;
+
+    @Setup
+    public void setUp() {
+        pos = TestFixtures.getPosList().getLast();
+        entity = mapper.toEntity(pos);
+        target = mapper.toEntity(pos);
+    }
+
+    @Benchmark
+    public PosEntity toEntity() {
+        return mapper.toEntity(pos);
+    }
+
+    @Benchmark
+    public Pos fromEntity() {
+        return mapper.fromEntity(entity);
+    }
+
+    @Benchmark
+    public PosEntity updateEntity() {
+        mapper.updateEntity(pos, target);
+        return target;
+    }
+
+    @Benchmark
+    public AddressEntity splitHouseNumber() {
+        return mapper.splitHouseNumber(pos, target.getAddress());
+    }
+
+    @Benchmark
+    public String mergeHouseNumber() {
+        return mapper.mergeHouseNumber(entity);
+    }
+}
@@ -0,0 +1,120 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a multi-node response of the OSM API ({@code /nodes.json}) with the streaming {@link OsmApiParser} and
+ * compact tags, compared with data binding and the former chain of defensive tag copies. The response has 10,000
+ * café nodes with 16 tags each, 7 of which are read by the domain. Scores and allocations are per node.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OsmApiParserBenchmark {
+    private static final int NODES = 10_000;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private OsmApiParser parser;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        parser = new OsmApiParser(objectMapper.getFactory(), OsmNode.POS_TAG_KEYS);
+        body = response();
+        // the dropped tags are never read
+        List<OsmNode> streamedNodes = streaming();
+        if (streamedNodes.size() != NODES || streamedNodes.getFirst().tags().size() != 7) {
+            throw new IllegalStateException("Unexpected parse result: " + streamedNodes.getFirst());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NODES)
+    public List<OsmNode> streaming() throws IOException {
+        return parser.parseNodes(body, tags -> true, id -> {});
+    }
+
+    /**
+     * The parsing before the streaming parser: data binding, then a defensive copy in the adapter and another one
+     * in {@link OsmNode.Builder}.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NODES)
+    public List<OsmNode> dataBinding() throws IOException {
+        BoundResponse response = objectMapper.readValue(body, BoundResponse.class);
+        List<OsmNode> osmNodes = new ArrayList<>(response.elements().size());
+        for (BoundNode node : response.elements()) {
+            Map<String, String> tags = Collections.unmodifiableMap(new HashMap<>(node.tags()));
+            osmNodes.add(new OsmNode(node.id(), node.lat(), node.lon(), Collections.unmodifiableMap(new HashMap<>(tags))));
+        }
+        return osmNodes;
+    }
+
+    private static byte[] response() {
+        Random random = new Random(42);
+        StringBuilder json = new StringBuilder("{\"version\":\"0.6\",\"generator\":\"OpenStreetMap server\",\"elements\":[");
+        for (int i = 0; i < NODES; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            long id = 1_000_000_000L + i * 17L;
+            json.append("{\"type\":\"node\",\"id\":").append(id)
+                    .append(",\"lat\":").append(49.35 + random.nextDouble() * 0.1)
+                    .append(",\"lon\":").append(8.6 + random.nextDouble() * 0.15)
+                    .append(",\"timestamp\":\"2025-06-01T12:00:00Z\",\"version\":").append(random.nextInt(20) + 1)
+                    .append(",\"changeset\":").append(160_000_000 + random.nextInt(1_000_000))
+                    .append(",\"user\":\"mapper").append(random.nextInt(500)).append("\",\"uid\":").append(random.nextInt(1_000_000))
+                    .append(",\"tags\":{")
+                    .append("\"addr:city\":\"Heidelberg\",")
+                    .append("\"addr:housenumber\":\"").append(random.nextInt(200) + 1).append("\",")
+                    .append("\"addr:postcode\":\"69117\",")
+                    .append("\"addr:street\":\"Hauptstraße\",")
+                    .append("\"amenity\":\"cafe\",")
+                    .append("\"brand\":\"Café Chain\",")
+                    .append("\"brand:wikidata\":\"Q").append(random.nextInt(1_000_000)).append("\",")
+                    .append("\"check_date\":\"2024-0").append(random.nextInt(9) + 1).append("-15\",")
+                    .append("\"name\":\"Café ").append(i).append("\",")
+                    .append("\"opening_hours\":\"Mo-Fr 08:00-18:00; Sa 09:00-16:00\",")
+                    .append("\"outdoor_seating\":\"yes\",")
+                    .append("\"phone\":\"+49 6221 ").append(100_000 + random.nextInt(900_000)).append("\",")
+                    .append("\"source\":\"survey\",")
+                    .append("\"website\":\"https://example.org/cafe-").append(i).append("\",")
+                    .append("\"wheelchair\":\"limited\",")
+                    .append("\"internet_access\":\"wlan\"")
+                    .append("}}");
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record BoundResponse(List<BoundNode> elements) {
+    }
+
+    private record BoundNode(String type, Long id, Double lat, Double lon, Map<String, String> tags) {
+    }
+}
@@ -0,0 +1,73 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of an OSM PBF extract with {@link OsmPbfReader}, by number of worker threads, to show how decoding scales
+ * with the cores. The extract ({@link SyntheticOsmExtract}: 200,000 nodes in 25 blocks, 400 of them cafés) is read
+ * from memory, so that only decoding is measured. Scores are per node.
+ * <p>
+ * The scaling is not verified yet, neither on a multi-core machine nor with a real extract. The only results so far
+ * were recorded on a single core (JDK 21.0.1), where the worker count cannot make a difference:
+ * <pre>
+ * workers   ns/node
+ *       1   73.2 ± 16.8
+ *       2   69.5 ± 11.1
+ *       4   62.9 ±  9.9
+ *       8   81.0 ± 30.9
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OsmPbfReaderBenchmark {
+    private static final int NODES = 200_000;
+    private static final OsmPbfReader.TagFilter CAFES = new OsmPbfReader.TagFilter(
+            List.of("amenity"), tags -> "cafe".equals(tags.get("amenity")));
+
+    @Param({"1", "2", "4", "8"})
+    public int workers;
+
+    private byte[] extract;
+    private OsmPbfReader reader;
+
+    @Setup
+    public void setUp() throws IOException {
+        extract = SyntheticOsmExtract.write(NODES, 42);
+        reader = new OsmPbfReader(workers);
+        // parallel decoding must not change the result
+        List<OsmNode> cafes = read();
+        if (cafes.size() != NODES / 500) {
+            throw new IllegalStateException("Expected " + NODES / 500 + " cafés, but read " + cafes.size());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NODES)
+    public List<OsmNode> read() throws IOException {
+        List<OsmNode> matchingNodes = new ArrayList<>();
+        reader.read(new ByteArrayInputStream(extract), CAFES, (nodesRead, nodes) -> matchingNodes.addAll(nodes));
+        return matchingNodes;
+    }
+}
@@ -0,0 +1,70 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosType;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the retained heap size of a {@link PosSnapshot} of 100,000 synthetic POS with
+ * <a href="https://github.com/openjdk/jol">JOL</a>, compared with the same POS as a {@code List<Pos>}, as the data
+ * layer returns them without the read model. Each POS is built from its own string and timestamp instances, like a
+ * row loaded from the database; the snapshot then shares the street and city names through its interner.
+ * <p>
+ * Not a JMH benchmark, since the footprint does not depend on timing. JOL attaches an agent to read the field offsets
+ * of records, which requires {@code -Djdk.attach.allowAttachSelf}:
+ * {@code java -Djdk.attach.allowAttachSelf -cp benchmarks/target/benchmarks.jar de.seuhd.campuscoffee.data.impl.PosSnapshotFootprint [count]}
+ */
+public final class PosSnapshotFootprint {
+    private static final int DEFAULT_COUNT = 100_000;
+    private static final int STREETS = 500;
+    private static final String[] CITIES = {"Heidelberg", "Mannheim", "Schwetzingen", "Leimen", "Eppelheim"};
+
+    private PosSnapshotFootprint() {}
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_COUNT;
+        List<Pos> posList = posList(count);
+        PosSnapshot.Interner interner = new PosSnapshot.Interner();
+        PosSnapshot snapshot = PosSnapshot.of(posList, interner);
+
+        long listSize = GraphLayout.parseInstance(posList).totalSize();
+        long snapshotSize = GraphLayout.parseInstance(snapshot, interner).totalSize();
+        System.out.println(VM.current().details());
+        System.out.printf("%,d POS as List<Pos>:   %,d bytes (%.1f MB, %d bytes/POS)%n",
+                count, listSize, listSize / 1e6, listSize / count);
+        System.out.printf("%,d POS as PosSnapshot: %,d bytes (%.1f MB, %d bytes/POS)%n",
+                count, snapshotSize, snapshotSize / 1e6, snapshotSize / count);
+    }
+
+    private static List<Pos> posList(int count) {
+        List<Pos> posList = new ArrayList<>(count);
+        PosType[] types = PosType.values();
+        CampusType[] campuses = CampusType.values();
+        for (int i = 0; i < count; i++) {
+            LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 8, 0).plusMinutes(i);
+            posList.add(Pos.builder()
+                    .id((long) i + 1)
+                    .createdAt(createdAt)
+                    .updatedAt(createdAt.plusDays(i % 30))
+                    .name("Café Nummer " + i)
+                    .description("Coffee, cake, and snacks close to the campus (POS " + i + ")")
+                    .type(types[i % types.length])
+                    .campus(campuses[i % campuses.length])
+                    .street("Straße " + i % STREETS)
+                    .houseNumber(String.valueOf(i % 200 + 1))
+                    .postalCode(69_000 + i % 200)
+                    .city(new String(CITIES[i % CITIES.length]))
+                    .osmNodeId(i % 2 == 0 ? 1_000_000_000L + i : null)
+                    .latitude(49.4 + i % 1000 * 1e-5)
+                    .longitude(8.7 + i % 1000 * 1e-5)
+                    .build());
+        }
+        return posList;
+    }
+}
@@ -0,0 +1,198 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a synthetic OSM PBF extract around Heidelberg in memory, in blocks of 8000 dense nodes like osmium and
+ * osmosis do. Nodes form short random walks (like the nodes of ways), about 10% of the nodes have tags, and 1 in 500
+ * is a café with an address.
+ */
+final class SyntheticOsmExtract {
+    private static final int GRANULARITY = 100;
+    private static final int BLOCK_SIZE = 8000;
+    private static final String[] HIGHWAYS = {"crossing", "street_lamp", "bus_stop"};
+
+    private SyntheticOsmExtract() {
+    }
+
+    /**
+     * @param nodes number of nodes
+     * @param seed  seed of the random positions and tags
+     * @return the PBF file
+     */
+    static byte[] write(int nodes, long seed) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Message header = new Message()
+                .bytes(4, "OsmSchema-V0.6")
+                .bytes(4, "DenseNodes")
+                .bytes(16, SyntheticOsmExtract.class.getSimpleName());
+        writeBlob(out, "OSMHeader", header.toByteArray());
+
+        Random random = new Random(seed);
+        long nodeId = 1_000_000;
+        double latitude = 49.40;
+        double longitude = 8.69;
+        for (int start = 0; start < nodes; start += BLOCK_SIZE) {
+            int end = Math.min(start + BLOCK_SIZE, nodes);
+            long[] ids = new long[end - start];
+            long[] latitudes = new long[ids.length];
+            long[] longitudes = new long[ids.length];
+            List<Long> keysValues = new ArrayList<>();
+            StringTable strings = new StringTable();
+            for (int i = start; i < end; i++) {
+                nodeId += random.nextInt(20) + 1;
+                Map<String, String> tags = new LinkedHashMap<>();
+                if (i % 500 == 0) {
+                    tags.put("amenity", "cafe");
+                    tags.put("name", "Café " + i);
+                    tags.put("addr:street", "Hauptstraße");
+                    tags.put("addr:housenumber", String.valueOf(i % 200 + 1));
+                    tags.put("addr:postcode", "69117");
+                    tags.put("addr:city", "Heidelberg");
+                } else if (i % 10 == 0) {
+                    tags.put("highway", HIGHWAYS[random.nextInt(HIGHWAYS.length)]);
+                    tags.put("source", "survey");
+                }
+                // consecutive nodes are close to each other, like the nodes of a way
+                if (i % 50 == 0) {
+                    latitude = 49.35 + random.nextDouble() * 0.1;
+                    longitude = 8.6 + random.nextDouble() * 0.15;
+                }
+                latitude += random.nextGaussian() * 0.0001;
+                longitude += random.nextGaussian() * 0.0001;
+                ids[i - start] = nodeId;
+                latitudes[i - start] = Math.round(latitude * 1e9 / GRANULARITY);
+                longitudes[i - start] = Math.round(longitude * 1e9 / GRANULARITY);
+                tags.forEach((key, value) -> {
+                    keysValues.add((long) strings.index(key));
+                    keysValues.add((long) strings.index(value));
+                });
+                keysValues.add(0L);
+            }
+            Message dense = new Message()
+                    .packedDeltas(1, ids)
+                    .packedDeltas(8, latitudes)
+                    .packedDeltas(9, longitudes)
+                    .packed(10, keysValues.stream().mapToLong(Long::longValue).toArray());
+            Message block = new Message()
+                    .message(1, strings.encode())
+                    .message(2, new Message().message(2, dense))
+                    .varint(17, GRANULARITY);
+            writeBlob(out, "OSMData", block.toByteArray());
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeBlob(ByteArrayOutputStream out, String type, byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        byte[] buffer = new byte[64 * 1024];
+        while (!deflater.finished()) {
+            compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        byte[] blob = new Message()
+                .varint(2, data.length)
+                .bytes(3, compressed.toByteArray())
+                .toByteArray();
+        byte[] blobHeader = new Message()
+                .bytes(1, type)
+                .varint(3, blob.length)
+                .toByteArray();
+        out.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(blobHeader.length).array());
+        out.writeBytes(blobHeader);
+        out.writeBytes(blob);
+    }
+
+    /**
+     * The strings of a block, referenced by their index; index 0 is the empty string, which ends the tags of a node.
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>(Map.of("", 0));
+        private final Message message = new Message().bytes(1, "");
+
+        int index(String string) {
+            return indexes.computeIfAbsent(string, key -> {
+                message.bytes(1, key);
+                return indexes.size();
+            });
+        }
+
+        Message encode() {
+            return message;
+        }
+    }
+
+    /**
+     * Protocol buffers encoding of a message, with just the field types used by the PBF format.
+     */
+    private static final class Message {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Message varint(int field, long value) {
+            writeVarint(out, (long) field << 3);
+            writeVarint(out, value);
+            return this;
+        }
+
+        Message bytes(int field, byte[] value) {
+            writeVarint(out, (long) field << 3 | 2);
+            writeVarint(out, value.length);
+            out.writeBytes(value);
+            return this;
+        }
+
+        Message bytes(int field, String value) {
+            return bytes(field, value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Message message(int field, Message message) {
+            return bytes(field, message.toByteArray());
+        }
+
+        Message packed(int field, long[] values) {
+            ByteArrayOutputStream packed = new ByteArrayOutputStream();
+            for (long value : values) {
+                writeVarint(packed, value);
+            }
+            return bytes(field, packed.toByteArray());
+        }
+
+        /**
+         * Writes the differences between consecutive values as packed {@code sint64}, as dense nodes store them.
+         */
+        Message packedDeltas(int field, long[] values) {
+            long[] deltas = new long[values.length];
+            long previous = 0;
+            for (int i = 0; i < values.length; i++) {
+                long delta = values[i] - previous;
+                deltas[i] = (delta << 1) ^ (delta >> 63);
+                previous = values[i];
+            }
+            return packed(field, deltas);
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+
+        private static void writeVarint(ByteArrayOutputStream out, long value) {
+            while ((value & ~0x7fL) != 0) {
+                out.write((int) (value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+}
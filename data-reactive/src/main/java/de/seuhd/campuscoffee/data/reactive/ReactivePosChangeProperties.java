@@ -0,0 +1,18 @@
+package de.seuhd.campuscoffee.data.reactive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the POS change notifications sent by the reactive data service; the same properties as those of
+ * the {@code data} module, which also receives them.
+ *
+ * @param enabled whether changes are propagated to other application instances
+ * @param channel the Postgres notification channel
+ */
+@ConfigurationProperties("campus-coffee.pos-changes")
+record ReactivePosChangeProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("pos_changed") String channel
+) {
+}
@@ -0,0 +1,171 @@
+package de.seuhd.campuscoffee.data.reactive;
+
+import de.seuhd.campuscoffee.domain.exceptions.DuplicatePosNameException;
+import de.seuhd.campuscoffee.domain.exceptions.PosNotFoundException;
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosType;
+import de.seuhd.campuscoffee.domain.ports.ReactivePosDataService;
+import io.r2dbc.postgresql.api.PostgresqlException;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import io.r2dbc.spi.Readable;
+import org.jspecify.annotations.NonNull;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Implementation of the reactive POS data service on R2DBC, for the table of the JPA-based {@code data} module.
+ * <p>
+ * Statements are written by hand instead of mapping entities: a POS is created or updated with a single statement
+ * that returns the stored row, and POS are streamed to the caller while they are read. The address columns are split
+ * and merged as by the JPA mapper (house number {@code "21a"} is stored as {@code 21} and {@code 'a'}).
+ * <p>
+ * Writes send the same {@code NOTIFY} as the {@code data} module in the same transaction, so that instances of the
+ * servlet application that share the database evict their cached copies.
+ */
+@Service
+class ReactivePosDataServiceImpl implements ReactivePosDataService {
+    private static final String COLUMNS = "id, created_at, updated_at, osm_node_id, name, description, type, campus, "
+            + "street, house_number, house_number_suffix, postal_code, city, latitude, longitude";
+    private static final String POS_NAME_CONSTRAINT = "pos_name_key";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transaction;
+    private final ReactivePosChangeProperties changeProperties;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    ReactivePosDataServiceImpl(DatabaseClient databaseClient, TransactionalOperator transaction,
+                               ReactivePosChangeProperties changeProperties) {
+        this.databaseClient = databaseClient;
+        this.transaction = transaction;
+        this.changeProperties = changeProperties;
+    }
+
+    @Override
+    public @NonNull Mono<Void> clear() {
+        return databaseClient.sql("DELETE FROM pos").then()
+                .then(databaseClient.sql("ALTER SEQUENCE pos_seq RESTART WITH 1").then())
+                .then(notifyOtherInstances("*"))
+                .as(transaction::transactional);
+    }
+
+    @Override
+    public @NonNull Flux<Pos> getAll() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM pos")
+                .map(ReactivePosDataServiceImpl::fromRow)
+                .all();
+    }
+
+    @Override
+    public @NonNull Mono<Pos> getById(@NonNull Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM pos WHERE id = :id")
+                .bind("id", id)
+                .map(ReactivePosDataServiceImpl::fromRow)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new PosNotFoundException(id)));
+    }
+
+    @Override
+    public @NonNull Mono<Pos> upsert(@NonNull Pos pos) {
+        Mono<Pos> upsert = pos.id() == null ? insert(pos) : update(pos);
+        return upsert
+                .flatMap(upserted -> notifyOtherInstances(upserted.id().toString()).thenReturn(upserted))
+                .as(transaction::transactional)
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> isDuplicateNameConstraintViolation(e) ? new DuplicatePosNameException(pos.name()) : e);
+    }
+
+    private Mono<Pos> insert(Pos pos) {
+        // the ID is taken from the sequence in the same statement, instead of another round trip as with JPA
+        return bindColumns(databaseClient.sql("""
+                        INSERT INTO pos (%s)
+                        VALUES (nextval('pos_seq'), :now, :now, :osmNodeId, :name, :description, :type, :campus,
+                                :street, :houseNumber, :houseNumberSuffix, :postalCode, :city, :latitude, :longitude)
+                        RETURNING %s""".formatted(COLUMNS, COLUMNS)), pos)
+                .map(ReactivePosDataServiceImpl::fromRow)
+                .one();
+    }
+
+    private Mono<Pos> update(Pos pos) {
+        return bindColumns(databaseClient.sql("""
+                        UPDATE pos SET updated_at = :now, osm_node_id = :osmNodeId, name = :name,
+                                description = :description, type = :type, campus = :campus, street = :street,
+                                house_number = :houseNumber, house_number_suffix = :houseNumberSuffix,
+                                postal_code = :postalCode, city = :city, latitude = :latitude,
+                                longitude = :longitude
+                        WHERE id = :id
+                        RETURNING %s""".formatted(COLUMNS)).bind("id", pos.id()), pos)
+                .map(ReactivePosDataServiceImpl::fromRow)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new PosNotFoundException(pos.id())));
+    }
+
+    private Mono<Void> notifyOtherInstances(String ids) {
+        if (!changeProperties.enabled()) {
+            return Mono.empty();
+        }
+        return databaseClient.sql("SELECT pg_notify(:channel, :payload)")
+                .bind("channel", changeProperties.channel())
+                .bind("payload", instanceId + ":" + ids)
+                .then();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindColumns(DatabaseClient.GenericExecuteSpec spec, Pos pos) {
+        String numericPart = pos.houseNumber().replaceAll("[^0-9]", "");
+        String suffixPart = pos.houseNumber().replaceAll("[0-9]", "");
+        return spec
+                .bind("now", LocalDateTime.now(ZoneOffset.UTC))
+                .bind("osmNodeId", Parameter.fromOrEmpty(pos.osmNodeId(), Long.class))
+                .bind("name", pos.name())
+                .bind("description", pos.description())
+                .bind("type", pos.type().name())
+                .bind("campus", pos.campus().name())
+                .bind("street", pos.street())
+                .bind("houseNumber", Parameter.fromOrEmpty(
+                        numericPart.isEmpty() ? null : Integer.parseInt(numericPart), Integer.class))
+                .bind("houseNumberSuffix", Parameter.fromOrEmpty(
+                        suffixPart.isEmpty() ? null : suffixPart.substring(0, 1), String.class))
+                .bind("postalCode", pos.postalCode())
+                .bind("city", pos.city())
+                .bind("latitude", Parameter.fromOrEmpty(pos.latitude(), Double.class))
+                .bind("longitude", Parameter.fromOrEmpty(pos.longitude(), Double.class));
+    }
+
+    private static Pos fromRow(Readable row) {
+        String suffix = row.get("house_number_suffix", String.class);
+        return Pos.builder()
+                .id(row.get("id", Long.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .osmNodeId(row.get("osm_node_id", Long.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .type(PosType.valueOf(row.get("type", String.class)))
+                .campus(CampusType.valueOf(row.get("campus", String.class)))
+                .street(row.get("street", String.class))
+                .houseNumber(row.get("house_number", Integer.class) + (suffix != null ? suffix : ""))
+                .postalCode(row.get("postal_code", Integer.class))
+                .city(row.get("city", String.class))
+                .latitude(row.get("latitude", Double.class))
+                .longitude(row.get("longitude", Double.class))
+                .build();
+    }
+
+    private static boolean isDuplicateNameConstraintViolation(DataIntegrityViolationException e) {
+        // Postgres reports the violated constraint with the error, so that the messages need not be searched
+        return e.getMostSpecificCause() instanceof R2dbcDataIntegrityViolationException violation
+                && violation instanceof PostgresqlException postgresqlException
+                && postgresqlException.getErrorDetails().getConstraintName()
+                        .map(POS_NAME_CONSTRAINT::equals)
+                        .orElse(false);
+    }
+}
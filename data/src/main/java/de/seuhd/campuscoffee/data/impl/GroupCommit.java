@@ -0,0 +1,164 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Groups concurrent writes into batches, so that they share one transaction and commit instead of running one each.
+ * <p>
+ * Callers queue their item and compete for the lock of the group; the caller that obtains it waits up to the window for
+ * more items (or until the batch is full), writes the queued items as one batch on its own thread, and hands each
+ * caller its result. Callers whose items are written meanwhile find them done once they obtain the lock. Items that
+ * arrive while a batch is written form the next one, so that the latency added to a write is bounded by the window and
+ * the duration of the batch before it.
+ * <p>
+ * If the batch write fails, its items are written one by one, so that each caller gets its own result or exception,
+ * as without batching; a failing item thus costs the batch its advantage, but not the other items their writes.
+ * <p>
+ * The sizes of the batches are recorded as the distribution summary {@code group.commit.batch.size}, the batches that
+ * fell back to single writes as the counter {@code group.commit.fallbacks}, both with the tag {@code operation}.
+ *
+ * @param <I> the item type
+ * @param <O> the result type
+ */
+final class GroupCommit<I, O> {
+    private final Duration window;
+    private final int maxBatchSize;
+    private final Function<List<I>, List<O>> batchWrite;
+    private final Function<I, O> singleWrite;
+    private final Queue<Pending<I, O>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    // the caller waiting for the window to pass, woken up once the batch is full
+    private volatile @Nullable Thread leader;
+    private final DistributionSummary batchSizes;
+    private final Counter fallbacks;
+
+    /**
+     * @param operation     the name of the batched operation, for the metrics
+     * @param window        how long the first item of a batch waits for more items
+     * @param maxBatchSize  the maximum number of items in a batch
+     * @param batchWrite    writes a batch and returns the results in the order of the items, or fails as a whole
+     * @param singleWrite   writes a single item, used if a batch fails
+     * @param meterRegistry the registry of the metrics
+     */
+    GroupCommit(String operation, Duration window, int maxBatchSize, Function<List<I>, List<O>> batchWrite,
+                Function<I, O> singleWrite, MeterRegistry meterRegistry) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("The maximum batch size must be positive: " + maxBatchSize);
+        }
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.batchWrite = batchWrite;
+        this.singleWrite = singleWrite;
+        this.batchSizes = DistributionSummary.builder("group.commit.batch.size")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        this.fallbacks = meterRegistry.counter("group.commit.fallbacks", "operation", operation);
+    }
+
+    /**
+     * Writes the item as part of the next batch.
+     *
+     * @param item the item
+     * @return the result of the write
+     */
+    O write(I item) {
+        Pending<I, O> pending = new Pending<>(item, new CompletableFuture<>());
+        queue.add(pending);
+        if (queued.incrementAndGet() >= maxBatchSize) {
+            Thread waiting = leader;
+            if (waiting != null) {
+                LockSupport.unpark(waiting);
+            }
+        }
+        lock.lock();
+        try {
+            while (!pending.result().isDone()) {
+                writeNextBatch();
+            }
+        } finally {
+            lock.unlock();
+        }
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            // rethrow the exception of the write itself, as if this caller had run it
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for the window to pass or the batch to fill up, then writes the queued items. Must hold the lock.
+     */
+    private void writeNextBatch() {
+        leader = Thread.currentThread();
+        try {
+            long deadline = System.nanoTime() + window.toNanos();
+            long remaining;
+            while (queued.get() < maxBatchSize && (remaining = deadline - System.nanoTime()) > 0
+                    && !Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            leader = null;
+        }
+        List<Pending<I, O>> batch = new ArrayList<>();
+        Pending<I, O> pending;
+        while (batch.size() < maxBatchSize && (pending = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.add(pending);
+        }
+        write(batch);
+    }
+
+    private void write(List<Pending<I, O>> batch) {
+        batchSizes.record(batch.size());
+        try {
+            List<O> results = batchWrite.apply(batch.stream().map(Pending::item).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.getFirst().result().completeExceptionally(e);
+                return;
+            }
+            fallbacks.increment();
+            for (Pending<I, O> single : batch) {
+                try {
+                    single.result().complete(singleWrite.apply(single.item()));
+                } catch (RuntimeException singleException) {
+                    single.result().completeExceptionally(singleException);
+                }
+            }
+        } catch (Error e) {
+            // the items have left the queue, so that their callers would otherwise wait forever
+            batch.forEach(single -> single.result().completeExceptionally(e));
+            throw e;
+        }
+    }
+
+    private record Pending<I, O>(I item, CompletableFuture<O> result) {
+    }
+}
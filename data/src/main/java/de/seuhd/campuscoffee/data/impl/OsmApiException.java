@@ -0,0 +1,64 @@
+package de.seuhd.campuscoffee.data.impl;
+
+/**
+ * Exception thrown when the OpenStreetMap API cannot be reached or responds with an error status.
+ */
+class OsmApiException extends RuntimeException {
+    private final int statusCode;
+    private final boolean circuitOpen;
+
+    OsmApiException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+        this.circuitOpen = false;
+    }
+
+    OsmApiException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = -1;
+        this.circuitOpen = false;
+    }
+
+    private OsmApiException(String message) {
+        super(message);
+        this.statusCode = -1;
+        this.circuitOpen = true;
+    }
+
+    /**
+     * @param host the host whose circuit breaker is open
+     * @return an exception for a request that was rejected without being sent
+     */
+    static OsmApiException circuitOpen(String host) {
+        return new OsmApiException("Circuit breaker for OSM API host " + host + " is open, request rejected");
+    }
+
+    /**
+     * @return the HTTP status code of the response, or -1 if no response was received
+     */
+    int statusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return true if the requested element does not exist (HTTP 404) or was deleted (HTTP 410)
+     */
+    boolean isNotFound() {
+        return statusCode == 404 || statusCode == 410;
+    }
+
+    /**
+     * @return true if the request was rejected by the circuit breaker without being sent
+     */
+    boolean isCircuitOpen() {
+        return circuitOpen;
+    }
+
+    /**
+     * @return true if the failure indicates that the API is unhealthy: no response (I/O error or timeout),
+     *         a server error, or rate limiting
+     */
+    boolean isApiFailure() {
+        return !circuitOpen && (statusCode == -1 || statusCode == 429 || statusCode >= 500);
+    }
+}
@@ -0,0 +1,136 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.model.OsmTags;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Streaming parser for the JSON responses of the OSM API ({@code {"elements": [...]}}).
+ * <p>
+ * Unlike data binding, the parser does not materialize the response: tags whose key is not kept are skipped without
+ * creating strings for them, and the kept tags are collected into one reusable {@link OsmTags.Builder} and stored
+ * once as compact {@link OsmTags}. Field names are canonicalized by Jackson, so tag keys are not allocated either.
+ * The filter is evaluated before a node is created, so that the mostly irrelevant nodes of a {@code map} response
+ * cost little more than reading them.
+ */
+class OsmApiParser {
+    private final JsonFactory jsonFactory;
+    private final Set<String> keptKeys;
+
+    /**
+     * @param jsonFactory the factory to create parsers with
+     * @param keptKeys    the tags to keep; all other tags are dropped
+     */
+    OsmApiParser(@NonNull JsonFactory jsonFactory, @NonNull Set<String> keptKeys) {
+        this.jsonFactory = jsonFactory;
+        this.keptKeys = Set.copyOf(keptKeys);
+    }
+
+    /**
+     * Parses the nodes of a response. Elements without coordinates (ways, relations, and deleted nodes) and
+     * untagged nodes are skipped.
+     *
+     * @param body       the response body
+     * @param filter     the predicate on the kept tags of a node; nodes that do not match are skipped
+     * @param incomplete called with the ID of each skipped element that has an ID but lacks coordinates or tags
+     * @return the matching nodes, in the order of the response
+     * @throws IOException if the body is not valid JSON
+     */
+    @NonNull List<OsmNode> parseNodes(byte @NonNull [] body, @NonNull Predicate<Map<String, String>> filter,
+                                      @NonNull LongConsumer incomplete) throws IOException {
+        List<OsmNode> osmNodes = new ArrayList<>();
+        OsmTags.Builder tags = OsmTags.builder(16);
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected an OSM API response object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                if (parser.nextToken() == JsonToken.START_ARRAY && "elements".equals(field)) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        OsmNode osmNode = parseElement(parser, tags, filter, incomplete);
+                        if (osmNode != null) {
+                            osmNodes.add(osmNode);
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return osmNodes;
+    }
+
+    private @Nullable OsmNode parseElement(JsonParser parser, OsmTags.Builder tags,
+                                           Predicate<Map<String, String>> filter, LongConsumer incomplete)
+            throws IOException {
+        long id = 0;
+        boolean hasId = false;
+        double latitude = Double.NaN;
+        double longitude = Double.NaN;
+        boolean hasTags = false;
+        tags.clear();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "id" -> {
+                    id = parser.getLongValue();
+                    hasId = true;
+                }
+                case "lat" -> latitude = parser.getDoubleValue();
+                case "lon" -> longitude = parser.getDoubleValue();
+                case "tags" -> {
+                    if (token == JsonToken.START_OBJECT) {
+                        hasTags = true;
+                        parseTags(parser, tags);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        if (!hasId || Double.isNaN(latitude) || Double.isNaN(longitude) || !hasTags) {
+            if (hasId) {
+                incomplete.accept(id);
+            }
+            return null;
+        }
+        OsmTags osmTags = tags.build();
+        if (!filter.test(osmTags)) {
+            return null;
+        }
+        return OsmNode.builder()
+                .nodeId(id)
+                .latitude(latitude)
+                .longitude(longitude)
+                .tags(osmTags)
+                .build();
+    }
+
+    private void parseTags(JsonParser parser, OsmTags.Builder tags) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_STRING && keptKeys.contains(key)) {
+                tags.put(key, parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+}
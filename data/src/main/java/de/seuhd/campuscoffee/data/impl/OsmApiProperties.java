@@ -0,0 +1,90 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the HTTP client used to call the OpenStreetMap API.
+ *
+ * @param baseUrl               base URL of the OSM API (without trailing slash)
+ * @param userAgent             user agent sent with each request (required by the OSM API usage policy)
+ * @param connectTimeout        maximum time to establish a connection
+ * @param requestTimeout        maximum time from sending a request until the complete response has been received
+ * @param maxConnectionsPerHost maximum number of concurrent requests per host; further requests wait for a free slot
+ *                              for at most {@code requestTimeout}
+ * @param maxUrlLength          maximum length of request URLs; multi-node requests are split into chunks below this limit
+ * @param http2                 whether to negotiate HTTP/2 (falls back to HTTP/1.1 if the server does not support it)
+ * @param gzip                  whether to request gzip-compressed responses
+ * @param mode                  whether requests block the calling thread or are sent asynchronously
+ * @param circuitBreaker        when to stop calling a failing API
+ * @param hedging               when to send a second request for a slow one
+ */
+@ConfigurationProperties("campus-coffee.osm.api")
+record OsmApiProperties(
+        @DefaultValue("https://api.openstreetmap.org/api/0.6") String baseUrl,
+        @DefaultValue("CampusCoffee/0.0.1") String userAgent,
+        @DefaultValue("5s") Duration connectTimeout,
+        @DefaultValue("10s") Duration requestTimeout,
+        @DefaultValue("4") int maxConnectionsPerHost,
+        @DefaultValue("4000") int maxUrlLength,
+        @DefaultValue("true") boolean http2,
+        @DefaultValue("true") boolean gzip,
+        @DefaultValue("BLOCKING") Mode mode,
+        @DefaultValue CircuitBreaker circuitBreaker,
+        @DefaultValue Hedging hedging
+) {
+    /**
+     * Request mode of the HTTP client.
+     */
+    enum Mode {
+        /**
+         * Requests are sent on the calling thread, which waits for the response.
+         */
+        BLOCKING,
+        /**
+         * Requests are sent asynchronously on the client's executor; independent requests run concurrently.
+         */
+        ASYNC
+    }
+
+    /**
+     * Configuration of the circuit breaker (see {@link OsmCircuitBreaker}). Failures are I/O errors, timeouts,
+     * server errors (5xx), and rate limiting (429); other client errors such as 404 are successful calls.
+     *
+     * @param enabled              whether failing requests open the circuit
+     * @param failureRateThreshold failure rate in percent at which the circuit opens
+     * @param slidingWindowSize    number of most recent calls the failure rate is computed from
+     * @param minimumCalls         number of calls required before the failure rate is evaluated
+     * @param openDuration         how long requests are rejected before trial requests are sent
+     * @param halfOpenCalls        number of trial requests that must succeed to close the circuit again
+     */
+    record CircuitBreaker(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("50") int failureRateThreshold,
+            @DefaultValue("20") int slidingWindowSize,
+            @DefaultValue("10") int minimumCalls,
+            @DefaultValue("30s") Duration openDuration,
+            @DefaultValue("3") int halfOpenCalls
+    ) {
+    }
+
+    /**
+     * Configuration of hedged requests: if a request has not completed after the given percentile of recent
+     * latencies, the same request is sent again and the first response wins. Requests are only hedged if a
+     * connection slot is free, so hedging does not add load when the API is saturated.
+     *
+     * @param enabled    whether slow requests are hedged
+     * @param percentile latency percentile (of the most recent successful requests) after which a request is hedged
+     * @param minDelay   lower bound of the hedging delay
+     * @param minSamples number of latency samples required before requests are hedged
+     */
+    record Hedging(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("0.95") double percentile,
+            @DefaultValue("50ms") Duration minDelay,
+            @DefaultValue("20") int minSamples
+    ) {
+    }
+}
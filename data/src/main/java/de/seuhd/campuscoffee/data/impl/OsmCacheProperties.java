@@ -0,0 +1,25 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration of the persistent OSM node cache ({@link OsmNodeCache}).
+ *
+ * @param enabled   whether fetched OSM nodes are cached on disk
+ * @param directory directory of the cache file; created if it does not exist
+ * @param ttl       how long a cached node is served before it is fetched again
+ * @param maxSize   maximum size of the cache file; when exceeded, expired and least recently fetched nodes are evicted
+ */
+@ConfigurationProperties("campus-coffee.osm.cache")
+record OsmCacheProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("osm-cache") Path directory,
+        @DefaultValue("7d") Duration ttl,
+        @DefaultValue("64MB") DataSize maxSize
+) {
+}
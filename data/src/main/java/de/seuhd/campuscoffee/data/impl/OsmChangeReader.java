@@ -0,0 +1,115 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.model.OsmNodeChange;
+import de.seuhd.campuscoffee.domain.model.OsmTags;
+import org.jspecify.annotations.NonNull;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+/**
+ * Streaming reader for the osmChange format ({@code .osc}) of OpenStreetMap replication diffs.
+ * <p>
+ * A minutely diff holds the changes of all mappers worldwide, i.e., thousands of nodes, ways, and relations.
+ * The reader checks the ID of each node against the filter as soon as the node starts and ignores everything else,
+ * so only the few selected nodes are materialized; of their tags, only the kept keys are stored.
+ */
+final class OsmChangeReader {
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private OsmChangeReader() {
+    }
+
+    /**
+     * Reads the changes of the selected nodes, in document order.
+     *
+     * @param inputStream the (decompressed) osmChange document; not closed by this method
+     * @param nodeFilter  selects the nodes to read by ID
+     * @param keptKeys    the tags to keep; all other tags are dropped
+     * @return the changes of the selected nodes
+     * @throws XMLStreamException if the document is not well-formed
+     */
+    static @NonNull List<OsmNodeChange> read(@NonNull InputStream inputStream, @NonNull LongPredicate nodeFilter,
+                                             @NonNull Set<String> keptKeys) throws XMLStreamException {
+        List<OsmNodeChange> changes = new ArrayList<>();
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+        try {
+            OsmTags.Builder tags = OsmTags.builder(16);
+            boolean deleting = false;
+            boolean inNode = false;
+            long nodeId = 0;
+            long version = 0;
+            double latitude = 0;
+            double longitude = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "create", "modify" -> deleting = false;
+                        case "delete" -> deleting = true;
+                        case "node" -> {
+                            nodeId = Long.parseLong(reader.getAttributeValue(null, "id"));
+                            inNode = nodeFilter.test(nodeId);
+                            if (inNode) {
+                                version = parseVersion(reader.getAttributeValue(null, "version"));
+                                latitude = parseCoordinate(reader.getAttributeValue(null, "lat"));
+                                longitude = parseCoordinate(reader.getAttributeValue(null, "lon"));
+                                tags.clear();
+                            }
+                        }
+                        case "tag" -> {
+                            String key = reader.getAttributeValue(null, "k");
+                            if (inNode && keptKeys.contains(key)) {
+                                tags.put(key, reader.getAttributeValue(null, "v"));
+                            }
+                        }
+                        default -> {
+                            // ways, relations, and their members are not relevant
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && inNode && reader.getLocalName().equals("node")) {
+                    inNode = false;
+                    // deleted nodes may still have coordinates and tags (with the "if-unused" option)
+                    OsmNode osmNode = deleting || Double.isNaN(latitude) || Double.isNaN(longitude)
+                            ? null
+                            : OsmNode.builder()
+                                    .nodeId(nodeId)
+                                    .latitude(latitude)
+                                    .longitude(longitude)
+                                    .tags(tags.build())
+                                    .build();
+                    changes.add(new OsmNodeChange(nodeId, version, osmNode));
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return changes;
+    }
+
+    private static long parseVersion(String value) {
+        return value != null ? Long.parseLong(value) : 0;
+    }
+
+    private static double parseCoordinate(String value) {
+        // deleted nodes have no coordinates
+        return value != null ? Double.parseDouble(value) : Double.NaN;
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // diffs are untrusted input: do not resolve DTDs or external entities
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+}
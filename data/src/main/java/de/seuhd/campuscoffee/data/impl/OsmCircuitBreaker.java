@@ -0,0 +1,163 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.events.OsmCircuitBreakerEvent;
+import de.seuhd.campuscoffee.domain.events.OsmCircuitBreakerEvent.State;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for the requests to one host of the OSM API.
+ * <p>
+ * While {@link State#CLOSED}, the outcomes of the most recent calls are kept in a sliding window; once the window
+ * holds at least the minimum number of calls and the failure rate reaches the threshold, the circuit opens.
+ * While {@link State#OPEN}, calls are rejected without contacting the API. After the open duration, the next call
+ * moves the circuit to {@link State#HALF_OPEN}, in which the configured number of trial calls are permitted: if all
+ * of them succeed, the circuit closes with an empty window; the first failure opens it again.
+ * <p>
+ * Each transition is passed to the listener after the lock has been released.
+ */
+@Slf4j
+class OsmCircuitBreaker {
+    private final String host;
+    private final OsmApiProperties.CircuitBreaker properties;
+    private final LongSupplier nanoTime;
+    private final Consumer<OsmCircuitBreakerEvent> listener;
+    // outcomes of the most recent calls in the closed state (true: failure), used as a ring buffer
+    private final boolean[] window;
+    private int windowSize;
+    private int windowPosition;
+    private int windowFailures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialPermits;
+    private int trialSuccesses;
+
+    OsmCircuitBreaker(@NonNull String host, OsmApiProperties.@NonNull CircuitBreaker properties,
+                      @NonNull LongSupplier nanoTime, @NonNull Consumer<OsmCircuitBreakerEvent> listener) {
+        this.host = host;
+        this.properties = properties;
+        this.nanoTime = nanoTime;
+        this.listener = listener;
+        this.window = new boolean[Math.max(1, properties.slidingWindowSize())];
+    }
+
+    /**
+     * @return the current state
+     */
+    synchronized @NonNull State state() {
+        return state;
+    }
+
+    /**
+     * Asks for permission to call the API. Every permitted call must be followed by {@link #onSuccess()} or
+     * {@link #onFailure()}.
+     *
+     * @return true if the call may be sent, false if it must be rejected
+     */
+    boolean tryAcquirePermission() {
+        if (!properties.enabled()) {
+            return true;
+        }
+        OsmCircuitBreakerEvent event = null;
+        boolean permitted;
+        synchronized (this) {
+            if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= properties.openDuration().toNanos()) {
+                event = transition(State.HALF_OPEN);
+                trialPermits = Math.max(1, properties.halfOpenCalls());
+                trialSuccesses = 0;
+            }
+            permitted = switch (state) {
+                case CLOSED -> true;
+                case OPEN -> false;
+                case HALF_OPEN -> trialPermits-- > 0;
+            };
+        }
+        publish(event);
+        return permitted;
+    }
+
+    /**
+     * Records a successful call.
+     */
+    void onSuccess() {
+        if (!properties.enabled()) {
+            return;
+        }
+        OsmCircuitBreakerEvent event = null;
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                record(false);
+            } else if (state == State.HALF_OPEN && ++trialSuccesses >= Math.max(1, properties.halfOpenCalls())) {
+                event = transition(State.CLOSED);
+            }
+        }
+        publish(event);
+    }
+
+    /**
+     * Records a failed call.
+     */
+    void onFailure() {
+        if (!properties.enabled()) {
+            return;
+        }
+        OsmCircuitBreakerEvent event = null;
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                record(true);
+                if (windowSize >= properties.minimumCalls()
+                        && windowFailures * 100 >= properties.failureRateThreshold() * windowSize) {
+                    event = transition(State.OPEN);
+                }
+            } else if (state == State.HALF_OPEN) {
+                event = transition(State.OPEN);
+            }
+        }
+        publish(event);
+    }
+
+    private void record(boolean failure) {
+        if (windowSize == window.length) {
+            if (window[windowPosition]) {
+                windowFailures--;
+            }
+        } else {
+            windowSize++;
+        }
+        window[windowPosition] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowPosition = (windowPosition + 1) % window.length;
+    }
+
+    private OsmCircuitBreakerEvent transition(State newState) {
+        OsmCircuitBreakerEvent event = new OsmCircuitBreakerEvent(host, state, newState);
+        if (newState == State.OPEN) {
+            openedAt = nanoTime.getAsLong();
+        } else if (newState == State.CLOSED) {
+            windowSize = 0;
+            windowPosition = 0;
+            windowFailures = 0;
+        }
+        state = newState;
+        return event;
+    }
+
+    private void publish(@Nullable OsmCircuitBreakerEvent event) {
+        if (event == null) {
+            return;
+        }
+        if (event.state() == State.OPEN) {
+            log.warn("Circuit breaker for OSM API host {} opened, requests are rejected for {}",
+                    host, properties.openDuration());
+        } else {
+            log.info("Circuit breaker for OSM API host {} changed from {} to {}", host, event.previousState(), event.state());
+        }
+        listener.accept(event);
+    }
+}
@@ -1,30 +1,84 @@
 package de.seuhd.campuscoffee.data.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.seuhd.campuscoffee.domain.exceptions.OsmApiUnavailableException;
 import de.seuhd.campuscoffee.domain.exceptions.OsmNodeNotFoundException;
+import de.seuhd.campuscoffee.domain.model.BoundingBox;
 import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.model.OsmNodeBatch;
 import de.seuhd.campuscoffee.domain.ports.OsmDataService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Objects;
-import java.util.Collections;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * OSM import service.
+ * Fetches nodes from the OpenStreetMap API using the pooled {@link OsmHttpClient}.
+ * Responses are parsed by the streaming {@link OsmApiParser}, which keeps only the tags read by the domain
+ * ({@link OsmNode#POS_TAG_KEYS}) and those tested by the tag filters.
+ * <p>
+ * Besides the per-request metrics of the client, each port call is timed as {@code osm.fetch} (tags {@code operation}
+ * and {@code outcome}), and failed requests are counted as {@code osm.fetch.errors} (tags {@code operation} and
+ * {@code reason}), including those that only skip a chunk or tile. Port calls are also recorded as
+ * {@link OsmFetchEvent}s for Java Flight Recorder.
+ * <p>
+ * Concurrent {@link #fetchNode(Long)} calls for the same node share one request (see {@link SingleFlight}), e.g., when
+ * several users import the same node at once.
  */
 @Service
 @Slf4j
 class OsmDataServiceImpl implements OsmDataService {
-    private static final String OSM_API_URL = "https://api.openstreetmap.org/api/0.6/node/%d.json";
-    private final RestTemplate restTemplate;
+    private static final String NODE_PATH = "/node/%d.json";
+    private static final String NODES_PATH = "/nodes.json?nodes=";
+    private static final String MAP_PATH = "/map.json?bbox=%.7f,%.7f,%.7f,%.7f";
+    private static final int BAD_REQUEST = 400;
+    private static final int URI_TOO_LONG = 414;
+    // tiles are not bisected any further (about 100 m x 100 m), a bad request then has another cause
+    private static final double MIN_TILE_AREA = 1e-6;
+    private final OsmHttpClient osmHttpClient;
+    private final OsmApiParser parser;
+    private final List<OsmTagFilter> tagFilters;
+    private final double maxTileArea;
+    private final int maxTiles;
+    private final MeterRegistry meterRegistry;
+    private final SingleFlight<Long, OsmNode> fetchNodeFlights;
 
-    public OsmDataServiceImpl() {
-        this.restTemplate = new RestTemplate();
+    OsmDataServiceImpl(OsmHttpClient osmHttpClient, ObjectMapper objectMapper, OsmDiscoveryProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.osmHttpClient = osmHttpClient;
+        this.meterRegistry = meterRegistry;
+        this.fetchNodeFlights = new SingleFlight<>("osm.fetchNode", meterRegistry);
+        this.tagFilters = properties.tagFilters().stream()
+                .map(OsmTagFilter::parse)
+                .toList();
+        // the tag filters must see the tags they test, all other tags not read by the domain are dropped
+        Set<String> keptKeys = new HashSet<>(OsmNode.POS_TAG_KEYS);
+        tagFilters.forEach(tagFilter -> keptKeys.add(tagFilter.key()));
+        this.parser = new OsmApiParser(objectMapper.getFactory(), keptKeys);
+        this.maxTileArea = properties.maxArea();
+        this.maxTiles = properties.maxTiles();
     }
 
     /**
@@ -33,52 +87,367 @@ class OsmDataServiceImpl implements OsmDataService {
      * @param nodeId The OpenStreetMap node ID to fetch
      * @return An OsmNode containing the node's data
      * @throws OsmNodeNotFoundException if the node doesn't exist or cannot be fetched
+     * @throws OsmApiUnavailableException if the request was rejected because the circuit breaker is open
      */
     @Override
-    public @NonNull OsmNode fetchNode(@NonNull Long nodeId) throws OsmNodeNotFoundException {
+    public @NonNull OsmNode fetchNode(@NonNull Long nodeId) throws OsmNodeNotFoundException, OsmApiUnavailableException {
         Objects.requireNonNull(nodeId, "Node ID cannot be null");
+        return fetchNodeFlights.call(nodeId, () -> fetchNodeFromApi(nodeId));
+    }
+
+    private OsmNode fetchNodeFromApi(Long nodeId) {
         log.info("Fetching OSM node {} from API", nodeId);
-        
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        OsmFetchEvent event = beginFetch();
+        String outcome = "ERROR";
         try {
-            String url = String.format(OSM_API_URL, nodeId);
-            OsmApiResponse response = restTemplate.getForObject(url, OsmApiResponse.class);
-            
-            if (response == null || response.elements == null || response.elements.isEmpty()) {
+            byte[] body = osmHttpClient.get(osmHttpClient.uri(String.format(NODE_PATH, nodeId)));
+            List<OsmNode> osmNodes = parser.parseNodes(body, tags -> true,
+                    id -> log.error("Invalid data structure received for OSM node {}", id));
+
+            if (osmNodes.isEmpty()) {
                 log.warn("No data found for OSM node {}", nodeId);
+                outcome = "NOT_FOUND";
                 throw new OsmNodeNotFoundException(nodeId);
             }
-
-            OsmApiNode node = response.elements.get(0);
-            
-            // Validate required node data
-            if (node.id == null || node.lat == null || node.lon == null || node.tags == null) {
-                log.error("Invalid data structure received for OSM node {}", nodeId);
+            outcome = "SUCCESS";
+            return osmNodes.getFirst();
+        } catch (OsmApiException e) {
+            recordError("node", e);
+            if (e.isCircuitOpen()) {
+                outcome = "UNAVAILABLE";
+                throw new OsmApiUnavailableException("Cannot fetch OSM node " + nodeId + ": " + e.getMessage(), e);
+            }
+            if (e.isNotFound()) {
+                log.warn("OSM node {} does not exist", nodeId);
+                outcome = "NOT_FOUND";
                 throw new OsmNodeNotFoundException(nodeId);
             }
-            
-            // Create a defensive copy of the tags map
-            Map<String, String> tags = Collections.unmodifiableMap(new HashMap<>(node.tags));
-            
-            return OsmNode.builder()
-                    .nodeId(node.id)
-                    .latitude(node.lat)
-                    .longitude(node.lon)
-                    .tags(tags)
-                    .build();
-        } catch (Exception e) {
             log.error("Failed to fetch OSM node {}: {}", nodeId, e.getMessage());
             throw new OsmNodeNotFoundException(nodeId, e);
+        } catch (IOException e) {
+            recordError("node", e);
+            log.error("Failed to parse OSM node {}: {}", nodeId, e.getMessage());
+            throw new OsmNodeNotFoundException(nodeId, e);
+        } finally {
+            stopFetch(sample, event, "node", outcome, "SUCCESS".equals(outcome) ? 1 : 0);
+        }
+    }
+
+    /**
+     * Fetches multiple nodes using the multi-fetch endpoint {@code /nodes?nodes=id1,id2,...}.
+     * <p>
+     * The IDs are split into chunks so that no request URL exceeds the configured maximum length. The OSM API answers
+     * a multi-fetch with 404 if any of the requested nodes does not exist; such a chunk is bisected until the missing
+     * nodes are isolated, so one missing node costs O(log n) additional requests instead of failing the chunk.
+     * Deleted and incomplete nodes are skipped as well. Other failures (e.g., an open circuit or a server error) skip
+     * the affected chunk, whose nodes are then reported as unavailable. In {@link OsmApiProperties.Mode#ASYNC} mode,
+     * chunks are fetched concurrently.
+     *
+     * @param nodeIds the OpenStreetMap node IDs to fetch
+     * @return the fetched nodes by node ID, in the order of the given IDs, and the IDs of the unavailable nodes
+     */
+    @Override
+    public @NonNull OsmNodeBatch fetchNodes(@NonNull Collection<Long> nodeIds) {
+        LinkedHashSet<Long> distinctIds = new LinkedHashSet<>();
+        for (Long nodeId : nodeIds) {
+            distinctIds.add(Objects.requireNonNull(nodeId, "Node ID cannot be null"));
+        }
+        if (distinctIds.isEmpty()) {
+            return new OsmNodeBatch(Map.of(), Set.of());
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        OsmFetchEvent event = beginFetch();
+        List<List<Long>> chunks = chunk(distinctIds);
+        log.info("Fetching {} OSM nodes from API in {} request(s)", distinctIds.size(), chunks.size());
+        Set<Long> unavailableIds = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<List<OsmNode>>> futures = chunks.stream()
+                .map(chunk -> fetchChunk(chunk, unavailableIds))
+                .toList();
+
+        Map<Long, OsmNode> fetched = new HashMap<>();
+        for (CompletableFuture<List<OsmNode>> future : futures) {
+            for (OsmNode osmNode : future.join()) {
+                fetched.put(osmNode.nodeId(), osmNode);
+            }
+        }
+
+        Map<Long, OsmNode> result = new LinkedHashMap<>();
+        for (Long nodeId : distinctIds) {
+            OsmNode osmNode = fetched.get(nodeId);
+            if (osmNode != null) {
+                result.put(nodeId, osmNode);
+            }
+        }
+        if (result.size() < distinctIds.size()) {
+            log.warn("{} of {} OSM nodes could not be fetched", distinctIds.size() - result.size(), distinctIds.size());
+        }
+        stopFetch(sample, event, "nodes", result.size() < distinctIds.size() ? "PARTIAL" : "SUCCESS", result.size());
+        return new OsmNodeBatch(result, unavailableIds);
+    }
+
+    /**
+     * Splits the IDs into chunks whose multi-fetch URL does not exceed the maximum URL length.
+     */
+    private List<List<Long>> chunk(Collection<Long> nodeIds) {
+        int maxLength = osmHttpClient.maxUrlLength() - osmHttpClient.uri(NODES_PATH).toString().length();
+        List<List<Long>> chunks = new ArrayList<>();
+        List<Long> chunk = new ArrayList<>();
+        int length = 0;
+        for (Long nodeId : nodeIds) {
+            int idLength = nodeId.toString().length() + (chunk.isEmpty() ? 0 : 1); // separating comma
+            if (!chunk.isEmpty() && length + idLength > maxLength) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                idLength = nodeId.toString().length();
+                length = 0;
+            }
+            chunk.add(nodeId);
+            length += idLength;
+        }
+        chunks.add(chunk);
+        return chunks;
+    }
+
+    /**
+     * @param unavailableIds collects the IDs of the nodes whose request failed for other reasons than missing nodes
+     */
+    private CompletableFuture<List<OsmNode>> fetchChunk(List<Long> nodeIds, Set<Long> unavailableIds) {
+        URI uri = osmHttpClient.uri(NODES_PATH + nodeIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        return get(uri)
+                .thenApply(this::parseNodes)
+                .exceptionallyCompose(failure -> recover(nodeIds, failure, unavailableIds));
+    }
+
+    private CompletableFuture<List<OsmNode>> recover(List<Long> nodeIds, Throwable failure, Set<Long> unavailableIds) {
+        Throwable cause = unwrap(failure);
+        boolean bisect = cause instanceof OsmApiException e && (e.isNotFound() || e.statusCode() == URI_TOO_LONG);
+        if (bisect && nodeIds.size() > 1) {
+            int middle = nodeIds.size() / 2;
+            CompletableFuture<List<OsmNode>> left = fetchChunk(nodeIds.subList(0, middle), unavailableIds);
+            CompletableFuture<List<OsmNode>> right = fetchChunk(nodeIds.subList(middle, nodeIds.size()), unavailableIds);
+            return left.thenCombine(right, (leftNodes, rightNodes) -> {
+                List<OsmNode> osmNodes = new ArrayList<>(leftNodes);
+                osmNodes.addAll(rightNodes);
+                return osmNodes;
+            });
+        }
+        recordError("nodes", cause);
+        if (cause instanceof OsmApiException e && e.isNotFound()) {
+            log.warn("OSM node {} does not exist", nodeIds.getFirst());
+        } else {
+            log.error("Failed to fetch {} OSM node(s) starting at {}: {}", nodeIds.size(), nodeIds.getFirst(), cause.getMessage());
+            unavailableIds.addAll(nodeIds);
+        }
+        return CompletableFuture.completedFuture(List.of());
+    }
+
+    /**
+     * Requests the area with the OSM API's {@code map} call, which returns all nodes, ways, and relations in it.
+     * <p>
+     * Areas above the configured maximum are split into tiles. The API answers with 400 if a tile contains too many
+     * nodes (50,000 on api.openstreetmap.org); such a tile is bisected along its longer side. In
+     * {@link OsmApiProperties.Mode#ASYNC} mode, tiles are requested concurrently. Any other failure of a tile fails the
+     * whole discovery, since a partial result could not be told apart from an area with fewer POS.
+     * <p>
+     * The response also contains the nodes of ways that cross the area, so nodes outside the box are dropped.
+     *
+     * @param boundingBox the area to search
+     * @return the nodes that match any of the tag filters, ordered by node ID
+     * @throws IllegalArgumentException if the area needs more than the configured maximum number of tiles
+     * @throws OsmApiUnavailableException if a tile cannot be fetched
+     */
+    @Override
+    public @NonNull List<OsmNode> discoverNodes(@NonNull BoundingBox boundingBox) {
+        Objects.requireNonNull(boundingBox, "Bounding box cannot be null");
+        long tileCount = (long) rows(boundingBox) * columns(boundingBox);
+        if (tileCount > maxTiles) {
+            throw new IllegalArgumentException("Bounding box " + boundingBox + " needs " + tileCount
+                    + " requests, at most " + maxTiles + " are allowed");
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        OsmFetchEvent event = beginFetch();
+        List<BoundingBox> tiles = tile(boundingBox);
+        log.info("Discovering OSM nodes in {} with tag filters {} in {} request(s)", boundingBox, tagFilters, tiles.size());
+        List<CompletableFuture<List<OsmNode>>> futures = tiles.stream()
+                .map(this::fetchTile)
+                .toList();
+
+        // tiles share their edges, a node on an edge is returned twice
+        Map<Long, OsmNode> discovered = new TreeMap<>();
+        int failedTiles = 0;
+        Throwable failure = null;
+        for (CompletableFuture<List<OsmNode>> future : futures) {
+            // all tiles are awaited, so that no request is left running after a failure
+            List<OsmNode> osmNodes;
+            try {
+                osmNodes = future.join();
+            } catch (CompletionException e) {
+                failedTiles++;
+                failure = unwrap(e);
+                continue;
+            }
+            for (OsmNode osmNode : osmNodes) {
+                if (boundingBox.contains(osmNode.latitude(), osmNode.longitude())) {
+                    discovered.put(osmNode.nodeId(), osmNode);
+                }
+            }
+        }
+        if (failure != null) {
+            boolean circuitOpen = failure instanceof OsmApiException e && e.isCircuitOpen();
+            stopFetch(sample, event, "map", circuitOpen ? "UNAVAILABLE" : "ERROR", 0);
+            throw new OsmApiUnavailableException("Cannot discover OSM nodes in " + boundingBox + ": " + failedTiles
+                    + " of " + futures.size() + " request(s) failed (" + failure.getMessage() + ")", failure);
+        }
+        stopFetch(sample, event, "map", "SUCCESS", discovered.size());
+        log.info("Discovered {} OSM node(s) in {}", discovered.size(), boundingBox);
+        return List.copyOf(discovered.values());
+    }
+
+    /**
+     * Splits the box into a grid of equally sized tiles that do not exceed the maximum area.
+     */
+    private List<BoundingBox> tile(BoundingBox boundingBox) {
+        int rows = rows(boundingBox);
+        int columns = columns(boundingBox);
+        double height = (boundingBox.maxLatitude() - boundingBox.minLatitude()) / rows;
+        double width = (boundingBox.maxLongitude() - boundingBox.minLongitude()) / columns;
+        List<BoundingBox> tiles = new ArrayList<>(rows * columns);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                tiles.add(new BoundingBox(
+                        boundingBox.minLatitude() + row * height,
+                        boundingBox.minLongitude() + column * width,
+                        row == rows - 1 ? boundingBox.maxLatitude() : boundingBox.minLatitude() + (row + 1) * height,
+                        column == columns - 1 ? boundingBox.maxLongitude() : boundingBox.minLongitude() + (column + 1) * width));
+            }
+        }
+        return tiles;
+    }
+
+    private int rows(BoundingBox boundingBox) {
+        return (int) Math.ceil((boundingBox.maxLatitude() - boundingBox.minLatitude()) / Math.sqrt(maxTileArea));
+    }
+
+    private int columns(BoundingBox boundingBox) {
+        return (int) Math.ceil((boundingBox.maxLongitude() - boundingBox.minLongitude()) / Math.sqrt(maxTileArea));
+    }
+
+    private CompletableFuture<List<OsmNode>> fetchTile(BoundingBox tile) {
+        URI uri = osmHttpClient.uri(String.format(Locale.ROOT, MAP_PATH,
+                tile.minLongitude(), tile.minLatitude(), tile.maxLongitude(), tile.maxLatitude()));
+        return get(uri)
+                .thenApply(this::parseMatchingNodes)
+                .exceptionallyCompose(failure -> recover(tile, failure));
+    }
+
+    private CompletableFuture<List<OsmNode>> recover(BoundingBox tile, Throwable failure) {
+        Throwable cause = unwrap(failure);
+        if (cause instanceof OsmApiException e && e.statusCode() == BAD_REQUEST && tile.area() >= MIN_TILE_AREA) {
+            log.debug("Bisecting {}: {}", tile, e.getMessage());
+            boolean splitLatitude = tile.maxLatitude() - tile.minLatitude() > tile.maxLongitude() - tile.minLongitude();
+            double middle = splitLatitude
+                    ? (tile.minLatitude() + tile.maxLatitude()) / 2
+                    : (tile.minLongitude() + tile.maxLongitude()) / 2;
+            CompletableFuture<List<OsmNode>> first = fetchTile(splitLatitude
+                    ? new BoundingBox(tile.minLatitude(), tile.minLongitude(), middle, tile.maxLongitude())
+                    : new BoundingBox(tile.minLatitude(), tile.minLongitude(), tile.maxLatitude(), middle));
+            CompletableFuture<List<OsmNode>> second = fetchTile(splitLatitude
+                    ? new BoundingBox(middle, tile.minLongitude(), tile.maxLatitude(), tile.maxLongitude())
+                    : new BoundingBox(tile.minLatitude(), middle, tile.maxLatitude(), tile.maxLongitude()));
+            return first.thenCombine(second, (firstNodes, secondNodes) -> {
+                List<OsmNode> osmNodes = new ArrayList<>(firstNodes);
+                osmNodes.addAll(secondNodes);
+                return osmNodes;
+            });
+        }
+        recordError("map", cause);
+        log.error("Failed to discover OSM nodes in {}: {}", tile, cause.getMessage());
+        return CompletableFuture.failedFuture(cause);
+    }
+
+    private CompletableFuture<byte[]> get(URI uri) {
+        if (osmHttpClient.mode() == OsmApiProperties.Mode.ASYNC) {
+            return osmHttpClient.getAsync(uri);
+        }
+        try {
+            return CompletableFuture.completedFuture(osmHttpClient.get(uri));
+        } catch (OsmApiException e) {
+            return CompletableFuture.failedFuture(e);
         }
     }
 
-    private record OsmApiResponse(
-        List<OsmApiNode> elements
-    ) {}
+    private static OsmFetchEvent beginFetch() {
+        OsmFetchEvent event = new OsmFetchEvent();
+        event.begin();
+        return event;
+    }
 
-    private record OsmApiNode(
-        Long id,
-        Double lat,
-        Double lon,
-        Map<String, String> tags
-    ) {}
+    /**
+     * Records the duration and outcome of a port call, both as metric and as JFR event.
+     */
+    private void stopFetch(Timer.Sample sample, OsmFetchEvent event, String operation, String outcome, int nodes) {
+        sample.stop(meterRegistry.timer("osm.fetch", "operation", operation, "outcome", outcome));
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.outcome = outcome;
+            event.nodes = nodes;
+            event.commit();
+        }
+    }
+
+    private void recordError(String operation, Throwable failure) {
+        String reason;
+        if (failure instanceof OsmApiException e) {
+            if (e.isCircuitOpen()) {
+                reason = "CIRCUIT_OPEN";
+            } else if (e.isNotFound()) {
+                reason = "NOT_FOUND";
+            } else if (e.statusCode() >= 500) {
+                reason = "SERVER_ERROR";
+            } else if (e.statusCode() >= 400) {
+                reason = "CLIENT_ERROR";
+            } else {
+                reason = "IO_ERROR";
+            }
+        } else {
+            reason = "INVALID_RESPONSE";
+        }
+        meterRegistry.counter("osm.fetch.errors", "operation", operation, "reason", reason).increment();
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    /**
+     * @return the nodes of a {@code map} response that match any of the tag filters; ways, relations, and
+     *         untagged nodes (most of the response) are skipped
+     */
+    private List<OsmNode> parseMatchingNodes(byte[] body) {
+        try {
+            return parser.parseNodes(body, this::matches, id -> {});
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean matches(Map<String, String> tags) {
+        for (OsmTagFilter tagFilter : tagFilters) {
+            if (tagFilter.matches(tags)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<OsmNode> parseNodes(byte[] body) {
+        try {
+            return parser.parseNodes(body, tags -> true, id -> log.warn("Skipping deleted or incomplete OSM node {}", id));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,23 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Configuration of the discovery of POS candidates in an area with the OSM API's {@code map} call.
+ *
+ * @param tagFilters nodes that match any of these filters are POS candidates (see {@link OsmTagFilter})
+ * @param maxArea    largest area in square degrees requested at once; larger areas are split into tiles
+ *                   (the OSM API rejects requests above 0.25)
+ * @param maxTiles   largest number of tiles of an area; larger areas are rejected
+ */
+@ConfigurationProperties("campus-coffee.osm.discovery")
+record OsmDiscoveryProperties(
+        @DefaultValue({"amenity=cafe", "amenity=cafeteria", "shop=bakery", "shop=coffee", "vending=coffee"})
+        List<String> tagFilters,
+        @DefaultValue("0.25") double maxArea,
+        @DefaultValue("400") int maxTiles
+) {
+}
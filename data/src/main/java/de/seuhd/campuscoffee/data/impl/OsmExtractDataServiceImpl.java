@@ -0,0 +1,173 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.exceptions.OsmExtractException;
+import de.seuhd.campuscoffee.domain.model.OsmExtractStats;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.ports.OsmExtractDataService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.jspecify.annotations.NonNull;
+import org.springframework.stereotype.Service;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads POS candidates from OpenStreetMap extract files in the OSM XML format, plain ({@code .osm}) or compressed
+ * ({@code .osm.bz2}, {@code .osm.gz}), or in the OSM PBF format ({@code .osm.pbf}).
+ * <p>
+ * XML files are parsed sequentially by the {@link OsmXmlReader}. PBF files are decoded in parallel by the
+ * {@link OsmPbfReader} ({@code campus-coffee.osm.extract.pbf-workers} threads), which is several times faster even
+ * on a single core, since PBF blocks are much cheaper to decode than XML.
+ * <p>
+ * Nodes are matched against the configured tag filters ({@code campus-coffee.osm.extract.tag-filters}); a node
+ * is a candidate if it matches any of them. The progress (nodes read, throughput in nodes per second, and matching
+ * nodes) is logged periodically while a file is being read.
+ */
+@Slf4j
+@Service
+class OsmExtractDataServiceImpl implements OsmExtractDataService {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private final List<OsmTagFilter> tagFilters;
+    private final OsmPbfReader.TagFilter pbfTagFilter;
+    private final OsmPbfReader pbfReader;
+    private final long progressIntervalNanos;
+
+    OsmExtractDataServiceImpl(OsmExtractProperties properties) {
+        this.tagFilters = properties.tagFilters().stream()
+                .map(OsmTagFilter::parse)
+                .toList();
+        this.pbfTagFilter = new OsmPbfReader.TagFilter(
+                tagFilters.stream().map(OsmTagFilter::key).distinct().toList(),
+                this::matches);
+        int pbfWorkers = properties.pbfWorkers() > 0 ? properties.pbfWorkers() : Runtime.getRuntime().availableProcessors();
+        this.pbfReader = new OsmPbfReader(pbfWorkers);
+        this.progressIntervalNanos = properties.progressInterval().toNanos();
+    }
+
+    @Override
+    public @NonNull OsmExtractStats readNodes(@NonNull Path file, @NonNull Consumer<OsmNode> consumer)
+            throws OsmExtractException {
+        if (!Files.isRegularFile(file)) {
+            throw new OsmExtractException("OSM extract " + file + " does not exist");
+        }
+        log.info("Reading OSM extract {} with tag filters {}", file, tagFilters);
+        Progress progress = new Progress(file);
+        try (InputStream inputStream = open(file)) {
+            if (isPbf(file)) {
+                pbfReader.read(inputStream, pbfTagFilter, (nodesRead, matchingNodes) -> {
+                    progress.nodesRead(nodesRead, matchingNodes.size());
+                    matchingNodes.forEach(consumer);
+                });
+            } else {
+                OsmXmlReader.read(inputStream, (nodeId, latitude, longitude, tags) -> {
+                    progress.nodeRead();
+                    if (!tags.isEmpty() && matches(tags)) {
+                        progress.nodeMatched();
+                        consumer.accept(OsmNode.builder()
+                                .nodeId(nodeId)
+                                .latitude(latitude)
+                                .longitude(longitude)
+                                .tags(Map.copyOf(tags))
+                                .build());
+                    }
+                });
+            }
+        } catch (IOException | XMLStreamException e) {
+            throw new OsmExtractException("Failed to read OSM extract " + file + ": " + e.getMessage(), e);
+        }
+        OsmExtractStats stats = progress.stats();
+        log.info("Read {} nodes from OSM extract {} in {} ms ({} nodes/s), {} matching",
+                stats.nodesRead(), file, stats.elapsed().toMillis(), Math.round(stats.nodesPerSecond()),
+                stats.nodesMatched());
+        return stats;
+    }
+
+    private boolean matches(Map<String, String> tags) {
+        for (OsmTagFilter tagFilter : tagFilters) {
+            if (tagFilter.matches(tags)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPbf(Path file) {
+        return file.getFileName().toString().endsWith(".osm.pbf");
+    }
+
+    private static InputStream open(Path file) throws IOException {
+        String fileName = file.getFileName().toString();
+        InputStream inputStream = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE);
+        try {
+            if (fileName.endsWith(".osm") || isPbf(file)) {
+                return inputStream;
+            } else if (fileName.endsWith(".osm.bz2")) {
+                // extracts are often compressed with parallel bzip2, which writes multiple concatenated streams
+                return new BufferedInputStream(new BZip2CompressorInputStream(inputStream, true), BUFFER_SIZE);
+            } else if (fileName.endsWith(".osm.gz")) {
+                return new BufferedInputStream(new GZIPInputStream(inputStream, BUFFER_SIZE), BUFFER_SIZE);
+            }
+        } catch (IOException e) {
+            inputStream.close();
+            throw e;
+        }
+        inputStream.close();
+        throw new OsmExtractException("Unsupported OSM extract format: " + fileName
+                + " (supported: .osm, .osm.bz2, .osm.gz, .osm.pbf)");
+    }
+
+    /**
+     * Counts nodes and logs the throughput periodically.
+     */
+    private final class Progress {
+        private final Path file;
+        private final long startNanos = System.nanoTime();
+        private long lastLogNanos = startNanos;
+        private long nodesRead;
+        private long nodesMatched;
+
+        private Progress(Path file) {
+            this.file = file;
+        }
+
+        void nodeRead() {
+            nodesRead++;
+            if ((nodesRead & 0xffff) == 0) {
+                logIfDue();
+            }
+        }
+
+        void nodeMatched() {
+            nodesMatched++;
+        }
+
+        void nodesRead(long count, int matched) {
+            nodesRead += count;
+            nodesMatched += matched;
+            logIfDue();
+        }
+
+        private void logIfDue() {
+            long now = System.nanoTime();
+            if (now - lastLogNanos >= progressIntervalNanos) {
+                lastLogNanos = now;
+                log.info("Read {} nodes from OSM extract {} ({} nodes/s), {} matching",
+                        nodesRead, file, Math.round(stats().nodesPerSecond()), nodesMatched);
+            }
+        }
+
+        OsmExtractStats stats() {
+            return new OsmExtractStats(nodesRead, nodesMatched, Duration.ofNanos(System.nanoTime() - startNanos));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration of the import from OpenStreetMap extract files.
+ *
+ * @param importFile       extract file to import on startup; no import if not set
+ * @param tagFilters       nodes that match any of these filters are POS candidates (see {@link OsmTagFilter})
+ * @param progressInterval how often the progress of a running import is logged
+ * @param pbfWorkers       number of threads that decode PBF blocks in parallel; 0 to use one per available core
+ */
+@ConfigurationProperties("campus-coffee.osm.extract")
+record OsmExtractProperties(
+        @Nullable Path importFile,
+        @DefaultValue({"amenity=cafe", "amenity=cafeteria", "shop=bakery", "shop=coffee", "vending=coffee"})
+        List<String> tagFilters,
+        @DefaultValue("10s") Duration progressInterval,
+        @DefaultValue("0") int pbfWorkers
+) {
+}
@@ -0,0 +1,21 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.events.PhaseEvent;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for an {@link de.seuhd.campuscoffee.domain.ports.OsmDataService} call, including all of its requests.
+ */
+@Name("de.seuhd.campuscoffee.OsmFetch")
+@Label("OSM Fetch")
+class OsmFetchEvent extends PhaseEvent {
+    @Label("Operation")
+    String operation;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Node Count")
+    int nodes;
+}
@@ -0,0 +1,551 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.events.OsmCircuitBreakerEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Pooled HTTP client for the OpenStreetMap API based on the JDK {@link HttpClient}.
+ * <p>
+ * Connections are kept alive and reused (multiplexed for HTTP/2). How long idle connections are kept open is a setting
+ * of the JVM, {@code -Djdk.httpclient.keepalive.timeout=<seconds>} (and {@code jdk.httpclient.keepalive.timeout.h2}
+ * for HTTP/2), which applies to all JDK HTTP clients of the process. Each request is bounded by a connect and a request
+ * timeout, so a slow API cannot stall request threads indefinitely. The number of concurrent requests per host is
+ * limited; requests wait for a free slot for at most the request timeout.
+ * <p>
+ * Each host is guarded by an {@link OsmCircuitBreaker}: once too many requests fail, further requests are rejected
+ * immediately with an {@link OsmApiException} ({@link OsmApiException#isCircuitOpen()}) instead of waiting for their
+ * own timeout. State transitions are published as {@link OsmCircuitBreakerEvent}s.
+ * <p>
+ * Optionally, requests are hedged: if a request has not completed after a high percentile of recent latencies, the
+ * same request is sent a second time and the first successful response wins, which cuts the latency tail caused by
+ * single slow responses. Hedged requests run asynchronously, also in {@link OsmApiProperties.Mode#BLOCKING} mode.
+ * <p>
+ * Metrics:
+ * <ul>
+ *   <li>{@code osm.api.requests}: request latency by host, mode, and outcome</li>
+ *   <li>{@code osm.api.connections.active} and {@code osm.api.connections.max}: concurrent requests and limit by host</li>
+ *   <li>{@code osm.api.connections.wait}: time spent waiting for a free slot by host</li>
+ *   <li>{@code osm.api.circuit.state}: circuit breaker state by host (0: closed, 1: half-open, 2: open)</li>
+ *   <li>{@code osm.api.circuit.transitions}: circuit breaker state transitions by host and from/to state</li>
+ *   <li>{@code osm.api.circuit.rejected}: requests rejected by an open circuit by host</li>
+ *   <li>{@code osm.api.hedges.sent} and {@code osm.api.hedges.won}: hedged requests sent, and those that
+ *       responded first, by host</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+class OsmHttpClient implements AutoCloseable {
+    private final OsmApiProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final Map<String, Semaphore> hostLimits = new ConcurrentHashMap<>();
+    private final Map<String, OsmCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final ApplicationEventPublisher eventPublisher;
+    private final LatencyWindow latencies = new LatencyWindow();
+
+    OsmHttpClient(OsmApiProperties properties, MeterRegistry meterRegistry, ApplicationEventPublisher eventPublisher) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+        this.httpClient = HttpClient.newBuilder()
+                .version(properties.http2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.connectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * @return the configured request mode
+     */
+    OsmApiProperties.Mode mode() {
+        return properties.mode();
+    }
+
+    /**
+     * @return the maximum length of request URLs
+     */
+    int maxUrlLength() {
+        return properties.maxUrlLength();
+    }
+
+    /**
+     * Resolves a path against the configured base URL of the OSM API.
+     *
+     * @param path the path, starting with a slash (e.g., {@code /node/123.json})
+     * @return the absolute URI
+     */
+    @NonNull URI uri(@NonNull String path) {
+        return URI.create(properties.baseUrl() + path);
+    }
+
+    /**
+     * Sends a GET request in the configured mode and waits for the response.
+     *
+     * @param uri the URI to request
+     * @return the (decompressed) response body
+     * @throws OsmApiException if the request fails, the response has a non-2xx status, or the circuit is open
+     */
+    byte @NonNull [] get(@NonNull URI uri) throws OsmApiException {
+        if (properties.mode() == OsmApiProperties.Mode.ASYNC || properties.hedging().enabled()) {
+            try {
+                return getAsync(uri).get();
+            } catch (ExecutionException e) {
+                throw unwrap(e.getCause(), uri);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OsmApiException("Interrupted while requesting " + uri, e);
+            }
+        }
+
+        OsmCircuitBreaker circuitBreaker = permit(uri);
+        try {
+            byte[] body = send(uri);
+            circuitBreaker.onSuccess();
+            return body;
+        } catch (OsmApiException e) {
+            record(circuitBreaker, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Sends a GET request asynchronously. If the host's connection limit is reached, the calling thread waits
+     * for a free slot before the request is sent.
+     *
+     * @param uri the URI to request
+     * @return a future completed with the (decompressed) response body, or exceptionally with an {@link OsmApiException}
+     */
+    @NonNull CompletableFuture<byte[]> getAsync(@NonNull URI uri) {
+        OsmCircuitBreaker circuitBreaker;
+        try {
+            circuitBreaker = permit(uri);
+        } catch (OsmApiException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<byte[]> response = properties.hedging().enabled() ? sendHedged(uri) : sendAsync(uri, true);
+        return response.whenComplete((body, failure) -> {
+            if (failure == null) {
+                circuitBreaker.onSuccess();
+            } else {
+                record(circuitBreaker, unwrap(failure, uri));
+            }
+        });
+    }
+
+    /**
+     * Sends a GET request on the calling thread and returns the response body as a stream, so that large responses
+     * are not held in memory. The request holds a connection slot of the host until the stream is closed; it is
+     * never hedged.
+     *
+     * @param uri the URI to request
+     * @return the (decompressed) response body, which must be closed
+     * @throws OsmApiException if the request fails, the response has a non-2xx status, or the circuit is open
+     */
+    @NonNull InputStream getStream(@NonNull URI uri) throws OsmApiException {
+        OsmCircuitBreaker circuitBreaker = permit(uri);
+        try {
+            InputStream body = stream(uri);
+            circuitBreaker.onSuccess();
+            return body;
+        } catch (OsmApiException e) {
+            record(circuitBreaker, e);
+            throw e;
+        }
+    }
+
+    private OsmCircuitBreaker permit(URI uri) {
+        OsmCircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(uri.getHost(), this::registerCircuitBreaker);
+        if (!circuitBreaker.tryAcquirePermission()) {
+            meterRegistry.counter("osm.api.circuit.rejected", "host", uri.getHost()).increment();
+            throw OsmApiException.circuitOpen(uri.getHost());
+        }
+        return circuitBreaker;
+    }
+
+    private static void record(OsmCircuitBreaker circuitBreaker, OsmApiException failure) {
+        if (failure.isApiFailure()) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    private byte[] send(URI uri) {
+        Semaphore limit = acquire(uri);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long start = System.nanoTime();
+        String outcome = "IO_ERROR";
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request(uri), HttpResponse.BodyHandlers.ofByteArray());
+            outcome = outcome(response.statusCode());
+            byte[] body = body(uri, response);
+            latencies.add(System.nanoTime() - start);
+            return body;
+        } catch (IOException e) {
+            throw new OsmApiException("Request to " + uri + " failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OsmApiException("Interrupted while requesting " + uri, e);
+        } finally {
+            limit.release();
+            sample.stop(requestTimer(uri, outcome));
+        }
+    }
+
+    private InputStream stream(URI uri) {
+        Semaphore limit = acquire(uri);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "IO_ERROR";
+        InputStream body = null;
+        boolean streaming = false;
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request(uri), HttpResponse.BodyHandlers.ofInputStream());
+            outcome = outcome(response.statusCode());
+            body = response.body();
+            if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                throw new OsmApiException(response.statusCode(), "Request to " + uri + " failed with status " + response.statusCode());
+            }
+            boolean gzipped = response.headers().firstValue("Content-Encoding")
+                    .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+                    .orElse(false);
+            InputStream stream = new ReleasingInputStream(gzipped ? new GZIPInputStream(body, 64 * 1024) : body,
+                    limit, sample, requestTimer(uri, outcome));
+            streaming = true;
+            return stream;
+        } catch (IOException e) {
+            throw new OsmApiException("Request to " + uri + " failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OsmApiException("Interrupted while requesting " + uri, e);
+        } finally {
+            if (!streaming) {
+                if (body != null) {
+                    try {
+                        body.close();
+                    } catch (IOException e) {
+                        log.debug("Failed to close response from {}: {}", uri, e.getMessage());
+                    }
+                }
+                limit.release();
+                sample.stop(requestTimer(uri, outcome));
+            }
+        }
+    }
+
+    /**
+     * @param waitForSlot whether to wait for a free connection slot; if false and no slot is free, null is returned
+     */
+    private @Nullable CompletableFuture<byte[]> sendAsync(URI uri, boolean waitForSlot) {
+        Semaphore limit;
+        if (waitForSlot) {
+            try {
+                limit = acquire(uri);
+            } catch (OsmApiException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        } else {
+            limit = hostLimits.computeIfAbsent(uri.getHost(), this::registerHostLimit);
+            if (!limit.tryAcquire()) {
+                return null;
+            }
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<byte[]>> exchange = httpClient.sendAsync(request(uri), HttpResponse.BodyHandlers.ofByteArray());
+        CompletableFuture<byte[]> response = exchange
+                .handle((httpResponse, failure) -> {
+                    limit.release();
+                    if (failure != null) {
+                        sample.stop(requestTimer(uri, "IO_ERROR"));
+                        throw unwrap(failure, uri);
+                    }
+                    sample.stop(requestTimer(uri, outcome(httpResponse.statusCode())));
+                    byte[] body = body(uri, httpResponse);
+                    latencies.add(System.nanoTime() - start);
+                    return body;
+                });
+        // a cancelled (hedged) request aborts its exchange and frees its connection slot
+        response.whenComplete((body, failure) -> {
+            if (response.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return response;
+    }
+
+    /**
+     * Sends the request and, if it has not completed after the hedging delay, the same request a second time.
+     * The first successful response completes the result and cancels the other request; the result fails only if
+     * all requests that were sent fail.
+     */
+    private CompletableFuture<byte[]> sendHedged(URI uri) {
+        HedgedRequest hedgedRequest = new HedgedRequest(
+                () -> meterRegistry.counter("osm.api.hedges.won", "host", uri.getHost()).increment());
+        CompletableFuture<byte[]> primary = sendAsync(uri, true);
+        hedgedRequest.start(primary, false);
+        long delay = latencies.percentile(properties.hedging().percentile(), properties.hedging().minSamples());
+        if (delay >= 0 && !hedgedRequest.result.isDone()) {
+            delay = Math.max(delay, properties.hedging().minDelay().toNanos());
+            CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, executor).execute(() -> {
+                if (hedgedRequest.result.isDone()) {
+                    return;
+                }
+                CompletableFuture<byte[]> hedge = sendAsync(uri, false);
+                if (hedge != null && hedgedRequest.start(hedge, true)) {
+                    log.debug("Hedging request to {}", uri);
+                    meterRegistry.counter("osm.api.hedges.sent", "host", uri.getHost()).increment();
+                }
+            });
+        }
+        return hedgedRequest.result;
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+        executor.close();
+    }
+
+    private HttpRequest request(URI uri) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .GET()
+                .timeout(properties.requestTimeout())
+                .header("User-Agent", properties.userAgent())
+                .header("Accept", "application/json");
+        if (properties.gzip()) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        return builder.build();
+    }
+
+    private byte[] body(URI uri, HttpResponse<byte[]> response) {
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            throw new OsmApiException(response.statusCode(), "Request to " + uri + " failed with status " + response.statusCode());
+        }
+        boolean gzipped = response.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .orElse(false);
+        if (!gzipped) {
+            return response.body();
+        }
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new OsmApiException("Failed to decompress response from " + uri + ": " + e.getMessage(), e);
+        }
+    }
+
+    private Semaphore acquire(URI uri) {
+        Semaphore limit = hostLimits.computeIfAbsent(uri.getHost(), this::registerHostLimit);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            if (!limit.tryAcquire(properties.requestTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new OsmApiException("Connection limit of " + properties.maxConnectionsPerHost()
+                        + " reached for host " + uri.getHost(), null);
+            }
+            return limit;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OsmApiException("Interrupted while waiting for a connection to " + uri.getHost(), e);
+        } finally {
+            sample.stop(meterRegistry.timer("osm.api.connections.wait", "host", uri.getHost()));
+        }
+    }
+
+    private OsmCircuitBreaker registerCircuitBreaker(String host) {
+        OsmCircuitBreaker circuitBreaker = new OsmCircuitBreaker(host, properties.circuitBreaker(), System::nanoTime,
+                event -> {
+                    meterRegistry.counter("osm.api.circuit.transitions", "host", host,
+                            "from", event.previousState().name(), "to", event.state().name()).increment();
+                    eventPublisher.publishEvent(event);
+                });
+        Gauge.builder("osm.api.circuit.state", circuitBreaker, breaker -> switch (breaker.state()) {
+                    case CLOSED -> 0;
+                    case HALF_OPEN -> 1;
+                    case OPEN -> 2;
+                })
+                .tag("host", host)
+                .register(meterRegistry);
+        return circuitBreaker;
+    }
+
+    private Semaphore registerHostLimit(String host) {
+        int maxConnections = properties.maxConnectionsPerHost();
+        Semaphore limit = new Semaphore(maxConnections, true);
+        Gauge.builder("osm.api.connections.active", limit, semaphore -> maxConnections - semaphore.availablePermits())
+                .tag("host", host)
+                .register(meterRegistry);
+        Gauge.builder("osm.api.connections.max", () -> maxConnections)
+                .tag("host", host)
+                .register(meterRegistry);
+        return limit;
+    }
+
+    private Timer requestTimer(URI uri, String outcome) {
+        return meterRegistry.timer("osm.api.requests",
+                "host", uri.getHost(), "mode", properties.mode().name(), "outcome", outcome);
+    }
+
+    private static String outcome(int statusCode) {
+        if (statusCode >= 500) {
+            return "SERVER_ERROR";
+        } else if (statusCode >= 400) {
+            return "CLIENT_ERROR";
+        }
+        return "SUCCESS";
+    }
+
+    private static OsmApiException unwrap(Throwable failure, URI uri) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (cause instanceof OsmApiException osmApiException) {
+            return osmApiException;
+        }
+        return new OsmApiException("Request to " + uri + " failed: " + cause.getMessage(), cause);
+    }
+
+    /**
+     * A streamed response body that releases the connection slot of its request, and stops the request timer, when
+     * it is closed.
+     */
+    private static final class ReleasingInputStream extends FilterInputStream {
+        private final Semaphore limit;
+        private final Timer.Sample sample;
+        private final Timer timer;
+        private boolean closed;
+
+        ReleasingInputStream(InputStream body, Semaphore limit, Timer.Sample sample, Timer timer) {
+            super(body);
+            this.limit = limit;
+            this.sample = sample;
+            this.timer = timer;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                super.close();
+            } finally {
+                limit.release();
+                sample.stop(timer);
+            }
+        }
+    }
+
+    /**
+     * The requests sent for one hedged call; completes {@link #result} with the first successful response.
+     */
+    private static final class HedgedRequest {
+        private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+        private final List<CompletableFuture<byte[]>> requests = new ArrayList<>(2);
+        private final Runnable onHedgeWon;
+        private int pending;
+
+        HedgedRequest(Runnable onHedgeWon) {
+            this.onHedgeWon = onHedgeWon;
+        }
+
+        /**
+         * @return false if the result was already complete, in which case the request is cancelled
+         */
+        boolean start(CompletableFuture<byte[]> request, boolean hedge) {
+            synchronized (this) {
+                if (!result.isDone()) {
+                    requests.add(request);
+                    pending++;
+                    request.whenComplete((body, failure) -> complete(request, hedge, body, failure));
+                    return true;
+                }
+            }
+            if (hedge) {
+                request.cancel(true);
+            }
+            return false;
+        }
+
+        private void complete(CompletableFuture<byte[]> request, boolean hedge, byte[] body, Throwable failure) {
+            List<CompletableFuture<byte[]>> others;
+            synchronized (this) {
+                pending--;
+                if (failure != null && pending > 0) {
+                    // another request is still running and may succeed
+                    return;
+                }
+                others = requests.stream().filter(other -> other != request).toList();
+            }
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else if (result.complete(body)) {
+                others.forEach(other -> other.cancel(true));
+                if (hedge) {
+                    onHedgeWon.run();
+                }
+            }
+        }
+    }
+
+    /**
+     * Latencies of the most recent successful requests, from which the hedging delay is derived.
+     */
+    private static final class LatencyWindow {
+        private final long[] samples = new long[128];
+        private int size;
+        private int position;
+
+        synchronized void add(long nanos) {
+            samples[position] = nanos;
+            position = (position + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+        }
+
+        /**
+         * @return the percentile in nanoseconds, or -1 if there are fewer than the minimum number of samples
+         */
+        long percentile(double percentile, int minSamples) {
+            long[] sorted;
+            synchronized (this) {
+                if (size == 0 || size < minSamples) {
+                    return -1;
+                }
+                sorted = Arrays.copyOf(samples, size);
+            }
+            Arrays.sort(sorted);
+            return sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+        }
+    }
+}
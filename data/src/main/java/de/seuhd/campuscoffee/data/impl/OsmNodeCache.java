@@ -0,0 +1,124 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.exceptions.OsmNodeNotFoundException;
+import de.seuhd.campuscoffee.domain.model.BoundingBox;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.model.OsmNodeBatch;
+import de.seuhd.campuscoffee.domain.ports.OsmDataService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Persistent cache of OSM nodes that decorates {@link OsmDataServiceImpl}.
+ * <p>
+ * Fetched nodes are stored in an {@link OsmNodeFileStore} and served from there until they expire, also across
+ * restarts. Only nodes that are not cached (or expired) are requested from the OSM API, so warm re-imports do not
+ * cause any network traffic. Nodes that do not exist are not cached. Area discovery always asks the OSM API, since
+ * the cache can't know which nodes were added to an area, but the discovered nodes are cached.
+ * <p>
+ * Metrics: {@code osm.cache.requests} (by result: hit or miss), {@code osm.cache.size} (cached nodes), and
+ * {@code osm.cache.file.size} (bytes).
+ * <p>
+ * Enabled by setting {@code campus-coffee.osm.cache.enabled} to true.
+ */
+@Slf4j
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "campus-coffee.osm.cache", name = "enabled", havingValue = "true")
+class OsmNodeCache implements OsmDataService, AutoCloseable {
+    private final OsmDataServiceImpl osmDataService;
+    private final OsmNodeFileStore store;
+    private final Clock clock;
+    private final Counter hits;
+    private final Counter misses;
+
+    OsmNodeCache(OsmDataServiceImpl osmDataService, OsmCacheProperties properties, MeterRegistry meterRegistry)
+            throws IOException {
+        this.osmDataService = osmDataService;
+        this.store = new OsmNodeFileStore(properties.directory(), properties.ttl().toMillis(), properties.maxSize().toBytes());
+        this.clock = Clock.systemUTC();
+        this.hits = meterRegistry.counter("osm.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("osm.cache.requests", "result", "miss");
+        Gauge.builder("osm.cache.size", store, OsmNodeFileStore::size).register(meterRegistry);
+        Gauge.builder("osm.cache.file.size", store, OsmNodeFileStore::fileSize).baseUnit("bytes").register(meterRegistry);
+    }
+
+    @Override
+    public @NonNull OsmNode fetchNode(@NonNull Long nodeId) throws OsmNodeNotFoundException {
+        Objects.requireNonNull(nodeId, "Node ID cannot be null");
+        OsmNode cached = store.get(nodeId, clock.millis());
+        if (cached != null) {
+            hits.increment();
+            log.debug("Serving OSM node {} from cache", nodeId);
+            return cached;
+        }
+        misses.increment();
+        OsmNode osmNode = osmDataService.fetchNode(nodeId);
+        store.putAll(List.of(osmNode), clock.millis());
+        return osmNode;
+    }
+
+    @Override
+    public @NonNull OsmNodeBatch fetchNodes(@NonNull Collection<Long> nodeIds) {
+        LinkedHashSet<Long> distinctIds = new LinkedHashSet<>(nodeIds);
+        Map<Long, OsmNode> cached = new LinkedHashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+        long now = clock.millis();
+        for (Long nodeId : distinctIds) {
+            OsmNode osmNode = store.get(Objects.requireNonNull(nodeId, "Node ID cannot be null"), now);
+            if (osmNode != null) {
+                cached.put(nodeId, osmNode);
+            } else {
+                missingIds.add(nodeId);
+            }
+        }
+        hits.increment(cached.size());
+        misses.increment(missingIds.size());
+        log.info("Serving {} of {} OSM nodes from cache", cached.size(), distinctIds.size());
+        if (missingIds.isEmpty()) {
+            return new OsmNodeBatch(cached, Set.of());
+        }
+
+        OsmNodeBatch fetchedBatch = osmDataService.fetchNodes(missingIds);
+        Map<Long, OsmNode> fetched = fetchedBatch.nodes();
+        store.putAll(fetched.values(), clock.millis());
+
+        Map<Long, OsmNode> result = new LinkedHashMap<>();
+        for (Long nodeId : distinctIds) {
+            OsmNode osmNode = cached.containsKey(nodeId) ? cached.get(nodeId) : fetched.get(nodeId);
+            if (osmNode != null) {
+                result.put(nodeId, osmNode);
+            }
+        }
+        return new OsmNodeBatch(result, fetchedBatch.unavailableIds());
+    }
+
+    @Override
+    public @NonNull List<OsmNode> discoverNodes(@NonNull BoundingBox boundingBox) {
+        List<OsmNode> osmNodes = osmDataService.discoverNodes(boundingBox);
+        store.putAll(osmNodes, clock.millis());
+        return osmNodes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        store.close();
+    }
+}
@@ -0,0 +1,413 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.model.OsmTags;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file store for OSM nodes, keyed by node ID.
+ * <p>
+ * The file starts with a header (magic number and format version), followed by one record per stored node:
+ * payload length, CRC32 checksum of the payload, and the payload itself (node ID, fetch time, coordinates, tags).
+ * Storing a node again appends a new record that supersedes the old one. An in-memory index maps each node ID to
+ * the position of its latest record, so that a lookup costs a single positional read.
+ * <p>
+ * On open, the file is scanned to rebuild the index. A truncated or corrupt record (e.g., after a crash during a
+ * write) ends the scan, and the file is truncated to the last intact record.
+ * <p>
+ * When the file grows beyond its maximum size, it is compacted: the latest records of nodes that have not expired
+ * are copied to a new file, newest first, until half of the maximum size is reached; the new file then atomically
+ * replaces the old one.
+ * <p>
+ * A store holds an exclusive lock on its file (via a lock file next to it) while it is open. Stores of other
+ * processes or application contexts that are opened in the same directory meanwhile use files of their own
+ * ({@code osm-nodes-1.dat}, ...), so that they never write to the same file.
+ * <p>
+ * This class is thread-safe.
+ */
+@Slf4j
+final class OsmNodeFileStore implements AutoCloseable {
+    static final String FILE_NAME = "osm-nodes.dat";
+    private static final String LOCK_FILE_NAME = "osm-nodes.lock";
+    private static final int MAX_FILES = 16;
+    private static final int MAGIC = 0x4f534d43; // "OSMC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int MAX_PAYLOAD_SIZE = 1 << 20;
+
+    private final Path file;
+    private final FileLock fileLock;
+    private final long ttlMillis;
+    private final long maxSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> index = new HashMap<>();
+    private FileChannel channel;
+    private long end;
+
+    /**
+     * Opens the store in the given directory, creating the directory and the file if necessary.
+     * The store uses the first file in the directory that is not locked by another store.
+     *
+     * @param directory the directory of the store file
+     * @param ttlMillis time after which stored nodes expire
+     * @param maxSize   maximum size of the store file in bytes
+     * @throws IOException if the file cannot be opened, or all files in the directory are in use
+     */
+    OsmNodeFileStore(@NonNull Path directory, long ttlMillis, long maxSize) throws IOException {
+        Files.createDirectories(directory);
+        int slot = 0;
+        FileLock slotLock;
+        while ((slotLock = tryLock(directory.resolve(slotFileName(LOCK_FILE_NAME, slot)))) == null) {
+            if (++slot == MAX_FILES) {
+                throw new IOException("All " + MAX_FILES + " OSM node cache files in " + directory + " are in use");
+            }
+        }
+        this.fileLock = slotLock;
+        this.file = directory.resolve(slotFileName(FILE_NAME, slot));
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+        if (slot > 0) {
+            log.info("OSM node cache {} is in use by another instance, using {}",
+                    directory.resolve(FILE_NAME), file.getFileName());
+        }
+        try {
+            this.channel = open(file);
+            this.end = load();
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            fileLock.channel().close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param nodeId the node ID
+     * @param now    the current time in milliseconds since the epoch
+     * @return the stored node, or null if no node is stored for the ID or the stored node has expired
+     */
+    @Nullable OsmNode get(long nodeId, long now) {
+        lock.readLock().lock();
+        try {
+            Entry entry = index.get(nodeId);
+            if (entry == null || isExpired(entry, now)) {
+                return null;
+            }
+            return decode(read(channel, entry.position(), entry.length()));
+        } catch (IOException e) {
+            log.warn("Failed to read OSM node {} from cache: {}", nodeId, e.getMessage());
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores the nodes, replacing previously stored versions.
+     *
+     * @param osmNodes the nodes to store
+     * @param now      the fetch time in milliseconds since the epoch
+     */
+    void putAll(@NonNull Collection<OsmNode> osmNodes, long now) {
+        if (osmNodes.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ByteArrayOutputStream records = new ByteArrayOutputStream();
+            Map<Long, Entry> entries = new LinkedHashMap<>();
+            for (OsmNode osmNode : osmNodes) {
+                byte[] payload = encode(osmNode, now);
+                entries.put(osmNode.nodeId(), new Entry(end + records.size() + RECORD_HEADER_SIZE, payload.length, now));
+                writeRecord(records, payload);
+            }
+            write(channel, ByteBuffer.wrap(records.toByteArray()), end);
+            end += records.size();
+            index.putAll(entries);
+            if (end > maxSize) {
+                compact(now);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write {} OSM node(s) to cache: {}", osmNodes.size(), e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of stored nodes, including expired ones
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the size of the store file in bytes
+     */
+    long fileSize() {
+        lock.readLock().lock();
+        try {
+            return end;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        // closing the channel of the lock file releases the lock
+        try (FileChannel lockChannel = fileLock.channel()) {
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.fetchedAt() >= ttlMillis;
+    }
+
+    /**
+     * Rebuilds the index from the file.
+     *
+     * @return the position after the last intact record
+     */
+    private long load() throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE || !hasValidHeader()) {
+            if (size > 0) {
+                log.warn("Discarding OSM node cache {} with unknown format", file);
+            }
+            channel.truncate(0);
+            write(channel, header(), 0);
+            return HEADER_SIZE;
+        }
+
+        long position = HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        while (position + RECORD_HEADER_SIZE <= size) {
+            ByteBuffer recordHeader = read(channel, position, RECORD_HEADER_SIZE);
+            int length = recordHeader.getInt();
+            int checksum = recordHeader.getInt();
+            if (length <= 0 || length > MAX_PAYLOAD_SIZE || position + RECORD_HEADER_SIZE + length > size) {
+                break;
+            }
+            ByteBuffer payload = read(channel, position + RECORD_HEADER_SIZE, length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            long nodeId = payload.getLong();
+            long fetchedAt = payload.getLong();
+            index.put(nodeId, new Entry(position + RECORD_HEADER_SIZE, length, fetchedAt));
+            position += RECORD_HEADER_SIZE + length;
+        }
+        if (position < size) {
+            log.warn("Truncating OSM node cache {} after corrupt record at position {}", file, position);
+            channel.truncate(position);
+        }
+        log.info("Opened OSM node cache {} with {} node(s)", file, index.size());
+        return position;
+    }
+
+    private boolean hasValidHeader() throws IOException {
+        ByteBuffer header = read(channel, 0, HEADER_SIZE);
+        return header.getInt() == MAGIC && header.getInt() == VERSION;
+    }
+
+    /**
+     * Copies the latest records of unexpired nodes, newest first, into a new file of at most half the maximum size.
+     */
+    private void compact(long now) throws IOException {
+        List<Map.Entry<Long, Entry>> live = new ArrayList<>();
+        for (Map.Entry<Long, Entry> entry : index.entrySet()) {
+            if (!isExpired(entry.getValue(), now)) {
+                live.add(entry);
+            }
+        }
+        live.sort(Collections.reverseOrder(Comparator.comparingLong(entry -> entry.getValue().fetchedAt())));
+
+        Path compactedFile = file.resolveSibling(FILE_NAME + ".compact");
+        Map<Long, Entry> compactedIndex = new HashMap<>();
+        long position = HEADER_SIZE;
+        try (FileChannel compacted = FileChannel.open(compactedFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(compacted, header(), 0);
+            for (Map.Entry<Long, Entry> entry : live) {
+                Entry old = entry.getValue();
+                long recordSize = RECORD_HEADER_SIZE + old.length();
+                if (position + recordSize > maxSize / 2) {
+                    break;
+                }
+                ByteBuffer record = read(channel, old.position() - RECORD_HEADER_SIZE, (int) recordSize);
+                write(compacted, record, position);
+                compactedIndex.put(entry.getKey(), new Entry(position + RECORD_HEADER_SIZE, old.length(), old.fetchedAt()));
+                position += recordSize;
+            }
+        }
+
+        channel.close();
+        try {
+            Files.move(compactedFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            // if the move failed, the old file is still in place and matches the index
+            channel = open(file);
+        }
+        log.info("Compacted OSM node cache from {} to {} bytes, keeping {} of {} node(s)",
+                end, position, compactedIndex.size(), index.size());
+        index.clear();
+        index.putAll(compactedIndex);
+        end = position;
+    }
+
+    /**
+     * @return the lock on the lock file, or null if another store holds it
+     */
+    private static @Nullable FileLock tryLock(Path lockFile) throws IOException {
+        FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            FileLock fileLock = lockChannel.tryLock();
+            if (fileLock != null) {
+                return fileLock;
+            }
+        } catch (OverlappingFileLockException e) {
+            // held by another store of this JVM
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+        lockChannel.close();
+        return null;
+    }
+
+    /**
+     * @return the name of a file of the store that uses the given slot, e.g., {@code osm-nodes-1.dat} for slot 1
+     */
+    private static String slotFileName(String fileName, int slot) {
+        if (slot == 0) {
+            return fileName;
+        }
+        int extension = fileName.lastIndexOf('.');
+        return fileName.substring(0, extension) + "-" + slot + fileName.substring(extension);
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static ByteBuffer header() {
+        return ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+    }
+
+    private static void writeRecord(ByteArrayOutputStream out, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        out.writeBytes(ByteBuffer.allocate(RECORD_HEADER_SIZE)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .array());
+        out.writeBytes(payload);
+    }
+
+    private static byte[] encode(OsmNode osmNode, long fetchedAt) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(osmNode.nodeId());
+            out.writeLong(fetchedAt);
+            out.writeDouble(osmNode.latitude());
+            out.writeDouble(osmNode.longitude());
+            out.writeInt(osmNode.tags().size());
+            for (Map.Entry<String, String> tag : osmNode.tags().entrySet()) {
+                out.writeUTF(tag.getKey());
+                out.writeUTF(tag.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // cannot happen for in-memory streams
+        }
+        return bytes.toByteArray();
+    }
+
+    private static OsmNode decode(ByteBuffer payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(payload.array(), payload.arrayOffset(), payload.remaining()))) {
+            long nodeId = in.readLong();
+            in.readLong(); // fetch time, kept in the index
+            double latitude = in.readDouble();
+            double longitude = in.readDouble();
+            int tagCount = in.readInt();
+            OsmTags.Builder tags = OsmTags.builder(tagCount);
+            for (int i = 0; i < tagCount; i++) {
+                tags.put(in.readUTF(), in.readUTF());
+            }
+            return OsmNode.builder()
+                    .nodeId(nodeId)
+                    .latitude(latitude)
+                    .longitude(longitude)
+                    .tags(tags.build())
+                    .build();
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file at position " + (position + buffer.position()));
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Position of the latest record of a node.
+     *
+     * @param position  position of the payload in the file
+     * @param length    length of the payload
+     * @param fetchedAt fetch time in milliseconds since the epoch
+     */
+    private record Entry(long position, int length, long fetchedAt) {
+    }
+}
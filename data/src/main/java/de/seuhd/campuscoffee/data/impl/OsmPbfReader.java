@@ -0,0 +1,492 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import org.jspecify.annotations.NonNull;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reader for the OSM PBF format ({@code .osm.pbf}) that decodes blocks in parallel.
+ * <p>
+ * A PBF file is a sequence of independently compressed blobs, each holding a block of a few thousand OSM entities.
+ * The calling thread only reads the raw blobs from the stream; decompressing and decoding them, and selecting the
+ * nodes that match the tag filter, happens on a pool of worker threads. The results are handed to the
+ * {@link BlockHandler} on the calling thread, in file order. At most {@code 2 × workers} blocks are in flight at
+ * any time, which bounds memory use independently of the file size.
+ * <p>
+ * Nodes are decoded from both the dense and the plain node encoding; ways and relations are skipped. Only the
+ * features {@code OsmSchema-V0.6} and {@code DenseNodes} and the compressions raw and zlib are supported, which
+ * covers the extracts published by Geofabrik and planet.openstreetmap.org.
+ */
+final class OsmPbfReader {
+    private static final Set<String> SUPPORTED_FEATURES = Set.of("OsmSchema-V0.6", "DenseNodes");
+    private static final int MAX_BLOB_HEADER_SIZE = 64 * 1024;
+    private static final int MAX_BLOB_SIZE = 32 * 1024 * 1024;
+    private static final AtomicInteger READER_COUNT = new AtomicInteger();
+
+    private final int workers;
+
+    /**
+     * @param workers number of threads that decode blocks
+     */
+    OsmPbfReader(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one worker is required");
+        }
+        this.workers = workers;
+    }
+
+    /**
+     * Receives the decoded blocks of a PBF file.
+     */
+    @FunctionalInterface
+    interface BlockHandler {
+        /**
+         * @param nodesRead     number of nodes in the block
+         * @param matchingNodes the nodes of the block that match the tag filter, in file order
+         */
+        void block(long nodesRead, @NonNull List<OsmNode> matchingNodes);
+    }
+
+    /**
+     * Filter for nodes by their tags.
+     *
+     * @param keys      keys of which a node must have at least one to be tested (used to skip most nodes cheaply)
+     * @param predicate the predicate on all tags of the node
+     */
+    record TagFilter(@NonNull Collection<String> keys, @NonNull Predicate<Map<String, String>> predicate) {
+    }
+
+    /**
+     * Reads all blocks from the stream.
+     *
+     * @param inputStream the PBF file; not closed by this method
+     * @param filter      the tag filter that selects the matching nodes
+     * @param handler     the callback for each decoded block
+     * @throws IOException if the stream cannot be read or is not a supported PBF file
+     */
+    void read(@NonNull InputStream inputStream, @NonNull TagFilter filter, @NonNull BlockHandler handler)
+            throws IOException {
+        byte[][] filterKeys = filter.keys().stream()
+                .map(key -> key.getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+        DataInputStream dataInputStream = new DataInputStream(inputStream);
+        ArrayDeque<Future<BlockResult>> inFlight = new ArrayDeque<>();
+        int maxInFlight = 2 * workers;
+        try (ExecutorService executor = Executors.newFixedThreadPool(workers, workerThreadFactory())) {
+            try {
+                Blob blob;
+                while ((blob = readBlob(dataInputStream)) != null) {
+                    if (blob.type().equals("OSMHeader")) {
+                        checkHeader(blob.decompress());
+                    } else if (blob.type().equals("OSMData")) {
+                        Blob dataBlob = blob;
+                        inFlight.add(executor.submit(() -> decodeBlock(dataBlob.decompress(), filterKeys, filter.predicate())));
+                        if (inFlight.size() >= maxInFlight) {
+                            emit(inFlight.remove(), handler);
+                        }
+                    }
+                    // unknown blob types must be skipped according to the specification
+                }
+                while (!inFlight.isEmpty()) {
+                    emit(inFlight.remove(), handler);
+                }
+            } finally {
+                inFlight.forEach(future -> future.cancel(true));
+            }
+        }
+    }
+
+    private static void emit(Future<BlockResult> future, BlockHandler handler) throws IOException {
+        BlockResult result;
+        try {
+            result = future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Failed to decode PBF block: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while decoding PBF blocks", e);
+        }
+        handler.block(result.nodesRead(), result.matchingNodes());
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        int reader = READER_COUNT.incrementAndGet();
+        AtomicInteger worker = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "osm-pbf-" + reader + "-" + worker.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * @return the next blob, or null at the end of the stream
+     */
+    private static Blob readBlob(DataInputStream inputStream) throws IOException {
+        int headerSize;
+        try {
+            headerSize = inputStream.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (headerSize <= 0 || headerSize > MAX_BLOB_HEADER_SIZE) {
+            throw new IOException("Invalid PBF blob header size " + headerSize);
+        }
+        byte[] header = inputStream.readNBytes(headerSize);
+        if (header.length < headerSize) {
+            throw new IOException("Truncated PBF blob header");
+        }
+        String type = null;
+        int dataSize = -1;
+        ProtobufInput input = new ProtobufInput(header, 0, header.length);
+        while (input.hasRemaining()) {
+            int tag = input.readTag();
+            switch (ProtobufInput.fieldNumber(tag)) {
+                case 1 -> type = input.readString();
+                case 3 -> dataSize = input.readInt32();
+                default -> input.skip(tag);
+            }
+        }
+        if (type == null || dataSize < 0 || dataSize > MAX_BLOB_SIZE) {
+            throw new IOException("Invalid PBF blob header (type " + type + ", size " + dataSize + ")");
+        }
+        byte[] data = inputStream.readNBytes(dataSize);
+        if (data.length < dataSize) {
+            throw new IOException("Truncated PBF blob of type " + type);
+        }
+        return new Blob(type, data);
+    }
+
+    private static void checkHeader(ProtobufInput headerBlock) throws IOException {
+        while (headerBlock.hasRemaining()) {
+            int tag = headerBlock.readTag();
+            if (ProtobufInput.fieldNumber(tag) == 4) {
+                String feature = headerBlock.readString();
+                if (!SUPPORTED_FEATURES.contains(feature)) {
+                    throw new IOException("Unsupported PBF feature: " + feature);
+                }
+            } else {
+                headerBlock.skip(tag);
+            }
+        }
+    }
+
+    /**
+     * Decodes a {@code PrimitiveBlock} and selects the matching nodes.
+     */
+    private static BlockResult decodeBlock(ProtobufInput block, byte[][] filterKeys,
+                                           Predicate<Map<String, String>> predicate) throws IOException {
+        StringTable stringTable = null;
+        List<ProtobufInput> groups = new ArrayList<>();
+        long granularity = 100;
+        long latOffset = 0;
+        long lonOffset = 0;
+        while (block.hasRemaining()) {
+            int tag = block.readTag();
+            switch (ProtobufInput.fieldNumber(tag)) {
+                case 1 -> stringTable = new StringTable(block.slice(block.readLength()), filterKeys);
+                case 2 -> groups.add(block.slice(block.readLength()));
+                case 17 -> granularity = block.readInt32();
+                case 19 -> latOffset = block.readVarint();
+                case 20 -> lonOffset = block.readVarint();
+                default -> block.skip(tag);
+            }
+        }
+        if (stringTable == null) {
+            throw new IOException("PBF block without string table");
+        }
+
+        BlockDecoder decoder = new BlockDecoder(stringTable, predicate, granularity, latOffset, lonOffset);
+        for (ProtobufInput group : groups) {
+            while (group.hasRemaining()) {
+                int tag = group.readTag();
+                switch (ProtobufInput.fieldNumber(tag)) {
+                    case 1 -> decoder.node(group.slice(group.readLength()));
+                    case 2 -> decoder.denseNodes(group.slice(group.readLength()));
+                    default -> group.skip(tag); // ways, relations, changesets
+                }
+            }
+        }
+        return new BlockResult(decoder.nodesRead, decoder.matchingNodes);
+    }
+
+    private record Blob(String type, byte[] data) {
+        /**
+         * @return a reader over the decompressed block
+         */
+        ProtobufInput decompress() throws IOException {
+            ProtobufInput input = new ProtobufInput(data, 0, data.length);
+            int rawSize = -1;
+            while (input.hasRemaining()) {
+                int tag = input.readTag();
+                switch (ProtobufInput.fieldNumber(tag)) {
+                    case 1 -> {
+                        return input.slice(input.readLength());
+                    }
+                    case 2 -> rawSize = input.readInt32();
+                    case 3 -> {
+                        int length = input.readLength();
+                        return inflate(input.buffer(), input.position(), length, rawSize);
+                    }
+                    case 4, 5, 6, 7 -> throw new IOException("Unsupported PBF blob compression (field "
+                            + ProtobufInput.fieldNumber(tag) + "), only raw and zlib are supported");
+                    default -> input.skip(tag);
+                }
+            }
+            throw new IOException("PBF blob without data");
+        }
+
+        private static ProtobufInput inflate(byte[] buffer, int offset, int length, int rawSize) throws IOException {
+            if (rawSize < 0 || rawSize > MAX_BLOB_SIZE) {
+                throw new IOException("Invalid raw size " + rawSize + " of zlib-compressed PBF blob");
+            }
+            byte[] raw = new byte[rawSize];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(buffer, offset, length);
+                int inflated = 0;
+                while (inflated < rawSize && !inflater.finished()) {
+                    int count = inflater.inflate(raw, inflated, rawSize - inflated);
+                    if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    inflated += count;
+                }
+                if (inflated != rawSize) {
+                    throw new IOException("Corrupt zlib-compressed PBF blob: expected " + rawSize
+                            + " bytes, got " + inflated);
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt zlib-compressed PBF blob: " + e.getMessage(), e);
+            } finally {
+                inflater.end();
+            }
+            return new ProtobufInput(raw, 0, rawSize);
+        }
+    }
+
+    /**
+     * String table of a block. Strings are decoded lazily, since most of them (e.g., tags of ways) are never needed.
+     */
+    private static final class StringTable {
+        private static final byte UNKNOWN = 0;
+        private static final byte FILTER_KEY = 1;
+        private static final byte OTHER = 2;
+
+        private final byte[] buffer;
+        private int[] offsets = new int[256];
+        private int[] lengths = new int[256];
+        private int size;
+        private String[] strings;
+        private byte[] keyTypes;
+        private final byte[][] filterKeys;
+
+        StringTable(ProtobufInput input, byte[][] filterKeys) throws IOException {
+            this.buffer = input.buffer();
+            this.filterKeys = filterKeys;
+            while (input.hasRemaining()) {
+                int tag = input.readTag();
+                if (ProtobufInput.fieldNumber(tag) == 1) {
+                    int length = input.readLength();
+                    if (size == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, 2 * size);
+                        lengths = Arrays.copyOf(lengths, 2 * size);
+                    }
+                    offsets[size] = input.position();
+                    lengths[size] = length;
+                    size++;
+                    input.slice(length);
+                } else {
+                    input.skip(tag);
+                }
+            }
+            strings = new String[size];
+            keyTypes = new byte[size];
+        }
+
+        String get(int index) throws IOException {
+            checkIndex(index);
+            String string = strings[index];
+            if (string == null) {
+                string = new String(buffer, offsets[index], lengths[index], StandardCharsets.UTF_8);
+                strings[index] = string;
+            }
+            return string;
+        }
+
+        /**
+         * @return whether the string is one of the keys of the tag filter, compared without decoding it
+         */
+        boolean isFilterKey(int index) throws IOException {
+            checkIndex(index);
+            if (keyTypes[index] == UNKNOWN) {
+                keyTypes[index] = OTHER;
+                for (byte[] filterKey : filterKeys) {
+                    if (Arrays.equals(buffer, offsets[index], offsets[index] + lengths[index],
+                            filterKey, 0, filterKey.length)) {
+                        keyTypes[index] = FILTER_KEY;
+                        break;
+                    }
+                }
+            }
+            return keyTypes[index] == FILTER_KEY;
+        }
+
+        private void checkIndex(int index) throws IOException {
+            if (index < 0 || index >= size) {
+                throw new IOException("Invalid string table index " + index);
+            }
+        }
+    }
+
+    /**
+     * Decodes the nodes of one block.
+     */
+    private static final class BlockDecoder {
+        private final StringTable stringTable;
+        private final Predicate<Map<String, String>> predicate;
+        private final long granularity;
+        private final long latOffset;
+        private final long lonOffset;
+        private final List<OsmNode> matchingNodes = new ArrayList<>();
+        private long nodesRead;
+
+        BlockDecoder(StringTable stringTable, Predicate<Map<String, String>> predicate,
+                     long granularity, long latOffset, long lonOffset) {
+            this.stringTable = stringTable;
+            this.predicate = predicate;
+            this.granularity = granularity;
+            this.latOffset = latOffset;
+            this.lonOffset = lonOffset;
+        }
+
+        void node(ProtobufInput node) throws IOException {
+            long id = 0;
+            long lat = 0;
+            long lon = 0;
+            ProtobufInput keys = null;
+            ProtobufInput values = null;
+            while (node.hasRemaining()) {
+                int tag = node.readTag();
+                switch (ProtobufInput.fieldNumber(tag)) {
+                    case 1 -> id = node.readSInt64();
+                    case 2 -> keys = node.slice(node.readLength());
+                    case 3 -> values = node.slice(node.readLength());
+                    case 8 -> lat = node.readSInt64();
+                    case 9 -> lon = node.readSInt64();
+                    default -> node.skip(tag);
+                }
+            }
+            nodesRead++;
+            if (keys == null || values == null) {
+                return;
+            }
+            boolean candidate = false;
+            List<Integer> keyIndexes = new ArrayList<>();
+            while (keys.hasRemaining()) {
+                int key = keys.readInt32();
+                keyIndexes.add(key);
+                candidate |= stringTable.isFilterKey(key);
+            }
+            if (!candidate) {
+                return;
+            }
+            Map<String, String> tags = new HashMap<>();
+            for (int key : keyIndexes) {
+                tags.put(stringTable.get(key), stringTable.get(values.readInt32()));
+            }
+            match(id, lat, lon, tags);
+        }
+
+        void denseNodes(ProtobufInput dense) throws IOException {
+            ProtobufInput ids = null;
+            ProtobufInput lats = null;
+            ProtobufInput lons = null;
+            ProtobufInput keysValues = null;
+            while (dense.hasRemaining()) {
+                int tag = dense.readTag();
+                switch (ProtobufInput.fieldNumber(tag)) {
+                    case 1 -> ids = dense.slice(dense.readLength());
+                    case 8 -> lats = dense.slice(dense.readLength());
+                    case 9 -> lons = dense.slice(dense.readLength());
+                    case 10 -> keysValues = dense.slice(dense.readLength());
+                    default -> dense.skip(tag); // dense info
+                }
+            }
+            if (ids == null || lats == null || lons == null) {
+                return;
+            }
+
+            long id = 0;
+            long lat = 0;
+            long lon = 0;
+            while (ids.hasRemaining()) {
+                // IDs and coordinates are delta-encoded
+                id += ids.readSInt64();
+                lat += lats.readSInt64();
+                lon += lons.readSInt64();
+                nodesRead++;
+                if (keysValues == null) {
+                    continue;
+                }
+                // tags are encoded as key, value, key, value, ..., 0 (all string table indexes)
+                int start = keysValues.position();
+                boolean candidate = false;
+                int key;
+                while ((key = keysValues.readInt32()) != 0) {
+                    candidate |= stringTable.isFilterKey(key);
+                    keysValues.readInt32();
+                }
+                if (candidate) {
+                    ProtobufInput tagInput = new ProtobufInput(keysValues.buffer(), start, keysValues.position() - start);
+                    Map<String, String> tags = new HashMap<>();
+                    while ((key = tagInput.readInt32()) != 0) {
+                        tags.put(stringTable.get(key), stringTable.get(tagInput.readInt32()));
+                    }
+                    match(id, lat, lon, tags);
+                }
+            }
+        }
+
+        private void match(long id, long lat, long lon, Map<String, String> tags) {
+            Map<String, String> readOnlyTags = Collections.unmodifiableMap(tags);
+            if (predicate.test(readOnlyTags)) {
+                matchingNodes.add(OsmNode.builder()
+                        .nodeId(id)
+                        .latitude(1e-9 * (latOffset + granularity * lat))
+                        .longitude(1e-9 * (lonOffset + granularity * lon))
+                        .tags(readOnlyTags)
+                        .build());
+            }
+        }
+    }
+
+    private record BlockResult(long nodesRead, List<OsmNode> matchingNodes) {
+    }
+}
@@ -0,0 +1,147 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.exceptions.OsmReplicationException;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.model.OsmNodeChange;
+import de.seuhd.campuscoffee.domain.model.OsmReplicationState;
+import de.seuhd.campuscoffee.domain.ports.OsmReplicationDataService;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.function.LongPredicate;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Implementation of the OSM replication data service that reads diffs from a replication source
+ * (e.g., {@code https://planet.openstreetmap.org/replication/minute}, or a local mirror) and stores the last
+ * applied sequence number per source in the database.
+ * <p>
+ * Remote files are downloaded with the {@link OsmHttpClient}, so the connection limits and the circuit breaker of
+ * the OSM API apply per host. Diffs are downloaded, decompressed, and parsed as a stream, without holding a whole diff
+ * in memory; only changes of the selected nodes are kept (see {@link OsmChangeReader}).
+ */
+@Slf4j
+@Service
+class OsmReplicationDataServiceImpl implements OsmReplicationDataService {
+    private final OsmReplicationProperties properties;
+    private final OsmHttpClient httpClient;
+    private final JdbcTemplate jdbcTemplate;
+
+    OsmReplicationDataServiceImpl(OsmReplicationProperties properties, OsmHttpClient httpClient, DataSource dataSource) {
+        this.properties = properties;
+        this.httpClient = httpClient;
+        // outside of read-only transactions, statements run on the primary
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public @NonNull OsmReplicationState currentState() {
+        Properties state = new Properties();
+        try (Reader reader = new InputStreamReader(open("state.txt"), StandardCharsets.UTF_8)) {
+            state.load(reader);
+        } catch (IOException e) {
+            throw new OsmReplicationException("Failed to read the replication state of " + properties.source()
+                    + ": " + e.getMessage(), e);
+        }
+        String sequenceNumber = state.getProperty("sequenceNumber");
+        if (sequenceNumber == null) {
+            throw new OsmReplicationException("Replication state of " + properties.source() + " has no sequence number");
+        }
+        try {
+            String timestamp = state.getProperty("timestamp");
+            return new OsmReplicationState(Long.parseLong(sequenceNumber.trim()),
+                    timestamp != null ? Instant.parse(timestamp.trim()) : null);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new OsmReplicationException("Invalid replication state of " + properties.source()
+                    + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public @NonNull List<OsmNodeChange> readNodeChanges(long sequenceNumber, @NonNull LongPredicate nodeFilter) {
+        String path = diffPath(sequenceNumber);
+        try (InputStream inputStream = decompress(open(path))) {
+            List<OsmNodeChange> changes = OsmChangeReader.read(inputStream, nodeFilter, OsmNode.POS_TAG_KEYS);
+            log.debug("Read replication diff {}: {} changes of selected nodes", sequenceNumber, changes.size());
+            return changes;
+        } catch (IOException | XMLStreamException e) {
+            throw new OsmReplicationException("Failed to read replication diff " + path + " of "
+                    + properties.source() + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public @NonNull OptionalLong lastAppliedSequence() {
+        List<Long> sequenceNumbers = jdbcTemplate.queryForList(
+                "SELECT sequence_number FROM osm_replication_state WHERE source = ?", Long.class, properties.source());
+        return sequenceNumbers.isEmpty() ? OptionalLong.empty() : OptionalLong.of(sequenceNumbers.getFirst());
+    }
+
+    @Override
+    public void saveLastAppliedSequence(long sequenceNumber) {
+        jdbcTemplate.update("""
+                        INSERT INTO osm_replication_state (source, sequence_number, updated_at) VALUES (?, ?, ?)
+                        ON CONFLICT (source) DO UPDATE
+                        SET sequence_number = EXCLUDED.sequence_number, updated_at = EXCLUDED.updated_at""",
+                properties.source(), sequenceNumber, LocalDateTime.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * @return the path of a diff relative to the source, e.g., {@code 006/312/345.osc.gz} for 6312345
+     */
+    static @NonNull String diffPath(long sequenceNumber) {
+        return String.format("%03d/%03d/%03d.osc.gz",
+                sequenceNumber / 1_000_000, sequenceNumber / 1_000 % 1_000, sequenceNumber % 1_000);
+    }
+
+    /**
+     * Decompresses a diff, unless it was already decompressed by the HTTP client (if a server sends
+     * {@code .osc.gz} files with {@code Content-Encoding: gzip}).
+     */
+    private static InputStream decompress(InputStream inputStream) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(inputStream, 64 * 1024);
+        buffered.mark(2);
+        boolean gzipped = buffered.read() == 0x1f && buffered.read() == 0x8b;
+        buffered.reset();
+        return gzipped ? new GZIPInputStream(buffered, 64 * 1024) : buffered;
+    }
+
+    private InputStream open(String path) throws IOException {
+        String source = properties.source();
+        if (properties.isRemote()) {
+            try {
+                String base = source.endsWith("/") ? source : source + "/";
+                return httpClient.getStream(URI.create(base + path));
+            } catch (OsmApiException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+        Path file = Path.of(source).resolve(path);
+        try {
+            return Files.newInputStream(file);
+        } catch (NoSuchFileException e) {
+            throw new IOException(file + " does not exist", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the OpenStreetMap replication source.
+ *
+ * @param source the base URL (http or https) or local directory of the replication source, which contains
+ *               {@code state.txt} and the diffs as {@code AAA/BBB/CCC.osc.gz}
+ */
+@ConfigurationProperties("campus-coffee.osm.replication")
+record OsmReplicationProperties(
+        @DefaultValue("https://planet.openstreetmap.org/replication/minute") String source
+) {
+    boolean isRemote() {
+        return source.startsWith("http://") || source.startsWith("https://");
+    }
+}
@@ -0,0 +1,55 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * Predicate on the tags of an OSM node, written as {@code key=value} or {@code key=*}.
+ * <p>
+ * A value also matches if it is one entry of a semicolon-separated list, which OSM uses for multi-valued tags
+ * (e.g., {@code vending=coffee} matches {@code vending=coffee;drinks}). {@code key=*} matches any value.
+ *
+ * @param key   the tag key
+ * @param value the expected value, or null to match any value
+ */
+record OsmTagFilter(@NonNull String key, @Nullable String value) {
+
+    /**
+     * @param filter the filter expression, e.g., {@code amenity=cafe}
+     * @return the parsed filter
+     * @throws IllegalArgumentException if the expression is not of the form {@code key=value}
+     */
+    static @NonNull OsmTagFilter parse(@NonNull String filter) {
+        int separator = filter.indexOf('=');
+        if (separator <= 0 || separator == filter.length() - 1) {
+            throw new IllegalArgumentException("Invalid OSM tag filter '" + filter + "', expected key=value or key=*");
+        }
+        String key = filter.substring(0, separator).trim();
+        String value = filter.substring(separator + 1).trim();
+        return new OsmTagFilter(key, value.equals("*") ? null : value);
+    }
+
+    boolean matches(@NonNull Map<String, String> tags) {
+        String tagValue = tags.get(key);
+        if (tagValue == null) {
+            return false;
+        }
+        if (value == null || tagValue.equals(value)) {
+            return true;
+        }
+        int start = 0;
+        while (start <= tagValue.length()) {
+            int end = tagValue.indexOf(';', start);
+            if (end < 0) {
+                end = tagValue.length();
+            }
+            if (tagValue.substring(start, end).trim().equals(value)) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+}
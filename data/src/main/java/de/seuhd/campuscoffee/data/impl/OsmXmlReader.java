@@ -0,0 +1,92 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import org.jspecify.annotations.NonNull;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming reader for the OSM XML format ({@code .osm}).
+ * <p>
+ * The document is parsed with StAX, one event at a time; only the node that is currently being parsed is kept in
+ * memory, so memory use is constant regardless of the file size. Ways and relations are skipped.
+ */
+final class OsmXmlReader {
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private OsmXmlReader() {
+    }
+
+    /**
+     * Callback for the nodes of an OSM file.
+     */
+    @FunctionalInterface
+    interface NodeHandler {
+        /**
+         * @param nodeId    the node ID
+         * @param latitude  the latitude
+         * @param longitude the longitude
+         * @param tags      the tags of the node (possibly empty); the map is only valid during the call
+         */
+        void node(long nodeId, double latitude, double longitude, @NonNull Map<String, String> tags);
+    }
+
+    /**
+     * Reads all nodes from the stream, in document order.
+     *
+     * @param inputStream the (decompressed) OSM XML document; not closed by this method
+     * @param handler     the callback for each node
+     * @throws XMLStreamException if the document is not well-formed
+     */
+    static void read(@NonNull InputStream inputStream, @NonNull NodeHandler handler) throws XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+        try {
+            Map<String, String> tags = new HashMap<>();
+            Map<String, String> readOnlyTags = Collections.unmodifiableMap(tags);
+            boolean inNode = false;
+            long nodeId = 0;
+            double latitude = 0;
+            double longitude = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String element = reader.getLocalName();
+                    if (element.equals("node")) {
+                        inNode = true;
+                        nodeId = Long.parseLong(reader.getAttributeValue(null, "id"));
+                        latitude = parseCoordinate(reader.getAttributeValue(null, "lat"));
+                        longitude = parseCoordinate(reader.getAttributeValue(null, "lon"));
+                        tags.clear();
+                    } else if (inNode && element.equals("tag")) {
+                        tags.put(reader.getAttributeValue(null, "k"), reader.getAttributeValue(null, "v"));
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && inNode && reader.getLocalName().equals("node")) {
+                    inNode = false;
+                    handler.node(nodeId, latitude, longitude, readOnlyTags);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static double parseCoordinate(String value) {
+        // deleted nodes in change files have no coordinates
+        return value != null ? Double.parseDouble(value) : Double.NaN;
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // extract files are untrusted input: do not resolve DTDs or external entities
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+}
@@ -0,0 +1,243 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.events.PosChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Propagates POS changes between application instances using Postgres LISTEN/NOTIFY.
+ * <p>
+ * Within a write transaction, the data service reports the affected POS IDs to this channel, which
+ * <ul>
+ *   <li>sends {@code NOTIFY <channel>, '<instance>:<id>,<id>,...'} in the same transaction; Postgres delivers the
+ *   notification to all listening instances when (and only if) the transaction commits, and</li>
+ *   <li>publishes a local {@link PosChangedEvent} after the commit so that in-process caches of this instance are
+ *   updated immediately.</li>
+ * </ul>
+ * Each instance also runs a listener thread on a dedicated connection that executes {@code LISTEN <channel>} and
+ * publishes a {@link PosChangedEvent} for every notification sent by another instance.
+ * Since notifications sent while the listener was disconnected are lost, the listener publishes an event that
+ * invalidates all POS after each reconnect.
+ * <p>
+ * If sharding is enabled ({@link ShardRouter}), notifications are sent on the shard that a transaction writes to,
+ * and each instance runs a listener per shard.
+ */
+@Slf4j
+@Component
+class PosChangeChannel implements SmartLifecycle {
+    private static final String ALL_POS = "*";
+    // Postgres limits payloads to 8000 bytes; IDs are ASCII, so characters and bytes match.
+    private static final int MAX_PAYLOAD_LENGTH = 7900;
+
+    private final PosChangeProperties properties;
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    private volatile List<Thread> listenerThreads = List.of();
+
+    PosChangeChannel(PosChangeProperties properties, DataSource dataSource, ShardRouter shardRouter,
+                     ApplicationEventPublisher eventPublisher) {
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Reports changes to individual POS. Must be called within the write transaction;
+     * the change is propagated when the transaction commits.
+     *
+     * @param posIds the IDs of the created or updated POS
+     */
+    void posChanged(@NonNull Collection<Long> posIds) {
+        if (posIds.isEmpty()) {
+            return;
+        }
+        notifyOtherInstances(posIds);
+        afterCommit(() -> eventPublisher.publishEvent(PosChangedEvent.changed(posIds, true)));
+    }
+
+    /**
+     * Reports that all POS may have changed (e.g., after clearing the data store). Must be called within the write
+     * transaction; the change is propagated when the transaction commits.
+     */
+    void allPosChanged() {
+        send(ALL_POS);
+        afterCommit(() -> eventPublisher.publishEvent(PosChangedEvent.all(true)));
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            log.info("POS change notifications are disabled");
+            return;
+        }
+        running = true;
+        List<Thread> threads = new ArrayList<>();
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            DataSource dataSource = shardRouter.dataSource(shard);
+            Thread thread = new Thread(() -> listen(dataSource),
+                    shardRouter.sharded() ? "pos-change-listener-" + shard : "pos-change-listener");
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+        listenerThreads = threads;
+        threads.forEach(Thread::start);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        // the listeners leave their loops after the current poll and return their connections to the pools
+        for (Thread thread : listenerThreads) {
+            try {
+                thread.join(properties.pollTimeout().multipliedBy(2).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        listenerThreads = List.of();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void notifyOtherInstances(Collection<Long> posIds) {
+        StringBuilder payload = new StringBuilder();
+        for (Long posId : posIds) {
+            String id = posId.toString();
+            if (!payload.isEmpty() && payload.length() + id.length() + 1 > MAX_PAYLOAD_LENGTH) {
+                send(payload.toString());
+                payload.setLength(0);
+            }
+            if (!payload.isEmpty()) {
+                payload.append(',');
+            }
+            payload.append(id);
+        }
+        send(payload.toString());
+    }
+
+    private void send(String ids) {
+        if (!properties.enabled()) {
+            return;
+        }
+        // participates in the current transaction, so the notification is delivered on commit
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> null, properties.channel(), instanceId + ":" + ids);
+    }
+
+    /**
+     * Listener loop: (re)connects, subscribes to the channel, and dispatches notifications until stopped.
+     */
+    private void listen(DataSource dataSource) {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + properties.channel());
+                }
+                log.info("Listening for POS changes on channel '{}'", properties.channel());
+                if (reconnect) {
+                    // notifications sent while disconnected are lost
+                    eventPublisher.publishEvent(PosChangedEvent.all(false));
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) properties.pollTimeout().toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("UNLISTEN *"); // the connection goes back to the pool
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("POS change listener lost its connection, reconnecting in {}: {}",
+                        properties.reconnectDelay(), e.getMessage());
+                reconnect = true;
+                if (!sleep(properties.reconnectDelay().toMillis())) {
+                    break;
+                }
+            }
+        }
+        log.info("Stopped listening for POS changes");
+    }
+
+    private void dispatch(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0) {
+            log.warn("Ignoring malformed POS change notification: {}", payload);
+            return;
+        }
+        if (payload.substring(0, separator).equals(instanceId)) {
+            return; // already published locally
+        }
+        String ids = payload.substring(separator + 1);
+        if (ids.equals(ALL_POS)) {
+            eventPublisher.publishEvent(PosChangedEvent.all(false));
+            return;
+        }
+        List<Long> posIds = new ArrayList<>();
+        try {
+            for (String id : ids.split(",")) {
+                posIds.add(Long.parseLong(id));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed POS change notification: {}", payload);
+            return;
+        }
+        eventPublisher.publishEvent(PosChangedEvent.changed(posIds, false));
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the Postgres LISTEN/NOTIFY channel that propagates POS changes between application instances.
+ *
+ * @param enabled        whether changes are sent to and received from other instances via the database
+ * @param channel        the name of the notification channel (a plain SQL identifier)
+ * @param pollTimeout    how long the listener blocks while waiting for notifications
+ * @param reconnectDelay how long the listener waits before reconnecting after a connection failure
+ */
+@ConfigurationProperties("campus-coffee.pos-changes")
+record PosChangeProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("pos_changed") String channel,
+        @DefaultValue("1s") Duration pollTimeout,
+        @DefaultValue("5s") Duration reconnectDelay
+) {
+    PosChangeProperties {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid notification channel name: " + channel);
+        }
+    }
+}
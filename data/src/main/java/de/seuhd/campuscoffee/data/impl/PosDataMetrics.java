@@ -0,0 +1,60 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.exceptions.DuplicatePosNameException;
+import de.seuhd.campuscoffee.domain.exceptions.PosNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Timings of the {@link de.seuhd.campuscoffee.domain.ports.PosDataService} operations, recorded as the timer
+ * {@code pos.data.requests} with the tags {@code method}, {@code store} ({@code database} or {@code read-model}),
+ * and {@code outcome} ({@code SUCCESS}, {@code NOT_FOUND}, {@code DUPLICATE_NAME}, or {@code ERROR}).
+ * Each operation is also recorded as a {@link PosQueryEvent} for Java Flight Recorder.
+ */
+@Component
+class PosDataMetrics {
+    static final String DATABASE = "database";
+    static final String READ_MODEL = "read-model";
+    private final MeterRegistry meterRegistry;
+
+    PosDataMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs the operation and records its duration and outcome, both as metric and as JFR event.
+     *
+     * @param store     the store that serves the operation
+     * @param method    the name of the port method
+     * @param operation the operation
+     * @return the result of the operation
+     */
+    <T> T time(String store, String method, Supplier<T> operation) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        PosQueryEvent event = new PosQueryEvent();
+        event.begin();
+        String outcome = "ERROR";
+        try {
+            T result = operation.get();
+            outcome = "SUCCESS";
+            return result;
+        } catch (PosNotFoundException e) {
+            outcome = "NOT_FOUND";
+            throw e;
+        } catch (DuplicatePosNameException e) {
+            outcome = "DUPLICATE_NAME";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("pos.data.requests", "method", method, "store", store, "outcome", outcome));
+            if (event.shouldCommit()) {
+                event.method = method;
+                event.store = store;
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+}
@@ -3,69 +3,356 @@ package de.seuhd.campuscoffee.data.impl;
 import de.seuhd.campuscoffee.data.mapper.PosEntityMapper;
 import de.seuhd.campuscoffee.data.persistence.PosEntity;
 import de.seuhd.campuscoffee.data.persistence.PosRepository;
+import de.seuhd.campuscoffee.data.persistence.PosRepository.PosName;
 import de.seuhd.campuscoffee.domain.model.Pos;
 import de.seuhd.campuscoffee.domain.exceptions.DuplicatePosNameException;
 import de.seuhd.campuscoffee.domain.exceptions.PosNotFoundException;
+import de.seuhd.campuscoffee.domain.events.PosChangedEvent;
 import de.seuhd.campuscoffee.domain.ports.PosDataService;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Implementation of the POS data service that the domain layer provides as a port.
  * This layer is responsible for data access and persistence.
  * Business logic should be in the service layer.
+ * <p>
+ * Queries run in read-only transactions, which may be served by a read replica (see {@link ReadReplicaConfiguration}).
+ * Writes run in read-write transactions on the primary.
+ * <p>
+ * All operations except {@link #clear()} are timed by {@link PosDataMetrics}, and the mapping between entities and
+ * domain objects is recorded as {@link PosEntityMappingEvent}s.
+ * <p>
+ * If the {@link PosNameIndex} is enabled, writes of names that other POS already hold are rejected before any statement
+ * is sent; the unique constraint on the name still rejects those that the index does not know of. The locations of
+ * written POS are passed on to the {@link PosTileIndex} in the same way.
+ * <p>
+ * Concurrent {@link #getById(Long)} calls for the same POS share one query (see {@link SingleFlight}), unless they run
+ * in a transaction of their own, which may contain uncommitted changes. Calls that arrive after a change of the POS
+ * was reported do not wait for queries that started before, and requests that read from the primary for
+ * read-your-writes consistency (see {@link ReadYourWritesDataSources}) only share queries among themselves.
+ * <p>
+ * If write batching is enabled ({@link PosWriteBatchingProperties}), concurrent {@link #upsert(Pos)} calls outside
+ * of transactions are written in shared transactions, with their statements flushed together (see
+ * {@link GroupCommit}).
+ * <p>
+ * If sharding is enabled ({@link ShardingConfiguration}), each POS is read and written on its shard, as selected by
+ * the {@link ShardRouter}, and queries over all POS are sent to all shards. Since a transaction is bound to a single
+ * shard, each shard is then accessed in a new transaction, also within a transaction of the caller.
+ * {@link #upsertAll(List)} nests the transactions of its shards, so that none of them commits before the POS of all
+ * shards were written, and a failure rolls back all of them; only a failure of a commit itself (e.g., a lost
+ * connection) can leave the shards committed before it. Writes hold locks on their names while they check that no POS
+ * on another shard holds them.
  */
 @Service
-@RequiredArgsConstructor
 class PosDataServiceImpl implements PosDataService {
     private final PosRepository posRepository;
     private final PosEntityMapper posEntityMapper;
+    private final PosChangeChannel posChangeChannel;
+    private final PosNameIndex posNameIndex;
+    private final PosTileIndex posTileIndex;
+    private final ShardRouter shardRouter;
+    private final PosDataMetrics metrics;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate readWriteTransaction;
+    private final SingleFlight<PosKey, Pos> getByIdFlights;
+    // one per shard, since a batch is written in one transaction
+    private final @Nullable List<GroupCommit<Pos, Pos>> upsertBatches;
+
+    PosDataServiceImpl(PosRepository posRepository, PosEntityMapper posEntityMapper,
+                       PosChangeChannel posChangeChannel, PosNameIndex posNameIndex, PosTileIndex posTileIndex,
+                       ShardRouter shardRouter, PosDataMetrics metrics, PlatformTransactionManager transactionManager,
+                       PosWriteBatchingProperties writeBatching, MeterRegistry meterRegistry) {
+        this.posRepository = posRepository;
+        this.posEntityMapper = posEntityMapper;
+        this.posChangeChannel = posChangeChannel;
+        this.posNameIndex = posNameIndex;
+        this.posTileIndex = posTileIndex;
+        this.shardRouter = shardRouter;
+        this.metrics = metrics;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readWriteTransaction = new TransactionTemplate(transactionManager);
+        if (shardRouter.sharded()) {
+            // a transaction of the caller is bound to the shard of its first statement
+            this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            this.readWriteTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+        this.getByIdFlights = new SingleFlight<>("pos.getById", meterRegistry);
+        this.upsertBatches = writeBatching.enabled()
+                ? IntStream.range(0, shardRouter.shardCount())
+                        .mapToObj(shard -> new GroupCommit<Pos, Pos>("pos.upsert", writeBatching.window(),
+                                writeBatching.maxBatchSize(), posList -> upsertBatch(shard, posList),
+                                this::upsertSingle, meterRegistry))
+                        .toList()
+                : null;
+    }
 
     @Override
     public void clear() {
-        posRepository.deleteAllInBatch();
-        posRepository.flush();
-        posRepository.resetSequence();
+        shardRouter.onAllShards(() -> {
+            readWriteTransaction.executeWithoutResult(status -> {
+                posRepository.deleteAllInBatch();
+                posRepository.flush();
+                posRepository.resetSequence();
+                posChangeChannel.allPosChanged();
+            });
+            return List.of();
+        });
     }
 
     @Override
     public @NonNull List<Pos> getAll() {
-        return posRepository.findAll().stream()
-                .map(posEntityMapper::fromEntity)
-                .toList();
+        return metrics.time(PosDataMetrics.DATABASE, "getAll", () -> shardRouter.onAllShards(() ->
+                readOnlyTransaction.execute(status -> fromEntities(posRepository.findAll()))
+        ));
     }
 
     @Override
     public @NonNull Pos getById(@NonNull Long id) throws PosNotFoundException {
-        return posRepository.findById(id)
-                .map(posEntityMapper::fromEntity)
-                .orElseThrow(() -> new PosNotFoundException(id));
+        return metrics.time(PosDataMetrics.DATABASE, "getById", () -> {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                return findById(id);
+            }
+            return getByIdFlights.call(new PosKey(id, ReadYourWritesDataSources.primaryUsed()), () -> findById(id));
+        });
+    }
+
+    /**
+     * Lets later {@link #getById(Long)} calls query the changed POS instead of waiting for queries in flight.
+     * Changes of this instance are reported after their commit, before the write returns.
+     *
+     * @param event the change event
+     */
+    @EventListener
+    void onPosChanged(PosChangedEvent event) {
+        getByIdFlights.forget(key -> event.invalidateAll() || event.posIds().contains(key.id()));
+    }
+
+    private Pos findById(Long id) {
+        return shardRouter.on(shardRouter.shardOf(id), () -> readOnlyTransaction.execute(status ->
+                posRepository.findById(id)
+                        .map(this::fromEntity)
+                        .orElseThrow(() -> new PosNotFoundException(id))));
+    }
+
+    @Override
+    public @NonNull Set<Long> getAllOsmNodeIds() {
+        return metrics.time(PosDataMetrics.DATABASE, "getAllOsmNodeIds", () -> new HashSet<>(
+                shardRouter.onAllShards(() -> readOnlyTransaction.execute(status -> posRepository.findAllOsmNodeIds()))
+        ));
+    }
+
+    @Override
+    public @NonNull Map<Long, Pos> getByOsmNodeIds(@NonNull Collection<Long> osmNodeIds) {
+        if (osmNodeIds.isEmpty()) {
+            return Map.of();
+        }
+        return metrics.time(PosDataMetrics.DATABASE, "getByOsmNodeIds", () -> shardRouter.onAllShards(() ->
+                readOnlyTransaction.execute(status -> fromEntities(posRepository.findByOsmNodeIdIn(osmNodeIds))))
+                .stream()
+                // each shard only enforces the uniqueness of the node IDs among its own POS: prefer the lower shard
+                .collect(Collectors.toMap(Pos::osmNodeId, pos -> pos, (first, second) -> first))
+        );
     }
 
     @Override
     public @NonNull Pos upsert(@NonNull Pos pos) {
+        return metrics.time(PosDataMetrics.DATABASE, "upsert", () -> {
+            // a write within a transaction of the caller must be part of it
+            if (upsertBatches == null || TransactionSynchronizationManager.isActualTransactionActive()) {
+                return upsertSingle(pos);
+            }
+            Pos upsertedPos = upsertBatches.get(shardRouter.shardOf(pos)).write(pos);
+            // the batch may have been written on the thread of another request
+            ReadYourWritesDataSources.markPrimaryUsed();
+            return upsertedPos;
+        });
+    }
+
+    private Pos upsertSingle(Pos pos) {
+        int shard = shardRouter.shardOf(pos);
+        return shardRouter.withNamesLocked(List.of(pos.name()), () -> {
+            rejectDuplicateNamesAcrossShards(List.of(pos));
+            return shardRouter.on(shard, () -> readWriteTransaction.execute(status -> {
+                Pos upsertedPos = save(pos);
+                // Let in-process caches of this and other application instances know about the change
+                posChangeChannel.posChanged(List.of(upsertedPos.id()));
+                posNameIndex.posChanged(List.of(upsertedPos));
+                posTileIndex.posChanged(List.of(upsertedPos));
+                return upsertedPos;
+            }));
+        });
+    }
+
+    /**
+     * Writes a batch of {@link #upsert(Pos)} calls in one transaction, with the statements flushed together, so that
+     * they are sent as JDBC batches. Fails as a whole if one of the POS fails (e.g., due to a duplicate name); the
+     * {@link GroupCommit} then writes them one by one.
+     */
+    private List<Pos> upsertBatch(int shard, List<Pos> posList) {
+        return shardRouter.withNamesLocked(posList.stream().map(Pos::name).toList(), () -> {
+            rejectDuplicateNamesAcrossShards(posList);
+            return shardRouter.on(shard, () -> readWriteTransaction.execute(status -> saveBatch(posList)));
+        });
+    }
+
+    /**
+     * Writes a batch in the current transaction.
+     */
+    private List<Pos> saveBatch(List<Pos> posList) {
+        List<Long> ids = posList.stream().map(Pos::id).filter(Objects::nonNull).toList();
+        Map<Long, PosEntity> existingEntities = new HashMap<>();
+        if (!ids.isEmpty()) {
+            posRepository.findAllById(ids).forEach(posEntity -> existingEntities.put(posEntity.getId(), posEntity));
+        }
+        List<PosEntity> posEntities = new ArrayList<>(posList.size());
+        List<Pos> upsertedPosList = new ArrayList<>(posList.size());
+        Set<Long> updatedIds = new HashSet<>();
+        for (Pos pos : posList) {
+            rejectKnownDuplicateName(pos);
+            if (pos.id() == null) {
+                // the ID is assigned now, the insert is deferred to the flush
+                posEntities.add(posRepository.save(toEntity(pos)));
+                continue;
+            }
+            PosEntity posEntity = existingEntities.get(pos.id());
+            if (posEntity == null) {
+                throw new PosNotFoundException(pos.id());
+            }
+            if (!updatedIds.add(pos.id())) {
+                // the POS is updated twice: the first caller gets the result of its own update
+                flush(posEntities, upsertedPosList);
+                updatedIds.clear();
+                updatedIds.add(pos.id());
+            }
+            PosEntityMappingEvent event = PosEntityMappingEvent.start("toEntity");
+            posEntityMapper.updateEntity(pos, posEntity);
+            event.complete(1);
+            posEntities.add(posEntity);
+        }
+        flush(posEntities, upsertedPosList);
+        // one notification for the whole batch
+        posChangeChannel.posChanged(upsertedPosList.stream().map(Pos::id).distinct().toList());
+        posNameIndex.posChanged(upsertedPosList);
+        posTileIndex.posChanged(upsertedPosList);
+        return upsertedPosList;
+    }
+
+    /**
+     * Flushes the pending changes and maps the entities written since the last flush.
+     */
+    private void flush(List<PosEntity> posEntities, List<Pos> upsertedPosList) {
+        posRepository.flush();
+        upsertedPosList.addAll(fromEntities(posEntities.subList(upsertedPosList.size(), posEntities.size())));
+    }
+
+    @Override
+    public @NonNull List<Pos> upsertAll(@NonNull List<Pos> posList) {
+        if (posList.isEmpty()) {
+            return List.of();
+        }
+        return metrics.time(PosDataMetrics.DATABASE, "upsertAll", () -> {
+            // the positions of the POS in the list, per shard
+            Map<Integer, List<Integer>> indexesByShard = new TreeMap<>();
+            for (int index = 0; index < posList.size(); index++) {
+                indexesByShard.computeIfAbsent(shardRouter.shardOf(posList.get(index)), shard -> new ArrayList<>())
+                        .add(index);
+            }
+            Pos[] upsertedPosList = new Pos[posList.size()];
+            shardRouter.withNamesLocked(posList.stream().map(Pos::name).toList(), () -> {
+                rejectDuplicateNamesAcrossShards(posList);
+                upsertAll(new ArrayList<>(indexesByShard.entrySet()), posList, upsertedPosList);
+                return null;
+            });
+            return List.of(upsertedPosList);
+        });
+    }
+
+    /**
+     * Writes the POS of the first shard in a transaction, and the POS of the other shards within it, so that the
+     * transaction commits only after those of the other shards have been written. A failing POS rolls back the
+     * transactions of all shards.
+     *
+     * @param indexesByShard  the shards with the positions of their POS in the list
+     * @param posList         all POS to write
+     * @param upsertedPosList receives the written POS, at the positions of the POS in the list
+     */
+    private void upsertAll(List<Map.Entry<Integer, List<Integer>>> indexesByShard, List<Pos> posList,
+                           Pos[] upsertedPosList) {
+        if (indexesByShard.isEmpty()) {
+            return;
+        }
+        int shard = indexesByShard.getFirst().getKey();
+        List<Integer> indexes = indexesByShard.getFirst().getValue();
+        shardRouter.on(shard, () -> readWriteTransaction.execute(status -> {
+            List<Pos> shardPosList = indexes.stream().map(posList::get).toList();
+            // load the POS to update with one query; save() then finds them in the persistence context
+            List<Long> ids = shardPosList.stream().map(Pos::id).filter(Objects::nonNull).toList();
+            if (!ids.isEmpty()) {
+                posRepository.findAllById(ids);
+            }
+            List<Pos> upsertedShardPosList = new ArrayList<>(shardPosList.size());
+            for (Pos pos : shardPosList) {
+                upsertedShardPosList.add(save(pos));
+            }
+            for (int i = 0; i < indexes.size(); i++) {
+                upsertedPosList[indexes.get(i)] = upsertedShardPosList.get(i);
+            }
+            upsertAll(indexesByShard.subList(1, indexesByShard.size()), posList, upsertedPosList);
+            // one notification for the whole batch, which is sent once the transaction has committed
+            posChangeChannel.posChanged(upsertedShardPosList.stream().map(Pos::id).toList());
+            posNameIndex.posChanged(upsertedShardPosList);
+            posTileIndex.posChanged(upsertedShardPosList);
+            return null;
+        }));
+    }
+
+    /**
+     * Creates or updates a POS in the current transaction.
+     */
+    private Pos save(Pos pos) {
         // Map POS domain object to entity and save
         try {
             if (pos.id() == null) {
                 // Create new POS
-                return posEntityMapper.fromEntity(
-                        posRepository.saveAndFlush(posEntityMapper.toEntity(pos))
-                );
+                rejectKnownDuplicateName(pos);
+                return fromEntity(posRepository.saveAndFlush(toEntity(pos)));
             }
-
             // Update existing POS
             PosEntity posEntity = posRepository.findById(pos.id())
                     .orElseThrow(() -> new PosNotFoundException(pos.id()));
+            rejectKnownDuplicateName(pos);
 
             // Use mapper to update entity fields automatically
             // Note: timestamps are managed by JPA lifecycle callbacks (@PreUpdate)
+            PosEntityMappingEvent event = PosEntityMappingEvent.start("toEntity");
             posEntityMapper.updateEntity(pos, posEntity);
+            event.complete(1);
 
-            return posEntityMapper.fromEntity(posRepository.saveAndFlush(posEntity));
+            return fromEntity(posRepository.saveAndFlush(posEntity));
         } catch (DataIntegrityViolationException e) {
             // Translate database constraint violations to domain exceptions
             // This is the adapter's responsibility in hexagonal architecture
@@ -77,6 +364,63 @@ class PosDataServiceImpl implements PosDataService {
         }
     }
 
+    /**
+     * Rejects a name that the name index knows to be held by another POS, before the write is sent to the database.
+     */
+    private void rejectKnownDuplicateName(Pos pos) {
+        if (posNameIndex.otherPosWithName(pos) != null) {
+            throw new DuplicatePosNameException(pos.name());
+        }
+    }
+
+    /**
+     * Rejects names that other POS hold, including on other shards, whose unique constraints do not cover the shard
+     * that the POS are written to. Must be called while holding the locks on the names.
+     */
+    private void rejectDuplicateNamesAcrossShards(List<Pos> posList) {
+        if (!shardRouter.sharded()) {
+            return;
+        }
+        Map<String, Pos> posByName = posList.stream()
+                .collect(Collectors.toMap(Pos::name, pos -> pos, (first, second) -> {
+                    // POS of different shards with the same name would not violate the constraint of either shard
+                    if (first.id() == null || !first.id().equals(second.id())) {
+                        throw new DuplicatePosNameException(second.name());
+                    }
+                    return first;
+                }));
+        for (PosName posName : shardRouter.onAllShards(() -> readOnlyTransaction.execute(status ->
+                posRepository.findNamesByNameIn(posByName.keySet())))) {
+            Pos pos = posByName.get(posName.getName());
+            if (!posName.getId().equals(pos.id())) {
+                throw new DuplicatePosNameException(pos.name());
+            }
+        }
+    }
+
+    private Pos fromEntity(PosEntity posEntity) {
+        PosEntityMappingEvent event = PosEntityMappingEvent.start("fromEntity");
+        Pos pos = posEntityMapper.fromEntity(posEntity);
+        event.complete(1);
+        return pos;
+    }
+
+    private List<Pos> fromEntities(List<PosEntity> posEntities) {
+        PosEntityMappingEvent event = PosEntityMappingEvent.start("fromEntity");
+        List<Pos> posList = posEntities.stream()
+                .map(posEntityMapper::fromEntity)
+                .toList();
+        event.complete(posList.size());
+        return posList;
+    }
+
+    private PosEntity toEntity(Pos pos) {
+        PosEntityMappingEvent event = PosEntityMappingEvent.start("toEntity");
+        PosEntity posEntity = posEntityMapper.toEntity(pos);
+        event.complete(1);
+        return posEntity;
+    }
+
     /**
      * Checks if the exception is due to duplicate POS name constraint violation.
      */
@@ -84,13 +428,19 @@ class PosDataServiceImpl implements PosDataService {
         // Database constraint name for unique pos name
         final String POS_NAME_CONSTRAINT = "pos_name_key";
 
-        // Check the exception message and root cause for the constraint name
+        // Postgres reports the violated constraint with the error, so that the messages need not be searched
+        if (e.getMostSpecificCause() instanceof PSQLException psqlException) {
+            ServerErrorMessage serverErrorMessage = psqlException.getServerErrorMessage();
+            if (serverErrorMessage != null && serverErrorMessage.getConstraint() != null) {
+                return POS_NAME_CONSTRAINT.equals(serverErrorMessage.getConstraint());
+            }
+        }
+
+        // Otherwise, check the exception message and root cause for the constraint name
         String message = e.getMessage();
         if (message != null && message.contains(POS_NAME_CONSTRAINT)) {
             return true;
         }
-
-        // Also check root cause for constraint violations
         Throwable cause = e.getRootCause();
         if (cause != null) {
             String causeMessage = cause.getMessage();
@@ -99,4 +449,11 @@ class PosDataServiceImpl implements PosDataService {
 
         return false;
     }
+
+    /**
+     * The key of a {@link #getById(Long)} call; queries of requests that read from the primary are not shared with
+     * others, which may read from a replica.
+     */
+    private record PosKey(Long id, boolean primary) {
+    }
 }
@@ -0,0 +1,44 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.events.PhaseEvent;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for mapping POS between entities and domain objects with
+ * {@link de.seuhd.campuscoffee.data.mapper.PosEntityMapper}. Lists are mapped in one event.
+ */
+@Name("de.seuhd.campuscoffee.PosEntityMapping")
+@Label("POS Entity Mapping")
+class PosEntityMappingEvent extends PhaseEvent {
+    @Label("Direction")
+    private String direction;
+
+    @Label("POS Count")
+    private int count;
+
+    /**
+     * Creates and begins an event.
+     *
+     * @param direction {@code fromEntity} or {@code toEntity}
+     * @return the started event
+     */
+    static PosEntityMappingEvent start(String direction) {
+        PosEntityMappingEvent event = new PosEntityMappingEvent();
+        event.direction = direction;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event and commits it if it is enabled and exceeds its threshold.
+     *
+     * @param count the number of mapped POS
+     */
+    void complete(int count) {
+        if (shouldCommit()) {
+            this.count = count;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.data.persistence.PosRepository;
+import de.seuhd.campuscoffee.domain.events.PosChangedEvent;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the names of all POS, so that {@link PosDataServiceImpl} rejects a duplicate name without a
+ * database round trip, a rolled-back transaction, and the translation of the constraint violation.
+ * <p>
+ * Each name maps to the ID of the POS that holds it. Names are compared exactly, as by the unique constraint
+ * {@code pos_name_key}, so that the index never rejects a name that the database would accept. The index is loaded
+ * from the primary database when the application is ready and updated after each committed write of this instance.
+ * Changes committed by other instances arrive as {@link PosChangedEvent}s; the names of the affected POS are then
+ * re-read from the primary database. If sharding is enabled, the names are read from all shards.
+ * <p>
+ * The database constraint remains the final arbiter: a name that the index does not know yet (e.g., taken by another
+ * instance whose notification has not arrived) is still rejected by Postgres. Conversely, a name released by another
+ * instance is rejected until its notification arrives, and names changed directly in the database are only seen
+ * after the next event that invalidates all POS.
+ * <p>
+ * Enabled by setting {@code campus-coffee.name-index.enabled} to true.
+ */
+@Slf4j
+@Component
+class PosNameIndex {
+    private final PosNameIndexProperties properties;
+    private final PosRepository posRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate primaryTransaction;
+    private final Map<String, Long> idsByName = new ConcurrentHashMap<>();
+    // only accessed while holding the lock of this index, like all writes to idsByName
+    private final Map<Long, String> namesById = new HashMap<>();
+    private volatile boolean loaded;
+
+    PosNameIndex(PosNameIndexProperties properties, PosRepository posRepository, ShardRouter shardRouter,
+                 PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.posRepository = posRepository;
+        this.shardRouter = shardRouter;
+        // a read-write transaction ensures that the queries use the primary; a new one, since the local change events
+        // are published after the commit of the write transaction, whose resources are still bound at that point
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Looks up the POS that holds the name of the given POS.
+     *
+     * @param pos the POS to create or update
+     * @return the ID of another POS with the same name, or null if the index does not know of one (including while it
+     * is disabled or not loaded)
+     */
+    @Nullable Long otherPosWithName(@NonNull Pos pos) {
+        if (!loaded) {
+            return null;
+        }
+        Long id = idsByName.get(pos.name());
+        return id != null && !id.equals(pos.id()) ? id : null;
+    }
+
+    /**
+     * Records the names of created or updated POS. Must be called within the write transaction; the index is updated
+     * when the transaction commits.
+     *
+     * @param posList the created or updated POS
+     */
+    void posChanged(@NonNull List<Pos> posList) {
+        if (!properties.enabled()) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (this) {
+                posList.forEach(pos -> put(Objects.requireNonNull(pos.id()), pos.name()));
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void load() {
+        if (properties.enabled()) {
+            reload();
+        }
+    }
+
+    /**
+     * Refreshes the names of POS that were changed by other application instances, and reloads the index if all POS
+     * may have changed (including after {@link PosDataServiceImpl#clear()}). Other changes of this instance have
+     * already been applied by {@link #posChanged(List)}.
+     *
+     * @param event the change event
+     */
+    @EventListener
+    void onPosChanged(PosChangedEvent event) {
+        if (!properties.enabled()) {
+            return;
+        }
+        if (event.invalidateAll()) {
+            reload();
+            return;
+        }
+        if (event.local() || !loaded) {
+            return;
+        }
+        synchronized (this) {
+            Set<Long> removedIds = new HashSet<>(event.posIds());
+            for (PosRepository.PosName posName : shardRouter.onShardsOf(event.posIds(), ids ->
+                    Objects.requireNonNull(primaryTransaction.execute(status -> posRepository.findNamesByIdIn(ids))))) {
+                put(posName.getId(), posName.getName());
+                removedIds.remove(posName.getId());
+            }
+            removedIds.forEach(this::remove);
+        }
+    }
+
+    private synchronized void reload() {
+        loaded = false;
+        idsByName.clear();
+        namesById.clear();
+        try {
+            for (PosRepository.PosName posName : shardRouter.onAllShards(() ->
+                    Objects.requireNonNull(primaryTransaction.execute(status -> posRepository.findAllNames())))) {
+                put(posName.getId(), posName.getName());
+            }
+            loaded = true;
+            log.debug("Loaded name index with {} POS", namesById.size());
+        } catch (RuntimeException e) {
+            // duplicates are then only detected by the database until the next reload
+            log.warn("Failed to load name index: {}", e.getMessage());
+        }
+    }
+
+    private void put(Long id, String name) {
+        String previousName = namesById.put(id, name);
+        if (previousName != null && !previousName.equals(name)) {
+            idsByName.remove(previousName, id);
+        }
+        idsByName.put(name, id);
+    }
+
+    private void remove(Long id) {
+        String name = namesById.remove(id);
+        if (name != null) {
+            idsByName.remove(name, id);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
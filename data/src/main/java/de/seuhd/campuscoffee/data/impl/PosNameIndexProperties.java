@@ -0,0 +1,15 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the in-memory index of POS names ({@link PosNameIndex}).
+ *
+ * @param enabled whether duplicate names are rejected by the index before the database is accessed
+ */
+@ConfigurationProperties("campus-coffee.name-index")
+record PosNameIndexProperties(
+        @DefaultValue("false") boolean enabled
+) {
+}
@@ -0,0 +1,22 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.events.PhaseEvent;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for a {@link de.seuhd.campuscoffee.domain.ports.PosDataService} operation, including the mapping of its
+ * results (recorded separately as {@link PosEntityMappingEvent}s).
+ */
+@Name("de.seuhd.campuscoffee.PosQuery")
+@Label("POS Query")
+class PosQueryEvent extends PhaseEvent {
+    @Label("Method")
+    String method;
+
+    @Label("Store")
+    String store;
+
+    @Label("Outcome")
+    String outcome;
+}
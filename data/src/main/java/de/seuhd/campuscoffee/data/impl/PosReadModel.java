@@ -0,0 +1,181 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.events.PosChangedEvent;
+import de.seuhd.campuscoffee.domain.exceptions.PosNotFoundException;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.ports.PosDataService;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * In-memory read model of the whole POS catalogue that decorates {@link PosDataServiceImpl}.
+ * <p>
+ * Reads ({@link #getAll()} and {@link #getById(Long)}) are served from an immutable {@link PosSnapshot} without
+ * locking and without database access. The snapshot is loaded on first access and replaced atomically
+ * (copy-on-write) after each committed write of this instance. Changes committed by other instances arrive as
+ * {@link PosChangedEvent}s; the affected POS are then re-read from the primary database, since a read replica
+ * may not have caught up yet.
+ * <p>
+ * Reads are timed by {@link PosDataMetrics} with the store {@code read-model}; writes are timed by the decorated service.
+ * <p>
+ * Enabled by setting {@code campus-coffee.read-model.enabled} to true.
+ */
+@Slf4j
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "campus-coffee.read-model", name = "enabled", havingValue = "true")
+class PosReadModel implements PosDataService {
+    private final PosDataServiceImpl posDataService;
+    private final PosDataMetrics metrics;
+    private final TransactionTemplate primaryTransaction;
+    private final Object writeLock = new Object();
+    private volatile PosSnapshot.@Nullable Interner interner;
+    private volatile @Nullable PosSnapshot snapshot;
+
+    PosReadModel(PosDataServiceImpl posDataService, PosDataMetrics metrics, PlatformTransactionManager transactionManager) {
+        this.posDataService = posDataService;
+        this.metrics = metrics;
+        // a read-write transaction ensures that the nested read-only queries of the data service use the primary
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void clear() {
+        synchronized (writeLock) {
+            posDataService.clear();
+            interner = new PosSnapshot.Interner();
+            snapshot = PosSnapshot.empty();
+        }
+    }
+
+    @Override
+    public @NonNull List<Pos> getAll() {
+        return metrics.time(PosDataMetrics.READ_MODEL, "getAll", () -> currentSnapshot().getAll());
+    }
+
+    @Override
+    public @NonNull Pos getById(@NonNull Long id) throws PosNotFoundException {
+        return metrics.time(PosDataMetrics.READ_MODEL, "getById", () -> {
+            Pos pos = currentSnapshot().get(id);
+            if (pos == null) {
+                throw new PosNotFoundException(id);
+            }
+            return pos;
+        });
+    }
+
+    @Override
+    public @NonNull Pos upsert(@NonNull Pos pos) throws PosNotFoundException {
+        Pos upsertedPos = posDataService.upsert(pos);
+        synchronized (writeLock) {
+            PosSnapshot current = snapshot;
+            if (current != null) {
+                snapshot = current.with(upsertedPos, Objects.requireNonNull(interner));
+            }
+        }
+        return upsertedPos;
+    }
+
+    @Override
+    public @NonNull List<Pos> upsertAll(@NonNull List<Pos> posList) throws PosNotFoundException {
+        List<Pos> upsertedPosList = posDataService.upsertAll(posList);
+        synchronized (writeLock) {
+            PosSnapshot current = snapshot;
+            if (current != null) {
+                snapshot = current.withAll(upsertedPosList, Objects.requireNonNull(interner));
+            }
+        }
+        return upsertedPosList;
+    }
+
+    @Override
+    public @NonNull Set<Long> getAllOsmNodeIds() {
+        return posDataService.getAllOsmNodeIds();
+    }
+
+    @Override
+    public @NonNull Map<Long, Pos> getByOsmNodeIds(@NonNull Collection<Long> osmNodeIds) {
+        return posDataService.getByOsmNodeIds(osmNodeIds);
+    }
+
+    /**
+     * Refreshes POS that were changed by other application instances, and reloads all POS if all of them may have
+     * changed, also by this instance (e.g., when a snapshot was restored).
+     * Other changes of this instance have already been applied by {@link #upsert(Pos)} and {@link #upsertAll(List)}.
+     *
+     * @param event the change event
+     */
+    @EventListener
+    void onPosChanged(PosChangedEvent event) {
+        if (event.local() && !event.invalidateAll()) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (snapshot == null) {
+                return; // not loaded yet
+            }
+            if (event.invalidateAll()) {
+                snapshot = load();
+                return;
+            }
+            List<Pos> changedPosList = new ArrayList<>(event.posIds().size());
+            List<Long> deletedIds = new ArrayList<>();
+            for (Long id : event.posIds()) {
+                Pos pos = primaryTransaction.execute(status -> {
+                    try {
+                        return posDataService.getById(id);
+                    } catch (PosNotFoundException e) {
+                        return null;
+                    }
+                });
+                if (pos != null) {
+                    changedPosList.add(pos);
+                } else {
+                    deletedIds.add(id);
+                }
+            }
+            PosSnapshot current = Objects.requireNonNull(snapshot)
+                    .withAll(changedPosList, Objects.requireNonNull(interner));
+            for (Long id : deletedIds) {
+                current = current.without(id);
+            }
+            snapshot = current;
+        }
+    }
+
+    private PosSnapshot currentSnapshot() {
+        PosSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (writeLock) {
+            if (snapshot == null) {
+                snapshot = load();
+            }
+            return Objects.requireNonNull(snapshot);
+        }
+    }
+
+    private PosSnapshot load() {
+        List<Pos> posList = Objects.requireNonNull(primaryTransaction.execute(status -> posDataService.getAll()));
+        PosSnapshot.Interner newInterner = new PosSnapshot.Interner();
+        PosSnapshot loaded = PosSnapshot.of(posList, newInterner);
+        interner = newInterner;
+        log.info("Loaded read model with {} POS", loaded.size());
+        return loaded;
+    }
+}
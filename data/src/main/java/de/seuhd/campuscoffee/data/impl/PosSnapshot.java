@@ -0,0 +1,291 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosType;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, compact snapshot of all POS records.
+ * <p>
+ * Records are stored column-wise in arrays sorted by ID: IDs, timestamps, OSM node IDs, coordinates, postal codes, and
+ * enum ordinals in primitive arrays; street and city names as canonical (interned) instances shared by all records.
+ * Lookups by ID use binary search. {@link Pos} objects are only materialized when they are read.
+ * <p>
+ * Modifications return a new snapshot and leave this one untouched, so that a snapshot can be shared between any
+ * number of readers without synchronization.
+ */
+final class PosSnapshot {
+    private static final long NO_OSM_NODE_ID = Long.MIN_VALUE;
+    private static final PosType[] POS_TYPES = PosType.values();
+    private static final CampusType[] CAMPUS_TYPES = CampusType.values();
+
+    private final long[] ids;
+    private final long[] createdAt; // microseconds since the epoch (UTC)
+    private final long[] updatedAt; // microseconds since the epoch (UTC)
+    private final long[] osmNodeIds;
+    private final double[] latitudes; // NaN if unknown
+    private final double[] longitudes; // NaN if unknown
+    private final int[] postalCodes;
+    private final byte[] types;
+    private final byte[] campuses;
+    private final String[] names;
+    private final String[] descriptions;
+    private final String[] houseNumbers;
+    private final String[] streets;
+    private final String[] cities;
+
+    private PosSnapshot(int size) {
+        ids = new long[size];
+        createdAt = new long[size];
+        updatedAt = new long[size];
+        osmNodeIds = new long[size];
+        latitudes = new double[size];
+        longitudes = new double[size];
+        postalCodes = new int[size];
+        types = new byte[size];
+        campuses = new byte[size];
+        names = new String[size];
+        descriptions = new String[size];
+        houseNumbers = new String[size];
+        streets = new String[size];
+        cities = new String[size];
+    }
+
+    /**
+     * @return a snapshot without any POS
+     */
+    static @NonNull PosSnapshot empty() {
+        return new PosSnapshot(0);
+    }
+
+    /**
+     * Creates a snapshot of the given POS.
+     *
+     * @param posList  the POS; all of them must have an ID and timestamps
+     * @param interner the string pool for street and city names
+     * @return the snapshot
+     */
+    static @NonNull PosSnapshot of(@NonNull Collection<Pos> posList, @NonNull Interner interner) {
+        List<Pos> sorted = new ArrayList<>(posList);
+        sorted.sort(Comparator.comparing(Pos::id));
+        PosSnapshot snapshot = new PosSnapshot(sorted.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            snapshot.set(i, sorted.get(i), interner);
+        }
+        return snapshot;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * @param id the POS ID
+     * @return the POS with the given ID, or null if the snapshot does not contain it
+     */
+    @Nullable Pos get(long id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index >= 0 ? materialize(index) : null;
+    }
+
+    /**
+     * @return all POS, ordered by ID
+     */
+    @NonNull List<Pos> getAll() {
+        List<Pos> posList = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            posList.add(materialize(i));
+        }
+        return posList;
+    }
+
+    /**
+     * Returns a snapshot that contains the given POS, replacing a stored POS with the same ID.
+     * A stored POS that was updated more recently than the given one is kept.
+     *
+     * @param pos      the POS; must have an ID and timestamps
+     * @param interner the string pool for street and city names
+     * @return the new snapshot, or this snapshot if it already contains a more recent version of the POS
+     */
+    @NonNull PosSnapshot with(@NonNull Pos pos, @NonNull Interner interner) {
+        long id = Objects.requireNonNull(pos.id());
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) {
+            if (updatedAt[index] > toMicros(pos.updatedAt())) {
+                return this;
+            }
+            PosSnapshot snapshot = new PosSnapshot(ids.length);
+            snapshot.copy(this, 0, 0, ids.length);
+            snapshot.set(index, pos, interner);
+            return snapshot;
+        }
+        int insertionPoint = -index - 1;
+        PosSnapshot snapshot = new PosSnapshot(ids.length + 1);
+        snapshot.copy(this, 0, 0, insertionPoint);
+        snapshot.set(insertionPoint, pos, interner);
+        snapshot.copy(this, insertionPoint, insertionPoint + 1, ids.length - insertionPoint);
+        return snapshot;
+    }
+
+    /**
+     * Returns a snapshot that contains the given POS, like {@link #with(Pos, Interner)} for each of them, but copies the
+     * records of this snapshot only once. If the list contains several versions of a POS, the most recent one is kept.
+     *
+     * @param posList  the POS; all of them must have an ID and timestamps
+     * @param interner the string pool for street and city names
+     * @return the new snapshot, or this snapshot if the list is empty
+     */
+    @NonNull PosSnapshot withAll(@NonNull Collection<Pos> posList, @NonNull Interner interner) {
+        if (posList.isEmpty()) {
+            return this;
+        }
+        // stable, so that later versions of a POS follow earlier ones
+        List<Pos> sorted = new ArrayList<>(posList);
+        sorted.sort(Comparator.comparing(pos -> Objects.requireNonNull(pos.id())));
+        List<Pos> changes = new ArrayList<>(sorted.size());
+        int insertions = 0;
+        for (Pos pos : sorted) {
+            if (!changes.isEmpty() && changes.getLast().id().equals(pos.id())) {
+                if (toMicros(changes.getLast().updatedAt()) <= toMicros(pos.updatedAt())) {
+                    changes.set(changes.size() - 1, pos);
+                }
+                continue;
+            }
+            if (Arrays.binarySearch(ids, pos.id()) < 0) {
+                insertions++;
+            }
+            changes.add(pos);
+        }
+        // merge the sorted changes into the sorted records, copying the records between them in blocks
+        PosSnapshot snapshot = new PosSnapshot(ids.length + insertions);
+        int source = 0;
+        int target = 0;
+        for (Pos pos : changes) {
+            int index = Arrays.binarySearch(ids, source, ids.length, pos.id());
+            int end = index >= 0 ? index : -index - 1;
+            snapshot.copy(this, source, target, end - source);
+            target += end - source;
+            source = end;
+            if (index >= 0 && updatedAt[index] > toMicros(pos.updatedAt())) {
+                snapshot.copy(this, index, target, 1);
+            } else {
+                snapshot.set(target, pos, interner);
+            }
+            if (index >= 0) {
+                source++;
+            }
+            target++;
+        }
+        snapshot.copy(this, source, target, ids.length - source);
+        return snapshot;
+    }
+
+    /**
+     * Returns a snapshot that does not contain the POS with the given ID.
+     *
+     * @param id the POS ID
+     * @return the new snapshot, or this snapshot if it does not contain the POS
+     */
+    @NonNull PosSnapshot without(long id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return this;
+        }
+        PosSnapshot snapshot = new PosSnapshot(ids.length - 1);
+        snapshot.copy(this, 0, 0, index);
+        snapshot.copy(this, index + 1, index, ids.length - index - 1);
+        return snapshot;
+    }
+
+    private void set(int index, Pos pos, Interner interner) {
+        ids[index] = Objects.requireNonNull(pos.id());
+        createdAt[index] = toMicros(pos.createdAt());
+        updatedAt[index] = toMicros(pos.updatedAt());
+        osmNodeIds[index] = pos.osmNodeId() != null ? pos.osmNodeId() : NO_OSM_NODE_ID;
+        latitudes[index] = pos.latitude() != null ? pos.latitude() : Double.NaN;
+        longitudes[index] = pos.longitude() != null ? pos.longitude() : Double.NaN;
+        postalCodes[index] = pos.postalCode();
+        types[index] = (byte) pos.type().ordinal();
+        campuses[index] = (byte) pos.campus().ordinal();
+        names[index] = pos.name();
+        descriptions[index] = pos.description();
+        houseNumbers[index] = pos.houseNumber();
+        streets[index] = interner.intern(pos.street());
+        cities[index] = interner.intern(pos.city());
+    }
+
+    private void copy(PosSnapshot source, int sourceIndex, int targetIndex, int length) {
+        System.arraycopy(source.ids, sourceIndex, ids, targetIndex, length);
+        System.arraycopy(source.createdAt, sourceIndex, createdAt, targetIndex, length);
+        System.arraycopy(source.updatedAt, sourceIndex, updatedAt, targetIndex, length);
+        System.arraycopy(source.osmNodeIds, sourceIndex, osmNodeIds, targetIndex, length);
+        System.arraycopy(source.latitudes, sourceIndex, latitudes, targetIndex, length);
+        System.arraycopy(source.longitudes, sourceIndex, longitudes, targetIndex, length);
+        System.arraycopy(source.postalCodes, sourceIndex, postalCodes, targetIndex, length);
+        System.arraycopy(source.types, sourceIndex, types, targetIndex, length);
+        System.arraycopy(source.campuses, sourceIndex, campuses, targetIndex, length);
+        System.arraycopy(source.names, sourceIndex, names, targetIndex, length);
+        System.arraycopy(source.descriptions, sourceIndex, descriptions, targetIndex, length);
+        System.arraycopy(source.houseNumbers, sourceIndex, houseNumbers, targetIndex, length);
+        System.arraycopy(source.streets, sourceIndex, streets, targetIndex, length);
+        System.arraycopy(source.cities, sourceIndex, cities, targetIndex, length);
+    }
+
+    private Pos materialize(int index) {
+        return Pos.builder()
+                .id(ids[index])
+                .createdAt(fromMicros(createdAt[index]))
+                .updatedAt(fromMicros(updatedAt[index]))
+                .name(names[index])
+                .description(descriptions[index])
+                .type(POS_TYPES[types[index]])
+                .campus(CAMPUS_TYPES[campuses[index]])
+                .street(streets[index])
+                .houseNumber(houseNumbers[index])
+                .postalCode(postalCodes[index])
+                .city(cities[index])
+                .osmNodeId(osmNodeIds[index] != NO_OSM_NODE_ID ? osmNodeIds[index] : null)
+                .latitude(!Double.isNaN(latitudes[index]) ? latitudes[index] : null)
+                .longitude(!Double.isNaN(longitudes[index]) ? longitudes[index] : null)
+                .build();
+    }
+
+    private static long toMicros(@Nullable LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return Long.MIN_VALUE;
+        }
+        return ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), dateTime);
+    }
+
+    private static @Nullable LocalDateTime fromMicros(long micros) {
+        if (micros == Long.MIN_VALUE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000), (int) Math.floorMod(micros, 1_000_000) * 1000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Pool of canonical string instances for values that repeat across many POS (street and city names).
+     */
+    static final class Interner {
+        private final Map<String, String> pool = new ConcurrentHashMap<>();
+
+        @NonNull String intern(@NonNull String value) {
+            return pool.computeIfAbsent(value, v -> v);
+        }
+    }
+}
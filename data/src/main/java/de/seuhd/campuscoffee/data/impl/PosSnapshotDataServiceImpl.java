@@ -0,0 +1,137 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.exceptions.PosSnapshotException;
+import de.seuhd.campuscoffee.domain.ports.PosSnapshotDataService;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * Implementation of the POS snapshot data service with the binary format of Postgres' {@code COPY}.
+ * <p>
+ * A snapshot is restored with a single {@code COPY ... FROM STDIN} in the transaction that truncates the table, which
+ * bypasses the entity mapping and needs one round trip instead of several per POS. Afterward, the sequence is moved
+ * past the largest restored ID and in-process caches are invalidated via the {@link PosChangeChannel}.
+ * <p>
+ * The columns are listed explicitly, so that a snapshot does not depend on their order in the table; a snapshot of
+ * an older schema is rejected by Postgres. Snapshots of any database can also be written with {@code psql}:
+ * {@code \copy pos (<columns>) TO 'pos.pgcopy' (FORMAT binary)}, with the columns of {@link #COLUMNS}.
+ */
+@Slf4j
+@Service
+class PosSnapshotDataServiceImpl implements PosSnapshotDataService {
+    private static final String COLUMNS = "id, created_at, updated_at, osm_node_id, name, description, type, campus, "
+            + "street, house_number, house_number_suffix, postal_code, city, latitude, longitude";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final PosChangeChannel posChangeChannel;
+    private final ShardRouter shardRouter;
+    // both on the primary, so that a snapshot written right after a write contains it
+    private final TransactionTemplate transaction;
+
+    PosSnapshotDataServiceImpl(DataSource dataSource, PosChangeChannel posChangeChannel, ShardRouter shardRouter,
+                               PlatformTransactionManager transactionManager) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.posChangeChannel = posChangeChannel;
+        this.shardRouter = shardRouter;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public long writeSnapshot(@NonNull Path file) {
+        rejectIfSharded();
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            // written next to the snapshot and moved over it, so that an interrupted write leaves no partial snapshot
+            Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                long count;
+                try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(temporaryFile),
+                        64 * 1024)) {
+                    count = Objects.requireNonNull(transaction.execute(status -> copy(file, copyManager ->
+                            copyManager.copyOut("COPY pos (" + COLUMNS + ") TO STDOUT (FORMAT binary)",
+                                    outputStream))));
+                }
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                log.info("Wrote {} POS to snapshot {}.", count, file);
+                return count;
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        } catch (IOException e) {
+            throw new PosSnapshotException("Failed to write POS snapshot " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long restoreSnapshot(@NonNull Path file) {
+        rejectIfSharded();
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(file), 64 * 1024)) {
+            long count = Objects.requireNonNull(transaction.execute(status -> {
+                jdbcTemplate.execute("TRUNCATE TABLE pos");
+                long restored = copy(file, copyManager ->
+                        copyManager.copyIn("COPY pos (" + COLUMNS + ") FROM STDIN (FORMAT binary)", inputStream));
+                jdbcTemplate.execute("SELECT setval('pos_seq', COALESCE(MAX(id), 0) + 1, false) FROM pos");
+                posChangeChannel.allPosChanged();
+                return restored;
+            }));
+            log.info("Restored {} POS from snapshot {}.", count, file);
+            return count;
+        } catch (NoSuchFileException e) {
+            throw new PosSnapshotException("POS snapshot " + file + " does not exist", e);
+        } catch (IOException e) {
+            throw new PosSnapshotException("Failed to read POS snapshot " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rejects snapshots of sharded POS data, since a snapshot covers a single database and its ID sequence.
+     */
+    private void rejectIfSharded() {
+        if (shardRouter.sharded()) {
+            throw new PosSnapshotException("POS snapshots are not supported if sharding is enabled");
+        }
+    }
+
+    /**
+     * Runs a {@code COPY} on the connection of the current transaction.
+     */
+    private long copy(Path file, Copy copy) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return copy.run(new CopyManager(connection.unwrap(BaseConnection.class)));
+        } catch (SQLException | IOException e) {
+            throw new PosSnapshotException("Failed to copy POS snapshot " + file + ": " + e.getMessage(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Copy {
+        long run(CopyManager copyManager) throws SQLException, IOException;
+    }
+}
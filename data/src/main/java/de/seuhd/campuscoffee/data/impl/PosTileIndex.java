@@ -0,0 +1,319 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.data.persistence.PosRepository;
+import de.seuhd.campuscoffee.domain.events.PosChangedEvent;
+import de.seuhd.campuscoffee.domain.model.MapTile;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosMarker;
+import de.seuhd.campuscoffee.domain.ports.PosTileDataService;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of the POS markers on web map tiles, with the POS clustered on a grid per zoom level.
+ * <p>
+ * At each zoom level up to {@link PosTileProperties#maxClusterZoom()}, the world is divided into square cells of
+ * {@link PosTileProperties#cellSize()} pixels, and the POS within a cell are shown as one marker at their mean position
+ * (or as the POS itself if it is alone). Each cell keeps only the number of its POS and the sums of their coordinates
+ * and IDs, so that a POS is added to or removed from all zoom levels in constant time per level, and a tile is served
+ * by looking up its (256 / cell size)² cells, however many POS there are. Above the maximum cluster zoom level, each
+ * POS is a marker of its own; they are found via the cells of the maximum cluster zoom level.
+ * <p>
+ * The index is loaded from the primary database on the first request and updated after each committed write of this
+ * instance. Changes committed by other instances arrive as {@link PosChangedEvent}s; the locations of the affected
+ * POS are then re-read from the primary database, and after an event that invalidates all POS, the index is loaded
+ * again on the next request. POS without coordinates are not indexed. If sharding is enabled, the locations are read
+ * from all shards.
+ */
+@Slf4j
+@Service
+class PosTileIndex implements PosTileDataService {
+    static final int TILE_SIZE = 256;
+    // the latitude at which the Web Mercator projection is cut off, so that the world is square
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private final PosRepository posRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate primaryTransaction;
+    private final int maxClusterZoom;
+    private final int cellsPerTile;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // all fields below are guarded by the lock
+    private final Map<Long, Location> locations = new HashMap<>();
+    private final List<Map<Long, Cell>> cellsByZoom = new ArrayList<>();
+    private final Map<Long, Set<Long>> idsByFinestCell = new HashMap<>();
+    private boolean loaded;
+
+    PosTileIndex(PosTileProperties properties, PosRepository posRepository, ShardRouter shardRouter,
+                 PlatformTransactionManager transactionManager) {
+        this.posRepository = posRepository;
+        this.shardRouter = shardRouter;
+        // as for the name index, a new read-write transaction, since changes are applied after the commit of a write
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxClusterZoom = properties.maxClusterZoom();
+        this.cellsPerTile = TILE_SIZE / properties.cellSize();
+        for (int zoom = 0; zoom <= maxClusterZoom; zoom++) {
+            cellsByZoom.add(new HashMap<>());
+        }
+    }
+
+    @Override
+    public @NonNull List<PosMarker> getMarkers(@NonNull MapTile tile) {
+        lock.readLock().lock();
+        try {
+            if (loaded) {
+                return markers(tile);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                load();
+            }
+            return markers(tile);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records the locations of created or updated POS. Must be called within the write transaction; the index is
+     * updated when the transaction commits.
+     *
+     * @param posList the created or updated POS
+     */
+    void posChanged(@NonNull List<Pos> posList) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                if (!loaded) {
+                    // the changes are read when the index is loaded
+                    return;
+                }
+                for (Pos pos : posList) {
+                    Long id = Objects.requireNonNull(pos.id());
+                    remove(id);
+                    if (pos.latitude() != null && pos.longitude() != null) {
+                        add(Location.of(id, pos.name(), pos.latitude(), pos.longitude()));
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Refreshes the locations of POS that were changed by other application instances, and drops the index if all POS
+     * may have changed (including after {@link PosDataServiceImpl#clear()}). Other changes of this instance have
+     * already been applied by {@link #posChanged(List)}.
+     *
+     * @param event the change event
+     */
+    @EventListener
+    void onPosChanged(PosChangedEvent event) {
+        if (!event.invalidateAll() && event.local()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (event.invalidateAll()) {
+                clearIndex();
+                return;
+            }
+            if (!loaded) {
+                return;
+            }
+            event.posIds().forEach(this::remove);
+            shardRouter.onShardsOf(event.posIds(), ids -> Objects.requireNonNull(primaryTransaction.execute(status ->
+                            posRepository.findLocationsByIdIn(ids))))
+                    .forEach(location -> add(Location.of(location)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void load() {
+        clearIndex();
+        List<PosRepository.PosLocation> posLocations = shardRouter.onAllShards(() ->
+                Objects.requireNonNull(primaryTransaction.execute(status -> posRepository.findAllLocations())));
+        posLocations.forEach(location -> add(Location.of(location)));
+        loaded = true;
+        log.debug("Loaded tile index with {} POS", locations.size());
+    }
+
+    private void clearIndex() {
+        loaded = false;
+        locations.clear();
+        cellsByZoom.forEach(Map::clear);
+        idsByFinestCell.clear();
+    }
+
+    private List<PosMarker> markers(MapTile tile) {
+        List<PosMarker> markers = new ArrayList<>();
+        if (tile.zoom() <= maxClusterZoom) {
+            Map<Long, Cell> cells = cellsByZoom.get(tile.zoom());
+            long firstX = (long) tile.x() * cellsPerTile;
+            long firstY = (long) tile.y() * cellsPerTile;
+            for (long cellX = firstX; cellX < firstX + cellsPerTile && !cells.isEmpty(); cellX++) {
+                for (long cellY = firstY; cellY < firstY + cellsPerTile; cellY++) {
+                    Cell cell = cells.get(cellKey(cellX, cellY));
+                    if (cell != null) {
+                        markers.add(cell.toMarker(locations));
+                    }
+                }
+            }
+            return markers;
+        }
+        // the cells of the maximum cluster zoom level that overlap the tile, usually a single one
+        int shift = tile.zoom() - maxClusterZoom;
+        long firstX = (long) tile.x() * cellsPerTile >> shift;
+        long lastX = ((long) tile.x() + 1) * cellsPerTile - 1 >> shift;
+        long firstY = (long) tile.y() * cellsPerTile >> shift;
+        long lastY = ((long) tile.y() + 1) * cellsPerTile - 1 >> shift;
+        long tiles = 1L << tile.zoom();
+        for (long cellX = firstX; cellX <= lastX; cellX++) {
+            for (long cellY = firstY; cellY <= lastY; cellY++) {
+                for (Long id : idsByFinestCell.getOrDefault(cellKey(cellX, cellY), Set.of())) {
+                    Location location = locations.get(id);
+                    if (index(location.x(), tiles) == tile.x() && index(location.y(), tiles) == tile.y()) {
+                        markers.add(location.toMarker());
+                    }
+                }
+            }
+        }
+        return markers;
+    }
+
+    private void add(Location location) {
+        locations.put(location.id(), location);
+        for (int zoom = 0; zoom <= maxClusterZoom; zoom++) {
+            cellsByZoom.get(zoom).computeIfAbsent(cellKey(location, zoom), key -> new Cell()).add(location);
+        }
+        idsByFinestCell.computeIfAbsent(cellKey(location, maxClusterZoom), key -> new HashSet<>()).add(location.id());
+    }
+
+    private void remove(Long id) {
+        Location location = locations.remove(id);
+        if (location == null) {
+            return;
+        }
+        for (int zoom = 0; zoom <= maxClusterZoom; zoom++) {
+            Map<Long, Cell> cells = cellsByZoom.get(zoom);
+            long key = cellKey(location, zoom);
+            Cell cell = cells.get(key);
+            cell.remove(location);
+            if (cell.count == 0) {
+                cells.remove(key);
+            }
+        }
+        long key = cellKey(location, maxClusterZoom);
+        Set<Long> ids = idsByFinestCell.get(key);
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            idsByFinestCell.remove(key);
+        }
+    }
+
+    private long cellKey(Location location, int zoom) {
+        long cells = (long) cellsPerTile << zoom;
+        return cellKey(index(location.x(), cells), index(location.y(), cells));
+    }
+
+    private static long cellKey(long cellX, long cellY) {
+        return cellX << 32 | cellY;
+    }
+
+    /**
+     * @return the index of the cell or tile that contains the projected coordinate, with the given number of cells
+     * or tiles per axis
+     */
+    private static long index(double coordinate, long count) {
+        return Math.min((long) (coordinate * count), count - 1);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * The location of a POS, with its coordinates projected to Web Mercator and scaled to [0, 1], from west to east
+     * ({@code x}) and from north to south ({@code y}).
+     */
+    private record Location(long id, String name, double latitude, double longitude, double x, double y) {
+        static Location of(PosRepository.PosLocation location) {
+            return of(location.getId(), location.getName(), location.getLatitude(), location.getLongitude());
+        }
+
+        static Location of(long id, String name, double latitude, double longitude) {
+            double sin = Math.sin(Math.toRadians(Math.clamp(latitude, -MAX_LATITUDE, MAX_LATITUDE)));
+            double x = (longitude + 180) / 360;
+            double y = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+            return new Location(id, name, latitude, longitude, Math.clamp(x, 0, 1), Math.clamp(y, 0, 1));
+        }
+
+        PosMarker toMarker() {
+            return new PosMarker(latitude, longitude, 1, id, name);
+        }
+    }
+
+    /**
+     * The POS within a grid cell. The sum of their IDs is the ID of the POS if the cell contains only one.
+     */
+    private static final class Cell {
+        private int count;
+        private double latitudeSum;
+        private double longitudeSum;
+        private long idSum;
+
+        void add(Location location) {
+            count++;
+            latitudeSum += location.latitude();
+            longitudeSum += location.longitude();
+            idSum += location.id();
+        }
+
+        void remove(Location location) {
+            count--;
+            latitudeSum -= location.latitude();
+            longitudeSum -= location.longitude();
+            idSum -= location.id();
+        }
+
+        PosMarker toMarker(Map<Long, Location> locations) {
+            if (count == 1) {
+                return locations.get(idSum).toMarker();
+            }
+            return new PosMarker(latitudeSum / count, longitudeSum / count, count, null, null);
+        }
+    }
+}
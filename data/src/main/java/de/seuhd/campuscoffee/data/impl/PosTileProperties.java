@@ -0,0 +1,27 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.model.MapTile;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the clustering of POS markers on map tiles ({@link PosTileIndex}).
+ *
+ * @param maxClusterZoom the highest zoom level at which POS are clustered; above it, each POS is a marker of its own
+ * @param cellSize       the edge length in pixels of the grid cells whose POS form a cluster, a power of two that is
+ *                       at most the tile size of 256 pixels (e.g., 64 for at most 4 × 4 markers per tile)
+ */
+@ConfigurationProperties("campus-coffee.tiles")
+record PosTileProperties(
+        @DefaultValue("16") int maxClusterZoom,
+        @DefaultValue("64") int cellSize
+) {
+    PosTileProperties {
+        if (maxClusterZoom < 0 || maxClusterZoom > MapTile.MAX_ZOOM) {
+            throw new IllegalArgumentException("Invalid maximum cluster zoom level: " + maxClusterZoom);
+        }
+        if (cellSize < 1 || cellSize > PosTileIndex.TILE_SIZE || Integer.bitCount(cellSize) != 1) {
+            throw new IllegalArgumentException("Invalid cell size: " + cellSize);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the batching of concurrent POS writes ({@link GroupCommit}).
+ *
+ * @param enabled      whether concurrent single-POS writes share transactions
+ * @param window       how long a write waits for others to join its batch
+ * @param maxBatchSize the maximum number of writes in a batch
+ */
+@ConfigurationProperties("campus-coffee.write-batching")
+record PosWriteBatchingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("2ms") Duration window,
+        @DefaultValue("50") int maxBatchSize
+) {
+}
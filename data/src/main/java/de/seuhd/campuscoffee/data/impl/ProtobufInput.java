@@ -0,0 +1,122 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal reader for the protocol buffers wire format over a byte array, as needed to decode OSM PBF files.
+ * <p>
+ * Length-delimited fields are not copied: {@link #readLength()} returns the length of the field, which starts at
+ * the current {@link #position()}, and {@link #slice(int)} creates a reader restricted to it.
+ */
+final class ProtobufInput {
+    static final int WIRE_TYPE_VARINT = 0;
+    static final int WIRE_TYPE_FIXED64 = 1;
+    static final int WIRE_TYPE_LENGTH_DELIMITED = 2;
+    static final int WIRE_TYPE_FIXED32 = 5;
+
+    private final byte[] buffer;
+    private int position;
+    private final int limit;
+
+    ProtobufInput(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    byte[] buffer() {
+        return buffer;
+    }
+
+    int position() {
+        return position;
+    }
+
+    boolean hasRemaining() {
+        return position < limit;
+    }
+
+    /**
+     * @return the next tag (field number shifted left by 3, or-ed with the wire type)
+     */
+    int readTag() throws IOException {
+        return (int) readVarint();
+    }
+
+    static int fieldNumber(int tag) {
+        return tag >>> 3;
+    }
+
+    static int wireType(int tag) {
+        return tag & 0x7;
+    }
+
+    long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= limit) {
+                throw new IOException("Truncated varint at position " + position);
+            }
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint at position " + position);
+    }
+
+    int readInt32() throws IOException {
+        return (int) readVarint();
+    }
+
+    long readSInt64() throws IOException {
+        long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads the length of a length-delimited field and checks that the field lies within this reader.
+     */
+    int readLength() throws IOException {
+        int length = readInt32();
+        if (length < 0 || length > limit - position) {
+            throw new IOException("Invalid field length " + length + " at position " + position);
+        }
+        return length;
+    }
+
+    /**
+     * @return a reader over the next {@code length} bytes; this reader skips them
+     */
+    ProtobufInput slice(int length) {
+        ProtobufInput slice = new ProtobufInput(buffer, position, length);
+        position += length;
+        return slice;
+    }
+
+    String readString() throws IOException {
+        int length = readLength();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    void skip(int tag) throws IOException {
+        switch (wireType(tag)) {
+            case WIRE_TYPE_VARINT -> readVarint();
+            case WIRE_TYPE_FIXED64 -> advance(8);
+            case WIRE_TYPE_LENGTH_DELIMITED -> advance(readLength());
+            case WIRE_TYPE_FIXED32 -> advance(4);
+            default -> throw new IOException("Unsupported wire type " + wireType(tag) + " at position " + position);
+        }
+    }
+
+    private void advance(int length) throws IOException {
+        if (length > limit - position) {
+            throw new IOException("Truncated field at position " + position);
+        }
+        position += length;
+    }
+}
@@ -0,0 +1,76 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Objects;
+
+/**
+ * Routes read-only data access to a Postgres streaming replica and all other data access to the primary.
+ * <p>
+ * The application-wide {@link DataSource} is a {@link LazyConnectionDataSourceProxy} that only obtains a physical
+ * connection when the first statement is executed. By then, the transaction manager has marked the connection as
+ * read-only for read-only transactions (e.g., {@code findAll} and {@code findById} of Spring Data repositories),
+ * and the proxy obtains the connection from the replica pool. Writes, schema migrations, and non-transactional
+ * access use the primary pool.
+ * <p>
+ * Enabled by setting {@code campus-coffee.datasource.replica.url}.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "campus-coffee.datasource.replica", name = "url")
+class ReadReplicaConfiguration {
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(defaultCandidate = false)
+    HikariDataSource replicaDataSource(DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(dataSourceProperties.determineDriverClassName())
+                .url(replicaProperties.url())
+                .username(Objects.requireNonNullElse(replicaProperties.username(), dataSourceProperties.determineUsername()))
+                .password(Objects.requireNonNullElse(replicaProperties.password(), dataSourceProperties.determinePassword()))
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        dataSource.setMaximumPoolSize(replicaProperties.maximumPoolSize());
+        return dataSource;
+    }
+
+    @Bean
+    DataSource dataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+            ReplicaProperties replicaProperties
+    ) {
+        log.info("Routing read-only data access to replica {} (sticky reads: {})",
+                replicaDataSource.getJdbcUrl(), replicaProperties.stickyReads());
+        LazyConnectionDataSourceProxy dataSource;
+        if (replicaProperties.stickyReads()) {
+            dataSource = new LazyConnectionDataSourceProxy(ReadYourWritesDataSources.trackingPrimary(primaryDataSource));
+            dataSource.setReadOnlyDataSource(ReadYourWritesDataSources.stickyReplica(replicaDataSource, primaryDataSource));
+        } else {
+            dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+            dataSource.setReadOnlyDataSource(replicaDataSource);
+        }
+        return dataSource;
+    }
+}
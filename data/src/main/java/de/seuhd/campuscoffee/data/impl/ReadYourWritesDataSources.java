@@ -0,0 +1,75 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Data source wrappers that provide read-your-writes consistency within an HTTP request when reads are routed to a replica.
+ * Once a request has obtained a connection from the primary, all further read-only connections of that request are
+ * obtained from the primary as well, so that the request never observes replication lag for its own writes.
+ * Outside of HTTP requests (e.g., during startup or in background threads), reads are always routed to the replica.
+ */
+final class ReadYourWritesDataSources {
+    private static final String PRIMARY_USED_ATTRIBUTE = ReadYourWritesDataSources.class.getName() + ".PRIMARY_USED";
+
+    private ReadYourWritesDataSources() {}
+
+    /**
+     * Wraps the primary data source so that obtaining a connection marks the current request as sticky.
+     *
+     * @param primary the primary data source
+     * @return the wrapped data source
+     */
+    static @NonNull DataSource trackingPrimary(@NonNull DataSource primary) {
+        return new DelegatingDataSource(primary) {
+            @Override
+            public @NonNull Connection getConnection() throws SQLException {
+                markPrimaryUsed();
+                return super.getConnection();
+            }
+        };
+    }
+
+    /**
+     * Wraps the replica data source so that sticky requests obtain their read-only connections from the primary.
+     *
+     * @param replica the replica data source
+     * @param primary the primary data source
+     * @return the wrapped data source
+     */
+    static @NonNull DataSource stickyReplica(@NonNull DataSource replica, @NonNull DataSource primary) {
+        return new DelegatingDataSource(replica) {
+            @Override
+            public @NonNull Connection getConnection() throws SQLException {
+                return primaryUsed() ? primary.getConnection() : super.getConnection();
+            }
+        };
+    }
+
+    /**
+     * Marks the current request as sticky, e.g., after a write that was run on the thread of another request (see
+     * {@link GroupCommit}).
+     */
+    static void markPrimaryUsed() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(PRIMARY_USED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * @return true if the current request has obtained a connection from the primary, so that it reads from the
+     * primary as well
+     */
+    static boolean primaryUsed() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                && attributes.getAttribute(PRIMARY_USED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+}
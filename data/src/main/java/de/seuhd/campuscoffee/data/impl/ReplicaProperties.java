@@ -0,0 +1,25 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of an optional Postgres streaming replica that serves read-only data access.
+ * Routing is only enabled if a replica URL is configured; the primary is configured via {@code spring.datasource}.
+ *
+ * @param url             JDBC URL of the replica
+ * @param username        user name for the replica; defaults to the primary's user name
+ * @param password        password for the replica; defaults to the primary's password
+ * @param maximumPoolSize maximum number of pooled replica connections
+ * @param stickyReads     whether reads go to the primary for the rest of an HTTP request once it has used the primary
+ *                        (read-your-writes consistency within a request)
+ */
+@ConfigurationProperties("campus-coffee.datasource.replica")
+record ReplicaProperties(
+        @Nullable String url,
+        @Nullable String username,
+        @Nullable String password,
+        @DefaultValue("10") int maximumPoolSize,
+        @DefaultValue("true") boolean stickyReads
+) {}
@@ -0,0 +1,24 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.List;
+
+/**
+ * The connection pools of the shards (see {@link ShardingConfiguration}).
+ *
+ * @param shards    the pools of all shards, in the order of the shards; the first one is the home shard
+ * @param nameLocks a separate pool on the home shard for the name locks of {@link ShardRouter}, which are held while
+ *                  a write waits for a connection to its shard
+ */
+record ShardDataSources(List<HikariDataSource> shards, HikariDataSource nameLocks) implements AutoCloseable {
+
+    /**
+     * Closes the pools, except for the one of the home shard, which is a bean of its own.
+     */
+    @Override
+    public void close() {
+        shards.subList(1, shards.size()).forEach(HikariDataSource::close);
+        nameLocks.close();
+    }
+}
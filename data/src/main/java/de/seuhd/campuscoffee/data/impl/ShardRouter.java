@@ -0,0 +1,230 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.exceptions.PosNotFoundException;
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Routes POS data access to the shard that stores the POS (see {@link ShardingConfiguration}).
+ * <p>
+ * The shard of a new POS is selected by its campus; afterward, it is encoded in the upper bits of the POS ID, since
+ * each shard assigns IDs from a range of its own (starting at {@code shard << 48}). A POS therefore stays on its shard
+ * when its campus changes, and the shard of a POS is known from its ID without a lookup. With at most 32 shards, IDs
+ * stay below 2<sup>53</sup>, so that they are exact in JavaScript clients.
+ * <p>
+ * The shard is selected per thread with {@link #on(int, Supplier)}; the application-wide {@link DataSource} then
+ * connects to that shard. A transaction is bound to the shard of its first statement, so each shard is accessed in a
+ * transaction of its own. Queries over all POS run on all shards in parallel, and their results are merged
+ * (scatter-gather).
+ * <p>
+ * Since each shard only enforces the uniqueness of names among its own POS, writes lock their names with Postgres
+ * advisory locks on the home shard ({@link #withNamesLocked(Collection, Supplier)}) and check the other shards while
+ * holding the locks.
+ * <p>
+ * If sharding is disabled, there is a single shard, and all methods run their actions on the calling thread.
+ */
+@Component
+class ShardRouter {
+    static final int MAX_SHARDS = 32;
+    private static final int SHARD_ID_BITS = 48;
+    private static final ThreadLocal<Integer> CURRENT_SHARD = ThreadLocal.withInitial(() -> 0);
+
+    private final DataSource dataSource;
+    private final @Nullable ShardDataSources shardDataSources;
+    private final Map<CampusType, Integer> shardsByCampus = new EnumMap<>(CampusType.class);
+
+    ShardRouter(DataSource dataSource, ObjectProvider<ShardDataSources> shardDataSources, ShardingProperties properties) {
+        this.dataSource = dataSource;
+        this.shardDataSources = shardDataSources.getIfAvailable();
+        if (this.shardDataSources != null) {
+            for (int shard = 1; shard <= properties.shards().size(); shard++) {
+                for (CampusType campus : properties.shards().get(shard - 1).campuses()) {
+                    shardsByCampus.put(campus, shard);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the shard that the current thread accesses; the home shard (0) unless selected by {@link #on(int, Supplier)}
+     */
+    static int currentShard() {
+        return CURRENT_SHARD.get();
+    }
+
+    /**
+     * @return the first POS ID assigned by the shard
+     */
+    static long firstId(int shard) {
+        return ((long) shard << SHARD_ID_BITS) + 1;
+    }
+
+    /**
+     * @return the last POS ID assigned by the shard
+     */
+    static long lastId(int shard) {
+        return ((long) (shard + 1) << SHARD_ID_BITS) - 1;
+    }
+
+    boolean sharded() {
+        return shardDataSources != null;
+    }
+
+    int shardCount() {
+        return shardDataSources != null ? shardDataSources.shards().size() : 1;
+    }
+
+    /**
+     * @return the data source of the shard, or the application-wide data source if sharding is disabled
+     */
+    DataSource dataSource(int shard) {
+        return shardDataSources != null ? shardDataSources.shards().get(shard) : dataSource;
+    }
+
+    /**
+     * @return the shard that stores the POS: the shard of its ID if it exists, otherwise the shard of its campus
+     * @throws PosNotFoundException if the ID is not in the range of any shard
+     */
+    int shardOf(@NonNull Pos pos) {
+        if (pos.id() != null) {
+            return shardOf(pos.id());
+        }
+        return shardsByCampus.getOrDefault(pos.campus(), 0);
+    }
+
+    /**
+     * @return the shard that stores the POS with the given ID
+     * @throws PosNotFoundException if the ID is not in the range of any shard
+     */
+    int shardOf(long id) {
+        int shard = shardOfId(id);
+        if (shard < 0) {
+            throw new PosNotFoundException(id);
+        }
+        return shard;
+    }
+
+    /**
+     * Runs an action with data access routed to the given shard.
+     */
+    <T> T on(int shard, Supplier<T> action) {
+        Integer previousShard = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        try {
+            return action.get();
+        } finally {
+            CURRENT_SHARD.set(previousShard);
+        }
+    }
+
+    /**
+     * Runs a query on all shards in parallel and merges the results, in the order of the shards.
+     */
+    <T> List<T> onAllShards(Supplier<? extends Collection<T>> query) {
+        if (shardDataSources == null) {
+            return new ArrayList<>(query.get());
+        }
+        List<Future<? extends Collection<T>>> futures = new ArrayList<>();
+        // closing the executor waits for all queries
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int shard = 0; shard < shardCount(); shard++) {
+                int selectedShard = shard;
+                futures.add(executor.submit(() -> on(selectedShard, query)));
+            }
+        }
+        List<T> results = new ArrayList<>();
+        for (Future<? extends Collection<T>> future : futures) {
+            if (future.state() == Future.State.FAILED) {
+                Throwable exception = future.exceptionNow();
+                if (exception instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (exception instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException(exception);
+            }
+            results.addAll(future.resultNow());
+        }
+        return results;
+    }
+
+    /**
+     * Runs a query for POS IDs on the shards that store them, with the IDs of each shard, and merges the results.
+     * IDs that are not in the range of any shard are skipped.
+     */
+    <T> List<T> onShardsOf(Collection<Long> ids, Function<List<Long>, ? extends Collection<T>> query) {
+        Map<Integer, List<Long>> idsByShard = new TreeMap<>();
+        for (Long id : ids) {
+            int shard = shardOfId(id);
+            if (shard >= 0) {
+                idsByShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(id);
+            }
+        }
+        List<T> results = new ArrayList<>();
+        idsByShard.forEach((shard, shardIds) -> results.addAll(on(shard, () -> query.apply(shardIds))));
+        return results;
+    }
+
+    /**
+     * Runs a write while holding locks on the given POS names, so that no other write of these names (on any shard
+     * and by any application instance) runs concurrently. The locks are transaction-level advisory locks in a
+     * transaction on the home shard, which are released when the write has completed. Names are locked in a fixed
+     * order, so that writes of overlapping names do not deadlock. Without sharding, the write runs without locks.
+     */
+    <T> T withNamesLocked(Collection<String> names, Supplier<T> write) {
+        if (shardDataSources == null) {
+            return write.get();
+        }
+        try (Connection connection = shardDataSources.nameLocks().getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "SELECT pg_advisory_xact_lock(hashtextextended(?, 0))")) {
+                    for (String name : new TreeSet<>(names)) {
+                        statement.setString(1, name);
+                        statement.execute();
+                    }
+                }
+                return write.get();
+            } finally {
+                connection.rollback(); // releases the locks
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Failed to lock POS names: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return the shard of the ID, or -1 if it is not in the range of any shard
+     */
+    private int shardOfId(long id) {
+        if (shardDataSources == null) {
+            return 0;
+        }
+        long shard = id >>> SHARD_ID_BITS;
+        return id > 0 && shard < shardCount() ? (int) shard : -1;
+    }
+}
@@ -0,0 +1,146 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayProperties;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Distributes POS data across several Postgres databases (shards), as routed by the {@link ShardRouter}.
+ * <p>
+ * The application-wide {@link DataSource} is a {@link LazyConnectionDataSourceProxy} around a routing data source
+ * that connects to the shard selected for the current thread when the first statement is executed, and to the home
+ * shard otherwise. The home shard is migrated by Flyway as usual; the other shards are migrated at startup, and their
+ * POS ID sequences are moved to the ID ranges of the shards. This requires the other shards to be empty when sharding
+ * is enabled; existing POS are not redistributed.
+ * <p>
+ * Cannot be combined with a read replica ({@link ReadReplicaConfiguration}). Enabled by setting
+ * {@code campus-coffee.sharding.enabled} to true.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "campus-coffee.sharding", name = "enabled", havingValue = "true")
+class ShardingConfiguration {
+
+    @Bean(defaultCandidate = false)
+    HikariDataSource homeShardDataSource(DataSourceProperties dataSourceProperties, Environment environment) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        // bound like the primary pool of the read replica configuration
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("shard-0");
+        return dataSource;
+    }
+
+    @Bean
+    ShardDataSources shardDataSources(
+            @Qualifier("homeShardDataSource") HikariDataSource homeShardDataSource,
+            DataSourceProperties dataSourceProperties,
+            ShardingProperties shardingProperties,
+            ObjectProvider<FlywayProperties> flywayProperties
+    ) {
+        List<HikariDataSource> shards = new ArrayList<>();
+        shards.add(homeShardDataSource);
+        for (ShardingProperties.Shard shard : shardingProperties.shards()) {
+            HikariDataSource dataSource = createDataSource(dataSourceProperties, shardingProperties, shard.url(),
+                    Objects.requireNonNullElse(shard.username(), dataSourceProperties.determineUsername()),
+                    Objects.requireNonNullElse(shard.password(), dataSourceProperties.determinePassword()),
+                    "shard-" + shards.size());
+            FlywayProperties flyway = flywayProperties.getIfAvailable();
+            if (flyway != null && flyway.isEnabled()) {
+                Flyway.configure()
+                        .dataSource(dataSource)
+                        .locations(flyway.getLocations().toArray(String[]::new))
+                        .validateOnMigrate(flyway.isValidateOnMigrate())
+                        .load()
+                        .migrate();
+            }
+            prepareSequence(dataSource, shards.size());
+            log.info("Storing POS of campuses {} on shard {} ({})", shard.campuses(), shards.size(), shard.url());
+            shards.add(dataSource);
+        }
+        HikariDataSource nameLocks = createDataSource(dataSourceProperties, shardingProperties,
+                dataSourceProperties.determineUrl(), dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword(), "shard-locks");
+        return new ShardDataSources(shards, nameLocks);
+    }
+
+    @Bean
+    DataSource dataSource(ShardDataSources shardDataSources) {
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource();
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        for (int shard = 0; shard < shardDataSources.shards().size(); shard++) {
+            targetDataSources.put(shard, shardDataSources.shards().get(shard));
+        }
+        routingDataSource.setTargetDataSources(targetDataSources);
+        routingDataSource.setLenientFallback(false);
+        routingDataSource.afterPropertiesSet();
+        log.info("Distributing POS across {} shards", shardDataSources.shards().size());
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static HikariDataSource createDataSource(DataSourceProperties dataSourceProperties,
+                                                     ShardingProperties shardingProperties, String url,
+                                                     String username, String password, String poolName) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(dataSourceProperties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName(poolName);
+        dataSource.setMaximumPoolSize(shardingProperties.maximumPoolSize());
+        return dataSource;
+    }
+
+    /**
+     * Restricts the POS ID sequence of a shard to the ID range of the shard, unless it already is.
+     * The sequence then restarts at the beginning of the range, also when the data store is cleared.
+     */
+    private static void prepareSequence(DataSource dataSource, int shard) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        long firstId = ShardRouter.firstId(shard);
+        Long startValue = jdbcTemplate.queryForObject("SELECT start_value FROM pg_sequences "
+                + "WHERE schemaname = current_schema() AND sequencename = 'pos_seq'", Long.class);
+        if (Objects.equals(startValue, firstId)) {
+            return;
+        }
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pos)", Boolean.class))) {
+            throw new IllegalStateException("Shard " + shard + " already contains POS with IDs outside its range");
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE pos_seq MINVALUE " + firstId + " MAXVALUE " + ShardRouter.lastId(shard)
+                + " START WITH " + firstId + " RESTART");
+    }
+
+    /**
+     * Connects to the shard selected for the current thread.
+     */
+    private static final class ShardRoutingDataSource extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return ShardRouter.currentShard();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Configuration of the horizontal sharding of POS data across several Postgres databases ({@link ShardRouter}).
+ * The home shard (shard 0) is configured via {@code spring.datasource}; it stores the POS of all campuses that are not
+ * assigned to one of the other shards, as well as all other tables.
+ *
+ * @param enabled         whether POS are distributed across the shards
+ * @param shards          the shards besides the home shard, which become shards 1, 2, ... in the order listed
+ * @param maximumPoolSize maximum number of pooled connections per shard besides the home shard, and for the name locks
+ */
+@ConfigurationProperties("campus-coffee.sharding")
+record ShardingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<Shard> shards,
+        @DefaultValue("10") int maximumPoolSize
+) {
+    ShardingProperties {
+        if (shards.size() >= ShardRouter.MAX_SHARDS) {
+            throw new IllegalArgumentException("At most " + (ShardRouter.MAX_SHARDS - 1)
+                    + " shards besides the home shard are supported");
+        }
+        Set<CampusType> assignedCampuses = new HashSet<>();
+        for (Shard shard : shards) {
+            for (CampusType campus : shard.campuses()) {
+                if (!assignedCampuses.add(campus)) {
+                    throw new IllegalArgumentException("Campus " + campus + " is assigned to more than one shard");
+                }
+            }
+        }
+    }
+
+    /**
+     * A shard besides the home shard.
+     *
+     * @param url       JDBC URL of the shard
+     * @param username  user name for the shard; defaults to the home shard's user name
+     * @param password  password for the shard; defaults to the home shard's password
+     * @param campuses  the campuses whose new POS are stored on the shard
+     */
+    record Shard(
+            String url,
+            @Nullable String username,
+            @Nullable String password,
+            @DefaultValue List<CampusType> campuses
+    ) {}
+}
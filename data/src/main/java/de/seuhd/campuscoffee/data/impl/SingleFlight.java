@@ -0,0 +1,85 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the call, and callers that arrive while it is in
+ * flight wait for it and share its result or exception instead of running the call again. Nothing is cached; a call
+ * that arrives after the result has been delivered runs again.
+ * <p>
+ * Calls are counted as {@code single.flight.calls} with the tags {@code operation} and {@code result}
+ * ({@code executed} or {@code collapsed}).
+ *
+ * @param <K> the key type
+ * @param <V> the result type
+ */
+final class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter collapsed;
+
+    /**
+     * @param operation     the name of the coalesced operation, for the metrics
+     * @param meterRegistry the registry of the metrics
+     */
+    SingleFlight(String operation, MeterRegistry meterRegistry) {
+        this.executed = meterRegistry.counter("single.flight.calls", "operation", operation, "result", "executed");
+        this.collapsed = meterRegistry.counter("single.flight.calls", "operation", operation, "result", "collapsed");
+    }
+
+    /**
+     * Runs the call, or waits for the call for the same key that is already in flight.
+     *
+     * @param key  the key; calls with equal keys must have the same result
+     * @param call the call
+     * @return the result of the call
+     */
+    V call(K key, Supplier<V> call) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            collapsed.increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                // rethrow the exception of the call itself, as if this caller had run it
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        executed.increment();
+        try {
+            V result = call.get();
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Lets calls for the given keys that arrive from now on run anew instead of waiting for calls in flight, e.g., since
+     * those may have read data that has changed since.
+     *
+     * @param keys the keys to forget the calls in flight of
+     */
+    void forget(Predicate<K> keys) {
+        inFlight.keySet().removeIf(keys);
+    }
+}
@@ -46,6 +46,10 @@ public class PosEntity {
     @Embedded
     private AddressEntity address;
 
+    private Double latitude;
+
+    private Double longitude;
+
     /**
      * JPA lifecycle callback: set timestamps before persisting a new entity.
      * This ensures timestamps reflect actual database operation time.
@@ -5,12 +5,60 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Repository for persisting point-of-sale (POS) entities.
  */
 public interface PosRepository extends JpaRepository<PosEntity, Long> {
     @Modifying
     @Transactional
-    @Query(value = "ALTER SEQUENCE pos_seq RESTART WITH 1", nativeQuery = true)
+    // restarts at the start value of the sequence, which is 1 unless moved to the ID range of a shard
+    @Query(value = "ALTER SEQUENCE pos_seq RESTART", nativeQuery = true)
     void resetSequence();
+
+    @Query("select p.osmNodeId from PosEntity p where p.osmNodeId is not null")
+    List<Long> findAllOsmNodeIds();
+
+    List<PosEntity> findByOsmNodeIdIn(Collection<Long> osmNodeIds);
+
+    @Query("select p.id as id, p.name as name from PosEntity p")
+    List<PosName> findAllNames();
+
+    @Query("select p.id as id, p.name as name from PosEntity p where p.id in :ids")
+    List<PosName> findNamesByIdIn(Collection<Long> ids);
+
+    @Query("select p.id as id, p.name as name from PosEntity p where p.name in :names")
+    List<PosName> findNamesByNameIn(Collection<String> names);
+
+    @Query("select p.id as id, p.name as name, p.latitude as latitude, p.longitude as longitude from PosEntity p "
+            + "where p.latitude is not null and p.longitude is not null")
+    List<PosLocation> findAllLocations();
+
+    @Query("select p.id as id, p.name as name, p.latitude as latitude, p.longitude as longitude from PosEntity p "
+            + "where p.id in :ids and p.latitude is not null and p.longitude is not null")
+    List<PosLocation> findLocationsByIdIn(Collection<Long> ids);
+
+    /**
+     * The name of a POS, without loading the entity.
+     */
+    interface PosName {
+        Long getId();
+
+        String getName();
+    }
+
+    /**
+     * The name and coordinates of a POS, without loading the entity.
+     */
+    interface PosLocation {
+        Long getId();
+
+        String getName();
+
+        Double getLatitude();
+
+        Double getLongitude();
+    }
 }
@@ -0,0 +1,5 @@
+CREATE TABLE osm_replication_state (
+    source varchar(1024) NOT NULL PRIMARY KEY,
+    sequence_number bigint NOT NULL,
+    updated_at timestamp NOT NULL
+);
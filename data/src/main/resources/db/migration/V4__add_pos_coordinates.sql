@@ -0,0 +1 @@
+ALTER TABLE pos ADD COLUMN latitude double precision, ADD COLUMN longitude double precision;
@@ -0,0 +1,48 @@
+package de.seuhd.campuscoffee.data.testing;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An SQL statement executed by the application, as captured by {@link SqlStatementCapture}.
+ *
+ * @param kind  the kind of statement, from its first keyword
+ * @param table the first table that the statement reads or writes; null if it has none (e.g., {@code SELECT pg_notify(...)})
+ * @param sql   the SQL as sent to the database, with placeholders for parameters
+ */
+public record SqlStatement(@NonNull Kind kind, @Nullable String table, @NonNull String sql) {
+    private static final Pattern TABLE = Pattern.compile("\\b(?:from|into|update)\\s+([a-z_][a-z0-9_.]*)");
+
+    /**
+     * Kinds of statements.
+     */
+    public enum Kind {
+        SELECT, INSERT, UPDATE, DELETE, OTHER
+    }
+
+    /**
+     * @param sql the executed SQL
+     * @return the statement with its kind and table
+     */
+    public static @NonNull SqlStatement of(@NonNull String sql) {
+        String normalized = sql.strip().toLowerCase(Locale.ROOT);
+        Kind kind = Kind.OTHER;
+        for (Kind candidate : Kind.values()) {
+            if (normalized.matches("(?s)" + candidate.name().toLowerCase(Locale.ROOT) + "\\b.*")) {
+                kind = candidate;
+                break;
+            }
+        }
+        Matcher matcher = TABLE.matcher(normalized);
+        return new SqlStatement(kind, matcher.find() ? matcher.group(1) : null, sql.strip());
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return kind + " " + sql;
+    }
+}
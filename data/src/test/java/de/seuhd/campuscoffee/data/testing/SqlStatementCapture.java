@@ -0,0 +1,97 @@
+package de.seuhd.campuscoffee.data.testing;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Captures the SQL statements that an operation executes, so that tests can assert the exact number, kinds, and
+ * tables of the statements and catch extra round trips (e.g., N+1 queries or repeated lookups).
+ * <p>
+ * Only statements executed on the calling thread while {@link #capture(Runnable)} runs are captured, so statements
+ * of background threads (e.g., the {@code LISTEN} of the POS change listener) do not interfere. Requires the
+ * application-wide data source to be wrapped, by importing {@link Configuration} into the test context:
+ * <pre>{@code
+ * @Import(SqlStatementCapture.Configuration.class)
+ * class MyTests extends AbstractSysTest {
+ *     void test() {
+ *         List<SqlStatement> statements = SqlStatementCapture.capture(() -> posService.getAll());
+ *         assertThat(statements).extracting(SqlStatement::kind).containsExactly(Kind.SELECT);
+ *     }
+ * }
+ * }</pre>
+ */
+public final class SqlStatementCapture {
+    private static final ThreadLocal<List<SqlStatement>> CAPTURED = new ThreadLocal<>();
+    private static final QueryExecutionListener LISTENER = new QueryExecutionListener() {
+        @Override
+        public void beforeQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+            List<SqlStatement> statements = CAPTURED.get();
+            if (statements != null) {
+                queryInfoList.forEach(queryInfo -> statements.add(SqlStatement.of(queryInfo.getQuery())));
+            }
+        }
+    };
+
+    private SqlStatementCapture() {
+    }
+
+    /**
+     * Runs the operation and returns the statements that it executed. To capture the statements of a failing
+     * operation, capture its assertion, e.g., {@code capture(() -> assertThatThrownBy(...))}.
+     *
+     * @param operation the operation
+     * @return the executed statements, in the order of execution; statements of a batch are listed once
+     */
+    public static @NonNull List<SqlStatement> capture(@NonNull Runnable operation) {
+        List<SqlStatement> outer = CAPTURED.get();
+        List<SqlStatement> statements = new ArrayList<>();
+        CAPTURED.set(statements);
+        try {
+            operation.run();
+        } finally {
+            if (outer != null) {
+                outer.addAll(statements);
+                CAPTURED.set(outer);
+            } else {
+                CAPTURED.remove();
+            }
+        }
+        return List.copyOf(statements);
+    }
+
+    /**
+     * Wraps the application-wide data source ({@code dataSource}) so that executed statements can be captured.
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Configuration {
+        @Bean
+        static BeanPostProcessor sqlStatementCaptureDataSourceWrapper() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                    if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .name("sql-statement-capture")
+                                .listener(LISTENER)
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package de.seuhd.campuscoffee.domain.events;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Application event signalling that the circuit breaker in front of the OpenStreetMap API changed its state.
+ *
+ * @param host          the API host the circuit breaker guards
+ * @param previousState the state before the transition
+ * @param state         the new state
+ */
+public record OsmCircuitBreakerEvent(
+        @NonNull String host,
+        @NonNull State previousState,
+        @NonNull State state
+) {
+    /**
+     * State of a circuit breaker.
+     */
+    public enum State {
+        /**
+         * Requests are sent; failures are counted in a sliding window.
+         */
+        CLOSED,
+        /**
+         * Requests are rejected without calling the API until the open duration has elapsed.
+         */
+        OPEN,
+        /**
+         * A limited number of trial requests are sent; if they succeed the circuit closes, otherwise it opens again.
+         */
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,31 @@
+package de.seuhd.campuscoffee.domain.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+import org.slf4j.MDC;
+
+/**
+ * Base class of the Java Flight Recorder events that break the handling of a request down into phases
+ * (e.g., database query, mapping, serialization, or OSM fetch).
+ * <p>
+ * Each event carries the correlation ID of the request that it belongs to, which is taken from the
+ * {@link MDC} entry {@value #CORRELATION_ID} of the current thread when the event is created. Events of background
+ * work (e.g., the OSM sync) have no correlation ID. Stack traces are not recorded, so that the events are cheap
+ * enough for a continuous recording.
+ */
+@Category({"Campus Coffee", "Request Phases"})
+@StackTrace(false)
+public abstract class PhaseEvent extends Event {
+    /**
+     * The MDC key of the correlation ID of the current request.
+     */
+    public static final String CORRELATION_ID = "correlationId";
+
+    // not private, JFR ignores private fields of superclasses
+    @Label("Correlation ID")
+    @Description("The ID of the request that the phase belongs to")
+    protected String correlationId = MDC.get(CORRELATION_ID);
+}
@@ -0,0 +1,48 @@
+package de.seuhd.campuscoffee.domain.events;
+
+import org.jspecify.annotations.NonNull;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Application event signalling that POS data has changed in the data store.
+ * Events are published for changes committed by this instance as well as for changes committed by other
+ * instances of the application that share the same database.
+ * Components that keep in-process copies of POS data use it to evict or refresh their local state.
+ *
+ * @param posIds        the IDs of the POS that were created or updated; empty if {@code invalidateAll} is set
+ * @param invalidateAll true if any POS may have changed (e.g., after clearing all data or when change
+ *                      notifications may have been missed); local copies must be dropped or reloaded entirely
+ * @param local         true if the change was committed by this application instance
+ */
+public record PosChangedEvent(
+        @NonNull Set<Long> posIds,
+        boolean invalidateAll,
+        boolean local
+) {
+    public PosChangedEvent {
+        posIds = Set.copyOf(posIds);
+    }
+
+    /**
+     * Creates an event for changes to individual POS.
+     *
+     * @param posIds the IDs of the changed POS
+     * @param local  true if the change was committed by this application instance
+     * @return the event
+     */
+    public static @NonNull PosChangedEvent changed(@NonNull Collection<Long> posIds, boolean local) {
+        return new PosChangedEvent(Set.copyOf(posIds), false, local);
+    }
+
+    /**
+     * Creates an event signalling that all POS data may have changed.
+     *
+     * @param local true if the change was committed by this application instance
+     * @return the event
+     */
+    public static @NonNull PosChangedEvent all(boolean local) {
+        return new PosChangedEvent(Set.of(), true, local);
+    }
+}
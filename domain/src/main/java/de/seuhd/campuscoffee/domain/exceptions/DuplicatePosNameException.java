@@ -3,9 +3,10 @@ package de.seuhd.campuscoffee.domain.exceptions;
 /**
  * Exception thrown when attempting to create or update a POS with a name that already exists.
  * This represents a business rule violation: POS names must be unique.
+ * Since it is expected in normal operation (e.g., when importing known POS again), its stack trace is not recorded.
  */
 public class DuplicatePosNameException extends RuntimeException {
     public DuplicatePosNameException(String posName) {
-        super("POS with name '" + posName + "' already exists.");
+        super("POS with name '" + posName + "' already exists.", null, false, false);
     }
 }
@@ -0,0 +1,12 @@
+package de.seuhd.campuscoffee.domain.exceptions;
+
+/**
+ * Exception thrown when the OpenStreetMap API is not called because it is known to be failing
+ * (i.e., its circuit breaker is open), so that callers fail fast instead of waiting for a timeout,
+ * or when an operation that needs a complete answer of the API failed.
+ */
+public class OsmApiUnavailableException extends RuntimeException {
+    public OsmApiUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,14 @@
+package de.seuhd.campuscoffee.domain.exceptions;
+
+/**
+ * Exception thrown when an OpenStreetMap extract file cannot be read or has an invalid format.
+ */
+public class OsmExtractException extends RuntimeException {
+    public OsmExtractException(String message) {
+        super(message);
+    }
+
+    public OsmExtractException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,14 @@
+package de.seuhd.campuscoffee.domain.exceptions;
+
+/**
+ * Exception thrown when the state or a diff of an OpenStreetMap replication source cannot be read.
+ */
+public class OsmReplicationException extends RuntimeException {
+    public OsmReplicationException(String message) {
+        super(message);
+    }
+
+    public OsmReplicationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
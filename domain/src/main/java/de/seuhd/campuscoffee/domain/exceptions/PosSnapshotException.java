@@ -0,0 +1,14 @@
+package de.seuhd.campuscoffee.domain.exceptions;
+
+/**
+ * Exception thrown when a POS snapshot cannot be written or restored, e.g., because the file does not match the schema.
+ */
+public class PosSnapshotException extends RuntimeException {
+    public PosSnapshotException(String message) {
+        super(message);
+    }
+
+    public PosSnapshotException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,20 +1,40 @@
 package de.seuhd.campuscoffee.domain.impl;
 
+import de.seuhd.campuscoffee.domain.model.BoundingBox;
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.OsmExtractStats;
+import de.seuhd.campuscoffee.domain.model.OsmNodeBatch;
+import de.seuhd.campuscoffee.domain.ports.OsmExtractDataService;
 import de.seuhd.campuscoffee.domain.services.OsmImportService;
 import de.seuhd.campuscoffee.domain.model.Pos;
 import de.seuhd.campuscoffee.domain.model.OsmNode;
 import de.seuhd.campuscoffee.domain.ports.PosService;
 import de.seuhd.campuscoffee.domain.ports.OsmDataService;
+import de.seuhd.campuscoffee.domain.exceptions.DuplicatePosNameException;
+import de.seuhd.campuscoffee.domain.exceptions.OsmApiUnavailableException;
+import de.seuhd.campuscoffee.domain.exceptions.OsmNodeMissingFieldsException;
 import de.seuhd.campuscoffee.domain.exceptions.OsmNodeNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Implementation of the OSM import service that uses the domain ports
  * to fetch OSM data and create/update POS entities.
+ * <p>
+ * Every imported or rejected node is counted as {@code pos.imports} with the tags {@code source} ({@code node},
+ * {@code nodes}, {@code extract}, or {@code area}) and {@code outcome} ({@code IMPORTED}, {@code NOT_FOUND},
+ * {@code MISSING_FIELDS}, {@code DUPLICATE_NAME}, {@code UNAVAILABLE}, or {@code ERROR}); each import call is timed
+ * as {@code pos.import.duration} with the tags {@code source} and {@code outcome} ({@code SUCCESS} if the call
+ * completed, even if some of its nodes were rejected, and otherwise {@code NOT_FOUND}, {@code UNAVAILABLE}, or
+ * {@code ERROR}).
  */
 @Slf4j
 @Service
@@ -22,34 +42,171 @@ import lombok.extern.slf4j.Slf4j;
 public class OsmImportServiceImpl implements OsmImportService {
     private final PosService posService;
     private final OsmDataService osmDataService;
+    private final OsmExtractDataService osmExtractDataService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public boolean importFromOsmNode(long nodeId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "ERROR";
         try {
             log.info("Importing OSM node {} as POS", nodeId);
-            OsmNode osmNode = osmDataService.fetchNode(nodeId);
-            
-            if (!osmNode.isValidPos()) {
-                log.warn("OSM node {} does not have required fields for POS", nodeId);
-                return false;
-            }
-
-            Pos pos = posService.importFromOsmNode(nodeId);
-            log.info("Successfully imported OSM node {} as POS {}", nodeId, pos.name());
-            return true;
+            boolean imported = importOsmNode(osmDataService.fetchNode(nodeId), "node") != null;
+            outcome = "SUCCESS";
+            return imported;
         } catch (OsmNodeNotFoundException e) {
             log.warn("OSM node {} not found", nodeId);
+            countImport("node", "NOT_FOUND");
+            outcome = "NOT_FOUND";
             return false;
-        } catch (Exception e) {
-            log.error("Failed to import OSM node {}: {}", nodeId, e.getMessage());
+        } catch (OsmApiUnavailableException e) {
+            log.warn("OSM node {} not imported: {}", nodeId, e.getMessage());
+            countImport("node", "UNAVAILABLE");
+            outcome = "UNAVAILABLE";
             return false;
+        } finally {
+            stopTimer(sample, "node", outcome);
         }
     }
 
+    /**
+     * Fetches all nodes in as few requests as possible (see {@link OsmDataService#fetchNodes}) and imports them
+     * one by one, so that a missing or invalid node does not affect the others. Nodes that could not be fetched
+     * because their request failed are counted as {@code UNAVAILABLE}, those that do not exist as {@code NOT_FOUND}.
+     */
     @Override
     public List<Long> importFromOsmNodes(List<Long> nodeIds) {
-        return nodeIds.stream()
-                .filter(nodeId -> nodeId != null && importFromOsmNode(nodeId))
-                .collect(Collectors.toList());
+        List<Long> distinctIds = nodeIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "ERROR";
+        try {
+            OsmNodeBatch osmNodes = osmDataService.fetchNodes(distinctIds);
+
+            List<Long> importedIds = new ArrayList<>();
+            for (Long nodeId : distinctIds) {
+                OsmNode osmNode = osmNodes.nodes().get(nodeId);
+                if (osmNode != null) {
+                    if (importOsmNode(osmNode, "nodes") != null) {
+                        importedIds.add(nodeId);
+                    }
+                } else if (osmNodes.unavailableIds().contains(nodeId)) {
+                    log.warn("OSM node {} not imported: its request failed", nodeId);
+                    countImport("nodes", "UNAVAILABLE");
+                } else {
+                    log.warn("OSM node {} not found", nodeId);
+                    countImport("nodes", "NOT_FOUND");
+                }
+            }
+            log.info("Imported {} of {} OSM nodes as POS", importedIds.size(), distinctIds.size());
+            outcome = "SUCCESS";
+            return importedIds;
+        } finally {
+            stopTimer(sample, "nodes", outcome);
+        }
+    }
+
+    /**
+     * Streams the extract file through the import, so that memory use does not depend on the size of the file.
+     */
+    @Override
+    public List<Long> importFromOsmExtract(Path file) {
+        log.info("Importing POS from OSM extract {}", file);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "ERROR";
+        List<Long> importedIds = new ArrayList<>();
+        OsmExtractStats stats;
+        try {
+            stats = osmExtractDataService.readNodes(file, osmNode -> {
+                if (importOsmNode(osmNode, "extract") != null) {
+                    importedIds.add(osmNode.nodeId());
+                }
+            });
+            outcome = "SUCCESS";
+        } finally {
+            stopTimer(sample, "extract", outcome);
+        }
+        log.info("Imported {} POS from {} matching of {} nodes in OSM extract {} ({} s, {} nodes/s)",
+                importedIds.size(), stats.nodesMatched(), stats.nodesRead(), file,
+                stats.elapsed().toSeconds(), Math.round(stats.nodesPerSecond()));
+        return importedIds;
+    }
+
+    /**
+     * Replaces hundreds of single-node requests with one search for the area (see {@link OsmDataService#discoverNodes}),
+     * and imports the discovered nodes in bulk (see {@link PosService#importFromOsmNodes}).
+     */
+    @Override
+    public List<Pos> importFromBoundingBox(BoundingBox boundingBox) {
+        log.info("Importing POS from OSM nodes in {}", boundingBox);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "ERROR";
+        try {
+            List<OsmNode> osmNodes = osmDataService.discoverNodes(boundingBox);
+            List<Pos> imported = posService.importFromOsmNodes(osmNodes, (osmNode, e) -> {
+                if (e instanceof DuplicatePosNameException) {
+                    // already logged by the POS service
+                    countImport("area", "DUPLICATE_NAME");
+                } else {
+                    log.warn("OSM node {} does not have required fields for POS", osmNode.nodeId());
+                    countImport("area", "MISSING_FIELDS");
+                }
+            });
+            countImport("area", "IMPORTED", imported.size());
+            log.info("Imported {} of {} OSM nodes in {} as POS", imported.size(), osmNodes.size(), boundingBox);
+            outcome = "SUCCESS";
+            return imported;
+        } catch (OsmApiUnavailableException e) {
+            outcome = "UNAVAILABLE";
+            throw e;
+        } finally {
+            stopTimer(sample, "area", outcome);
+        }
+    }
+
+    @Override
+    public List<Pos> importFromCampus(CampusType campus) {
+        return importFromBoundingBox(campus.boundingBox());
+    }
+
+    /**
+     * @param source the import source, for the metrics
+     * @return the imported POS, or null if the node is not a valid POS or could not be imported
+     */
+    private @Nullable Pos importOsmNode(OsmNode osmNode, String source) {
+        try {
+            if (!osmNode.isValidPos()) {
+                log.warn("OSM node {} does not have required fields for POS", osmNode.nodeId());
+                countImport(source, "MISSING_FIELDS");
+                return null;
+            }
+
+            Pos pos = posService.importFromOsmNode(osmNode);
+            log.info("Successfully imported OSM node {} as POS {}", osmNode.nodeId(), pos.name());
+            countImport(source, "IMPORTED");
+            return pos;
+        } catch (DuplicatePosNameException e) {
+            // already logged by the POS service
+            countImport(source, "DUPLICATE_NAME");
+            return null;
+        } catch (Exception e) {
+            log.error("Failed to import OSM node {}: {}", osmNode.nodeId(), e.getMessage());
+            countImport(source, e instanceof OsmNodeMissingFieldsException ? "MISSING_FIELDS" : "ERROR");
+            return null;
+        }
+    }
+
+    private void countImport(String source, String outcome) {
+        countImport(source, outcome, 1);
+    }
+
+    private void countImport(String source, String outcome, int count) {
+        meterRegistry.counter("pos.imports", "source", source, "outcome", outcome).increment(count);
+    }
+
+    private void stopTimer(Timer.Sample sample, String source, String outcome) {
+        sample.stop(meterRegistry.timer("pos.import.duration", "source", source, "outcome", outcome));
     }
-}
\ No newline at end of file
+}
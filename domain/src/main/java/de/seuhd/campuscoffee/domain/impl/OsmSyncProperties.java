@@ -0,0 +1,24 @@
+package de.seuhd.campuscoffee.domain.impl;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the synchronization of imported POS with OpenStreetMap replication diffs.
+ *
+ * @param enabled        whether the synchronization runs periodically
+ * @param interval       delay between the end of a run and the start of the next one
+ * @param maxDiffsPerRun maximum number of diffs applied in one run, so that catching up after a long pause
+ *                       happens in steps
+ * @param batchSize      maximum number of POS updated in one transaction
+ */
+@ConfigurationProperties("campus-coffee.osm.sync")
+record OsmSyncProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1m") Duration interval,
+        @DefaultValue("60") int maxDiffsPerRun,
+        @DefaultValue("100") int batchSize
+) {
+}
@@ -0,0 +1,101 @@
+package de.seuhd.campuscoffee.domain.impl;
+
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.model.OsmNodeChange;
+import de.seuhd.campuscoffee.domain.model.OsmReplicationState;
+import de.seuhd.campuscoffee.domain.model.OsmSyncStats;
+import de.seuhd.campuscoffee.domain.ports.OsmReplicationDataService;
+import de.seuhd.campuscoffee.domain.ports.PosDataService;
+import de.seuhd.campuscoffee.domain.ports.PosService;
+import de.seuhd.campuscoffee.domain.services.OsmSyncService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/**
+ * Implementation of the OSM sync service that keeps imported POS up to date with the minutely replication diffs
+ * of OpenStreetMap instead of re-fetching every node.
+ * <p>
+ * The diffs contain all changes worldwide, but only the few nodes that POS were imported from are relevant. The IDs
+ * of these nodes are loaded into a set once per run and passed to the diff reader, which skips all other changes
+ * while reading. Repeated changes of a node are merged (the highest version wins), and the resulting POS updates are
+ * written in batches.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OsmSyncServiceImpl implements OsmSyncService {
+    private final OsmReplicationDataService osmReplicationDataService;
+    private final PosDataService posDataService;
+    private final PosService posService;
+    private final OsmSyncProperties properties;
+
+    @Override
+    public synchronized OsmSyncStats sync() {
+        long start = System.nanoTime();
+        OsmReplicationState state = osmReplicationDataService.currentState();
+        OptionalLong lastApplied = osmReplicationDataService.lastAppliedSequence();
+        if (lastApplied.isEmpty()) {
+            // imports fetch current data, so only diffs published from now on are relevant
+            log.info("Starting OSM sync at replication sequence {}", state.sequenceNumber());
+            osmReplicationDataService.saveLastAppliedSequence(state.sequenceNumber());
+            return stats(state.sequenceNumber(), 0, 0, 0, start);
+        }
+        long from = lastApplied.getAsLong() + 1;
+        long to = Math.min(state.sequenceNumber(), lastApplied.getAsLong() + properties.maxDiffsPerRun());
+        if (from > to) {
+            return stats(lastApplied.getAsLong(), 0, 0, 0, start);
+        }
+
+        Set<Long> osmNodeIds = posDataService.getAllOsmNodeIds();
+        int diffsApplied = (int) (to - from + 1);
+        if (osmNodeIds.isEmpty()) {
+            // nothing to update, no need to download the diffs
+            osmReplicationDataService.saveLastAppliedSequence(to);
+            return stats(to, diffsApplied, 0, 0, start);
+        }
+
+        Map<Long, OsmNodeChange> changes = new HashMap<>();
+        for (long sequenceNumber = from; sequenceNumber <= to; sequenceNumber++) {
+            for (OsmNodeChange change : osmReplicationDataService.readNodeChanges(sequenceNumber, osmNodeIds::contains)) {
+                changes.merge(change.nodeId(), change,
+                        (previous, next) -> next.version() >= previous.version() ? next : previous);
+            }
+        }
+
+        List<OsmNode> changedNodes = new ArrayList<>();
+        for (OsmNodeChange change : changes.values()) {
+            if (change.deleted()) {
+                // the POS may still exist, e.g., if the node was replaced by a way
+                log.warn("OSM node {} of an imported POS was deleted; keeping the POS", change.nodeId());
+            } else {
+                changedNodes.add(change.osmNode());
+            }
+        }
+        int posUpdated = 0;
+        for (int i = 0; i < changedNodes.size(); i += properties.batchSize()) {
+            List<OsmNode> batch = changedNodes.subList(i, Math.min(i + properties.batchSize(), changedNodes.size()));
+            posUpdated += posService.updateFromOsmNodes(batch).size();
+        }
+        osmReplicationDataService.saveLastAppliedSequence(to);
+
+        OsmSyncStats stats = stats(to, diffsApplied, changes.size(), posUpdated, start);
+        log.info("Applied OSM replication diffs {} to {}: {} imported nodes changed, {} POS updated in {} ms",
+                from, to, stats.nodesChanged(), stats.posUpdated(), stats.elapsed().toMillis());
+        return stats;
+    }
+
+    private static OsmSyncStats stats(long sequenceNumber, int diffsApplied, int nodesChanged, int posUpdated,
+                                      long start) {
+        return new OsmSyncStats(sequenceNumber, diffsApplied, nodesChanged, posUpdated,
+                Duration.ofNanos(System.nanoTime() - start));
+    }
+}
@@ -4,20 +4,26 @@ import de.seuhd.campuscoffee.domain.exceptions.DuplicatePosNameException;
 import de.seuhd.campuscoffee.domain.exceptions.OsmNodeMissingFieldsException;
 import de.seuhd.campuscoffee.domain.exceptions.OsmNodeNotFoundException;
 import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.MapTile;
 import de.seuhd.campuscoffee.domain.model.OsmNode;
 import de.seuhd.campuscoffee.domain.model.Pos;
 import de.seuhd.campuscoffee.domain.exceptions.PosNotFoundException;
+import de.seuhd.campuscoffee.domain.model.BoundingBox;
+import de.seuhd.campuscoffee.domain.model.PosMarker;
 import de.seuhd.campuscoffee.domain.model.PosType;
 import de.seuhd.campuscoffee.domain.ports.OsmDataService;
 import de.seuhd.campuscoffee.domain.ports.PosDataService;
 import de.seuhd.campuscoffee.domain.ports.PosService;
+import de.seuhd.campuscoffee.domain.ports.PosTileDataService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.function.BiConsumer;
 
 /**
  * Implementation of the POS service that handles business logic related to POS entities.
@@ -28,6 +34,7 @@ import java.util.Objects;
 public class PosServiceImpl implements PosService {
     private final PosDataService posDataService;
     private final OsmDataService osmDataService;
+    private final PosTileDataService posTileDataService;
 
     @Override
     public void clear() {
@@ -47,21 +54,16 @@ public class PosServiceImpl implements PosService {
         return posDataService.getById(id);
     }
 
+    @Override
+    public @NonNull List<PosMarker> getMarkers(@NonNull MapTile tile) {
+        log.debug("Retrieving POS markers of tile {}", tile);
+        return posTileDataService.getMarkers(tile);
+    }
+
     @Override
     public @NonNull Pos upsert(@NonNull Pos pos) throws PosNotFoundException {
-        if (pos.id() == null) {
-            // Create new POS
-            log.info("Creating new POS: {}", pos.name());
-            return performUpsert(pos);
-        } else {
-            // Update existing POS
-            log.info("Updating POS with ID: {}", pos.id());
-            // POS ID must be set
-            Objects.requireNonNull(pos.id());
-            // POS must exist in the database before the update
-            posDataService.getById(pos.id());
-            return performUpsert(pos);
-        }
+        log.info("Upserting POS '{}' with ID: {}", pos.name(), pos.id());
+        return performUpsert(pos);
     }
 
     @Override
@@ -69,16 +71,106 @@ public class PosServiceImpl implements PosService {
         log.info("Importing POS from OpenStreetMap node {}...", nodeId);
 
         // Fetch the OSM node data using the port
-        OsmNode osmNode = osmDataService.fetchNode(nodeId);
+        return importFromOsmNode(osmDataService.fetchNode(nodeId));
+    }
 
+    @Override
+    public @NonNull Pos importFromOsmNode(@NonNull OsmNode osmNode) {
         // Convert OSM node to POS domain object and upsert it
-        // TODO: Implement the actual conversion (the response is currently hard-coded).
         Pos savedPos = upsert(convertOsmNodeToPos(osmNode));
-        log.info("Successfully imported POS '{}' from OSM node {}", savedPos.name(), nodeId);
+        log.info("Successfully imported POS '{}' from OSM node {}", savedPos.name(), osmNode.nodeId());
 
         return savedPos;
     }
 
+    @Override
+    public @NonNull List<Pos> importFromOsmNodes(@NonNull List<OsmNode> osmNodes,
+                                                 @NonNull BiConsumer<OsmNode, RuntimeException> rejected) {
+        List<OsmNode> convertedNodes = new ArrayList<>(osmNodes.size());
+        List<Pos> newPos = new ArrayList<>(osmNodes.size());
+        for (OsmNode osmNode : osmNodes) {
+            try {
+                newPos.add(convertOsmNodeToPos(osmNode));
+                convertedNodes.add(osmNode);
+            } catch (OsmNodeMissingFieldsException e) {
+                rejected.accept(osmNode, e);
+            }
+        }
+        if (newPos.isEmpty()) {
+            return List.of();
+        }
+
+        try {
+            List<Pos> importedPos = posDataService.upsertAll(newPos);
+            log.info("Imported {} POS from OSM nodes", importedPos.size());
+            return importedPos;
+        } catch (DuplicatePosNameException e) {
+            // a name exists already: import the others one by one
+            log.warn("Batch import of OSM nodes failed ({}); importing POS one by one", e.getMessage());
+            List<Pos> importedPos = new ArrayList<>(newPos.size());
+            for (int i = 0; i < newPos.size(); i++) {
+                try {
+                    importedPos.add(performUpsert(newPos.get(i)));
+                } catch (DuplicatePosNameException duplicate) {
+                    rejected.accept(convertedNodes.get(i), duplicate);
+                }
+            }
+            return importedPos;
+        }
+    }
+
+    @Override
+    public @NonNull List<Pos> updateFromOsmNodes(@NonNull List<OsmNode> osmNodes) {
+        Map<Long, Pos> importedPos = posDataService.getByOsmNodeIds(osmNodes.stream().map(OsmNode::nodeId).toList());
+        List<Pos> changedPos = new ArrayList<>(importedPos.size());
+        for (OsmNode osmNode : osmNodes) {
+            Pos pos = importedPos.get(osmNode.nodeId());
+            if (pos == null) {
+                continue;
+            }
+            Pos converted;
+            try {
+                converted = convertOsmNodeToPos(osmNode);
+            } catch (OsmNodeMissingFieldsException e) {
+                log.warn("OSM node {} of POS {} is no longer a valid POS; keeping the POS unchanged",
+                        osmNode.nodeId(), pos.id());
+                continue;
+            }
+            // keep the stored campus, which may have been corrected, and on which the storage of the POS may depend
+            Pos updated = converted.toBuilder()
+                    .id(pos.id())
+                    .createdAt(pos.createdAt())
+                    .updatedAt(pos.updatedAt())
+                    .campus(pos.campus())
+                    .build();
+            // skip changes to tags that are not mapped to the POS
+            if (!updated.equals(pos)) {
+                changedPos.add(updated);
+            }
+        }
+        if (changedPos.isEmpty()) {
+            return List.of();
+        }
+
+        try {
+            List<Pos> updatedPos = posDataService.upsertAll(changedPos);
+            log.info("Updated {} POS from changed OSM nodes", updatedPos.size());
+            return updatedPos;
+        } catch (DuplicatePosNameException e) {
+            // a renamed node clashes with another POS: update the others one by one
+            log.warn("Batch update from OSM nodes failed ({}); updating POS one by one", e.getMessage());
+            List<Pos> updatedPos = new ArrayList<>(changedPos.size());
+            for (Pos pos : changedPos) {
+                try {
+                    updatedPos.add(performUpsert(pos));
+                } catch (DuplicatePosNameException | PosNotFoundException ignored) {
+                    // logged by performUpsert or deleted in the meantime
+                }
+            }
+            return updatedPos;
+        }
+    }
+
     /**
      * Converts an OSM node to a POS domain object.
      */
@@ -131,6 +223,8 @@ public class PosServiceImpl implements PosService {
                 .postalCode(postalCode)
                 .city(city)
                 .osmNodeId(osmNode.nodeId())
+                .latitude(osmNode.latitude())
+                .longitude(osmNode.longitude())
                 .build();
     }
 
@@ -158,17 +252,32 @@ public class PosServiceImpl implements PosService {
 
     /**
      * Determines the campus type based on coordinates.
-     * Current implementation defaults to ALTSTADT, but could be extended
-     * to use actual coordinate boundaries for different campuses.
-     * 
+     * The campus is the one whose area ({@link CampusType#boundingBox()}) contains the location. If the location is in
+     * the areas of several campuses or in none, it is the one among them whose area has the nearest center.
+     *
      * @param latitude The location's latitude
      * @param longitude The location's longitude
      * @return The determined campus type
      */
-    private CampusType determineCampus(Double latitude, Double longitude) {
-        // TODO: Implement actual coordinate-based campus determination
-        // For now, default to ALTSTADT
-        return CampusType.ALTSTADT;
+    private CampusType determineCampus(double latitude, double longitude) {
+        CampusType campus = null;
+        boolean campusContains = false;
+        double campusDistance = Double.MAX_VALUE;
+        // a degree of longitude is shorter than one of latitude, by the cosine of the latitude
+        double longitudeScale = Math.cos(Math.toRadians(latitude));
+        for (CampusType candidate : CampusType.values()) {
+            BoundingBox area = candidate.boundingBox();
+            boolean contains = area.contains(latitude, longitude);
+            double latitudeOffset = latitude - (area.minLatitude() + area.maxLatitude()) / 2;
+            double longitudeOffset = (longitude - (area.minLongitude() + area.maxLongitude()) / 2) * longitudeScale;
+            double distance = latitudeOffset * latitudeOffset + longitudeOffset * longitudeOffset;
+            if (campus == null || contains && !campusContains || contains == campusContains && distance < campusDistance) {
+                campus = candidate;
+                campusContains = contains;
+                campusDistance = distance;
+            }
+        }
+        return campus;
     }
 
     /**
@@ -224,7 +333,7 @@ public class PosServiceImpl implements PosService {
             log.info("Successfully upserted POS with ID: {}", upsertedPos.id());
             return upsertedPos;
         } catch (DuplicatePosNameException e) {
-            log.error("Error upserting POS '{}': {}", pos.name(), e.getMessage());
+            log.warn("Error upserting POS '{}': {}", pos.name(), e.getMessage());
             throw e;
         }
     }
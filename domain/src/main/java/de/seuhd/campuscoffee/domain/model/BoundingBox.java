@@ -0,0 +1,54 @@
+package de.seuhd.campuscoffee.domain.model;
+
+/**
+ * Geographic area between two latitudes and two longitudes (WGS 84, in degrees).
+ *
+ * @param minLatitude  southern edge
+ * @param minLongitude western edge
+ * @param maxLatitude  northern edge
+ * @param maxLongitude eastern edge
+ */
+public record BoundingBox(
+        double minLatitude,
+        double minLongitude,
+        double maxLatitude,
+        double maxLongitude
+) {
+    /**
+     * @throws IllegalArgumentException if a coordinate is out of range or the box is empty
+     */
+    public BoundingBox {
+        if (!(minLatitude >= -90 && maxLatitude <= 90 && minLongitude >= -180 && maxLongitude <= 180)) {
+            throw new IllegalArgumentException("Bounding box " + format(minLatitude, minLongitude, maxLatitude, maxLongitude)
+                    + " is out of range.");
+        }
+        if (minLatitude >= maxLatitude || minLongitude >= maxLongitude) {
+            throw new IllegalArgumentException("Bounding box " + format(minLatitude, minLongitude, maxLatitude, maxLongitude)
+                    + " is empty, the minimum must be less than the maximum.");
+        }
+    }
+
+    /**
+     * @return true if the position is inside the box or on its edges
+     */
+    public boolean contains(double latitude, double longitude) {
+        return latitude >= minLatitude && latitude <= maxLatitude
+                && longitude >= minLongitude && longitude <= maxLongitude;
+    }
+
+    /**
+     * @return the area in square degrees, which is how the OSM API limits the size of map requests
+     */
+    public double area() {
+        return (maxLatitude - minLatitude) * (maxLongitude - minLongitude);
+    }
+
+    @Override
+    public String toString() {
+        return format(minLatitude, minLongitude, maxLatitude, maxLongitude);
+    }
+
+    private static String format(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        return "[" + minLatitude + "," + minLongitude + " – " + maxLatitude + "," + maxLongitude + "]";
+    }
+}
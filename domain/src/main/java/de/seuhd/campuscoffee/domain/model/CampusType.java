@@ -1,12 +1,27 @@
 package de.seuhd.campuscoffee.domain.model;
 
+import org.jspecify.annotations.NonNull;
+
 /**
  * Enum for different campus locations.
  */
 public enum CampusType {
     // see https://www.uni-heidelberg.de/universitaet/beschaeftigte/service/bau/hoersaele/
-    ALTSTADT,
-    BERGHEIM,
-    INF
+    ALTSTADT(new BoundingBox(49.4060, 8.6880, 49.4160, 8.7160)),
+    BERGHEIM(new BoundingBox(49.4040, 8.6720, 49.4110, 8.6880)),
+    INF(new BoundingBox(49.4090, 8.6550, 49.4250, 8.6820));
     // TODO: list is incomplete, e.g., Mannheim medial faculty is missing
+
+    private final BoundingBox boundingBox;
+
+    CampusType(BoundingBox boundingBox) {
+        this.boundingBox = boundingBox;
+    }
+
+    /**
+     * @return the area of the campus, including the surrounding streets
+     */
+    public @NonNull BoundingBox boundingBox() {
+        return boundingBox;
+    }
 }
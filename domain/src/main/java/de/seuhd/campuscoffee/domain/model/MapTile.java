@@ -0,0 +1,36 @@
+package de.seuhd.campuscoffee.domain.model;
+
+/**
+ * Tile of a web map in the Web Mercator projection (the XYZ scheme of OpenStreetMap and most map libraries): at zoom
+ * level {@code z}, the world is divided into 2^z × 2^z square tiles, numbered from west to east ({@code x}) and from
+ * north to south ({@code y}).
+ *
+ * @param zoom the zoom level, from 0 (the whole world in one tile) to {@link #MAX_ZOOM}
+ * @param x    the column of the tile, from 0 to 2^zoom - 1
+ * @param y    the row of the tile, from 0 to 2^zoom - 1
+ */
+public record MapTile(
+        int zoom,
+        int x,
+        int y
+) {
+    public static final int MAX_ZOOM = 22;
+
+    /**
+     * @throws IllegalArgumentException if the zoom level or the tile coordinates are out of range
+     */
+    public MapTile {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom level " + zoom + " is out of range, it must be between 0 and "
+                    + MAX_ZOOM + ".");
+        }
+        if (x < 0 || x >= 1 << zoom || y < 0 || y >= 1 << zoom) {
+            throw new IllegalArgumentException("Tile " + zoom + "/" + x + "/" + y + " is out of range.");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return zoom + "/" + x + "/" + y;
+    }
+}
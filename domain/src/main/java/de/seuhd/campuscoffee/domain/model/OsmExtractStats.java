@@ -0,0 +1,26 @@
+package de.seuhd.campuscoffee.domain.model;
+
+import org.jspecify.annotations.NonNull;
+
+import java.time.Duration;
+
+/**
+ * Statistics of a pass over an OpenStreetMap extract file.
+ *
+ * @param nodesRead    number of nodes read from the file
+ * @param nodesMatched number of nodes that matched the tag filters and were passed on for import
+ * @param elapsed      time spent reading the file, including the processing of the matched nodes
+ */
+public record OsmExtractStats(
+        long nodesRead,
+        long nodesMatched,
+        @NonNull Duration elapsed
+) {
+    /**
+     * @return the throughput in nodes read per second
+     */
+    public double nodesPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos > 0 ? nodesRead * 1_000_000_000.0 / nanos : 0.0;
+    }
+}
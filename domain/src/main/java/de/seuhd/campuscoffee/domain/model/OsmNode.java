@@ -2,6 +2,8 @@ package de.seuhd.campuscoffee.domain.model;
 
 import org.jspecify.annotations.NonNull;
 
+import java.util.Set;
+
 /**
  * Represents an OpenStreetMap node with relevant Point of Sale information.
  * This is the domain model for OSM data before it is converted to a POS object.
@@ -12,6 +14,14 @@ public record OsmNode(
     Double longitude,
     java.util.Map<String, String> tags
 ) {
+    /**
+     * The tags read when a node is converted to a POS. Adapters may drop all other tags when they parse nodes.
+     */
+    public static final Set<String> POS_TAG_KEYS = Set.of(
+            "name", "amenity", "shop", "vending",
+            "addr:street", "addr:housenumber", "addr:postcode", "addr:city",
+            "operator", "cuisine", "opening_hours", "description");
+
     /**
      * Creates a new OSM node builder.
      * @return A new builder instance
@@ -27,7 +37,7 @@ public record OsmNode(
         private Long nodeId;
         private Double latitude;
         private Double longitude;
-        private java.util.Map<String, String> tags = new java.util.HashMap<>();
+        private OsmTags tags = OsmTags.empty();
 
         public Builder nodeId(Long nodeId) {
             this.nodeId = nodeId;
@@ -44,8 +54,11 @@ public record OsmNode(
             return this;
         }
 
+        /**
+         * @param tags the tags of the node; stored as {@link OsmTags}, which are used as they are
+         */
         public Builder tags(java.util.Map<String, String> tags) {
-            this.tags = new java.util.HashMap<>(tags);
+            this.tags = tags != null ? OsmTags.copyOf(tags) : null;
             return this;
         }
 
@@ -53,7 +66,7 @@ public record OsmNode(
             if (nodeId == null || latitude == null || longitude == null || tags == null) {
                 throw new IllegalStateException("All fields must be non-null");
             }
-            return new OsmNode(nodeId, latitude, longitude, java.util.Collections.unmodifiableMap(tags));
+            return new OsmNode(nodeId, latitude, longitude, tags);
         }
     }
     /**
@@ -0,0 +1,20 @@
+package de.seuhd.campuscoffee.domain.model;
+
+import org.jspecify.annotations.NonNull;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The result of fetching several OpenStreetMap nodes at once.
+ * Requested nodes that are in neither map nor set do not exist (or were deleted).
+ *
+ * @param nodes          the fetched nodes by node ID, in the order of the requested IDs
+ * @param unavailableIds the IDs of nodes that could not be fetched because their request failed, e.g., since the OSM
+ *                       API is unavailable; whether these nodes exist is unknown
+ */
+public record OsmNodeBatch(
+        @NonNull Map<Long, OsmNode> nodes,
+        @NonNull Set<Long> unavailableIds
+) {
+}
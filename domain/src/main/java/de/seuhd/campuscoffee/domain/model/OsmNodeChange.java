@@ -0,0 +1,23 @@
+package de.seuhd.campuscoffee.domain.model;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A change to an OpenStreetMap node, read from a replication diff.
+ *
+ * @param nodeId  the ID of the changed node
+ * @param version the version of the node after the change; later changes of the same node have higher versions
+ * @param osmNode the node after the change (created or modified), or null if it was deleted
+ */
+public record OsmNodeChange(
+        long nodeId,
+        long version,
+        @Nullable OsmNode osmNode
+) {
+    /**
+     * @return true if the node was deleted
+     */
+    public boolean deleted() {
+        return osmNode == null;
+    }
+}
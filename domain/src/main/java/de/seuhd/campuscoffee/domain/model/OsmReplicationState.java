@@ -0,0 +1,17 @@
+package de.seuhd.campuscoffee.domain.model;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+
+/**
+ * State of an OpenStreetMap replication source ({@code state.txt}).
+ *
+ * @param sequenceNumber the sequence number of the latest published diff
+ * @param timestamp      the time up to which the diffs cover changes, if known
+ */
+public record OsmReplicationState(
+        long sequenceNumber,
+        @Nullable Instant timestamp
+) {
+}
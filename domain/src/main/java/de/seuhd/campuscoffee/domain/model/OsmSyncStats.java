@@ -0,0 +1,23 @@
+package de.seuhd.campuscoffee.domain.model;
+
+import org.jspecify.annotations.NonNull;
+
+import java.time.Duration;
+
+/**
+ * Statistics of one synchronization run of imported POS with OpenStreetMap replication diffs.
+ *
+ * @param sequenceNumber the sequence number of the last applied diff after the run
+ * @param diffsApplied   number of diffs read and applied in the run
+ * @param nodesChanged   number of changed nodes that belong to imported POS (after merging repeated changes)
+ * @param posUpdated     number of POS updated from their changed nodes
+ * @param elapsed        duration of the run
+ */
+public record OsmSyncStats(
+        long sequenceNumber,
+        int diffsApplied,
+        int nodesChanged,
+        int posUpdated,
+        @NonNull Duration elapsed
+) {
+}
@@ -0,0 +1,214 @@
+package de.seuhd.campuscoffee.domain.model;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Compact, immutable tags of an OpenStreetMap node.
+ * <p>
+ * Tags are stored in two parallel arrays sorted by key, so a node with n tags costs three objects (plus the values)
+ * instead of a hash table with n entries. Keys are interned, since the same few keys occur on every node. Lookups
+ * use binary search, which is as fast as hashing for the handful of tags a node has.
+ * <p>
+ * Instances are shared as they are between the data adapters and the domain: {@link #copyOf(Map)} and
+ * {@link OsmNode.Builder#tags(Map)} do not copy an {@code OsmTags} again.
+ */
+public final class OsmTags extends AbstractMap<String, String> {
+    private static final String[] NO_STRINGS = new String[0];
+    private static final OsmTags EMPTY = new OsmTags(NO_STRINGS, NO_STRINGS);
+    private final String[] keys;
+    private final String[] values;
+
+    private OsmTags(String[] keys, String[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * @return the tags of a node without tags
+     */
+    public static @NonNull OsmTags empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param tags the tags to copy
+     * @return compact tags with the same entries; the given instance if it already is an {@code OsmTags}
+     */
+    public static @NonNull OsmTags copyOf(@NonNull Map<String, String> tags) {
+        if (tags instanceof OsmTags osmTags) {
+            return osmTags;
+        }
+        Builder builder = new Builder(tags.size());
+        tags.forEach(builder::put);
+        return builder.build();
+    }
+
+    /**
+     * @param expectedSize the expected number of tags
+     * @return a new builder
+     */
+    public static @NonNull Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    @Override
+    public @Nullable String get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super String> action) {
+        for (int i = 0; i < keys.length; i++) {
+            action.accept(keys[i], values[i]);
+        }
+    }
+
+    @Override
+    public @NonNull Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public int size() {
+                return keys.length;
+            }
+
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < keys.length;
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (index >= keys.length) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, String> entry = new SimpleImmutableEntry<>(keys[index], values[index]);
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+        };
+    }
+
+    private int indexOf(Object key) {
+        return key instanceof String string ? Arrays.binarySearch(keys, string) : -1;
+    }
+
+    /**
+     * Collects tags and builds {@link OsmTags}. A builder can be reused after {@link #clear()}, so that parsers
+     * need one builder instead of a map per node.
+     */
+    public static final class Builder {
+        private String[] keys;
+        private String[] values;
+        private int size;
+
+        private Builder(int expectedSize) {
+            keys = new String[Math.max(expectedSize, 4)];
+            values = new String[keys.length];
+        }
+
+        /**
+         * Adds a tag; a later value for the same key replaces an earlier one.
+         *
+         * @param key   the tag key
+         * @param value the tag value
+         * @return this builder
+         */
+        public @NonNull Builder put(@NonNull String key, @NonNull String value) {
+            Objects.requireNonNull(key, "Tag key cannot be null");
+            Objects.requireNonNull(value, "Tag value cannot be null");
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            keys[size] = key.intern();
+            values[size] = value;
+            size++;
+            return this;
+        }
+
+        /**
+         * @return the number of tags added since the last {@link #clear()}
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Removes all tags, so that the builder can be reused.
+         */
+        public void clear() {
+            Arrays.fill(keys, 0, size, null);
+            Arrays.fill(values, 0, size, null);
+            size = 0;
+        }
+
+        /**
+         * @return the tags added since the last {@link #clear()}
+         */
+        public @NonNull OsmTags build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            String[] sortedKeys = Arrays.copyOf(keys, size);
+            String[] sortedValues = Arrays.copyOf(values, size);
+            // insertion sort: nodes have few tags, and they are often already sorted
+            int length = 0;
+            for (int i = 0; i < size; i++) {
+                String key = sortedKeys[i];
+                String value = sortedValues[i];
+                int position = length;
+                while (position > 0 && sortedKeys[position - 1].compareTo(key) > 0) {
+                    position--;
+                }
+                if (position > 0 && sortedKeys[position - 1].equals(key)) {
+                    sortedValues[position - 1] = value;
+                    continue;
+                }
+                System.arraycopy(sortedKeys, position, sortedKeys, position + 1, length - position);
+                System.arraycopy(sortedValues, position, sortedValues, position + 1, length - position);
+                sortedKeys[position] = key;
+                sortedValues[position] = value;
+                length++;
+            }
+            if (length < size) {
+                sortedKeys = Arrays.copyOf(sortedKeys, length);
+                sortedValues = Arrays.copyOf(sortedValues, length);
+            }
+            return new OsmTags(sortedKeys, sortedValues);
+        }
+    }
+}
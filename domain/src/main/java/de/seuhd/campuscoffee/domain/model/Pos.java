@@ -24,6 +24,9 @@ import java.time.LocalDateTime;
  * @param houseNumber house number (may include suffix such as "21a")
  * @param postalCode  postal code
  * @param city        city name
+ * @param osmNodeId   the ID of the OpenStreetMap node the POS was imported from; null if it was not imported
+ * @param latitude    the latitude of the POS (WGS 84, in degrees); null if the location is unknown
+ * @param longitude   the longitude of the POS (WGS 84, in degrees); null if the location is unknown
  */
 @Builder(toBuilder = true)
 public record Pos(
@@ -38,7 +41,9 @@ public record Pos(
         @NonNull String houseNumber,
         @NonNull Integer postalCode,
         @NonNull String city,
-        @Nullable Long osmNodeId
+        @Nullable Long osmNodeId,
+        @Nullable Double latitude,
+        @Nullable Double longitude
 ) implements Serializable { // serializable to allow cloning (see TestFixtures class).
     @Serial
     private static final long serialVersionUID = 1L;
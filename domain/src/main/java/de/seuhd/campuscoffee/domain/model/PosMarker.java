@@ -0,0 +1,21 @@
+package de.seuhd.campuscoffee.domain.model;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Marker on a map tile: either a single POS or a cluster of nearby POS.
+ *
+ * @param latitude  the latitude of the POS, or the mean latitude of the clustered POS (WGS 84, in degrees)
+ * @param longitude the longitude of the POS, or the mean longitude of the clustered POS (WGS 84, in degrees)
+ * @param count     the number of POS represented by the marker; 1 for a single POS
+ * @param posId     the ID of the single POS; null for a cluster
+ * @param name      the name of the single POS; null for a cluster
+ */
+public record PosMarker(
+        double latitude,
+        double longitude,
+        int count,
+        @Nullable Long posId,
+        @Nullable String name
+) {
+}
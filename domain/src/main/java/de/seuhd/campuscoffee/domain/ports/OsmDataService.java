@@ -1,9 +1,15 @@
 package de.seuhd.campuscoffee.domain.ports;
 
+import de.seuhd.campuscoffee.domain.model.BoundingBox;
 import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.model.OsmNodeBatch;
+import de.seuhd.campuscoffee.domain.exceptions.OsmApiUnavailableException;
 import de.seuhd.campuscoffee.domain.exceptions.OsmNodeNotFoundException;
 import org.jspecify.annotations.NonNull;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Port for importing Point of Sale data from OpenStreetMap.
  * This interface defines the contract for fetching OSM node data.
@@ -16,6 +22,29 @@ public interface OsmDataService {
      * @param nodeId the OpenStreetMap node ID to fetch
      * @return the OSM node data with tags
      * @throws OsmNodeNotFoundException if the node doesn't exist or can't be fetched
+     * @throws OsmApiUnavailableException if the OSM API is known to be failing and was not called
+     */
+    @NonNull OsmNode fetchNode(@NonNull Long nodeId) throws OsmNodeNotFoundException, OsmApiUnavailableException;
+
+    /**
+     * Fetches multiple OpenStreetMap nodes, using as few requests as possible.
+     * The result is partial: nodes that don't exist are missing from the returned batch, and nodes whose request
+     * failed are reported as unavailable, instead of failing the whole batch.
+     *
+     * @param nodeIds the OpenStreetMap node IDs to fetch; duplicates are fetched only once
+     * @return the fetched nodes by node ID, in the order of the given IDs, and the IDs of the unavailable nodes
+     */
+    @NonNull OsmNodeBatch fetchNodes(@NonNull Collection<Long> nodeIds);
+
+    /**
+     * Discovers the POS candidates in an area, i.e., the nodes inside the bounding box whose tags match the
+     * configured tag filters (e.g., {@code amenity=cafe}). Unlike {@link #fetchNodes}, the discovery fails as a whole
+     * if parts of the area can't be fetched, since a partial result would look like an area with fewer POS.
+     *
+     * @param boundingBox the area to search
+     * @return the matching nodes, ordered by node ID
+     * @throws IllegalArgumentException if the area is larger than the implementation allows
+     * @throws OsmApiUnavailableException if parts of the area can't be fetched
      */
-    @NonNull OsmNode fetchNode(@NonNull Long nodeId) throws OsmNodeNotFoundException;
+    @NonNull List<OsmNode> discoverNodes(@NonNull BoundingBox boundingBox);
 }
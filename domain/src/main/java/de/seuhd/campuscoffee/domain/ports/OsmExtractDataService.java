@@ -0,0 +1,27 @@
+package de.seuhd.campuscoffee.domain.ports;
+
+import de.seuhd.campuscoffee.domain.exceptions.OsmExtractException;
+import de.seuhd.campuscoffee.domain.model.OsmExtractStats;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import org.jspecify.annotations.NonNull;
+
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Port for reading Point of Sale candidates from OpenStreetMap extract files (e.g., regional extracts
+ * downloaded from Geofabrik), as an offline alternative to fetching nodes one by one via {@link OsmDataService}.
+ * Implementations should stream the file in constant memory and select nodes by configurable tag filters.
+ */
+public interface OsmExtractDataService {
+    /**
+     * Reads all nodes of an extract file and passes those that match the configured tag filters to the consumer,
+     * one at a time and in file order.
+     *
+     * @param file     the extract file
+     * @param consumer the consumer of the matching nodes
+     * @return statistics of the pass, including the throughput
+     * @throws OsmExtractException if the file cannot be read or has an unsupported format
+     */
+    @NonNull OsmExtractStats readNodes(@NonNull Path file, @NonNull Consumer<OsmNode> consumer) throws OsmExtractException;
+}
@@ -0,0 +1,45 @@
+package de.seuhd.campuscoffee.domain.ports;
+
+import de.seuhd.campuscoffee.domain.exceptions.OsmReplicationException;
+import de.seuhd.campuscoffee.domain.model.OsmNodeChange;
+import de.seuhd.campuscoffee.domain.model.OsmReplicationState;
+import org.jspecify.annotations.NonNull;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.LongPredicate;
+
+/**
+ * Port for reading OpenStreetMap replication diffs (osmChange files) and for tracking which of them have been applied.
+ */
+public interface OsmReplicationDataService {
+    /**
+     * @return the current state of the replication source, i.e., the latest published diff
+     * @throws OsmReplicationException if the state cannot be read
+     */
+    @NonNull OsmReplicationState currentState() throws OsmReplicationException;
+
+    /**
+     * Reads the node changes of one diff.
+     *
+     * @param sequenceNumber the sequence number of the diff
+     * @param nodeFilter     selects the nodes of interest; changes to other nodes (and all ways and relations)
+     *                       are skipped while the diff is read
+     * @return the changes to the selected nodes, in the order of the diff
+     * @throws OsmReplicationException if the diff cannot be read
+     */
+    @NonNull List<OsmNodeChange> readNodeChanges(long sequenceNumber, @NonNull LongPredicate nodeFilter)
+            throws OsmReplicationException;
+
+    /**
+     * @return the sequence number of the last applied diff of the replication source, or empty if none was applied
+     */
+    @NonNull OptionalLong lastAppliedSequence();
+
+    /**
+     * Records that all diffs of the replication source up to the given sequence number have been applied.
+     *
+     * @param sequenceNumber the sequence number of the last applied diff
+     */
+    void saveLastAppliedSequence(long sequenceNumber);
+}
@@ -4,7 +4,10 @@ import de.seuhd.campuscoffee.domain.model.Pos;
 import de.seuhd.campuscoffee.domain.exceptions.PosNotFoundException;
 import org.jspecify.annotations.NonNull;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Port interface for POS data operations.
@@ -47,4 +50,28 @@ public interface PosDataService {
      * @throws PosNotFoundException if attempting to update a POS that does not exist
      */
     @NonNull Pos upsert(@NonNull Pos pos) throws PosNotFoundException;
+
+    /**
+     * Creates or updates several POS in one transaction; either all of them are persisted or none.
+     *
+     * @param posList the POS entities to create or update; must not be null
+     * @return the persisted POS entities, in the given order
+     * @throws PosNotFoundException if attempting to update a POS that does not exist
+     */
+    @NonNull List<Pos> upsertAll(@NonNull List<Pos> posList) throws PosNotFoundException;
+
+    /**
+     * Retrieves the OpenStreetMap node IDs of all POS that were imported from OpenStreetMap.
+     *
+     * @return the node IDs; never null, but may be empty
+     */
+    @NonNull Set<Long> getAllOsmNodeIds();
+
+    /**
+     * Retrieves the POS that were imported from the given OpenStreetMap nodes.
+     *
+     * @param osmNodeIds the OpenStreetMap node IDs
+     * @return the POS by OSM node ID; nodes without a POS are missing from the map
+     */
+    @NonNull Map<Long, Pos> getByOsmNodeIds(@NonNull Collection<Long> osmNodeIds);
 }
@@ -2,13 +2,18 @@ package de.seuhd.campuscoffee.domain.ports;
 
 
 import de.seuhd.campuscoffee.domain.exceptions.DuplicatePosNameException;
+import de.seuhd.campuscoffee.domain.exceptions.OsmApiUnavailableException;
 import de.seuhd.campuscoffee.domain.exceptions.OsmNodeMissingFieldsException;
 import de.seuhd.campuscoffee.domain.exceptions.OsmNodeNotFoundException;
 import de.seuhd.campuscoffee.domain.exceptions.PosNotFoundException;
+import de.seuhd.campuscoffee.domain.model.MapTile;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
 import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosMarker;
 import org.jspecify.annotations.NonNull;
 
 import java.util.List;
+import java.util.function.BiConsumer;
 
 /**
  * Service interface for POS (Point of Sale) operations.
@@ -42,6 +47,15 @@ public interface PosService {
      */
     @NonNull Pos getById(@NonNull Long id) throws PosNotFoundException;
 
+    /**
+     * Retrieves the markers of the POS on a map tile, with nearby POS clustered into one marker
+     * (see {@link PosTileDataService}). POS without coordinates are not shown on the map.
+     *
+     * @param tile the map tile; must not be null
+     * @return the markers within the tile; never null, but may be empty
+     */
+    @NonNull List<PosMarker> getMarkers(@NonNull MapTile tile);
+
     /**
      * Creates a new POS or updates an existing one.
      * This method performs an "upsert" operation:
@@ -80,8 +94,42 @@ public interface PosService {
      * @param nodeId the OpenStreetMap node ID to import; must not be null
      * @return the created or updated POS entity; never null
      * @throws OsmNodeNotFoundException if the OSM node with the given ID doesn't exist or cannot be fetched
+     * @throws OsmApiUnavailableException if the OSM API is known to be failing and was not called
      * @throws OsmNodeMissingFieldsException if the OSM node lacks required fields for creating a valid POS
      * @throws DuplicatePosNameException if a POS with the same name already exists
      */
-    @NonNull Pos importFromOsmNode(@NonNull Long nodeId) throws OsmNodeNotFoundException, OsmNodeMissingFieldsException, DuplicatePosNameException;
+    @NonNull Pos importFromOsmNode(@NonNull Long nodeId) throws OsmNodeNotFoundException, OsmApiUnavailableException, OsmNodeMissingFieldsException, DuplicatePosNameException;
+
+    /**
+     * Imports a Point of Sale from an OpenStreetMap node that has already been fetched,
+     * e.g., as part of a batch fetched with {@link OsmDataService#fetchNodes}.
+     *
+     * @param osmNode the OpenStreetMap node to import; must not be null
+     * @return the created or updated POS entity; never null
+     * @throws OsmNodeMissingFieldsException if the OSM node lacks required fields for creating a valid POS
+     * @throws DuplicatePosNameException if a POS with the same name already exists
+     */
+    @NonNull Pos importFromOsmNode(@NonNull OsmNode osmNode) throws OsmNodeMissingFieldsException, DuplicatePosNameException;
+
+    /**
+     * Imports several Points of Sale from OpenStreetMap nodes that have already been fetched, in a single transaction
+     * if possible. If a name already exists, the nodes are imported one by one instead.
+     * Nodes that cannot be imported are skipped and passed to {@code rejected}.
+     *
+     * @param osmNodes the OpenStreetMap nodes to import; must not be null
+     * @param rejected receives each skipped node with the reason, an {@link OsmNodeMissingFieldsException} or a
+     *                 {@link DuplicatePosNameException}
+     * @return the created POS entities, in the order of the nodes; never null
+     */
+    @NonNull List<Pos> importFromOsmNodes(@NonNull List<OsmNode> osmNodes,
+                                          @NonNull BiConsumer<OsmNode, RuntimeException> rejected);
+
+    /**
+     * Updates the POS that were imported from the given OpenStreetMap nodes with the current data of the nodes,
+     * in a single transaction if possible. Nodes without a POS and nodes that are no longer valid POS are skipped.
+     *
+     * @param osmNodes the changed OSM nodes
+     * @return the updated POS
+     */
+    @NonNull List<Pos> updateFromOsmNodes(@NonNull List<OsmNode> osmNodes);
 }
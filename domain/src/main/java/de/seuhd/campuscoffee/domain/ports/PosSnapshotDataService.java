@@ -0,0 +1,32 @@
+package de.seuhd.campuscoffee.domain.ports;
+
+import de.seuhd.campuscoffee.domain.exceptions.PosSnapshotException;
+import org.jspecify.annotations.NonNull;
+
+import java.nio.file.Path;
+
+/**
+ * Port for writing all POS to a snapshot file and for restoring them from it in one bulk operation, e.g., to seed a
+ * development database much faster than creating the POS one by one via {@link PosDataService}.
+ * The file format is defined by the implementation.
+ */
+public interface PosSnapshotDataService {
+    /**
+     * Writes all POS to a snapshot file, replacing the file if it exists.
+     *
+     * @param file the snapshot file; its parent directories are created if they do not exist
+     * @return the number of POS written
+     * @throws PosSnapshotException if the file cannot be written
+     */
+    long writeSnapshot(@NonNull Path file) throws PosSnapshotException;
+
+    /**
+     * Replaces all POS with those of a snapshot file in one transaction; either all of them are restored or the POS
+     * are left unchanged. New POS get IDs after the largest restored one.
+     *
+     * @param file the snapshot file written by {@link #writeSnapshot(Path)}
+     * @return the number of POS restored
+     * @throws PosSnapshotException if the file cannot be read or does not match the data store
+     */
+    long restoreSnapshot(@NonNull Path file) throws PosSnapshotException;
+}
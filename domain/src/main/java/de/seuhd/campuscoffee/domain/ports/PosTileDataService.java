@@ -0,0 +1,22 @@
+package de.seuhd.campuscoffee.domain.ports;
+
+import de.seuhd.campuscoffee.domain.model.MapTile;
+import de.seuhd.campuscoffee.domain.model.PosMarker;
+import org.jspecify.annotations.NonNull;
+
+import java.util.List;
+
+/**
+ * Port for the markers of the POS with known coordinates on the tiles of a web map, where POS that are close to each
+ * other at the zoom level of the tile are clustered into one marker. How close that is, is defined by the
+ * implementation; the number of markers per tile is bounded, however many POS there are.
+ */
+public interface PosTileDataService {
+    /**
+     * Retrieves the markers of the POS on a map tile.
+     *
+     * @param tile the map tile
+     * @return the markers of single POS and of clusters within the tile; never null, but may be empty
+     */
+    @NonNull List<PosMarker> getMarkers(@NonNull MapTile tile);
+}
@@ -0,0 +1,50 @@
+package de.seuhd.campuscoffee.domain.ports;
+
+import de.seuhd.campuscoffee.domain.exceptions.DuplicatePosNameException;
+import de.seuhd.campuscoffee.domain.exceptions.PosNotFoundException;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import org.jspecify.annotations.NonNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of {@link PosDataService} for the reactive adapter stack, where no thread waits for the
+ * database. Implementations must not block; all operations run when the returned publisher is subscribed to, and
+ * errors are signaled through it.
+ * <p>
+ * The semantics match those of {@link PosDataService}, so that the servlet and the reactive application can share a
+ * database.
+ */
+public interface ReactivePosDataService {
+    /**
+     * Clears all POS data from the data store.
+     * Warning: This operation is destructive and cannot be undone.
+     *
+     * @return completes when the POS are deleted
+     */
+    @NonNull Mono<Void> clear();
+
+    /**
+     * Retrieves all POS, streamed as they are read from the data store.
+     *
+     * @return the POS; empty if there are none
+     */
+    @NonNull Flux<Pos> getAll();
+
+    /**
+     * Retrieves a single POS by its unique identifier.
+     *
+     * @param id the unique identifier of the POS to retrieve
+     * @return the POS; signals {@link PosNotFoundException} if no POS exists with the given ID
+     */
+    @NonNull Mono<Pos> getById(@NonNull Long id);
+
+    /**
+     * Creates a new POS (if its ID is null) or updates an existing one.
+     *
+     * @param pos the POS to create or update
+     * @return the persisted POS with ID and timestamps; signals {@link PosNotFoundException} if the POS to update
+     * does not exist and {@link DuplicatePosNameException} if another POS has the same name
+     */
+    @NonNull Mono<Pos> upsert(@NonNull Pos pos);
+}
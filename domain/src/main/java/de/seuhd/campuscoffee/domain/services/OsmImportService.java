@@ -1,5 +1,10 @@
 package de.seuhd.campuscoffee.domain.services;
 
+import de.seuhd.campuscoffee.domain.model.BoundingBox;
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.Pos;
+
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +22,25 @@ public interface OsmImportService {
      * @return List of successfully imported node IDs
      */
     List<Long> importFromOsmNodes(List<Long> nodeIds);
-}
\ No newline at end of file
+
+    /**
+     * Imports all POS candidates from an OSM extract file without calling the OSM API
+     * @param file The extract file
+     * @return List of successfully imported node IDs
+     */
+    List<Long> importFromOsmExtract(Path file);
+
+    /**
+     * Discovers all POS candidates in an area with a single search and imports them in bulk
+     * @param boundingBox The area to search
+     * @return List of successfully imported POS, ordered by OSM node ID
+     */
+    List<Pos> importFromBoundingBox(BoundingBox boundingBox);
+
+    /**
+     * Discovers all POS candidates on a campus and imports them in bulk
+     * @param campus The campus, see {@link CampusType#boundingBox()}
+     * @return List of successfully imported POS, ordered by OSM node ID
+     */
+    List<Pos> importFromCampus(CampusType campus);
+}
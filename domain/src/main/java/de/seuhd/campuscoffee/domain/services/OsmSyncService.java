@@ -0,0 +1,11 @@
+package de.seuhd.campuscoffee.domain.services;
+
+import de.seuhd.campuscoffee.domain.model.OsmSyncStats;
+
+public interface OsmSyncService {
+    /**
+     * Applies the OSM replication diffs published since the last run to the POS imported from OSM nodes
+     * @return Statistics of the run
+     */
+    OsmSyncStats sync();
+}
@@ -0,0 +1,147 @@
+package de.seuhd.campuscoffee.loadtests;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The application, started from its executable jar in a JVM of its own, so that the load generator does not compete
+ * with it for the JIT compiler and garbage collector, or as a native executable. Its output is written to {@code application.log} in the
+ * working directory.
+ */
+final class ApplicationProcess implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private final Process process;
+    private final URI baseUri;
+    private Duration startupTime = Duration.ZERO;
+
+    private ApplicationProcess(Process process, URI baseUri) {
+        this.process = process;
+        this.baseUri = baseUri;
+    }
+
+    /**
+     * Starts the application from its executable jar and waits until it reports to be healthy.
+     *
+     * @param jar              the executable jar
+     * @param jvmArgs          the JVM options
+     * @param properties       the application properties, passed as command-line arguments
+     * @param workingDirectory the working directory of the application
+     * @return the running application
+     */
+    static ApplicationProcess start(Path jar, List<String> jvmArgs, Map<String, String> properties,
+                                    Path workingDirectory) throws IOException, InterruptedException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Application jar " + jar + " does not exist, build the application first");
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toAbsolutePath().toString());
+        return start(command, properties, workingDirectory);
+    }
+
+    /**
+     * Starts the application with the given command, e.g., a native executable, and waits until it reports to be
+     * healthy.
+     *
+     * @param command          the command without the application properties
+     * @param properties       the application properties, passed as command-line arguments
+     * @param workingDirectory the working directory of the application
+     * @return the running application
+     */
+    static ApplicationProcess start(List<String> command, Map<String, String> properties,
+                                    Path workingDirectory) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add("--server.port=" + port);
+        properties.forEach((name, value) -> arguments.add("--" + name + "=" + value));
+
+        Files.createDirectories(workingDirectory);
+        long startNanos = System.nanoTime();
+        Process process = new ProcessBuilder(arguments)
+                .directory(workingDirectory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(workingDirectory.resolve("application.log").toFile())
+                .start();
+        ApplicationProcess application = new ApplicationProcess(process, URI.create("http://localhost:" + port));
+        try {
+            application.awaitHealthy();
+        } catch (InterruptedException | RuntimeException e) {
+            application.close();
+            throw e;
+        }
+        application.startupTime = Duration.ofNanos(System.nanoTime() - startNanos);
+        return application;
+    }
+
+    /**
+     * @return the base URI of the application, e.g., {@code http://localhost:12345}
+     */
+    URI baseUri() {
+        return baseUri;
+    }
+
+    /**
+     * @return the time from starting the process until the application reported to be healthy
+     */
+    Duration startupTime() {
+        return startupTime;
+    }
+
+    @Override
+    public void close() {
+        process.destroy();
+        try {
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitHealthy() throws InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/actuator/health")).build();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue()
+                            + ", see application.log");
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return;
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                // short, since the startup time is measured with this resolution
+                Thread.sleep(10);
+            }
+        }
+        throw new IllegalStateException("Application did not become healthy within " + STARTUP_TIMEOUT);
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package de.seuhd.campuscoffee.loadtests;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static de.seuhd.campuscoffee.TestUtils.getPostgresContainer;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the startup time and the latency of the first request of the application in the available startup modes:
+ * <ul>
+ *     <li>{@code jar}: the executable jar ({@code mvn package -pl application -am})</li>
+ *     <li>{@code aot}: the extracted jar with the Spring AOT-generated bean definitions
+ *     ({@code mvn -Paot-cds package -pl application -am}, see {@code application/pom.xml})</li>
+ *     <li>{@code aot-cds}: as {@code aot}, with the class data sharing archive of the training run</li>
+ *     <li>{@code native}: the GraalVM native image ({@code mvn -Pnative native:compile -pl application -am})</li>
+ * </ul>
+ * Modes whose artifacts have not been built are skipped. The startup time is measured from starting the process until
+ * the health endpoint responds, the first request is {@code GET /api/pos} right after. Each mode is started once
+ * unmeasured to warm up the page cache (and, for the first mode, to migrate the database).
+ * <p>
+ * Run with {@code mvn -Pload-tests verify -pl load-tests -Dtest=ApplicationStartupBenchmark -Dbenchmark=true};
+ * the number of measured starts per mode defaults to 5 and can be set with {@code -Dbenchmark.runs=10}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ApplicationStartupBenchmark {
+
+    @Test
+    void startupModes() throws IOException, InterruptedException {
+        LoadTestProperties properties = LoadTestProperties.fromSystemProperties();
+        int runs = Integer.getInteger("benchmark.runs", 5);
+        Path jar = properties.applicationJar().toAbsolutePath();
+        Path cdsDirectory = jar.resolveSibling("cds");
+        Path extractedJar = cdsDirectory.resolve(jar.getFileName());
+        Path nativeExecutable = jar.resolveSibling("application");
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("jar", jvmCommand(java, properties.jvmArgs(), List.of(), jar));
+        if (Files.isRegularFile(extractedJar)) {
+            modes.put("aot", jvmCommand(java, properties.jvmArgs(), List.of("-Dspring.aot.enabled=true"), extractedJar));
+            if (Files.isRegularFile(cdsDirectory.resolve("application.jsa"))) {
+                modes.put("aot-cds", jvmCommand(java, properties.jvmArgs(), List.of("-Dspring.aot.enabled=true",
+                        "-XX:SharedArchiveFile=" + cdsDirectory.resolve("application.jsa")), extractedJar));
+            }
+        } else {
+            System.out.printf("%nSkipping aot and aot-cds, %s does not exist (build with -Paot-cds)%n", extractedJar);
+        }
+        if (Files.isExecutable(nativeExecutable)) {
+            modes.put("native", List.of(nativeExecutable.toString()));
+        } else {
+            System.out.printf("Skipping native, %s does not exist (build with -Pnative native:compile)%n",
+                    nativeExecutable);
+        }
+
+        // like the container of the system tests, it is left running for reuse
+        PostgreSQLContainer<?> postgresContainer = getPostgresContainer("load_test");
+        postgresContainer.start();
+        Map<String, String> applicationProperties = Map.of(
+                "spring.datasource.url", postgresContainer.getJdbcUrl(),
+                "spring.datasource.username", postgresContainer.getUsername(),
+                "spring.datasource.password", postgresContainer.getPassword());
+        Path workingDirectory = properties.results().toAbsolutePath().resolveSibling("startup");
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+            Path modeDirectory = workingDirectory.resolve(mode.getKey());
+            measure(mode.getValue(), applicationProperties, modeDirectory);
+            double[] startupMillis = new double[runs];
+            double[] firstRequestMillis = new double[runs];
+            for (int i = 0; i < runs; i++) {
+                double[] sample = measure(mode.getValue(), applicationProperties, modeDirectory);
+                startupMillis[i] = sample[0];
+                firstRequestMillis[i] = sample[1];
+            }
+            results.put(mode.getKey(), new Result(median(startupMillis), median(firstRequestMillis)));
+        }
+
+        Result jarResult = results.get("jar");
+        System.out.printf("%nApplication startup, median of %d starts, %d available core(s)%n", runs,
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %12s %8s %18s%n", "mode", "startup ms", "speedup", "first request ms");
+        results.forEach((mode, result) -> System.out.printf("%-8s %12.0f %7.2fx %18.1f%n", mode,
+                result.startupMillis(), jarResult.startupMillis() / result.startupMillis(), result.firstRequestMillis()));
+        if (results.containsKey("aot-cds")) {
+            assertThat(results.get("aot-cds").startupMillis()).isLessThan(jarResult.startupMillis());
+        }
+    }
+
+    /**
+     * @return the startup time and the latency of the first request in milliseconds
+     */
+    private static double[] measure(List<String> command, Map<String, String> properties, Path workingDirectory)
+            throws IOException, InterruptedException {
+        try (ApplicationProcess application = ApplicationProcess.start(command, properties, workingDirectory);
+             HttpClient client = HttpClient.newHttpClient()) {
+            HttpRequest request = HttpRequest.newBuilder(application.baseUri().resolve("/api/pos")).build();
+            long start = System.nanoTime();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            long firstRequestNanos = System.nanoTime() - start;
+            assertThat(response.statusCode()).isEqualTo(200);
+            return new double[]{application.startupTime().toNanos() / 1e6, firstRequestNanos / 1e6};
+        }
+    }
+
+    private static List<String> jvmCommand(String java, List<String> jvmArgs, List<String> modeArgs, Path jar) {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmArgs);
+        command.addAll(modeArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        return command;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private record Result(double startupMillis, double firstRequestMillis) {
+    }
+}
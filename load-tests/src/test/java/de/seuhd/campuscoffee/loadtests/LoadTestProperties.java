@@ -0,0 +1,64 @@
+package de.seuhd.campuscoffee.loadtests;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings of the load test, read from system properties (e.g., {@code -Dload-test.concurrency=4,16,64}).
+ *
+ * @param applicationJar the executable jar of the application ({@code load-test.application-jar})
+ * @param jvmArgs        the JVM options of the application ({@code load-test.jvm-args})
+ * @param concurrency    the numbers of virtual users, one scenario each ({@code load-test.concurrency})
+ * @param warmup         the duration of the unmeasured warm-up before each scenario ({@code load-test.warmup})
+ * @param duration       the measured duration of each scenario ({@code load-test.duration})
+ * @param mix            the relative weights of the operations ({@code load-test.mix})
+ * @param seedPos        the number of POS created before the first scenario ({@code load-test.seed-pos})
+ * @param baseline       the stored baseline to compare with ({@code load-test.baseline})
+ * @param results        the file to write the results to ({@code load-test.results})
+ * @param maxRegression  the tolerated relative regression of p95, p99, and throughput ({@code load-test.max-regression})
+ */
+record LoadTestProperties(
+        Path applicationJar,
+        List<String> jvmArgs,
+        List<Integer> concurrency,
+        Duration warmup,
+        Duration duration,
+        Map<Workload.Operation, Integer> mix,
+        int seedPos,
+        Path baseline,
+        Path results,
+        double maxRegression
+) {
+    static LoadTestProperties fromSystemProperties() {
+        return new LoadTestProperties(
+                Path.of(property("application-jar", "../application/target/application-0.0.1.jar")),
+                List.of(property("jvm-args", "-Xms512m -Xmx512m").trim().split("\\s+")),
+                Arrays.stream(property("concurrency", "8,32").split(","))
+                        .map(value -> Integer.parseInt(value.trim()))
+                        .toList(),
+                Duration.parse(property("warmup", "PT20S")),
+                Duration.parse(property("duration", "PT30S")),
+                parseMix(property("mix", "getById=70,getAll=5,update=20,create=3,import=2")),
+                Integer.parseInt(property("seed-pos", "200")),
+                Path.of(property("baseline", "baseline/results.json")),
+                Path.of(property("results", "target/results.json")),
+                Double.parseDouble(property("max-regression", "0.20")));
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("load-test." + name, defaultValue);
+    }
+
+    private static Map<Workload.Operation, Integer> parseMix(String mix) {
+        Map<Workload.Operation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            weights.put(Workload.Operation.fromName(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
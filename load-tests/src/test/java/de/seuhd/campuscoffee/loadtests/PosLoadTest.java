@@ -0,0 +1,133 @@
+package de.seuhd.campuscoffee.loadtests;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.seuhd.campuscoffee.OsmApiStandIn;
+import de.seuhd.campuscoffee.loadtests.Workload.OperationResult;
+import de.seuhd.campuscoffee.loadtests.Workload.ScenarioResult;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static de.seuhd.campuscoffee.TestUtils.getPostgresContainer;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test of the POS endpoints: starts the application against a Postgres testcontainer (set up as for
+ * the system tests) and a local OSM API stand-in, runs the mixed {@link Workload} once per configured concurrency, and
+ * fails if any request fails or if p95, p99, or throughput regress beyond the stored baseline.
+ * <p>
+ * Each scenario is preceded by an unmeasured warm-up. p50 is reported but not checked, and latency regressions below
+ * {@value #MIN_REGRESSION_MILLIS} ms or of operations with fewer than {@value #MIN_SAMPLES} requests are ignored,
+ * since they are mostly noise. See {@link LoadTestProperties} for the settings.
+ */
+class PosLoadTest {
+    private static final double MIN_REGRESSION_MILLIS = 1.0;
+    private static final int MIN_SAMPLES = 100;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @Test
+    void mixedWorkload() throws IOException, InterruptedException, SQLException {
+        LoadTestProperties properties = LoadTestProperties.fromSystemProperties();
+        Map<String, ScenarioResult> results = new LinkedHashMap<>();
+        // like the container of the system tests, it is left running for reuse
+        PostgreSQLContainer<?> postgresContainer = getPostgresContainer("load_test");
+        postgresContainer.start();
+        try (OsmApiStandIn osmApi = new OsmApiStandIn()) {
+            try (ApplicationProcess application = ApplicationProcess.start(
+                    properties.applicationJar(), properties.jvmArgs(), Map.of(
+                            "spring.datasource.url", postgresContainer.getJdbcUrl(),
+                            "spring.datasource.username", postgresContainer.getUsername(),
+                            "spring.datasource.password", postgresContainer.getPassword(),
+                            "campus-coffee.osm.api.base-url", osmApi.baseUrl(),
+                            "campus-coffee.osm.cache.enabled", "false"),
+                    properties.results().toAbsolutePath().getParent())) {
+                clear(postgresContainer);
+                Workload workload = new Workload(application.baseUri(), osmApi, properties.mix());
+                workload.seed(properties.seedPos());
+                for (int concurrency : properties.concurrency()) {
+                    workload.run(concurrency, properties.warmup());
+                    ScenarioResult result = workload.run(concurrency, properties.duration());
+                    results.put("mixed-c" + concurrency, result);
+                    print("mixed-c" + concurrency, result);
+                }
+            }
+        }
+        Files.createDirectories(properties.results().toAbsolutePath().getParent());
+        objectMapper.writeValue(properties.results().toFile(), results);
+
+        assertThat(results.values())
+                .as("failed requests")
+                .allSatisfy(result -> assertThat(result.errors()).isZero());
+        if (Files.exists(properties.baseline())) {
+            Map<String, ScenarioResult> baseline = objectMapper.readValue(properties.baseline().toFile(),
+                    new TypeReference<>() {});
+            assertThat(regressions(baseline, results, properties.maxRegression()))
+                    .as("regressions against %s (results in %s)", properties.baseline(), properties.results())
+                    .isEmpty();
+        } else {
+            System.out.printf("%nNo baseline at %s%n", properties.baseline());
+        }
+    }
+
+    /**
+     * Removes the POS of previous runs, since the container is reused.
+     */
+    private static void clear(PostgreSQLContainer<?> postgresContainer) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(postgresContainer.getJdbcUrl(),
+                postgresContainer.getUsername(), postgresContainer.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE pos RESTART IDENTITY");
+        }
+    }
+
+    private static List<String> regressions(Map<String, ScenarioResult> baseline, Map<String, ScenarioResult> results,
+                                            double maxRegression) {
+        List<String> regressions = new ArrayList<>();
+        results.forEach((scenario, result) -> {
+            ScenarioResult base = baseline.get(scenario);
+            if (base == null) {
+                return;
+            }
+            if (result.throughput() < base.throughput() * (1 - maxRegression)) {
+                regressions.add(String.format("%s: throughput %.0f/s, baseline %.0f/s",
+                        scenario, result.throughput(), base.throughput()));
+            }
+            result.operations().forEach((operation, now) -> {
+                OperationResult before = base.operations().get(operation);
+                if (before == null || now.count() < MIN_SAMPLES || before.count() < MIN_SAMPLES) {
+                    return;
+                }
+                checkLatency(regressions, scenario + " " + operation + " p95", before.p95(), now.p95(), maxRegression);
+                checkLatency(regressions, scenario + " " + operation + " p99", before.p99(), now.p99(), maxRegression);
+            });
+        });
+        return regressions;
+    }
+
+    private static void checkLatency(List<String> regressions, String name, double baseMillis, double nowMillis,
+                                     double maxRegression) {
+        if (nowMillis > baseMillis * (1 + maxRegression) && nowMillis - baseMillis > MIN_REGRESSION_MILLIS) {
+            regressions.add(String.format("%s: %.2f ms, baseline %.2f ms", name, nowMillis, baseMillis));
+        }
+    }
+
+    private static void print(String scenario, ScenarioResult result) {
+        System.out.printf("%n%s: %d virtual users, %.0f requests/s, %d error(s)%n", scenario, result.concurrency(),
+                result.throughput(), result.errors());
+        System.out.printf("%-10s %10s %10s %10s %10s%n", "operation", "requests", "p50 ms", "p95 ms", "p99 ms");
+        result.operations().forEach((operation, latencies) -> System.out.printf("%-10s %10d %10.2f %10.2f %10.2f%n",
+                operation, latencies.count(), latencies.p50(), latencies.p95(), latencies.p99()));
+    }
+}
@@ -0,0 +1,113 @@
+package de.seuhd.campuscoffee.loadtests;
+
+import de.seuhd.campuscoffee.OsmApiStandIn;
+import de.seuhd.campuscoffee.loadtests.Workload.Operation;
+import de.seuhd.campuscoffee.loadtests.Workload.ScenarioResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static de.seuhd.campuscoffee.TestUtils.getPostgresContainer;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the servlet application (Tomcat, JPA on JDBC) with the reactive application (Netty, R2DBC) under the
+ * {@link Workload} without OSM imports, which the reactive application does not offer. Both are started in turn
+ * against the same Postgres testcontainer, with the same JVM options and as many database connections, and each
+ * scenario is preceded by an unmeasured warm-up.
+ * <p>
+ * Build the reactive application first ({@code mvn -Preactive package -pl application-reactive -am}), then run with
+ * {@code mvn -Pload-tests verify -pl load-tests -Dtest=ReactiveStackBenchmark -Dbenchmark=true}. The concurrencies
+ * default to 16 and 256 virtual users, the other settings are those of {@link LoadTestProperties}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReactiveStackBenchmark {
+    private static final Map<Operation, Integer> MIX = Map.of(
+            Operation.GET_BY_ID, 70, Operation.GET_ALL, 5, Operation.UPDATE, 20, Operation.CREATE, 5);
+
+    @Test
+    void servletVersusReactive() throws IOException, InterruptedException, SQLException {
+        LoadTestProperties properties = LoadTestProperties.fromSystemProperties();
+        Path reactiveJar = Path.of(System.getProperty("load-test.reactive-application-jar",
+                "../application-reactive/target/application-reactive-0.0.1.jar"));
+        List<Integer> concurrency = System.getProperty("load-test.concurrency") == null
+                ? List.of(16, 256) : properties.concurrency();
+        String poolSize = System.getProperty("benchmark.pool-size", "10");
+
+        // like the container of the system tests, it is left running for reuse
+        PostgreSQLContainer<?> postgresContainer = getPostgresContainer("load_test");
+        postgresContainer.start();
+        String r2dbcUrl = "r2dbc:" + postgresContainer.getJdbcUrl().substring("jdbc:".length());
+        Map<String, Map<String, String>> stacks = new LinkedHashMap<>();
+        stacks.put("servlet", Map.of(
+                "spring.datasource.url", postgresContainer.getJdbcUrl(),
+                "spring.datasource.username", postgresContainer.getUsername(),
+                "spring.datasource.password", postgresContainer.getPassword(),
+                "spring.datasource.hikari.maximum-pool-size", poolSize,
+                "campus-coffee.osm.cache.enabled", "false"));
+        stacks.put("reactive", Map.of(
+                "spring.r2dbc.url", r2dbcUrl,
+                "spring.r2dbc.pool.max-size", poolSize,
+                "spring.flyway.url", postgresContainer.getJdbcUrl(),
+                "spring.flyway.user", postgresContainer.getUsername(),
+                "spring.flyway.password", postgresContainer.getPassword()));
+        Path workingDirectory = properties.results().toAbsolutePath().resolveSibling("reactive-stack");
+
+        Map<String, Map<Integer, ScenarioResult>> results = new LinkedHashMap<>();
+        try (OsmApiStandIn osmApi = new OsmApiStandIn()) {
+            for (Map.Entry<String, Map<String, String>> stack : stacks.entrySet()) {
+                Path jar = stack.getKey().equals("servlet") ? properties.applicationJar() : reactiveJar;
+                try (ApplicationProcess application = ApplicationProcess.start(jar, properties.jvmArgs(),
+                        stack.getValue(), workingDirectory.resolve(stack.getKey()))) {
+                    clear(postgresContainer);
+                    Workload workload = new Workload(application.baseUri(), osmApi, MIX);
+                    workload.seed(properties.seedPos());
+                    Map<Integer, ScenarioResult> stackResults = new LinkedHashMap<>();
+                    for (int users : concurrency) {
+                        workload.run(users, properties.warmup());
+                        stackResults.put(users, workload.run(users, properties.duration()));
+                    }
+                    results.put(stack.getKey(), stackResults);
+                }
+            }
+        }
+
+        System.out.printf("%nServlet vs. reactive stack, %d database connections, %d available core(s)%n",
+                Integer.parseInt(poolSize), Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-6s %-10s %-9s %10s %8s %10s %10s %10s%n",
+                "users", "operation", "stack", "requests/s", "errors", "p50 ms", "p95 ms", "p99 ms");
+        for (int users : concurrency) {
+            results.forEach((stack, stackResults) -> {
+                ScenarioResult result = stackResults.get(users);
+                result.operations().forEach((operation, latencies) -> System.out.printf(
+                        "%-6d %-10s %-9s %10.0f %8d %10.2f %10.2f %10.2f%n", users, operation, stack,
+                        result.throughput(), result.errors(), latencies.p50(), latencies.p95(), latencies.p99()));
+            });
+        }
+        assertThat(results.values())
+                .as("failed requests")
+                .allSatisfy(stackResults -> assertThat(stackResults.values())
+                        .allSatisfy(result -> assertThat(result.errors()).isZero()));
+    }
+
+    /**
+     * Removes the POS of the previous stack or run, since the container is reused.
+     */
+    private static void clear(PostgreSQLContainer<?> postgresContainer) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(postgresContainer.getJdbcUrl(),
+                postgresContainer.getUsername(), postgresContainer.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE pos RESTART IDENTITY");
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package de.seuhd.campuscoffee.loadtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.seuhd.campuscoffee.OsmApiStandIn;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mixed read, write, and import workload against the POS endpoints, driven by a fixed number of virtual users.
+ * <p>
+ * Each virtual user is a thread that sends requests in a closed loop: it picks an operation at random according to
+ * the weights of the mix, waits for the response, and records its latency. Reads and updates target the seeded POS;
+ * creates and imports add new POS, so the catalogue grows during a run. Imported nodes are served by an
+ * {@link OsmApiStandIn}.
+ */
+final class Workload {
+    private static final String POS_PATH = "/api/pos";
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final URI baseUri;
+    private final OsmApiStandIn osmApi;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final List<ObjectNode> seededPos = new ArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * The operations of the workload, named as in {@code load-test.mix} and the results.
+     */
+    enum Operation {
+        GET_BY_ID("getById"),
+        GET_ALL("getAll"),
+        UPDATE("update"),
+        CREATE("create"),
+        IMPORT("import");
+
+        private final String name;
+
+        Operation(String name) {
+            this.name = name;
+        }
+
+        static Operation fromName(String name) {
+            return Arrays.stream(values())
+                    .filter(operation -> operation.name.equals(name))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown operation: " + name));
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    Workload(URI baseUri, OsmApiStandIn osmApi, Map<Operation, Integer> mix) {
+        this.baseUri = baseUri;
+        this.osmApi = osmApi;
+        this.operations = mix.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Creates the POS that reads and updates target.
+     *
+     * @param count the number of POS to create
+     */
+    void seed(int count) throws IOException, InterruptedException {
+        for (int i = 0; i < count; i++) {
+            HttpResponse<String> response = client.send(post(POS_PATH, newPos("Seeded POS " + i)),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+            }
+            seededPos.add((ObjectNode) objectMapper.readTree(response.body()));
+        }
+    }
+
+    /**
+     * Runs the workload.
+     *
+     * @param concurrency the number of virtual users
+     * @param duration    how long to send requests
+     * @return the latencies and throughput
+     */
+    ScenarioResult run(int concurrency, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        List<Future<Recorder>> futures = new ArrayList<>(concurrency);
+        try (ExecutorService virtualUsers = Executors.newFixedThreadPool(concurrency)) {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(virtualUsers.submit(() -> runVirtualUser(end)));
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Recorder recorder = new Recorder();
+        for (Future<Recorder> future : futures) {
+            try {
+                recorder.add(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Virtual user failed", e.getCause());
+            }
+        }
+        return recorder.result(concurrency, seconds);
+    }
+
+    private Recorder runVirtualUser(long end) {
+        Recorder recorder = new Recorder();
+        while (System.nanoTime() < end) {
+            Operation operation = pick();
+            HttpRequest request = request(operation);
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            recorder.record(operation, System.nanoTime() - start, status / 100 == 2);
+        }
+        return recorder;
+    }
+
+    private Operation pick() {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private HttpRequest request(Operation operation) {
+        return switch (operation) {
+            case GET_BY_ID -> HttpRequest.newBuilder(baseUri.resolve(POS_PATH + "/" + randomSeededPos().get("id").asLong()))
+                    .build();
+            case GET_ALL -> HttpRequest.newBuilder(baseUri.resolve(POS_PATH)).build();
+            case UPDATE -> {
+                ObjectNode pos = randomSeededPos().deepCopy();
+                pos.put("description", "Updated " + sequence.incrementAndGet());
+                yield HttpRequest.newBuilder(baseUri.resolve(POS_PATH + "/" + pos.get("id").asLong()))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(pos.toString()))
+                        .build();
+            }
+            case CREATE -> post(POS_PATH, newPos("Created POS " + sequence.incrementAndGet()));
+            case IMPORT -> {
+                long nodeId = 1_000_000L + sequence.incrementAndGet();
+                osmApi.addNode(osmNode(nodeId));
+                yield post(POS_PATH + "/import/osm/" + nodeId, null);
+            }
+        };
+    }
+
+    private ObjectNode randomSeededPos() {
+        return seededPos.get(ThreadLocalRandom.current().nextInt(seededPos.size()));
+    }
+
+    private HttpRequest post(String path, ObjectNode body) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    private ObjectNode newPos(String name) {
+        return objectMapper.createObjectNode()
+                .put("name", name)
+                .put("description", "Load test")
+                .put("type", "CAFE")
+                .put("campus", "ALTSTADT")
+                .put("street", "Hauptstraße")
+                .put("houseNumber", "1")
+                .put("postalCode", 69117)
+                .put("city", "Heidelberg");
+    }
+
+    private static OsmNode osmNode(long nodeId) {
+        return OsmNode.builder()
+                .nodeId(nodeId)
+                .latitude(49.41)
+                .longitude(8.69)
+                .tags(Map.of(
+                        "name", "Imported POS " + nodeId,
+                        "amenity", "cafe",
+                        "addr:street", "Hauptstraße",
+                        "addr:housenumber", "1",
+                        "addr:postcode", "69117",
+                        "addr:city", "Heidelberg"))
+                .build();
+    }
+
+    /**
+     * Latencies of one scenario.
+     *
+     * @param concurrency the number of virtual users
+     * @param seconds     the measured duration
+     * @param throughput  the completed requests per second
+     * @param errors      the number of requests that failed or were not answered with 2xx
+     * @param operations  the latencies per operation
+     */
+    record ScenarioResult(int concurrency, double seconds, double throughput, long errors,
+                          Map<String, OperationResult> operations) {
+    }
+
+    /**
+     * Latency percentiles of one operation in milliseconds.
+     */
+    record OperationResult(long count, double p50, double p95, double p99) {
+    }
+
+    /**
+     * Latencies recorded by one virtual user, merged after a run. Latencies are kept completely, since a run has at
+     * most a few million requests.
+     */
+    private static final class Recorder {
+        private final Map<Operation, long[]> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, Integer> counts = new EnumMap<>(Operation.class);
+        private long errors;
+
+        void record(Operation operation, long nanos, boolean success) {
+            if (!success) {
+                errors++;
+            }
+            int count = counts.getOrDefault(operation, 0);
+            long[] values = latencies.computeIfAbsent(operation, key -> new long[1024]);
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+                latencies.put(operation, values);
+            }
+            values[count] = nanos;
+            counts.put(operation, count + 1);
+        }
+
+        void add(Recorder other) {
+            errors += other.errors;
+            other.counts.forEach((operation, count) -> {
+                for (int i = 0; i < count; i++) {
+                    record(operation, other.latencies.get(operation)[i], true);
+                }
+            });
+        }
+
+        ScenarioResult result(int concurrency, double seconds) {
+            Map<String, OperationResult> operations = new LinkedHashMap<>();
+            long total = 0;
+            for (Map.Entry<Operation, Integer> entry : counts.entrySet()) {
+                int count = entry.getValue();
+                long[] values = Arrays.copyOf(latencies.get(entry.getKey()), count);
+                Arrays.sort(values);
+                operations.put(entry.getKey().toString(), new OperationResult(count,
+                        percentile(values, 0.50), percentile(values, 0.95), percentile(values, 0.99)));
+                total += count;
+            }
+            return new ScenarioResult(concurrency, seconds, total / seconds, errors, operations);
+        }
+
+        private static double percentile(long[] sortedNanos, double percentile) {
+            int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
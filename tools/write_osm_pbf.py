@@ -0,0 +1,147 @@
+#!/usr/bin/env python3
+"""Converts a small OSM XML file to the OSM PBF format (standard library only).
+
+    tools/write_osm_pbf.py <in.osm> <out.osm.pbf>
+
+Nodes are written as DenseNodes, except for the last node, which is written in the plain Node encoding; ways are
+written to a separate block, so that the file covers all encodings that the reader supports. Used to write the test
+extract application/src/test/resources/osm/heidelberg-sample.osm.pbf from heidelberg-sample.osm.
+"""
+import struct
+import sys
+import xml.etree.ElementTree as ElementTree
+import zlib
+
+GRANULARITY = 100
+
+
+def varint(value):
+    out = bytearray()
+    while True:
+        byte = value & 0x7f
+        value >>= 7
+        if value:
+            out.append(byte | 0x80)
+        else:
+            out.append(byte)
+            return bytes(out)
+
+
+def zigzag(value):
+    return (value << 1) ^ (value >> 63)
+
+
+def field_varint(number, value):
+    return varint(number << 3) + varint(value)
+
+
+def field_bytes(number, data):
+    return varint((number << 3) | 2) + varint(len(data)) + data
+
+
+def packed(number, values):
+    return field_bytes(number, b''.join(varint(value) for value in values))
+
+
+def packed_sint(number, values):
+    return packed(number, [zigzag(value) for value in values])
+
+
+def delta(values):
+    previous = 0
+    for value in values:
+        yield value - previous
+        previous = value
+
+
+class StringTable:
+    def __init__(self):
+        self.strings = ['']
+        self.indexes = {'': 0}
+
+    def index(self, string):
+        if string not in self.indexes:
+            self.indexes[string] = len(self.strings)
+            self.strings.append(string)
+        return self.indexes[string]
+
+    def encode(self):
+        return b''.join(field_bytes(1, string.encode('utf-8')) for string in self.strings)
+
+
+def coordinate(degrees):
+    return round(degrees * 1e9 / GRANULARITY)
+
+
+def dense_group(nodes, table):
+    keys_values = []
+    for _, _, _, tags in nodes:
+        for key, value in tags.items():
+            keys_values += [table.index(key), table.index(value)]
+        keys_values.append(0)
+    dense = (packed_sint(1, delta([node[0] for node in nodes]))
+             + packed_sint(8, delta([coordinate(node[1]) for node in nodes]))
+             + packed_sint(9, delta([coordinate(node[2]) for node in nodes]))
+             + packed(10, keys_values))
+    return field_bytes(2, dense)
+
+
+def plain_group(nodes, table):
+    group = b''
+    for node_id, lat, lon, tags in nodes:
+        node = (field_varint(1, zigzag(node_id))
+                + packed(2, [table.index(key) for key in tags])
+                + packed(3, [table.index(value) for value in tags.values()])
+                + field_varint(8, zigzag(coordinate(lat)))
+                + field_varint(9, zigzag(coordinate(lon))))
+        group += field_bytes(1, node)
+    return group
+
+
+def way_group(ways, table):
+    group = b''
+    for way_id, refs, tags in ways:
+        way = (field_varint(1, way_id)
+               + packed(2, [table.index(key) for key in tags])
+               + packed(3, [table.index(value) for value in tags.values()])
+               + packed_sint(8, delta(refs)))
+        group += field_bytes(3, way)
+    return group
+
+
+def primitive_block(group_writers):
+    table = StringTable()
+    groups = b''.join(field_bytes(2, writer(table)) for writer in group_writers)
+    return field_bytes(1, table.encode()) + groups + field_varint(17, GRANULARITY)
+
+
+def blob(block_type, data):
+    compressed = zlib.compress(data, 9)
+    blob_data = field_varint(2, len(data)) + field_bytes(3, compressed)
+    header = field_bytes(1, block_type.encode()) + field_varint(3, len(blob_data))
+    return struct.pack('>i', len(header)) + header + blob_data
+
+
+def header_block():
+    features = field_bytes(4, b'OsmSchema-V0.6') + field_bytes(4, b'DenseNodes')
+    return blob('OSMHeader', features + field_bytes(16, b'write_osm_pbf.py'))
+
+
+def convert(source, target):
+    root = ElementTree.parse(source).getroot()
+    nodes = [(int(node.get('id')), float(node.get('lat')), float(node.get('lon')),
+              {tag.get('k'): tag.get('v') for tag in node.findall('tag')})
+             for node in root.findall('node')]
+    ways = [(int(way.get('id')), [int(nd.get('ref')) for nd in way.findall('nd')],
+             {tag.get('k'): tag.get('v') for tag in way.findall('tag')})
+            for way in root.findall('way')]
+    with open(target, 'wb') as out:
+        out.write(header_block())
+        out.write(blob('OSMData', primitive_block([
+            lambda table: dense_group(nodes[:-1], table),
+            lambda table: plain_group(nodes[-1:], table)])))
+        out.write(blob('OSMData', primitive_block([lambda table: way_group(ways, table)])))
+
+
+if __name__ == '__main__':
+    convert(sys.argv[1], sys.argv[2])